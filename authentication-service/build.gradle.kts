@@ -5,6 +5,7 @@ plugins {
     id("com.google.protobuf") version "0.9.5"
     id("org.springframework.boot") version "3.5.6"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = property("group") as String
@@ -38,10 +39,12 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-webflux")
     implementation("org.springframework.kafka:spring-kafka")
+    implementation("com.bni.orange:kafka-publisher")
     implementation("org.xerial.snappy:snappy-java:1.1.10.5")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-oauth2-resource-server")
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
+    implementation("com.bni.orange:one-time-code")
     implementation("org.flywaydb:flyway-database-postgresql")
     implementation("org.flywaydb:flyway-core")
 
@@ -51,6 +54,7 @@ dependencies {
 
     implementation("io.jsonwebtoken:jjwt-api:0.13.0")
     implementation("org.bouncycastle:bcprov-jdk18on:1.82")
+    implementation("com.google.crypto.tink:tink:1.18.0")
     implementation("com.google.protobuf:protobuf-java:4.31.1")
     implementation("com.google.protobuf:protobuf-java-util:4.31.1")
 
@@ -79,6 +83,13 @@ dependencyManagement {
     }
 }
 
+jmh {
+    warmupIterations = 2
+    iterations = 5
+    fork = 1
+    resultFormat = "JSON"
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
     finalizedBy(tasks.jacocoTestReport)
@@ -1 +1,5 @@
 rootProject.name = "authentication-service"
+
+// Shared libraries, built from source together with this service
+includeBuild("../shared/one-time-code")
+includeBuild("../shared/kafka-publisher")
@@ -0,0 +1,88 @@
+package com.bni.orange.authentication.benchmark;
+
+import com.bni.orange.shared.redis.OneTimeCodeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One OTP issue followed by a successful verify, through {@link OneTimeCodeStore} (one script call each)
+ * against the same steps as separate commands, the way the services ran them before the store existed.
+ * <p>
+ * Needs a Redis to talk to, {@code localhost:6379} unless {@code REDIS_HOST}/{@code REDIS_PORT} say otherwise;
+ * the round-trip count dominates, so run it against a Redis on another host to see the production gap.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=OneTimeCodeStoreBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OneTimeCodeStoreBenchmark {
+
+    private static final String CODE = "123456";
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Duration WINDOW = Duration.ofMinutes(15);
+
+    private final OneTimeCodeStore.Keys keys = new OneTimeCodeStore.Keys(
+        "bench:otp", "bench:otp_locked", "bench:otp_fail_count", "bench:otp_cooldown", "bench:otp:meta");
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private OneTimeCodeStore store;
+
+    @Setup
+    public void setUp() {
+        var host = Objects.requireNonNullElse(System.getenv("REDIS_HOST"), "localhost");
+        var port = Integer.parseInt(Objects.requireNonNullElse(System.getenv("REDIS_PORT"), "6379"));
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        store = new OneTimeCodeStore(redisTemplate);
+    }
+
+    @TearDown
+    public void tearDown() {
+        redisTemplate.delete(List.of(keys.code(), keys.lock(), keys.failCount(), keys.throttle(), keys.meta()));
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public void scripted(Blackhole blackhole) {
+        // The throttle never trips: its window outlives the run and the cap is unreachable
+        blackhole.consume(store.issue(keys, CODE, TTL, WINDOW, Integer.MAX_VALUE, "new@mail.com"));
+        blackhole.consume(store.verify(keys, CODE, 5, WINDOW, false));
+    }
+
+    @Benchmark
+    public void separateCommands(Blackhole blackhole) {
+        var values = redisTemplate.opsForValue();
+
+        blackhole.consume(redisTemplate.hasKey(keys.lock()));
+        blackhole.consume(values.get(keys.throttle()));
+        if (Long.valueOf(1L).equals(values.increment(keys.throttle()))) {
+            redisTemplate.expire(keys.throttle(), WINDOW);
+        }
+        values.set(keys.code(), CODE, TTL);
+        values.set(keys.meta(), "new@mail.com", TTL);
+
+        blackhole.consume(redisTemplate.hasKey(keys.lock()));
+        if (CODE.equals(values.get(keys.code()))) {
+            blackhole.consume(values.get(keys.meta()));
+            blackhole.consume(redisTemplate.delete(List.of(keys.code(), keys.lock(), keys.failCount(), keys.meta())));
+        }
+    }
+}
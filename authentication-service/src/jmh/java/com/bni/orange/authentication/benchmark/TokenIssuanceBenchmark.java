@@ -0,0 +1,98 @@
+package com.bni.orange.authentication.benchmark;
+
+import com.bni.orange.authentication.model.enums.SigningAlgorithm;
+import com.bni.orange.authentication.model.enums.TokenScope;
+import com.bni.orange.authentication.util.SecurityUtils;
+import com.bni.orange.authentication.util.SigningKeyUtil;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify cost per {@link SigningAlgorithm}, using the same encoder and decoder wiring as the service.
+ * {@code issueTokenPair} adds the refresh-token work {@code TokenService.generateTokens} does on the CPU,
+ * leaving out Redis and the database.
+ * <p>
+ * Run with {@code ./gradlew jmh}; add {@code -Pjmh.includes=TokenIssuanceBenchmark.verify} to narrow it down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TokenIssuanceBenchmark {
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+    private static final Base64.Encoder base64Encoder = Base64.getUrlEncoder().withoutPadding();
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public SigningAlgorithm algorithm;
+
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+    private JwsHeader header;
+    private String signedToken;
+
+    @Setup
+    public void setUp() {
+        var key = SigningKeyUtil.toJwk(algorithm, SigningKeyUtil.generateKeyPair(algorithm));
+        encoder = SigningKeyUtil.encoder(key);
+        decoder = SigningKeyUtil.decoder(new JWKSet(key));
+        header = JwsHeader.with(algorithm.getJwsAlgorithm()).build();
+        // Long-lived so the expiry validator never fails mid-run
+        signedToken = sign(Duration.ofDays(1));
+    }
+
+    @Benchmark
+    public String sign() {
+        return sign(Duration.ofMinutes(15));
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return decoder.decode(signedToken);
+    }
+
+    @Benchmark
+    public void issueTokenPair(Blackhole blackhole) {
+        blackhole.consume(sign(Duration.ofMinutes(15)));
+
+        var randomBytes = new byte[32];
+        secureRandom.nextBytes(randomBytes);
+        var refreshToken = base64Encoder.encodeToString(randomBytes);
+        blackhole.consume(refreshToken);
+        blackhole.consume(SecurityUtils.hashToken(refreshToken));
+    }
+
+    private String sign(Duration lifetime) {
+        var now = Instant.now();
+        var claims = JwtClaimsSet.builder()
+            .issuer("auth-service")
+            .issuedAt(now)
+            .expiresAt(now.plus(lifetime))
+            .subject(UUID.randomUUID().toString())
+            .id(UUID.randomUUID().toString())
+            .claim("scope", TokenScope.FULL_ACCESS.getValue())
+            .claim("type", "access")
+            .build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
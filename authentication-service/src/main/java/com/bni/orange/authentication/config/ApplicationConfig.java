@@ -1,9 +1,11 @@
 package com.bni.orange.authentication.config;
 
+import com.bni.orange.shared.redis.OneTimeCodeStore;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 import java.time.OffsetDateTime;
 import java.util.Optional;
@@ -23,4 +25,9 @@ public class ApplicationConfig {
     public Executor virtualThreadTaskExecutor() {
         return Executors.newVirtualThreadPerTaskExecutor();
     }
+
+    @Bean
+    public OneTimeCodeStore oneTimeCodeStore(StringRedisTemplate redisTemplate) {
+        return new OneTimeCodeStore(redisTemplate);
+    }
 }
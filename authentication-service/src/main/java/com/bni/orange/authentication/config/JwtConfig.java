@@ -1,48 +1,72 @@
 package com.bni.orange.authentication.config;
 
+import com.bni.orange.authentication.config.properties.JwtSigningProperties;
 import com.bni.orange.authentication.config.properties.RsaKeyProperties;
-import com.nimbusds.jose.JWSAlgorithm;
+import com.bni.orange.authentication.model.enums.SigningAlgorithm;
+import com.bni.orange.authentication.util.SigningKeyUtil;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.KeyUse;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 
-import java.util.UUID;
+import java.security.KeyPair;
+import java.util.ArrayList;
 
+@Slf4j
 @Configuration
 @RequiredArgsConstructor
-@EnableConfigurationProperties(RsaKeyProperties.class)
+@EnableConfigurationProperties({RsaKeyProperties.class, JwtSigningProperties.class})
 public class JwtConfig {
 
     private final RsaKeyProperties rsaKeyProperties;
+    private final JwtSigningProperties signingProperties;
 
     @Bean
-    public JWKSet jwkSet() {
-        var rsaKey = new RSAKey.Builder(rsaKeyProperties.publicKey())
-            .privateKey(rsaKeyProperties.privateKey())
-            .keyUse(KeyUse.SIGNATURE)
-            .algorithm(JWSAlgorithm.RS256)
-            .keyID(UUID.randomUUID().toString())
-            .build();
-        return new JWKSet(rsaKey);
+    public JWK signingJwk() {
+        var algorithm = signingProperties.algorithm();
+        if (algorithm == SigningAlgorithm.EdDSA) {
+            // The gateway and the resource servers only verify RS256 and ES256; EdDSA tokens would be rejected everywhere
+            throw new IllegalStateException("orange.jwt.signing.algorithm=EdDSA is not accepted by the token verifiers; use RS256 or ES256");
+        }
+        var keyPair = algorithm == SigningAlgorithm.RS256
+            ? rsaKeyPair()
+            : SigningKeyUtil.readKeyPair(algorithm, signingProperties.privateKey(), signingProperties.publicKey());
+
+        var jwk = SigningKeyUtil.toJwk(algorithm, keyPair);
+        log.info("Signing tokens with {} (kid={})", algorithm, jwk.getKeyID());
+        return jwk;
+    }
+
+    /**
+     * Keys published at {@code /oauth2/jwks}: the active signing key, plus the RSA key while another
+     * algorithm is active so tokens signed before the switch keep verifying until they expire.
+     */
+    @Bean
+    public JWKSet jwkSet(JWK signingJwk) {
+        var keys = new ArrayList<JWK>();
+        keys.add(signingJwk);
+        if (signingProperties.algorithm() != SigningAlgorithm.RS256 && rsaKeyProperties.publicKey() != null) {
+            keys.add(SigningKeyUtil.toJwk(SigningAlgorithm.RS256, rsaKeyPair()).toPublicJWK());
+        }
+        return new JWKSet(keys);
     }
 
     @Bean
-    public JwtEncoder jwtEncoder(JWKSet jwkSet) {
-        var jwkSource = new ImmutableJWKSet<>(jwkSet);
-        return new NimbusJwtEncoder(jwkSource);
+    public JwtEncoder jwtEncoder(JWK signingJwk) {
+        return SigningKeyUtil.encoder(signingJwk);
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(rsaKeyProperties.publicKey()).build();
+    public JwtDecoder jwtDecoder(JWKSet jwkSet) {
+        return SigningKeyUtil.decoder(jwkSet);
+    }
+
+    private KeyPair rsaKeyPair() {
+        return new KeyPair(rsaKeyProperties.publicKey(), rsaKeyProperties.privateKey());
     }
-}
\ No newline at end of file
+}
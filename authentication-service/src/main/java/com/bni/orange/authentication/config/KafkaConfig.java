@@ -3,11 +3,15 @@ package com.bni.orange.authentication.config;
 import com.bni.orange.authentication.config.properties.KafkaConsumerProperties;
 import com.bni.orange.authentication.config.properties.KafkaProducerProperties;
 import com.bni.orange.authentication.config.properties.KafkaTopicProperties;
+import com.bni.orange.shared.kafka.EventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +23,9 @@ import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
 
 import java.util.HashMap;
 import java.util.List;
@@ -38,6 +45,9 @@ import java.util.stream.Collectors;
 })
 public class KafkaConfig {
 
+    private static final int BATCH_MAX_RETRIES = 5;
+    private static final String DLT_SUFFIX = "-auth-service-dlt";
+
     private final KafkaProducerProperties producerProps;
     private final KafkaTopicProperties topicProps;
     private final KafkaConsumerProperties consumerProps;
@@ -79,6 +89,16 @@ public class KafkaConfig {
         return Executors.newVirtualThreadPerTaskExecutor();
     }
 
+    @Bean
+    public EventPublisher eventPublisher(
+        KafkaTemplate<String, byte[]> kafkaTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${orange.kafka.publisher.max-in-flight:1000}") int maxInFlight,
+        @Value("${orange.kafka.publisher.acquire-timeout-ms:100}") long acquireTimeoutMs
+    ) {
+        return new EventPublisher(kafkaTemplate, kafkaVirtualThreadExecutor(), meterRegistry, maxInFlight, acquireTimeoutMs);
+    }
+
     @Bean
     public List<NewTopic> kafkaTopics() {
         if (Objects.isNull(topicProps.definitions())) {
@@ -139,4 +159,40 @@ public class KafkaConfig {
             consumerProps.concurrency());
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Publishes a record to {@code <topic>}{@value #DLT_SUFFIX} with the failure in its headers. Used by the batch
+     * error handler, and directly by batch listeners that skip a record without failing the batch.
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer() {
+        return new DeadLetterPublishingRecoverer(kafkaTemplate(),
+            (record, exception) -> new TopicPartition(record.topic() + DLT_SUFFIX, -1));
+    }
+
+    /**
+     * Delivers each poll as one list with a single manual ack for the whole list. A listener failure rewinds
+     * and redelivers the batch with backoff, so batch listeners must be idempotent. After
+     * {@value #BATCH_MAX_RETRIES} retries the records are published to {@code <topic>}{@value #DLT_SUFFIX}
+     * and skipped; a {@code BatchListenerFailedException} narrows that to the one failing record.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(consumerProps.concurrency());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        var backOff = new ExponentialBackOffWithMaxRetries(BATCH_MAX_RETRIES);
+        backOff.setInitialInterval(1000L);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(30_000L);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(deadLetterPublishingRecoverer(), backOff));
+
+        log.info("Kafka batch consumer factory configured with MANUAL ack mode and up to {} records per batch",
+            consumerProps.maxPollRecords());
+        return factory;
+    }
+}
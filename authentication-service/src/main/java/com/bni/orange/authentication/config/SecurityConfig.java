@@ -1,5 +1,6 @@
 package com.bni.orange.authentication.config;
 
+import com.bni.orange.authentication.config.properties.PinHashProperties;
 import com.bni.orange.authentication.error.JwtAuthenticationEntryPoint;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -59,8 +60,14 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+    public PasswordEncoder passwordEncoder(PinHashProperties pinHash) {
+        return new Argon2PasswordEncoder(
+            pinHash.saltLength(),
+            pinHash.hashLength(),
+            pinHash.parallelism(),
+            pinHash.memoryKb(),
+            pinHash.iterations()
+        );
     }
 
     @Bean
@@ -0,0 +1,22 @@
+package com.bni.orange.authentication.config.properties;
+
+import com.bni.orange.authentication.model.enums.SigningAlgorithm;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+/**
+ * Selects the algorithm access and state tokens are signed with. RS256 keeps using the {@code orange.rsa}
+ * key pair; ES256 and EdDSA read a PKCS#8 private key and an X.509 public key in PEM form. While another
+ * algorithm is active the RSA public key stays in the JWKS so tokens issued before the switch still verify.
+ * EdDSA keys can be read, but startup refuses to sign with them until the verifiers accept Ed25519.
+ */
+@ConfigurationProperties(prefix = "orange.jwt.signing")
+public record JwtSigningProperties(
+    SigningAlgorithm algorithm,
+    Resource privateKey,
+    Resource publicKey
+) {
+    public JwtSigningProperties {
+        algorithm = algorithm != null ? algorithm : SigningAlgorithm.RS256;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bni.orange.authentication.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing for the in-memory filter of registered phone numbers. The filter is sized for
+ * {@code max(expectedInsertions, 2 x users at rebuild)} so it stays near its target false-positive rate
+ * between rebuilds. Unset values fall back to the defaults below.
+ * <p>
+ * Negatives are only trusted when {@code trustNegatives} is set; otherwise a number the filter rules out is
+ * still looked up in the database and a hit is counted as a false negative. Turn it on once that counter has
+ * stayed at zero for a while.
+ */
+@ConfigurationProperties(prefix = "orange.phone-filter")
+public record PhoneNumberFilterProperties(
+    Boolean enabled,
+    long expectedInsertions,
+    double falsePositiveRate,
+    int bootstrapPageSize,
+    Duration recentRetention,
+    Boolean trustNegatives
+) {
+    public PhoneNumberFilterProperties {
+        enabled = enabled == null || enabled;
+        expectedInsertions = expectedInsertions > 0 ? expectedInsertions : 1_000_000L;
+        falsePositiveRate = falsePositiveRate > 0 && falsePositiveRate < 1 ? falsePositiveRate : 0.01;
+        bootstrapPageSize = bootstrapPageSize > 0 ? bootstrapPageSize : 5_000;
+        recentRetention = recentRetention != null ? recentRetention : Duration.ofMinutes(10);
+        trustNegatives = trustNegatives != null && trustNegatives;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bni.orange.authentication.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Argon2 work factor for PIN hashes and sizing of the dedicated verification pool.
+ * Unset values fall back to the Spring Security 5.8 Argon2 defaults and one worker per core.
+ */
+@ConfigurationProperties(prefix = "orange.pin-hash")
+public record PinHashProperties(
+    int saltLength,
+    int hashLength,
+    int parallelism,
+    int memoryKb,
+    int iterations,
+    int workers,
+    int queueCapacity,
+    long timeoutMs
+) {
+    public PinHashProperties {
+        saltLength = saltLength > 0 ? saltLength : 16;
+        hashLength = hashLength > 0 ? hashLength : 32;
+        parallelism = parallelism > 0 ? parallelism : 1;
+        memoryKb = memoryKb > 0 ? memoryKb : 1 << 14;
+        iterations = iterations > 0 ? iterations : 2;
+        workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        queueCapacity = queueCapacity > 0 ? queueCapacity : workers * 16;
+        timeoutMs = timeoutMs > 0 ? timeoutMs : 2000L;
+    }
+}
@@ -0,0 +1,28 @@
+package com.bni.orange.authentication.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the Redis refresh-token store, its write-behind to Postgres and the purge of dead rows.
+ * Unset values fall back to the defaults below.
+ */
+@ConfigurationProperties(prefix = "orange.refresh-token")
+public record RefreshTokenProperties(
+    Duration reuseTombstoneTtl,
+    int writeQueueCapacity,
+    int writeBatchSize,
+    int purgeBatchSize,
+    int purgeMaxBatches,
+    int revokedRetentionDays
+) {
+    public RefreshTokenProperties {
+        reuseTombstoneTtl = reuseTombstoneTtl != null ? reuseTombstoneTtl : Duration.ofDays(7);
+        writeQueueCapacity = writeQueueCapacity > 0 ? writeQueueCapacity : 10_000;
+        writeBatchSize = writeBatchSize > 0 ? writeBatchSize : 500;
+        purgeBatchSize = purgeBatchSize > 0 ? purgeBatchSize : 1_000;
+        purgeMaxBatches = purgeMaxBatches > 0 ? purgeMaxBatches : 100;
+        revokedRetentionDays = revokedRetentionDays > 0 ? revokedRetentionDays : 30;
+    }
+}
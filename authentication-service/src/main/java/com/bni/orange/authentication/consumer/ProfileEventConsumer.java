@@ -1,141 +1,150 @@
 package com.bni.orange.authentication.consumer;
 
-import com.bni.orange.authentication.repository.UserRepository;
+import com.bni.orange.authentication.repository.UserProfileSyncRepository;
+import com.bni.orange.authentication.repository.UserProfileSyncRepository.SyncResult;
 import com.bni.orange.users.proto.UserProfileEmailVerifiedEvent;
 import com.bni.orange.users.proto.UserProfileNameUpdatedEvent;
 import com.bni.orange.users.proto.UserProfilePhoneVerifiedEvent;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Mirrors profile changes made in user-service onto auth users, one poll at a time. Each batch is reduced to
+ * the latest value per user and written with a single statement, then acknowledged as a whole; a failed
+ * write leaves the batch uncommitted for the container to redeliver.
+ * <p>
+ * Records that cannot be applied are published to the dead-letter topic before the ack rather than dropped:
+ * unparseable events, and email or phone changes that lost to another user holding the same value, either in
+ * the table or later in the same batch.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ProfileEventConsumer {
 
-    private final UserRepository userRepository;
+    private final UserProfileSyncRepository profileSyncRepository;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final MeterRegistry meterRegistry;
 
     @KafkaListener(
         topics = "user.profile.email-verified",
         groupId = "auth-service-profile-sync",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "batchKafkaListenerContainerFactory"
     )
-    @Transactional
-    public void handleEmailVerified(
-        @Payload byte[] message,
-        @Header(KafkaHeaders.RECEIVED_KEY) String key,
-        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-        @Header(KafkaHeaders.OFFSET) long offset,
-        Acknowledgment acknowledgment
-    ) {
-        try {
-            var event = UserProfileEmailVerifiedEvent.parseFrom(message);
-            var userId = UUID.fromString(event.getUserId());
-
-            log.info("Received email verified event for user: {} (partition: {}, offset: {})",
-                userId, partition, offset);
-
-            userRepository.findById(userId).ifPresentOrElse(
-                user -> {
-                    user.setEmail(event.getEmail());
-                    user.setEmailVerified(true);
-                    userRepository.save(user);
-                    log.info("Email updated for user: {} -> {}", userId, event.getEmail());
-                },
-                () -> log.warn("User not found for email update: {}", userId)
-            );
-
-            acknowledgment.acknowledge();
-        } catch (InvalidProtocolBufferException e) {
-            log.error("Failed to parse email verified event", e);
-            acknowledgment.acknowledge();
-        } catch (Exception e) {
-            log.error("Error processing email verified event", e);
-        }
+    public void handleEmailVerified(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        applyBatch("email", records, acknowledgment, UserProfileEmailVerifiedEvent.parser(),
+            UserProfileEmailVerifiedEvent::getUserId, UserProfileEmailVerifiedEvent::getEmail, true,
+            profileSyncRepository::applyVerifiedEmails);
     }
 
     @KafkaListener(
         topics = "user.profile.phone-verified",
         groupId = "auth-service-profile-sync",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "batchKafkaListenerContainerFactory"
     )
-    @Transactional
-    public void handlePhoneVerified(
-        @Payload byte[] message,
-        @Header(KafkaHeaders.RECEIVED_KEY) String key,
-        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-        @Header(KafkaHeaders.OFFSET) long offset,
-        Acknowledgment acknowledgment
-    ) {
-        try {
-            var event = UserProfilePhoneVerifiedEvent.parseFrom(message);
-            var userId = UUID.fromString(event.getUserId());
-
-            log.info("Received phone verified event for user: {} (partition: {}, offset: {})",
-                userId, partition, offset);
-
-            userRepository.findById(userId).ifPresentOrElse(
-                user -> {
-                    user.setPhoneNumber(event.getPhoneNumber());
-                    user.setPhoneVerified(true);
-                    userRepository.save(user);
-                    log.info("Phone updated for user: {} -> {}", userId, event.getPhoneNumber());
-                },
-                () -> log.warn("User not found for phone update: {}", userId)
-            );
-
-            acknowledgment.acknowledge();
-        } catch (InvalidProtocolBufferException e) {
-            log.error("Failed to parse phone verified event", e);
-            acknowledgment.acknowledge();
-        } catch (Exception e) {
-            log.error("Error processing phone verified event", e);
-        }
+    public void handlePhoneVerified(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        applyBatch("phone", records, acknowledgment, UserProfilePhoneVerifiedEvent.parser(),
+            UserProfilePhoneVerifiedEvent::getUserId, UserProfilePhoneVerifiedEvent::getPhoneNumber, true,
+            profileSyncRepository::applyVerifiedPhones);
     }
 
     @KafkaListener(
         topics = "user.profile.name-updated",
         groupId = "auth-service-profile-sync",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "batchKafkaListenerContainerFactory"
     )
-    @Transactional
-    public void handleNameUpdated(
-        @Payload byte[] message,
-        @Header(KafkaHeaders.RECEIVED_KEY) String key,
-        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-        @Header(KafkaHeaders.OFFSET) long offset,
-        Acknowledgment acknowledgment
-    ) {
-        try {
-            var event = UserProfileNameUpdatedEvent.parseFrom(message);
-            var userId = UUID.fromString(event.getUserId());
+    public void handleNameUpdated(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        applyBatch("name", records, acknowledgment, UserProfileNameUpdatedEvent.parser(),
+            UserProfileNameUpdatedEvent::getUserId, UserProfileNameUpdatedEvent::getName, false,
+            profileSyncRepository::applyNames);
+    }
 
-            log.info("Received name updated event for user: {} (partition: {}, offset: {})", userId, partition, offset);
+    /**
+     * @param uniqueValue whether the column is unique across users, in which case only the latest claim on each
+     *                    value within the batch is kept so the statement cannot collide with itself; the
+     *                    earlier claims are dead-lettered
+     */
+    private <T> void applyBatch(
+        String field,
+        List<ConsumerRecord<String, byte[]>> records,
+        Acknowledgment acknowledgment,
+        Parser<T> parser,
+        Function<T, String> userId,
+        Function<T, String> value,
+        boolean uniqueValue,
+        Function<Map<UUID, String>, SyncResult> writer
+    ) {
+        var startedAt = System.nanoTime();
+        var latest = new LinkedHashMap<UUID, String>();
+        var recordByUser = new HashMap<UUID, ConsumerRecord<String, byte[]>>();
+
+        for (var record : records) {
+            try {
+                var event = parser.parseFrom(record.value());
+                var id = UUID.fromString(userId.apply(event));
+                latest.remove(id);
+                latest.put(id, value.apply(event));
+                recordByUser.put(id, record);
+            } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+                deadLetter(field, "invalid", record, e);
+            }
+        }
 
-            userRepository.findById(userId).ifPresentOrElse(
-                user -> {
-                    user.setName(event.getName());
-                    userRepository.save(user);
-                    log.info("Name updated for user: {} -> {}", userId, event.getName());
-                },
-                () -> log.warn("User not found for name update: {}", userId)
-            );
+        if (uniqueValue) {
+            var ownerByValue = new LinkedHashMap<String, UUID>();
+            latest.forEach((id, v) -> ownerByValue.put(v, id));
+            var superseded = new LinkedHashMap<>(latest);
+            superseded.keySet().removeAll(ownerByValue.values());
+            superseded.forEach((id, v) -> deadLetter(field, "collision", recordByUser.get(id),
+                new IllegalStateException(field + " is claimed by a later event for another user")));
+            latest.keySet().retainAll(ownerByValue.values());
+        }
 
-            acknowledgment.acknowledge();
-        } catch (InvalidProtocolBufferException e) {
-            log.error("Failed to parse name updated event", e);
-            acknowledgment.acknowledge();
-        } catch (Exception e) {
-            log.error("Error processing name updated event", e);
+        var result = writer.apply(latest);
+        for (var id : result.collisions()) {
+            deadLetter(field, "collision", recordByUser.get(id),
+                new IllegalStateException(field + " is already held by another user"));
         }
+        acknowledgment.acknowledge();
+
+        var elapsedNanos = System.nanoTime() - startedAt;
+        Timer.builder("auth.profile_sync.batch")
+            .description("Time to apply one poll of profile events from user-service")
+            .tag("field", field)
+            .register(meterRegistry)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("Profile {} batch applied: records={}, users={}, updated={}, collisions={}, took={}ms",
+            field, records.size(), latest.size(), result.updated(), result.collisions().size(),
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    private void deadLetter(String field, String reason, ConsumerRecord<String, byte[]> record, Exception cause) {
+        log.error("Dead-lettering {} event: {} (partition: {}, offset: {})",
+            field, cause.getMessage(), record.partition(), record.offset(), cause);
+        deadLetterRecoverer.accept(record, cause);
+        Counter.builder("auth.profile_sync.dead_lettered")
+            .description("Profile events from user-service that could not be applied")
+            .tag("field", field)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
     }
 }
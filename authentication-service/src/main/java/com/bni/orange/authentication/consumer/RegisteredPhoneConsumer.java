@@ -0,0 +1,53 @@
+package com.bni.orange.authentication.consumer;
+
+import com.bni.orange.authentication.proto.UserRegisteredEvent;
+import com.bni.orange.authentication.service.lookup.RegisteredPhoneFilter;
+import com.bni.orange.users.proto.UserProfilePhoneVerifiedEvent;
+import com.google.protobuf.InvalidProtocolBufferException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps every instance's {@link RegisteredPhoneFilter} in step with registrations and phone changes handled
+ * elsewhere. Each instance joins a group named after its host and starts from the latest offset, since history
+ * is covered by the filter's database build on start-up. Offsets are never committed, so the group holds no
+ * state and Kafka drops it as soon as the instance leaves.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RegisteredPhoneConsumer {
+
+    private final RegisteredPhoneFilter registeredPhoneFilter;
+
+    @KafkaListener(
+        topics = "${orange.kafka.topics.user-registered:auth.user.registered}",
+        groupId = "auth-service-phone-filter-${HOSTNAME:localhost}",
+        containerFactory = "kafkaListenerContainerFactory",
+        properties = {"auto.offset.reset=latest", "enable.auto.commit=false"}
+    )
+    public void handleUserRegistered(@Payload byte[] message) {
+        try {
+            registeredPhoneFilter.add(UserRegisteredEvent.parseFrom(message).getPhoneNumber());
+        } catch (InvalidProtocolBufferException e) {
+            log.error("Failed to parse user registered event for phone filter", e);
+        }
+    }
+
+    @KafkaListener(
+        topics = "user.profile.phone-verified",
+        groupId = "auth-service-phone-filter-${HOSTNAME:localhost}",
+        containerFactory = "kafkaListenerContainerFactory",
+        properties = {"auto.offset.reset=latest", "enable.auto.commit=false"}
+    )
+    public void handlePhoneVerified(@Payload byte[] message) {
+        try {
+            registeredPhoneFilter.add(UserProfilePhoneVerifiedEvent.parseFrom(message).getPhoneNumber());
+        } catch (InvalidProtocolBufferException e) {
+            log.error("Failed to parse phone verified event for phone filter", e);
+        }
+    }
+}
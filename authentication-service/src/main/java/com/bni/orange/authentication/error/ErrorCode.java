@@ -24,6 +24,8 @@ public enum ErrorCode {
     INVALID_PIN(HttpStatus.UNAUTHORIZED, "AUTH-3002", "The provided PIN is incorrect."),
     INVALID_CURRENT_PIN(HttpStatus.BAD_REQUEST, "AUTH-3003", "The current PIN provided is incorrect."),
     PIN_NOT_SET(HttpStatus.BAD_REQUEST, "AUTH-3004", "PIN has not been set for this account."),
+    PIN_VERIFICATION_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "AUTH-3005", "PIN verification is busy. Please retry shortly."),
+    LOGIN_THROTTLED(HttpStatus.TOO_MANY_REQUESTS, "AUTH-3006", "Too many failed attempts. Please wait before trying again."),
 
     // Token & Session Flow (4xxx)
     INVALID_TOKEN_SCOPE(HttpStatus.FORBIDDEN, "AUTH-4001", "This token does not have the required scope for this action."),
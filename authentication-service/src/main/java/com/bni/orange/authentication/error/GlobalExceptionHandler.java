@@ -3,6 +3,7 @@ package com.bni.orange.authentication.error;
 import com.bni.orange.authentication.model.response.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -32,6 +33,12 @@ public class GlobalExceptionHandler {
             .path(request.getRequestURI())
             .build();
 
+        if (ex instanceof RetryLaterException retryLater) {
+            return ResponseEntity.status(errorCode.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryLater.getRetryAfterSeconds()))
+                .body(response);
+        }
+
         return new ResponseEntity<>(response, errorCode.getStatus());
     }
 
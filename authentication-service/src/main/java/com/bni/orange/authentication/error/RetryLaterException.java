@@ -0,0 +1,17 @@
+package com.bni.orange.authentication.error;
+
+import lombok.Getter;
+
+/**
+ * Business rejection that the client may retry after {@code retryAfterSeconds};
+ * surfaced to HTTP clients as a {@code Retry-After} header.
+ */
+@Getter
+public class RetryLaterException extends BusinessException {
+    private final long retryAfterSeconds;
+
+    public RetryLaterException(ErrorCode errorCode, String customMessage, long retryAfterSeconds) {
+        super(errorCode, customMessage);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
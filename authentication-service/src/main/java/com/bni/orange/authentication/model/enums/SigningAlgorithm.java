@@ -0,0 +1,25 @@
+package com.bni.orange.authentication.model.enums;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import lombok.Getter;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+
+/**
+ * JWS algorithms the service can sign tokens with. Spring's {@link SignatureAlgorithm} has no EdDSA entry,
+ * so that one is carried as a plain {@link JwsAlgorithm} named after the JOSE identifier.
+ */
+@Getter
+public enum SigningAlgorithm {
+    RS256(SignatureAlgorithm.RS256, JWSAlgorithm.RS256),
+    ES256(SignatureAlgorithm.ES256, JWSAlgorithm.ES256),
+    EdDSA(() -> "EdDSA", JWSAlgorithm.EdDSA);
+
+    private final JwsAlgorithm jwsAlgorithm;
+    private final JWSAlgorithm joseAlgorithm;
+
+    SigningAlgorithm(JwsAlgorithm jwsAlgorithm, JWSAlgorithm joseAlgorithm) {
+        this.jwsAlgorithm = jwsAlgorithm;
+        this.joseAlgorithm = joseAlgorithm;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,4 +24,51 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
     void revokeAllByUser(@Param("user") User user);
 
     List<RefreshToken> findAllByUserAndIsRevokedFalse(User user);
-}
\ No newline at end of file
+
+    // A new session's lastUsedAt is its issue time; the row itself may be written well after that
+    @Modifying
+    @Query(value = """
+        INSERT INTO auth_oltp.refresh_tokens
+            (id, user_id, token_hash, expiry_date, ip_address, user_agent, last_used_at, is_revoked, created_at)
+        VALUES
+            (:id, :userId, :tokenHash, :expiryDate, :ipAddress, :userAgent, :lastUsedAt, FALSE, :lastUsedAt)
+        ON CONFLICT (token_hash) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(
+        @Param("id") UUID id,
+        @Param("userId") UUID userId,
+        @Param("tokenHash") String tokenHash,
+        @Param("expiryDate") Instant expiryDate,
+        @Param("ipAddress") String ipAddress,
+        @Param("userAgent") String userAgent,
+        @Param("lastUsedAt") Instant lastUsedAt
+    );
+
+    // Expired rows are skipped: chk_token_expiry rejects any update to them
+    @Modifying
+    @Query("""
+        UPDATE RefreshToken rt SET rt.isRevoked = true, rt.revokedAt = CURRENT_TIMESTAMP
+        WHERE rt.tokenHash = :tokenHash AND rt.isRevoked = false AND rt.expiryDate > CURRENT_TIMESTAMP
+        """)
+    int revokeByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // Only sessions issued up to issuedBefore; one issued after a revoke-all may be written before it is applied
+    @Modifying
+    @Query(value = """
+        UPDATE auth_oltp.refresh_tokens SET is_revoked = TRUE, revoked_at = now()
+        WHERE user_id = :userId AND is_revoked = FALSE AND expiry_date > now() AND created_at <= :issuedBefore
+        """, nativeQuery = true)
+    int revokeAllByUserId(@Param("userId") UUID userId, @Param("issuedBefore") Instant issuedBefore);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM auth_oltp.refresh_tokens
+        WHERE id IN (
+            SELECT id FROM auth_oltp.refresh_tokens
+            WHERE expiry_date < now()
+               OR (is_revoked AND revoked_at < now() - make_interval(days => :retentionDays))
+            LIMIT :batchSize
+        )
+        """, nativeQuery = true)
+    int deleteExpiredOrRevokedBatch(@Param("retentionDays") int retentionDays, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,104 @@
+package com.bni.orange.authentication.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Applies profile changes published by user-service to many users in one {@code UPDATE ... FROM (VALUES ...)}
+ * statement. Users that no longer exist are silently skipped. Changes that would take an email or phone number
+ * already held by another user are skipped too, but reported back so the caller can dead-letter them.
+ */
+@Repository
+public class UserProfileSyncRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public UserProfileSyncRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Outcome of one sync statement.
+     *
+     * @param updated    number of users updated
+     * @param collisions users that exist but were left unchanged because another user holds the value
+     */
+    public record SyncResult(int updated, Set<UUID> collisions) {
+    }
+
+    public SyncResult applyVerifiedEmails(Map<UUID, String> emailsByUserId) {
+        return update(emailsByUserId, """
+            UPDATE auth_oltp.users u
+            SET email = v.value, email_verified = TRUE, updated_at = now()
+            FROM v
+            WHERE u.id = v.id
+              AND NOT EXISTS (SELECT 1 FROM auth_oltp.users o WHERE o.email = v.value AND o.id <> v.id)
+            """);
+    }
+
+    public SyncResult applyVerifiedPhones(Map<UUID, String> phonesByUserId) {
+        return update(phonesByUserId, """
+            UPDATE auth_oltp.users u
+            SET phone_number = v.value, phone_verified = TRUE, updated_at = now()
+            FROM v
+            WHERE u.id = v.id
+              AND NOT EXISTS (SELECT 1 FROM auth_oltp.users o WHERE o.phone_number = v.value AND o.id <> v.id)
+            """);
+    }
+
+    public SyncResult applyNames(Map<UUID, String> namesByUserId) {
+        return update(namesByUserId, """
+            UPDATE auth_oltp.users u
+            SET name = v.value, updated_at = now()
+            FROM v
+            WHERE u.id = v.id
+            """);
+    }
+
+    /**
+     * Runs the update against the values in {@code v} and, in the same statement, lists every existing user in
+     * {@code v} with whether the update touched it. The outer select sees the table as it was before the update,
+     * so an existing user the update skipped is one whose guard failed.
+     */
+    private SyncResult update(Map<UUID, String> valuesByUserId, String updateSql) {
+        if (valuesByUserId.isEmpty()) {
+            return new SyncResult(0, Set.of());
+        }
+
+        var rows = new StringJoiner(", ");
+        var params = new MapSqlParameterSource();
+        var i = 0;
+        for (var entry : valuesByUserId.entrySet()) {
+            rows.add("(CAST(:id%1$d AS uuid), CAST(:value%1$d AS varchar))".formatted(i));
+            params.addValue("id" + i, entry.getKey()).addValue("value" + i, entry.getValue());
+            i++;
+        }
+        var sql = """
+            WITH v(id, value) AS (VALUES %s),
+            updated AS (
+            %s    RETURNING u.id
+            )
+            SELECT v.id, EXISTS (SELECT 1 FROM updated WHERE updated.id = v.id) AS applied
+            FROM v
+            JOIN auth_oltp.users u ON u.id = v.id
+            """.formatted(rows, updateSql);
+
+        var updated = 0;
+        var collisions = new HashSet<UUID>();
+        for (var row : jdbc.queryForList(sql, params)) {
+            if ((Boolean) row.get("applied")) {
+                updated++;
+            } else {
+                collisions.add((UUID) row.get("id"));
+            }
+        }
+        return new SyncResult(updated, collisions);
+    }
+}
@@ -1,9 +1,15 @@
 package com.bni.orange.authentication.repository;
 
 import com.bni.orange.authentication.model.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +18,17 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByPhoneNumber(String phoneNumber);
 
+    @Query("SELECT u.phoneNumber FROM User u WHERE u.phoneNumber > :after ORDER BY u.phoneNumber")
+    List<String> findPhoneNumbersAfter(@Param("after") String after, Limit limit);
+
+    // Skipped if the PIN was changed since it was read, so an upgrade cannot overwrite a newer PIN
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.userPins = :upgradedHash WHERE u.id = :id AND u.userPins = :currentHash")
+    int updatePinIfUnchanged(
+        @Param("id") UUID id,
+        @Param("currentHash") String currentHash,
+        @Param("upgradedHash") String upgradedHash
+    );
+
 }
\ No newline at end of file
@@ -15,9 +15,11 @@ import com.bni.orange.authentication.model.response.StateTokenResponse;
 import com.bni.orange.authentication.model.response.TokenResponse;
 import com.bni.orange.authentication.repository.UserRepository;
 import com.bni.orange.authentication.service.captcha.CaptchaService;
+import com.bni.orange.authentication.service.lookup.RegisteredPhoneFilter;
 import com.bni.orange.authentication.service.redis.PendingRegistrationService;
 import com.bni.orange.authentication.util.ResponseBuilder;
 import com.bni.orange.authentication.validator.PinValidator;
+import com.bni.orange.shared.kafka.EventPublisher;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -50,6 +52,7 @@ public class AuthFlowService {
     private final KafkaTopicProperties topicProperties;
     private final CaptchaService captchaService;
     private final PendingRegistrationService pendingRegistrationService;
+    private final RegisteredPhoneFilter registeredPhoneFilter;
 
     private final Executor virtualThreadTaskExecutor;
 
@@ -66,7 +69,7 @@ public class AuthFlowService {
 
         joinAllAndHandleExceptions(captchaValidation, cooldownCheck);
 
-        var userOpt = userRepository.findByPhoneNumber(normalizedPhoneNumber);
+        var userOpt = findRegisteredUser(normalizedPhoneNumber);
 
         if (userOpt.isPresent()) {
             return processAndSendOtp(userOpt.get().getPhoneNumber(), userOpt.get().getId().toString(), servletRequest, false);
@@ -87,8 +90,7 @@ public class AuthFlowService {
         var captchaValidation = createCaptchaValidationFuture(request.captchaToken(), "login");
         var cooldownCheck = createCooldownCheckFuture(normalizedPhoneNumber, true);
         var userFuture = CompletableFuture.supplyAsync(() ->
-            userRepository
-                .findByPhoneNumber(normalizedPhoneNumber)
+            findRegisteredUser(normalizedPhoneNumber)
                 .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND)), virtualThreadTaskExecutor);
 
         joinAllAndHandleExceptions(captchaValidation, cooldownCheck, userFuture);
@@ -107,8 +109,7 @@ public class AuthFlowService {
 
         var captchaValidation = createCaptchaValidationFuture(request.captchaToken(), "register");
         var userCheck = CompletableFuture.runAsync(
-            () -> userRepository
-                .findByPhoneNumber(normalizedPhoneNumber)
+            () -> findRegisteredUser(normalizedPhoneNumber)
                 .ifPresent(u -> {
                     throw new BusinessException(ErrorCode.USER_ALREADY_EXISTS);
                 }),
@@ -131,7 +132,7 @@ public class AuthFlowService {
     }
 
     private ApiResponse<OtpResponse> processAndSendOtp(String phoneNumber, String userId, HttpServletRequest servletRequest, boolean isPinReset) {
-        var otp = otpService.generateAndStoreOtp(phoneNumber);
+        var otp = otpService.generateAndStoreOtp(phoneNumber, isPinReset);
 
         var otpEvent = DomainEventFactory.createOtpNotificationEvent(phoneNumber, otp, userId);
 
@@ -142,12 +143,6 @@ public class AuthFlowService {
             log.debug("DEV MODE - OTP for {}: {}", phoneNumber, otp);
         }
 
-        if (isPinReset) {
-            otpService.setCooldownReset(phoneNumber);
-        } else {
-            otpService.setCooldown(phoneNumber);
-        }
-
         var data = OtpResponse.builder()
             .channel("whatsapp")
             .expiresIn(300)
@@ -172,7 +167,7 @@ public class AuthFlowService {
             throw new BusinessException(ErrorCode.INVALID_OTP);
         }
 
-        Optional<User> userOpt = userRepository.findByPhoneNumber(normalizedPhoneNumber);
+        Optional<User> userOpt = findRegisteredUser(normalizedPhoneNumber);
         String scope = determineTokenScope(userOpt, purpose, normalizedPhoneNumber);
 
         User userForToken = userOpt.orElseGet(() -> User.builder().phoneNumber(normalizedPhoneNumber).build());
@@ -186,6 +181,24 @@ public class AuthFlowService {
         return ResponseBuilder.success("OTP verified successfully", data, servletRequest);
     }
 
+    /**
+     * Looks the number up in the database unless the registered phone filter rules it out and its negatives
+     * are trusted.
+     */
+    private Optional<User> findRegisteredUser(String phoneNumber) {
+        var mightContain = registeredPhoneFilter.mightContain(phoneNumber);
+        if (!mightContain && registeredPhoneFilter.trustsNegatives()) {
+            return Optional.empty();
+        }
+        var user = userRepository.findByPhoneNumber(phoneNumber);
+        if (mightContain && user.isEmpty()) {
+            registeredPhoneFilter.recordFalsePositive();
+        } else if (!mightContain && user.isPresent()) {
+            registeredPhoneFilter.recordFalseNegative(phoneNumber);
+        }
+        return user;
+    }
+
     private String determineTokenScope(Optional<User> userOpt, String purpose, String phoneNumber) {
         if ("RESET".equals(purpose)) {
             return TokenScope.PIN_RESET.getValue();
@@ -273,6 +286,7 @@ public class AuthFlowService {
             user.setPhoneVerified(true);
             user.setName("New User");
             User savedUser = userRepository.save(user);
+            registeredPhoneFilter.add(savedUser.getPhoneNumber());
             log.info("New user created and saved with ID: {}", savedUser.getId());
 
             var userRegisteredEvent = DomainEventFactory.createUserRegisteredEvent(savedUser);
@@ -1,28 +1,41 @@
 package com.bni.orange.authentication.service;
 
 import com.bni.orange.authentication.config.properties.RedisPrefixProperties;
-import lombok.RequiredArgsConstructor;
+import com.bni.orange.authentication.error.ErrorCode;
+import com.bni.orange.authentication.error.RetryLaterException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class LoginAttemptService {
 
     private static final int MAX_ATTEMPTS = 5;
     private static final int DELAY_BASE = 2;
     private static final int MAX_DELAY_SECONDS = 8;
     private static final int ATTEMPTS_BEFORE_DELAY = 2;
+    private static final String NOT_BEFORE_SUFFIX = ":not-before";
     private final StringRedisTemplate redisTemplate;
     private final RedisPrefixProperties redisProperties;
+    private final Counter delayedAttempts;
+    private final Counter rejectedAttempts;
+
+    public LoginAttemptService(StringRedisTemplate redisTemplate, RedisPrefixProperties redisProperties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisProperties = redisProperties;
+        this.delayedAttempts = Counter.builder("auth.login.delay.scheduled")
+            .description("Failed logins that put the next attempt behind a progressive delay")
+            .register(meterRegistry);
+        this.rejectedAttempts = Counter.builder("auth.login.delay.rejected")
+            .description("Login attempts rejected because their progressive delay had not elapsed")
+            .register(meterRegistry);
+    }
 
     public void loginFailed(String key) {
         var failKey = redisProperties.prefix().pinFailCount() + key;
@@ -34,12 +47,16 @@ public class LoginAttemptService {
             redisTemplate.delete(failKey);
         } else {
             redisTemplate.expire(failKey, Duration.ofMinutes(15));
+            if (attempts != null && attempts >= ATTEMPTS_BEFORE_DELAY) {
+                scheduleNotBefore(key, attempts);
+            }
         }
     }
 
     public void loginSucceeded(String key) {
         redisTemplate.delete(redisProperties.prefix().pinFailCount() + key);
         redisTemplate.delete(redisProperties.prefix().pinLocked() + key);
+        redisTemplate.delete(notBeforeKey(key));
     }
 
     public boolean isLocked(String key) {
@@ -53,23 +70,35 @@ public class LoginAttemptService {
         return (int) Math.max(0, MAX_ATTEMPTS - attempts);
     }
 
-
+    /**
+     * Rejects the attempt with a Retry-After hint while the delay earned by earlier failures is still running,
+     * instead of parking the request thread until it elapses.
+     */
     public void applyProgressiveDelay(String key) {
-        var failKey = redisProperties.prefix().pinFailCount() + key;
-        long attempts = Optional.ofNullable(redisTemplate.opsForValue().get(failKey))
+        var notBefore = Optional.ofNullable(redisTemplate.opsForValue().get(notBeforeKey(key)))
             .map(Long::parseLong)
             .orElse(0L);
+        var remainingMillis = notBefore - System.currentTimeMillis();
 
-        if (attempts >= ATTEMPTS_BEFORE_DELAY) {
-            long delaySeconds = Math.min((long) Math.pow(DELAY_BASE, attempts - 1), MAX_DELAY_SECONDS);
-
-            try {
-                log.debug("Applying progressive delay of {} seconds for key: {}", delaySeconds, key);
-                CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delaySeconds, TimeUnit.SECONDS)).get();
-            } catch (InterruptedException | ExecutionException e) {
-                log.warn("Progressive delay interrupted for key: {}", key, e);
-                Thread.currentThread().interrupt();
-            }
+        if (remainingMillis > 0) {
+            var retryAfterSeconds = Math.ceilDiv(remainingMillis, 1000L);
+            rejectedAttempts.increment();
+            log.debug("Rejecting attempt for key: {}, progressive delay has {} seconds left", key, retryAfterSeconds);
+            throw new RetryLaterException(ErrorCode.LOGIN_THROTTLED,
+                String.format("Too many failed attempts. Please try again in %d seconds.", retryAfterSeconds),
+                retryAfterSeconds);
         }
     }
-}
\ No newline at end of file
+
+    private void scheduleNotBefore(String key, long attempts) {
+        long delaySeconds = Math.min((long) Math.pow(DELAY_BASE, attempts - 1), MAX_DELAY_SECONDS);
+        var notBefore = System.currentTimeMillis() + Duration.ofSeconds(delaySeconds).toMillis();
+        redisTemplate.opsForValue().set(notBeforeKey(key), String.valueOf(notBefore), Duration.ofSeconds(delaySeconds));
+        delayedAttempts.increment();
+        log.debug("Next attempt for key: {} delayed by {} seconds", key, delaySeconds);
+    }
+
+    private String notBeforeKey(String key) {
+        return redisProperties.prefix().pinFailCount() + key + NOT_BEFORE_SUFFIX;
+    }
+}
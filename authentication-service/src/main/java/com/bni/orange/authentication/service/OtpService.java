@@ -3,6 +3,7 @@ package com.bni.orange.authentication.service;
 import com.bni.orange.authentication.config.properties.RedisPrefixProperties;
 import com.bni.orange.authentication.error.BusinessException;
 import com.bni.orange.authentication.error.ErrorCode;
+import com.bni.orange.shared.redis.OneTimeCodeStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
@@ -24,74 +25,57 @@ public class OtpService {
 
     private final StringRedisTemplate redisTemplate;
     private final RedisPrefixProperties redisProperties;
+    private final OneTimeCodeStore oneTimeCodeStore;
 
-    public String generateAndStoreOtp(String phoneNumber) {
-        if (isOtpLocked(phoneNumber)) {
-            throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
-        }
-
+    public String generateAndStoreOtp(String phoneNumber, boolean isPinReset) {
         var otp = String.format("%06d", random.nextInt(OTP_MAX_VALUE));
-        redisTemplate.opsForValue().set(redisProperties.prefix().otp() + phoneNumber, otp, OTP_VALIDITY_DURATION);
-        return otp;
-    }
-
-    public boolean isOtpValid(String phoneNumber, String otp) {
-        if (isOtpLocked(phoneNumber)) {
-            throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
-        }
-
-        var storedOtp = redisTemplate.opsForValue().get(redisProperties.prefix().otp() + phoneNumber);
+        var cooldownKey = isPinReset ? cooldownResetKey(phoneNumber) : cooldownKey(phoneNumber);
 
-        if (otp.equals(storedOtp)) {
-            redisTemplate.delete(redisProperties.prefix().otp() + phoneNumber);
-            clearOtpFailures(phoneNumber);
-            return true;
-        }
+        var result = oneTimeCodeStore.issue(keys(phoneNumber, cooldownKey), otp, OTP_VALIDITY_DURATION, OTP_COOLDOWN_DURATION, 1, null);
 
-        incrementOtpFailures(phoneNumber);
-        return false;
+        return switch (result.outcome()) {
+            case OK -> otp;
+            case LOCKED -> throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
+            default -> throw new BusinessException(isPinReset ? ErrorCode.OTP_COOLDOWN_RESET : ErrorCode.OTP_COOLDOWN);
+        };
     }
 
-    public boolean isCooldown(String phoneNumber) {
-        return redisTemplate.hasKey(redisProperties.prefix().otpCooldown() + phoneNumber);
+    public boolean isOtpValid(String phoneNumber, String otp) {
+        var result = oneTimeCodeStore.verify(keys(phoneNumber, cooldownKey(phoneNumber)), otp,
+            MAX_OTP_ATTEMPTS, Duration.ofMinutes(OTP_LOCK_DURATION_MINUTES), true);
+
+        return switch (result.outcome()) {
+            case OK -> true;
+            case LOCKED, JUST_LOCKED -> throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
+            default -> false;
+        };
     }
 
-    public void setCooldown(String phoneNumber) {
-        redisTemplate.opsForValue().set(redisProperties.prefix().otpCooldown() + phoneNumber, "true", OTP_COOLDOWN_DURATION);
+    public boolean isCooldown(String phoneNumber) {
+        return redisTemplate.hasKey(cooldownKey(phoneNumber));
     }
 
     public boolean isCooldownReset(String phoneNumber) {
-        return redisTemplate.hasKey(redisProperties.prefix().otpCooldown() + "reset:" + phoneNumber);
+        return redisTemplate.hasKey(cooldownResetKey(phoneNumber));
     }
 
-    public void setCooldownReset(String phoneNumber) {
-        redisTemplate.opsForValue().set(redisProperties.prefix().otpCooldown() + "reset:" + phoneNumber, "true", OTP_COOLDOWN_DURATION);
+    private OneTimeCodeStore.Keys keys(String phoneNumber, String throttleKey) {
+        var otpKey = redisProperties.prefix().otp() + phoneNumber;
+        return new OneTimeCodeStore.Keys(
+            otpKey,
+            redisProperties.prefix().otpLocked() + phoneNumber,
+            redisProperties.prefix().otpFailCount() + phoneNumber,
+            throttleKey,
+            otpKey + ":meta"
+        );
     }
 
-    private boolean isOtpLocked(String phoneNumber) {
-        return redisTemplate.hasKey(redisProperties.prefix().otpLocked() + phoneNumber);
-    }
-
-    private void incrementOtpFailures(String phoneNumber) {
-        var failKey = redisProperties.prefix().otpFailCount() + phoneNumber;
-        var attempts = redisTemplate.opsForValue().increment(failKey);
-
-        if (attempts != null && attempts >= MAX_OTP_ATTEMPTS) {
-            redisTemplate.opsForValue().set(
-                redisProperties.prefix().otpLocked() + phoneNumber,
-                "true",
-                Duration.ofMinutes(OTP_LOCK_DURATION_MINUTES)
-            );
-            redisTemplate.delete(failKey);
-            throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
-        } else {
-            redisTemplate.expire(failKey, Duration.ofMinutes(OTP_LOCK_DURATION_MINUTES));
-        }
+    private String cooldownKey(String phoneNumber) {
+        return redisProperties.prefix().otpCooldown() + phoneNumber;
     }
 
-    private void clearOtpFailures(String phoneNumber) {
-        redisTemplate.delete(redisProperties.prefix().otpFailCount() + phoneNumber);
-        redisTemplate.delete(redisProperties.prefix().otpLocked() + phoneNumber);
+    private String cooldownResetKey(String phoneNumber) {
+        return redisProperties.prefix().otpCooldown() + "reset:" + phoneNumber;
     }
 
     public int getOtpAttemptsLeft(String phoneNumber) {
@@ -27,6 +27,8 @@ public class PinService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final PinValidator pinValidator;
+    private final PinVerificationEngine pinVerificationEngine;
+    private final TokenService tokenService;
 
     @Transactional
     public ApiResponse<Void> changePin(UUID userId, PinChangeRequest request, HttpServletRequest servletRequest) {
@@ -43,6 +45,7 @@ public class PinService {
         userRepository.save(user);
 
         refreshTokenRepository.revokeAllByUser(user);
+        tokenService.revokeAllInStore(userId);
 
         return ResponseBuilder.success("PIN changed successfully", servletRequest);
     }
@@ -60,16 +63,25 @@ public class PinService {
         return ResponseBuilder.success("PIN reset successfully", servletRequest);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Deliberately not transactional: the engine may wait up to its timeout for a hashing worker, and
+     * that wait must not hold a database connection. The upgraded hash is written in its own short update.
+     */
     public ApiResponse<PinVerifyResponse> verifyPin(UUID userId, PinVerifyRequest request, HttpServletRequest servletRequest) {
         var user = userRepository.findById(userId)
             .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
 
-        if (user.getUserPins() == null || user.getUserPins().isEmpty()) {
+        var currentHash = user.getUserPins();
+        if (currentHash == null || currentHash.isEmpty()) {
             throw new BusinessException(ErrorCode.PIN_NOT_SET);
         }
 
-        var response = passwordEncoder.matches(request.pin(), user.getUserPins())
+        var result = pinVerificationEngine.verify(request.pin(), currentHash);
+        if (result.upgraded()) {
+            userRepository.updatePinIfUnchanged(userId, currentHash, result.upgradedHash());
+        }
+
+        var response = result.matched()
             ? PinVerifyResponse.success()
             : PinVerifyResponse.failed();
 
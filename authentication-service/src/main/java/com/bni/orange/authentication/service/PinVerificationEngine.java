@@ -0,0 +1,132 @@
+package com.bni.orange.authentication.service;
+
+import com.bni.orange.authentication.config.properties.PinHashProperties;
+import com.bni.orange.authentication.error.BusinessException;
+import com.bni.orange.authentication.error.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs PIN hash comparisons on a bounded, core-sized pool so bursts of verifications
+ * cannot starve request threads. Saturation is reported as {@link ErrorCode#PIN_VERIFICATION_BUSY}
+ * instead of queueing without limit, and hashes created with an older work factor are re-encoded
+ * on a successful match. {@link #verify} blocks the caller for at most {@code timeoutMs}; call it outside
+ * any database transaction so the wait does not pin a connection.
+ */
+@Slf4j
+@Component
+public class PinVerificationEngine {
+
+    public record Result(boolean matched, String upgradedHash) {
+
+        public boolean upgraded() {
+            return upgradedHash != null;
+        }
+    }
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejected;
+    private final Counter upgrades;
+
+    public PinVerificationEngine(PasswordEncoder passwordEncoder, PinHashProperties properties, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = properties.timeoutMs();
+        this.executor = new ThreadPoolExecutor(
+            properties.workers(),
+            properties.workers(),
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.queueCapacity()),
+            Thread.ofPlatform().name("pin-verify-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("auth.pin.verify.queue.depth", executor, e -> e.getQueue().size())
+            .description("PIN verifications waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("auth.pin.verify.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("PIN verifications currently hashing")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.pin.verify.wait")
+            .description("Time a PIN verification spends queued before a worker picks it up")
+            .register(meterRegistry);
+        this.hashTimer = Timer.builder("auth.pin.verify.duration")
+            .description("Time spent hashing a PIN, including any re-encoding")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("auth.pin.verify.rejected")
+            .description("PIN verifications rejected because the pool was saturated or too slow")
+            .register(meterRegistry);
+        this.upgrades = Counter.builder("auth.pin.hash.upgraded")
+            .description("PIN hashes re-encoded with the current work factor")
+            .register(meterRegistry);
+
+        log.info("PIN verification pool started with {} workers and queue capacity {}",
+            properties.workers(), properties.queueCapacity());
+    }
+
+    public Result verify(String rawPin, String encodedPin) {
+        var submittedAt = System.nanoTime();
+        Future<Result> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(() -> match(rawPin, encodedPin));
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusinessException(ErrorCode.PIN_VERIFICATION_BUSY);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            log.warn("PIN verification did not complete within {} ms", timeoutMs);
+            throw new BusinessException(ErrorCode.PIN_VERIFICATION_BUSY);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.PIN_VERIFICATION_BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new BusinessException(ErrorCode.GENERAL_ERROR, e.getCause().getMessage());
+        }
+    }
+
+    private Result match(String rawPin, String encodedPin) {
+        if (!passwordEncoder.matches(rawPin, encodedPin)) {
+            return new Result(false, null);
+        }
+        if (!passwordEncoder.upgradeEncoding(encodedPin)) {
+            return new Result(true, null);
+        }
+        upgrades.increment();
+        return new Result(true, passwordEncoder.encode(rawPin));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -6,23 +6,31 @@ import com.bni.orange.authentication.model.response.ApiResponse;
 import com.bni.orange.authentication.model.response.SessionResponse;
 import com.bni.orange.authentication.repository.RefreshTokenRepository;
 import com.bni.orange.authentication.repository.UserRepository;
+import com.bni.orange.authentication.service.redis.RefreshTokenStore;
+import com.bni.orange.authentication.service.session.RefreshTokenWriteBehind;
 import com.bni.orange.authentication.util.ResponseBuilder;
 import com.bni.orange.authentication.util.SecurityUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SessionService {
 
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    private final RefreshTokenWriteBehind refreshTokenWriteBehind;
 
     @Transactional(readOnly = true)
     public ApiResponse<List<SessionResponse>> getUserSessions(UUID userId, String currentRefreshToken, HttpServletRequest servletRequest) {
@@ -35,22 +43,41 @@ public class SessionService {
 
         final var currentTokenHash = SecurityUtils.hashToken(currentRefreshToken);
 
-        var sessions = refreshTokenRepository.findAllByUserAndIsRevokedFalse(user).stream()
-            .map(token -> SessionResponse.builder()
-                .sessionId(token.getId())
-                .ipAddress(token.getIpAddress())
-                .userAgent(token.getUserAgent())
-                .lastUsedAt(token.getLastUsedAt())
-                .isCurrent(token.getTokenHash().equals(currentTokenHash))
+        var sessions = findActiveInStore(userId).stream()
+            .map(session -> SessionResponse.builder()
+                .sessionId(session.sessionId())
+                .ipAddress(session.ipAddress())
+                .userAgent(session.userAgent())
+                .lastUsedAt(session.lastUsedAt())
+                .isCurrent(session.tokenHash().equals(currentTokenHash))
                 .build()
             )
             .collect(Collectors.toList());
 
+        if (sessions.isEmpty()) {
+            sessions = refreshTokenRepository.findAllByUserAndIsRevokedFalse(user).stream()
+                .map(token -> SessionResponse.builder()
+                    .sessionId(token.getId())
+                    .ipAddress(token.getIpAddress())
+                    .userAgent(token.getUserAgent())
+                    .lastUsedAt(token.getLastUsedAt())
+                    .isCurrent(token.getTokenHash().equals(currentTokenHash))
+                    .build()
+                )
+                .collect(Collectors.toList());
+        }
+
         return ResponseBuilder.success("Active sessions retrieved successfully", sessions, servletRequest);
     }
 
     @Transactional
     public ApiResponse<Void> terminateSession(UUID userId, UUID sessionId, HttpServletRequest servletRequest) {
+        var terminatedHash = terminateInStore(userId, sessionId);
+        if (terminatedHash.isPresent()) {
+            refreshTokenWriteBehind.enqueue(new RefreshTokenWriteBehind.Revoke(terminatedHash.get()));
+            return ResponseBuilder.success("Session terminated successfully", servletRequest);
+        }
+
         var token = refreshTokenRepository.findById(sessionId)
             .orElseThrow(() -> new BusinessException(ErrorCode.SESSION_NOT_FOUND));
 
@@ -64,4 +91,22 @@ public class SessionService {
 
         return ResponseBuilder.success("Session terminated successfully", servletRequest);
     }
-}
\ No newline at end of file
+
+    private List<RefreshTokenStore.Session> findActiveInStore(UUID userId) {
+        try {
+            return refreshTokenStore.findActive(userId);
+        } catch (DataAccessException e) {
+            log.warn("Refresh-token store unavailable, listing sessions from the database: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private Optional<String> terminateInStore(UUID userId, UUID sessionId) {
+        try {
+            return refreshTokenStore.terminate(userId, sessionId);
+        } catch (DataAccessException e) {
+            log.warn("Refresh-token store unavailable, terminating session in the database: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
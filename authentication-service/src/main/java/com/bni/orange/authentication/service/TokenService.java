@@ -1,19 +1,24 @@
 package com.bni.orange.authentication.service;
 
 import com.bni.orange.authentication.config.properties.JwtProperties;
+import com.bni.orange.authentication.config.properties.JwtSigningProperties;
 import com.bni.orange.authentication.config.properties.RedisPrefixProperties;
 import com.bni.orange.authentication.error.BusinessException;
 import com.bni.orange.authentication.error.ErrorCode;
-import com.bni.orange.authentication.model.entity.RefreshToken;
 import com.bni.orange.authentication.model.entity.User;
 import com.bni.orange.authentication.model.enums.TokenScope;
 import com.bni.orange.authentication.model.response.ApiResponse;
 import com.bni.orange.authentication.model.response.TokenResponse;
 import com.bni.orange.authentication.repository.RefreshTokenRepository;
+import com.bni.orange.authentication.service.redis.RefreshTokenStore;
+import com.bni.orange.authentication.service.session.RefreshTokenWriteBehind;
 import com.bni.orange.authentication.util.ResponseBuilder;
 import com.bni.orange.authentication.util.SecurityUtils;
+import com.bni.orange.shared.redis.OneTimeCodeStore;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.stereotype.Service;
@@ -25,9 +30,11 @@ import java.time.Instant;
 import java.util.Base64;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 
 import static com.bni.orange.authentication.util.SecurityUtils.hashToken;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TokenService {
@@ -37,15 +44,19 @@ public class TokenService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final BlacklistService blacklistService;
     private final JwtProperties jwtProperties;
+    private final JwtSigningProperties jwtSigningProperties;
     private final StringRedisTemplate redisTemplate;
     private final RedisPrefixProperties redisProperties;
+    private final OneTimeCodeStore oneTimeCodeStore;
+    private final RefreshTokenStore refreshTokenStore;
+    private final RefreshTokenWriteBehind refreshTokenWriteBehind;
 
     private final JwtEncoder jwtEncoder;
     private final JwtDecoder jwtDecoder;
 
     public String generateStateToken(User user, String scope) {
         var now = Instant.now();
-        var jti = java.util.UUID.randomUUID().toString();
+        var jti = UUID.randomUUID().toString();
 
         var stateTokenKey = redisProperties.prefix().stateToken() + jti;
         redisTemplate.opsForValue().set(stateTokenKey, "active", jwtProperties.stateTokenDuration());
@@ -67,7 +78,7 @@ public class TokenService {
             .claim("scope", scope)
             .claim("type", "state")
             .build();
-        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        return encode(claims);
     }
 
     public Jwt decodeStateToken(String tokenValue) {
@@ -80,24 +91,62 @@ public class TokenService {
 
     public void consumeStateToken(String jti) {
         var stateTokenKey = redisProperties.prefix().stateToken() + jti;
-        var status = redisTemplate.opsForValue().get(stateTokenKey);
 
-        if (Objects.isNull(status)) {
-            throw new BusinessException(ErrorCode.INVALID_TOKEN_SCOPE, "State token has expired or already been used");
+        switch (oneTimeCodeStore.consume(stateTokenKey, "active")) {
+            case OK -> { }
+            case NOT_FOUND -> throw new BusinessException(ErrorCode.INVALID_TOKEN_SCOPE, "State token has expired or already been used");
+            default -> throw new BusinessException(ErrorCode.INVALID_TOKEN_SCOPE, "State token has already been used");
         }
-
-        if (!"active".equals(status)) {
-            throw new BusinessException(ErrorCode.INVALID_TOKEN_SCOPE, "State token has already been used");
-        }
-
-        redisTemplate.delete(stateTokenKey);
     }
 
 
     @Transactional
     public ApiResponse<TokenResponse> rotateRefreshToken(String oldRefreshTokenString, HttpServletRequest request) {
         var oldTokenHash = SecurityUtils.hashToken(oldRefreshTokenString);
+        var ipAddress = Optional.ofNullable(request.getHeader("X-FORWARDED-FOR")).orElse(request.getRemoteAddr());
+        var userAgent = request.getHeader("User-Agent");
+
+        var refreshTokenString = generateRefreshToken();
+        var candidate = newSession(null, refreshTokenString, ipAddress, userAgent);
 
+        Optional<RefreshTokenStore.Rotation> rotation;
+        try {
+            rotation = refreshTokenStore.rotate(oldTokenHash, candidate);
+        } catch (DataAccessException e) {
+            log.warn("Refresh-token store unavailable, rotating against the database: {}", e.getMessage());
+            rotation = Optional.empty();
+        }
+
+        if (rotation.isEmpty()) {
+            return rotateFromDatabase(oldTokenHash, ipAddress, userAgent, request);
+        }
+
+        var userId = rotation.get().userId();
+        switch (rotation.get().status()) {
+            case REUSED -> {
+                refreshTokenWriteBehind.enqueue(new RefreshTokenWriteBehind.RevokeAll(userId));
+                throw new BusinessException(ErrorCode.TOKEN_REUSE_DETECTED);
+            }
+            case EXPIRED -> throw new BusinessException(ErrorCode.REFRESH_TOKEN_EXPIRED);
+            case ROTATED -> { }
+        }
+
+        var next = candidate.withUserId(userId);
+        refreshTokenWriteBehind.enqueue(new RefreshTokenWriteBehind.Revoke(oldTokenHash));
+        refreshTokenWriteBehind.enqueue(new RefreshTokenWriteBehind.Insert(next));
+
+        var tokenResponse = TokenResponse.builder()
+            .accessToken(generateAccessToken(userId))
+            .refreshToken(refreshTokenString)
+            .expiresIn(jwtProperties.accessTokenDuration().toSeconds())
+            .build();
+        return ResponseBuilder.success("Token refreshed successfully", tokenResponse, request);
+    }
+
+    /**
+     * Handles tokens issued before the Redis store existed, or any rotation while Redis is unreachable.
+     */
+    private ApiResponse<TokenResponse> rotateFromDatabase(String oldTokenHash, String ipAddress, String userAgent, HttpServletRequest request) {
         var activeTokenOpt = refreshTokenRepository.findByTokenHashAndIsRevokedFalse(oldTokenHash);
 
         if (activeTokenOpt.isPresent()) {
@@ -112,17 +161,16 @@ public class TokenService {
             refreshToken.setRevokedAt(Instant.now());
             refreshTokenRepository.save(refreshToken);
 
-            var user = refreshToken.getUser();
-            var ipAddress = Optional.ofNullable(request.getHeader("X-FORWARDED-FOR")).orElse(request.getRemoteAddr());
-            var userAgent = request.getHeader("User-Agent");
-
-            var tokenResponse = generateTokens(user, ipAddress, userAgent);
+            var tokenResponse = generateTokens(refreshToken.getUser(), ipAddress, userAgent);
             return ResponseBuilder.success("Token refreshed successfully", tokenResponse, request);
         }
 
         refreshTokenRepository
             .findByTokenHash(oldTokenHash)
-            .ifPresent(refreshToken -> refreshTokenRepository.revokeAllByUser(refreshToken.getUser()));
+            .ifPresent(refreshToken -> {
+                refreshTokenRepository.revokeAllByUser(refreshToken.getUser());
+                revokeAllInStore(refreshToken.getUser().getId());
+            });
 
         throw new BusinessException(ErrorCode.TOKEN_REUSE_DETECTED);
     }
@@ -140,46 +188,76 @@ public class TokenService {
 
         if (refreshTokenString != null && !refreshTokenString.isBlank()) {
             var tokenHash = hashToken(refreshTokenString);
-            refreshTokenRepository.findByTokenHash(tokenHash).ifPresent(refreshTokenRepository::delete);
+            try {
+                refreshTokenStore.revoke(tokenHash);
+            } catch (DataAccessException e) {
+                log.error("Failed to revoke Redis session on logout", e);
+            }
+            refreshTokenWriteBehind.enqueue(new RefreshTokenWriteBehind.Revoke(tokenHash));
         }
 
         return ResponseBuilder.success("Successfully logged out", request);
     }
 
     public TokenResponse generateTokens(User user, String ipAddress, String userAgent) {
-        var accessToken = generateAccessToken(user);
         var refreshTokenString = generateRefreshToken();
+        var session = newSession(user.getId(), refreshTokenString, ipAddress, userAgent);
 
-        var refreshToken = RefreshToken.builder()
-            .user(user)
-            .tokenHash(hashToken(refreshTokenString))
-            .expiryDate(Instant.now().plus(jwtProperties.refreshTokenDuration()))
-            .ipAddress(ipAddress)
-            .userAgent(userAgent)
-            .lastUsedAt(Instant.now())
-            .build();
-        refreshTokenRepository.save(refreshToken);
+        try {
+            refreshTokenStore.save(session);
+            refreshTokenWriteBehind.enqueue(new RefreshTokenWriteBehind.Insert(session));
+        } catch (DataAccessException e) {
+            log.warn("Refresh-token store unavailable, persisting session {} directly: {}", session.sessionId(), e.getMessage());
+            refreshTokenRepository.insertIfAbsent(session.sessionId(), session.userId(), session.tokenHash(),
+                session.expiresAt(), session.ipAddress(), session.userAgent(), session.lastUsedAt());
+        }
 
         return TokenResponse.builder()
-            .accessToken(accessToken)
+            .accessToken(generateAccessToken(user.getId()))
             .refreshToken(refreshTokenString)
             .expiresIn(jwtProperties.accessTokenDuration().toSeconds())
             .build();
     }
 
-    private String generateAccessToken(User user) {
+    public void revokeAllInStore(UUID userId) {
+        try {
+            refreshTokenStore.revokeAll(userId);
+        } catch (DataAccessException e) {
+            log.error("Failed to revoke Redis sessions for user {}", userId, e);
+        }
+    }
+
+    private RefreshTokenStore.Session newSession(UUID userId, String refreshTokenString, String ipAddress, String userAgent) {
+        var now = Instant.now();
+        return new RefreshTokenStore.Session(
+            UUID.randomUUID(),
+            userId,
+            hashToken(refreshTokenString),
+            now.plus(jwtProperties.refreshTokenDuration()),
+            Objects.toString(ipAddress, ""),
+            Objects.toString(userAgent, ""),
+            now
+        );
+    }
+
+    private String generateAccessToken(UUID userId) {
         var now = Instant.now();
-        var jti = java.util.UUID.randomUUID().toString();
+        var jti = UUID.randomUUID().toString();
         var claims = JwtClaimsSet.builder()
             .issuer("auth-service")
             .issuedAt(now)
             .expiresAt(now.plus(jwtProperties.accessTokenDuration()))
-            .subject(user.getId().toString())
+            .subject(userId.toString())
             .id(jti)
             .claim("scope", TokenScope.FULL_ACCESS.getValue())
             .claim("type", "access")
             .build();
-        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        return encode(claims);
+    }
+
+    private String encode(JwtClaimsSet claims) {
+        var header = JwsHeader.with(jwtSigningProperties.algorithm().getJwsAlgorithm()).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
     }
 
     private String generateRefreshToken() {
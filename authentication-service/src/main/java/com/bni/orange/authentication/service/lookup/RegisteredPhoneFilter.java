@@ -0,0 +1,253 @@
+package com.bni.orange.authentication.service.lookup;
+
+import com.bni.orange.authentication.config.properties.PhoneNumberFilterProperties;
+import com.bni.orange.authentication.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the SHA-256 of every registered phone number, so lookups for numbers that were never
+ * registered can be answered without touching Postgres. A negative answer is definite; a positive one still
+ * needs the database. Until the first build completes every number is reported as possibly present.
+ * <p>
+ * Numbers added while a rebuild is scanning are remembered for {@code recentRetention} and replayed into the
+ * new filter after the swap, so a registration whose transaction commits after the scan is not lost.
+ * <p>
+ * Registrations handled by other instances arrive through a consumer that does not keep offsets, so anything
+ * published while this instance was down is only picked up by the database build on start-up. Callers should
+ * therefore ask {@link #trustsNegatives()} before acting on a negative answer.
+ */
+@Slf4j
+@Component
+public class RegisteredPhoneFilter {
+
+    private final UserRepository userRepository;
+    private final PhoneNumberFilterProperties properties;
+    private final Executor virtualThreadTaskExecutor;
+
+    private final Map<String, Instant> recentlyAdded = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile Bits bits;
+
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter bypassed;
+    private final Counter falsePositives;
+    private final Counter falseNegatives;
+    private final Timer rebuildTimer;
+
+    public RegisteredPhoneFilter(
+        UserRepository userRepository,
+        PhoneNumberFilterProperties properties,
+        Executor virtualThreadTaskExecutor,
+        MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.virtualThreadTaskExecutor = virtualThreadTaskExecutor;
+
+        this.negatives = lookupCounter(meterRegistry, "negative");
+        this.positives = lookupCounter(meterRegistry, "positive");
+        this.bypassed = lookupCounter(meterRegistry, "bypassed");
+        this.falsePositives = Counter.builder("auth.phone_filter.false_positives")
+            .description("Positive filter answers for numbers the database did not contain")
+            .register(meterRegistry);
+        this.falseNegatives = Counter.builder("auth.phone_filter.false_negatives")
+            .description("Negative filter answers for numbers the database did contain")
+            .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("auth.phone_filter.rebuild")
+            .description("Time taken to rebuild the registered phone filter from the database")
+            .register(meterRegistry);
+        Gauge.builder("auth.phone_filter.entries", this, f -> f.bits == null ? 0 : f.bits.insertions.get())
+            .description("Phone numbers inserted into the current filter")
+            .register(meterRegistry);
+        Gauge.builder("auth.phone_filter.ready", this, f -> f.bits == null ? 0 : 1)
+            .description("Whether the filter has been built and answers negatives")
+            .register(meterRegistry);
+    }
+
+    /**
+     * {@code false} only when {@code phoneNumber} is certainly not registered.
+     */
+    public boolean mightContain(String phoneNumber) {
+        var current = bits;
+        if (current == null) {
+            bypassed.increment();
+            return true;
+        }
+        if (current.mightContain(digest(phoneNumber))) {
+            positives.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    public void add(String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.isBlank()) {
+            return;
+        }
+        var hash = digest(phoneNumber);
+        recentlyAdded.put(phoneNumber, Instant.now());
+        var current = bits;
+        if (current != null) {
+            current.put(hash);
+        }
+    }
+
+    /**
+     * Records that a positive answer turned out to be absent in the database.
+     */
+    public void recordFalsePositive() {
+        if (bits != null) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * Records that a negative answer turned out to be present in the database, and adds the number so the
+     * next lookup agrees.
+     */
+    public void recordFalseNegative(String phoneNumber) {
+        falseNegatives.increment();
+        add(phoneNumber);
+    }
+
+    /**
+     * Whether a negative answer may skip the database; see {@link PhoneNumberFilterProperties}.
+     */
+    public boolean trustsNegatives() {
+        return properties.trustNegatives();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!properties.enabled()) {
+            log.info("Registered phone filter disabled; every lookup goes to the database");
+            return;
+        }
+        virtualThreadTaskExecutor.execute(this::rebuild);
+    }
+
+    @Scheduled(fixedDelayString = "${orange.phone-filter.rebuild-interval-ms:21600000}",
+        initialDelayString = "${orange.phone-filter.rebuild-interval-ms:21600000}")
+    public void rebuild() {
+        if (!properties.enabled() || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        var startedAt = Instant.now();
+        try {
+            var fresh = rebuildTimer.recordCallable(this::scan);
+            // Numbers registered during the scan go in before the filter is published, so it never answers
+            // "absent" for them. add() records the number before reading bits, so a second pass after the
+            // swap catches any add() that still wrote to the previous filter.
+            recentlyAdded.forEach((phone, at) -> fresh.put(digest(phone)));
+            bits = fresh;
+            recentlyAdded.forEach((phone, at) -> fresh.put(digest(phone)));
+            var cutoff = startedAt.minus(properties.recentRetention());
+            recentlyAdded.values().removeIf(at -> at.isBefore(cutoff));
+            log.info("Registered phone filter rebuilt with {} numbers ({} bits, {} hashes)",
+                fresh.insertions.get(), fresh.bitCount, fresh.hashCount);
+        } catch (Exception e) {
+            log.error("Failed to rebuild registered phone filter, keeping the previous one", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private Bits scan() {
+        var previous = bits;
+        var expected = Math.max(properties.expectedInsertions(),
+            previous == null ? 0 : previous.insertions.get() * 2);
+        var fresh = new Bits(expected, properties.falsePositiveRate());
+
+        var after = "";
+        while (true) {
+            var page = userRepository.findPhoneNumbersAfter(after, Limit.of(properties.bootstrapPageSize()));
+            page.forEach(phone -> fresh.put(digest(phone)));
+            if (page.size() < properties.bootstrapPageSize()) {
+                return fresh;
+            }
+            after = page.getLast();
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.phone_filter.lookups")
+            .description("Registered phone filter lookups by answer")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static byte[] digest(String phoneNumber) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(phoneNumber.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not found", e);
+        }
+    }
+
+    /**
+     * Fixed-size bit array probed with double hashing over two 64-bit halves of the digest.
+     */
+    static final class Bits {
+
+        final long bitCount;
+        final int hashCount;
+        final AtomicLong insertions = new AtomicLong();
+        private final AtomicLongArray words;
+
+        Bits(long expectedInsertions, double falsePositiveRate) {
+            var bitsNeeded = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.max(1, (bitsNeeded + 63) / 64));
+            this.bitCount = (long) words.length() * 64;
+            this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        void put(byte[] hash) {
+            var buffer = ByteBuffer.wrap(hash);
+            long h1 = buffer.getLong();
+            long h2 = buffer.getLong();
+            for (int i = 0; i < hashCount; i++) {
+                var index = Math.floorMod(h1 + i * h2, bitCount);
+                var word = (int) (index >>> 6);
+                var mask = 1L << index;
+                words.getAndUpdate(word, w -> w | mask);
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(byte[] hash) {
+            var buffer = ByteBuffer.wrap(hash);
+            long h1 = buffer.getLong();
+            long h2 = buffer.getLong();
+            for (int i = 0; i < hashCount; i++) {
+                var index = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.bni.orange.authentication.service.redis;
+
+import com.bni.orange.authentication.config.properties.RefreshTokenProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Active refresh-token families kept in Redis. Each token hash maps to a hash of session fields, and each
+ * user has a set of their live token hashes. A rotated token stays behind as a short-lived tombstone, so that
+ * presenting it again is recognised as reuse and ends every session of that user inside the same script call.
+ * Keys for a user's tokens are derived inside the scripts, so this store assumes a non-clustered Redis.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenStore {
+
+    private static final String TOKEN_PREFIX = "auth:rt:";
+    private static final String USER_PREFIX = "auth:rt:user:";
+
+    public record Session(
+        UUID sessionId,
+        UUID userId,
+        String tokenHash,
+        Instant expiresAt,
+        String ipAddress,
+        String userAgent,
+        Instant lastUsedAt
+    ) {
+        public Session withUserId(UUID owner) {
+            return new Session(sessionId, owner, tokenHash, expiresAt, ipAddress, userAgent, lastUsedAt);
+        }
+    }
+
+    public enum RotationStatus { ROTATED, REUSED, EXPIRED }
+
+    public record Rotation(RotationStatus status, UUID userId) {}
+
+    // KEYS: token, user set | ARGV: sid, uid, expMs, ip, ua, lastMs, hash
+    private static final RedisScript<Long> CREATE = new DefaultRedisScript<>("""
+        redis.call('HSET', KEYS[1], 'sid', ARGV[1], 'uid', ARGV[2], 'exp', ARGV[3],
+          'ip', ARGV[4], 'ua', ARGV[5], 'last', ARGV[6], 'state', 'active')
+        redis.call('PEXPIREAT', KEYS[1], ARGV[3])
+        redis.call('SADD', KEYS[2], ARGV[7])
+        redis.call('PEXPIREAT', KEYS[2], ARGV[3])
+        return 1
+        """, Long.class);
+
+    // KEYS: old token, new token | ARGV: nowMs, tombstoneMs, tokenPrefix, userPrefix, oldHash,
+    //                                    newHash, sid, expMs, ip, ua
+    private static final RedisScript<List> ROTATE = new DefaultRedisScript<>("""
+        local f = redis.call('HMGET', KEYS[1], 'uid', 'exp', 'state')
+        local uid, exp, state = f[1], tonumber(f[2]), f[3]
+        if not uid then
+          return {0}
+        end
+        local now = tonumber(ARGV[1])
+        local set = ARGV[4] .. uid
+        if state ~= 'active' then
+          for _, h in ipairs(redis.call('SMEMBERS', set)) do
+            redis.call('DEL', ARGV[3] .. h)
+          end
+          redis.call('DEL', set)
+          return {-1, uid}
+        end
+        if exp <= now then
+          redis.call('DEL', KEYS[1])
+          redis.call('SREM', set, ARGV[5])
+          return {-2, uid}
+        end
+        redis.call('HSET', KEYS[1], 'state', 'rotated')
+        redis.call('PEXPIRE', KEYS[1], math.min(exp - now, tonumber(ARGV[2])))
+        redis.call('SREM', set, ARGV[5])
+        redis.call('HSET', KEYS[2], 'sid', ARGV[7], 'uid', uid, 'exp', ARGV[8],
+          'ip', ARGV[9], 'ua', ARGV[10], 'last', ARGV[1], 'state', 'active')
+        redis.call('PEXPIREAT', KEYS[2], ARGV[8])
+        redis.call('SADD', set, ARGV[6])
+        redis.call('PEXPIREAT', set, ARGV[8])
+        return {1, uid}
+        """, List.class);
+
+    // KEYS: token | ARGV: userPrefix, hash
+    private static final RedisScript<String> REVOKE = new DefaultRedisScript<>("""
+        local uid = redis.call('HGET', KEYS[1], 'uid')
+        if not uid then
+          return false
+        end
+        redis.call('DEL', KEYS[1])
+        redis.call('SREM', ARGV[1] .. uid, ARGV[2])
+        return uid
+        """, String.class);
+
+    // KEYS: user set | ARGV: tokenPrefix
+    private static final RedisScript<Long> REVOKE_ALL = new DefaultRedisScript<>("""
+        local members = redis.call('SMEMBERS', KEYS[1])
+        for _, h in ipairs(members) do
+          redis.call('DEL', ARGV[1] .. h)
+        end
+        redis.call('DEL', KEYS[1])
+        return #members
+        """, Long.class);
+
+    // KEYS: user set | ARGV: tokenPrefix, sid
+    private static final RedisScript<String> TERMINATE = new DefaultRedisScript<>("""
+        for _, h in ipairs(redis.call('SMEMBERS', KEYS[1])) do
+          if redis.call('HGET', ARGV[1] .. h, 'sid') == ARGV[2] then
+            redis.call('DEL', ARGV[1] .. h)
+            redis.call('SREM', KEYS[1], h)
+            return h
+          end
+        end
+        return false
+        """, String.class);
+
+    // KEYS: user set | ARGV: tokenPrefix
+    private static final RedisScript<List> LIST = new DefaultRedisScript<>("""
+        local out = {}
+        for _, h in ipairs(redis.call('SMEMBERS', KEYS[1])) do
+          local v = redis.call('HGETALL', ARGV[1] .. h)
+          if #v == 0 then
+            redis.call('SREM', KEYS[1], h)
+          else
+            table.insert(v, 'hash')
+            table.insert(v, h)
+            table.insert(out, v)
+          end
+        end
+        return out
+        """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RefreshTokenProperties properties;
+
+    public void save(Session session) {
+        redisTemplate.execute(CREATE,
+            List.of(TOKEN_PREFIX + session.tokenHash(), USER_PREFIX + session.userId()),
+            session.sessionId().toString(),
+            session.userId().toString(),
+            String.valueOf(session.expiresAt().toEpochMilli()),
+            session.ipAddress(),
+            session.userAgent(),
+            String.valueOf(session.lastUsedAt().toEpochMilli()),
+            session.tokenHash());
+    }
+
+    /**
+     * Rotates {@code oldHash} into {@code next} atomically. Empty when the old token is not known to Redis,
+     * which callers treat as a token issued before the store existed and resolve against the database.
+     */
+    public Optional<Rotation> rotate(String oldHash, Session next) {
+        var reply = redisTemplate.execute(ROTATE,
+            List.of(TOKEN_PREFIX + oldHash, TOKEN_PREFIX + next.tokenHash()),
+            String.valueOf(next.lastUsedAt().toEpochMilli()),
+            String.valueOf(properties.reuseTombstoneTtl().toMillis()),
+            TOKEN_PREFIX,
+            USER_PREFIX,
+            oldHash,
+            next.tokenHash(),
+            next.sessionId().toString(),
+            String.valueOf(next.expiresAt().toEpochMilli()),
+            next.ipAddress(),
+            next.userAgent());
+
+        if (reply == null || reply.isEmpty()) {
+            return Optional.empty();
+        }
+        var status = switch (((Number) reply.get(0)).intValue()) {
+            case 1 -> RotationStatus.ROTATED;
+            case -1 -> RotationStatus.REUSED;
+            case -2 -> RotationStatus.EXPIRED;
+            default -> null;
+        };
+        if (status == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Rotation(status, UUID.fromString(reply.get(1).toString())));
+    }
+
+    public Optional<UUID> revoke(String tokenHash) {
+        var userId = redisTemplate.execute(REVOKE, List.of(TOKEN_PREFIX + tokenHash), USER_PREFIX, tokenHash);
+        return Optional.ofNullable(userId).map(UUID::fromString);
+    }
+
+    public void revokeAll(UUID userId) {
+        redisTemplate.execute(REVOKE_ALL, List.of(USER_PREFIX + userId), TOKEN_PREFIX);
+    }
+
+    /**
+     * Ends the session with {@code sessionId} if it belongs to {@code userId}; returns the token hash it held.
+     */
+    public Optional<String> terminate(UUID userId, UUID sessionId) {
+        return Optional.ofNullable(
+            redisTemplate.execute(TERMINATE, List.of(USER_PREFIX + userId), TOKEN_PREFIX, sessionId.toString()));
+    }
+
+    public List<Session> findActive(UUID userId) {
+        List<?> reply = redisTemplate.execute(LIST, List.of(USER_PREFIX + userId), TOKEN_PREFIX);
+        if (reply == null) {
+            return List.of();
+        }
+        var sessions = new ArrayList<Session>(reply.size());
+        for (var entry : reply) {
+            var fields = toMap((List<?>) entry);
+            if (!"active".equals(fields.get("state"))) {
+                continue;
+            }
+            sessions.add(new Session(
+                UUID.fromString(fields.get("sid")),
+                userId,
+                fields.get("hash"),
+                Instant.ofEpochMilli(Long.parseLong(fields.get("exp"))),
+                fields.get("ip"),
+                fields.get("ua"),
+                Instant.ofEpochMilli(Long.parseLong(fields.get("last")))
+            ));
+        }
+        return sessions;
+    }
+
+    private static HashMap<String, String> toMap(List<?> flat) {
+        var map = new HashMap<String, String>();
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            map.put(flat.get(i).toString(), flat.get(i + 1).toString());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bni.orange.authentication.service.session;
+
+import com.bni.orange.authentication.config.properties.RefreshTokenProperties;
+import com.bni.orange.authentication.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes expired refresh tokens and revoked ones past the audit retention, in short batches
+ * so each delete holds its locks only briefly.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenPurgeJob {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RefreshTokenProperties properties;
+
+    @Scheduled(fixedDelayString = "${orange.refresh-token.purge-interval-ms:3600000}",
+        initialDelayString = "${orange.refresh-token.purge-initial-delay-ms:60000}")
+    public void purge() {
+        int total = 0;
+        for (int i = 0; i < properties.purgeMaxBatches(); i++) {
+            Integer deleted = transactionTemplate.execute(status -> refreshTokenRepository.deleteExpiredOrRevokedBatch(
+                properties.revokedRetentionDays(), properties.purgeBatchSize()));
+            total += deleted == null ? 0 : deleted;
+            if (deleted == null || deleted < properties.purgeBatchSize()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Purged {} expired or revoked refresh tokens", total);
+        }
+    }
+}
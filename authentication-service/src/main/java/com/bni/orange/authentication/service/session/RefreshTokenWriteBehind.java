@@ -0,0 +1,173 @@
+package com.bni.orange.authentication.service.session;
+
+import com.bni.orange.authentication.config.properties.RefreshTokenProperties;
+import com.bni.orange.authentication.repository.RefreshTokenRepository;
+import com.bni.orange.authentication.service.redis.RefreshTokenStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copies refresh-token changes from the Redis store into {@code auth_oltp.refresh_tokens} for audit.
+ * Inserts are queued in arrival order and flushed in batches; an insert that finds the queue full is
+ * written by the caller. Revocations are only recorded on the caller's thread and applied by the next
+ * flush, after the inserts queued before it: a revocation applied before its token's insert would match
+ * no row and leave the token active. Every write runs in its own transaction so a failed audit write
+ * cannot roll back the caller.
+ */
+@Slf4j
+@Component
+public class RefreshTokenWriteBehind {
+
+    public sealed interface Change permits Insert, Revoke, RevokeAll {}
+
+    public record Insert(RefreshTokenStore.Session session) implements Change {}
+
+    public record Revoke(String tokenHash) implements Change {}
+
+    public record RevokeAll(UUID userId) implements Change {}
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Insert> queue;
+    private final Set<String> pendingRevokes = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Instant> pendingRevokeAlls = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final int batchSize;
+
+    private final Counter overflow;
+    private final Counter failures;
+
+    public RefreshTokenWriteBehind(
+        RefreshTokenRepository refreshTokenRepository,
+        TransactionTemplate transactionTemplate,
+        RefreshTokenProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(properties.writeQueueCapacity());
+        this.batchSize = properties.writeBatchSize();
+
+        Gauge.builder("auth.refresh_token.write_behind.queue", this, w -> w.queue.size() + w.pendingRevokes.size() + w.pendingRevokeAlls.size())
+            .description("Refresh-token changes waiting to be written to Postgres")
+            .register(meterRegistry);
+        this.overflow = Counter.builder("auth.refresh_token.write_behind.overflow")
+            .description("Refresh-token inserts written synchronously because the queue was full")
+            .register(meterRegistry);
+        this.failures = Counter.builder("auth.refresh_token.write_behind.failures")
+            .description("Refresh-token changes that could not be written to Postgres")
+            .register(meterRegistry);
+    }
+
+    public void enqueue(Change change) {
+        switch (change) {
+            case Insert insert -> {
+                if (!queue.offer(insert)) {
+                    overflow.increment();
+                    writeOne(insert);
+                }
+            }
+            case Revoke revoke -> pendingRevokes.add(revoke.tokenHash());
+            // Bounded by the request time, so a session issued after the revoke-all but flushed with it survives
+            case RevokeAll revokeAll -> pendingRevokeAlls.merge(revokeAll.userId(), Instant.now(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+    }
+
+    /**
+     * Takes the pending revocations before draining the queue: the insert of every token revoked so far
+     * was queued (or written by its caller) before the revocation was recorded, so it is written first.
+     */
+    @Scheduled(fixedDelayString = "${orange.refresh-token.write-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            var revokes = new ArrayList<Change>();
+            for (var it = pendingRevokes.iterator(); it.hasNext(); ) {
+                revokes.add(new Revoke(it.next()));
+                it.remove();
+            }
+            var revokeAlls = new HashMap<UUID, Instant>();
+            pendingRevokeAlls.forEach((userId, requestedAt) -> {
+                if (pendingRevokeAlls.remove(userId, requestedAt)) {
+                    revokeAlls.put(userId, requestedAt);
+                }
+            });
+
+            var batch = new ArrayList<Change>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+            for (int from = 0; from < revokes.size(); from += batchSize) {
+                write(revokes.subList(from, Math.min(from + batchSize, revokes.size())));
+            }
+            revokeAlls.forEach(this::revokeAll);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void drainOnShutdown() {
+        flush();
+    }
+
+    private void write(List<Change> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::apply));
+        } catch (RuntimeException e) {
+            log.warn("Refresh-token batch of {} failed, retrying one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::writeOne);
+        }
+    }
+
+    private void writeOne(Change change) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(change));
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Failed to persist refresh-token change {}", change.getClass().getSimpleName(), e);
+        }
+    }
+
+    private void revokeAll(UUID userId, Instant requestedAt) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> refreshTokenRepository.revokeAllByUserId(userId, requestedAt));
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Failed to persist refresh-token change RevokeAll", e);
+        }
+    }
+
+    private void apply(Change change) {
+        switch (change) {
+            case Insert insert -> {
+                var s = insert.session();
+                refreshTokenRepository.insertIfAbsent(
+                    s.sessionId(), s.userId(), s.tokenHash(), s.expiresAt(), s.ipAddress(), s.userAgent(), s.lastUsedAt());
+            }
+            case Revoke revoke -> refreshTokenRepository.revokeByTokenHash(revoke.tokenHash());
+            case RevokeAll revokeAll -> refreshTokenRepository.revokeAllByUserId(revokeAll.userId(), Instant.now());
+        }
+    }
+}
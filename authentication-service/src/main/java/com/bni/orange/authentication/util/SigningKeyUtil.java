@@ -0,0 +1,158 @@
+package com.bni.orange.authentication.util;
+
+import com.bni.orange.authentication.model.enums.SigningAlgorithm;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPrivateKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Builds JOSE keys, encoders and decoders for each {@link SigningAlgorithm}. Shared by the Spring wiring
+ * and the token benchmarks so both measure the same code path.
+ */
+public final class SigningKeyUtil {
+
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    private SigningKeyUtil() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static KeyPair generateKeyPair(SigningAlgorithm algorithm) {
+        try {
+            return switch (algorithm) {
+                case RS256 -> {
+                    var generator = KeyPairGenerator.getInstance("RSA");
+                    generator.initialize(2048);
+                    yield generator.generateKeyPair();
+                }
+                case ES256 -> {
+                    var generator = KeyPairGenerator.getInstance("EC");
+                    generator.initialize(new ECGenParameterSpec("secp256r1"));
+                    yield generator.generateKeyPair();
+                }
+                case EdDSA -> KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+            };
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + algorithm + " key pair", e);
+        }
+    }
+
+    /**
+     * Reads a PKCS#8 private key and an X.509 public key, both PEM encoded.
+     */
+    public static KeyPair readKeyPair(SigningAlgorithm algorithm, Resource privateKey, Resource publicKey) {
+        if (privateKey == null || publicKey == null) {
+            throw new IllegalStateException("orange.jwt.signing.private-key and public-key are required for " + algorithm);
+        }
+        try {
+            var keyFactory = KeyFactory.getInstance(switch (algorithm) {
+                case RS256 -> "RSA";
+                case ES256 -> "EC";
+                case EdDSA -> "Ed25519";
+            });
+            return new KeyPair(
+                keyFactory.generatePublic(new X509EncodedKeySpec(readPem(publicKey))),
+                keyFactory.generatePrivate(new PKCS8EncodedKeySpec(readPem(privateKey))));
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Cannot read " + algorithm + " signing key", e);
+        }
+    }
+
+    /**
+     * Wraps a key pair as a signing JWK whose key ID is its RFC 7638 thumbprint, so every instance
+     * holding the same key advertises the same {@code kid}.
+     */
+    public static JWK toJwk(SigningAlgorithm algorithm, KeyPair keyPair) {
+        try {
+            return switch (algorithm) {
+                case RS256 -> new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                    .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.RS256)
+                    .keyIDFromThumbprint()
+                    .build();
+                case ES256 -> new ECKey.Builder(Curve.P_256, (ECPublicKey) keyPair.getPublic())
+                    .privateKey((ECPrivateKey) keyPair.getPrivate())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.ES256)
+                    .keyIDFromThumbprint()
+                    .build();
+                case EdDSA -> {
+                    // X.509 SubjectPublicKeyInfo for Ed25519 ends with the 32-byte raw public key
+                    var encoded = keyPair.getPublic().getEncoded();
+                    var x = Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length);
+                    var d = ((EdECPrivateKey) keyPair.getPrivate()).getBytes()
+                        .orElseThrow(() -> new IllegalStateException("Ed25519 private key has no raw encoding"));
+                    yield new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(x))
+                        .d(Base64URL.encode(d))
+                        .keyUse(KeyUse.SIGNATURE)
+                        .algorithm(JWSAlgorithm.EdDSA)
+                        .keyIDFromThumbprint()
+                        .build();
+                }
+            };
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot build " + algorithm + " JWK", e);
+        }
+    }
+
+    public static JwtEncoder encoder(JWK signingKey) {
+        return new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey)));
+    }
+
+    /**
+     * Decoder accepting any key in {@code keys} with the algorithm that key advertises.
+     * Claim checks are left to Spring's default validators, as {@link NimbusJwtDecoder}'s own builders do.
+     */
+    public static JwtDecoder decoder(JWKSet keys) {
+        var algorithms = keys.getKeys().stream()
+            .map(key -> JWSAlgorithm.parse(key.getAlgorithm().getName()))
+            .collect(Collectors.toSet());
+
+        var processor = new DefaultJWTProcessor<SecurityContext>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, new ImmutableJWKSet<>(keys.toPublicJWKSet())));
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    private static byte[] readPem(Resource resource) throws IOException {
+        var body = resource.getContentAsString(StandardCharsets.US_ASCII)
+            .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+            .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+}
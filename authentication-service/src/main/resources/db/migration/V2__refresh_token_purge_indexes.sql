@@ -0,0 +1,9 @@
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expiry_date
+    ON auth_oltp.refresh_tokens (expiry_date);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_revoked_at
+    ON auth_oltp.refresh_tokens (revoked_at)
+    WHERE is_revoked = TRUE;
+
+COMMENT
+ON INDEX auth_oltp.idx_refresh_tokens_expiry_date IS 'Supports the batched purge of expired refresh tokens';
@@ -0,0 +1,132 @@
+package com.bni.orange.authentication.consumer;
+
+import com.bni.orange.authentication.repository.UserProfileSyncRepository;
+import com.bni.orange.authentication.repository.UserProfileSyncRepository.SyncResult;
+import com.bni.orange.users.proto.UserProfileEmailVerifiedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileEventConsumerTest {
+
+    private static final String TOPIC = "user.profile.email-verified";
+
+    @Mock
+    private UserProfileSyncRepository profileSyncRepository;
+
+    @Mock
+    private DeadLetterPublishingRecoverer deadLetterRecoverer;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProfileEventConsumer consumer;
+    private long nextOffset;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new ProfileEventConsumer(profileSyncRepository, deadLetterRecoverer, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("handleEmailVerified should dead-letter an email already held by another user, then ack")
+    void handleEmailVerified_shouldDeadLetterCollisionFromDatabase() {
+        var applied = UUID.randomUUID();
+        var collided = UUID.randomUUID();
+        var collidedRecord = record(collided, "taken@orange.id");
+        when(profileSyncRepository.applyVerifiedEmails(anyMap())).thenReturn(new SyncResult(1, Set.of(collided)));
+
+        consumer.handleEmailVerified(List.of(record(applied, "new@orange.id"), collidedRecord), acknowledgment);
+
+        var order = inOrder(deadLetterRecoverer, acknowledgment);
+        order.verify(deadLetterRecoverer).accept(eq(collidedRecord), any(IllegalStateException.class));
+        order.verify(acknowledgment).acknowledge();
+        assertThat(deadLettered("collision")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("handleEmailVerified should dead-letter an earlier claim on an email taken later in the batch")
+    void handleEmailVerified_shouldDeadLetterCollisionWithinBatch() {
+        var first = UUID.randomUUID();
+        var second = UUID.randomUUID();
+        var firstRecord = record(first, "same@orange.id");
+        when(profileSyncRepository.applyVerifiedEmails(anyMap())).thenReturn(new SyncResult(1, Set.of()));
+
+        consumer.handleEmailVerified(List.of(firstRecord, record(second, "same@orange.id")), acknowledgment);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<UUID, String>> written = ArgumentCaptor.forClass(Map.class);
+        verify(profileSyncRepository).applyVerifiedEmails(written.capture());
+        assertThat(written.getValue()).containsOnlyKeys(second);
+        verify(deadLetterRecoverer).accept(eq(firstRecord), any(IllegalStateException.class));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("handleEmailVerified should dead-letter an unparseable record")
+    void handleEmailVerified_shouldDeadLetterInvalidRecord() {
+        var invalid = new ConsumerRecord<String, byte[]>(TOPIC, 0, nextOffset++, null, "not-a-protobuf".getBytes());
+        when(profileSyncRepository.applyVerifiedEmails(anyMap())).thenReturn(new SyncResult(0, Set.of()));
+
+        consumer.handleEmailVerified(List.of(invalid), acknowledgment);
+
+        verify(deadLetterRecoverer).accept(eq(invalid), any(Exception.class));
+        verify(acknowledgment).acknowledge();
+        assertThat(deadLettered("invalid")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("handleEmailVerified should not ack when dead-lettering fails")
+    void handleEmailVerified_whenDeadLetterFails_shouldNotAck() {
+        var collided = UUID.randomUUID();
+        when(profileSyncRepository.applyVerifiedEmails(anyMap())).thenReturn(new SyncResult(0, Set.of(collided)));
+        doThrow(new IllegalStateException("broker down")).when(deadLetterRecoverer).accept(any(), any());
+
+        assertThatThrownBy(() ->
+            consumer.handleEmailVerified(List.of(record(collided, "taken@orange.id")), acknowledgment)
+        ).hasMessage("broker down");
+
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    private ConsumerRecord<String, byte[]> record(UUID userId, String email) {
+        var event = UserProfileEmailVerifiedEvent.newBuilder()
+            .setEventId(UUID.randomUUID().toString())
+            .setUserId(userId.toString())
+            .setEmail(email)
+            .build();
+        return new ConsumerRecord<>(TOPIC, 0, nextOffset++, userId.toString(), event.toByteArray());
+    }
+
+    private double deadLettered(String reason) {
+        return meterRegistry.get("auth.profile_sync.dead_lettered")
+            .tag("field", "email").tag("reason", reason).counter().count();
+    }
+}
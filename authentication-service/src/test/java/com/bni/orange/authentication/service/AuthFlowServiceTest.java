@@ -13,8 +13,10 @@ import com.bni.orange.authentication.model.request.OtpVerifyRequest;
 import com.bni.orange.authentication.model.response.TokenResponse;
 import com.bni.orange.authentication.repository.UserRepository;
 import com.bni.orange.authentication.service.captcha.CaptchaService;
+import com.bni.orange.authentication.service.lookup.RegisteredPhoneFilter;
 import com.bni.orange.authentication.service.redis.PendingRegistrationService;
 import com.bni.orange.authentication.validator.PinValidator;
+import com.bni.orange.shared.kafka.EventPublisher;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -82,6 +84,8 @@ class AuthFlowServiceTest {
     private Executor virtualThreadTaskExecutor;
     @Mock
     private PendingRegistrationService pendingRegistrationService;
+    @Mock
+    private RegisteredPhoneFilter registeredPhoneFilter;
 
     private User existingUser;
     private final String phoneNumber = "081234567890";
@@ -104,6 +108,7 @@ class AuthFlowServiceTest {
 
         when(servletRequest.getRequestURI()).thenReturn("/api/v1/auth/test");
         when(captchaService.validateToken(anyString(), anyString())).thenReturn(Mono.just(true));
+        when(registeredPhoneFilter.mightContain(anyString())).thenReturn(true);
         doAnswer(invocation -> {
             ((Runnable) invocation.getArgument(0)).run();
             return null;
@@ -124,14 +129,14 @@ class AuthFlowServiceTest {
             var request = new AuthRequest(phoneNumber, captchaToken);
             when(otpService.isCooldown(normalizedPhone)).thenReturn(false);
             when(userRepository.findByPhoneNumber(normalizedPhone)).thenReturn(Optional.of(existingUser));
-            when(otpService.generateAndStoreOtp(normalizedPhone)).thenReturn(otp);
+            when(otpService.generateAndStoreOtp(normalizedPhone, false)).thenReturn(otp);
 
             var response = authFlowService.requestLoginOtp(request, servletRequest);
 
             assertNotNull(response);
             assertEquals("OTP sent successfully", response.getMessage());
             verify(eventPublisher).publish(eq("notification.otp.whatsapp"), eq(normalizedPhone), any());
-            verify(otpService).setCooldown(normalizedPhone);
+            verify(otpService).generateAndStoreOtp(normalizedPhone, false);
             verify(pendingRegistrationService, never()).exists(anyString());
         }
 
@@ -142,7 +147,7 @@ class AuthFlowServiceTest {
             when(otpService.isCooldown(normalizedPhone)).thenReturn(false);
             when(userRepository.findByPhoneNumber(normalizedPhone)).thenReturn(Optional.empty());
             when(pendingRegistrationService.exists(normalizedPhone)).thenReturn(true);
-            when(otpService.generateAndStoreOtp(normalizedPhone)).thenReturn(otp);
+            when(otpService.generateAndStoreOtp(normalizedPhone, false)).thenReturn(otp);
 
             var response = authFlowService.requestLoginOtp(request, servletRequest);
 
@@ -163,6 +168,57 @@ class AuthFlowServiceTest {
 
             assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
             verify(pendingRegistrationService).exists(normalizedPhone);
+            verify(registeredPhoneFilter).recordFalsePositive();
+        }
+
+        @Test
+        @DisplayName("Should still query the database when the phone filter's negatives are not trusted")
+        void requestLoginOtp_whenFilterNegativeUntrusted_shouldFallThroughToDatabase() {
+            var request = new AuthRequest(phoneNumber, captchaToken);
+            when(registeredPhoneFilter.mightContain(normalizedPhone)).thenReturn(false);
+            when(otpService.isCooldown(normalizedPhone)).thenReturn(false);
+            when(userRepository.findByPhoneNumber(normalizedPhone)).thenReturn(Optional.of(existingUser));
+            when(otpService.generateAndStoreOtp(normalizedPhone, false)).thenReturn(otp);
+
+            var response = authFlowService.requestLoginOtp(request, servletRequest);
+
+            assertEquals("OTP sent successfully", response.getMessage());
+            verify(registeredPhoneFilter).recordFalseNegative(normalizedPhone);
+        }
+
+        @Test
+        @DisplayName("Should skip the database when the phone filter rules the number out")
+        void requestLoginOtp_whenFilterNegative_shouldNotQueryDatabase() {
+            var request = new AuthRequest(phoneNumber, captchaToken);
+            when(registeredPhoneFilter.mightContain(normalizedPhone)).thenReturn(false);
+            when(registeredPhoneFilter.trustsNegatives()).thenReturn(true);
+            when(pendingRegistrationService.exists(normalizedPhone)).thenReturn(false);
+
+            var exception = assertThrows(BusinessException.class, () -> authFlowService.requestLoginOtp(request, servletRequest));
+
+            assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+            verify(captchaService).validateToken(captchaToken, "login");
+            verify(userRepository, never()).findByPhoneNumber(anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("Request PIN Reset OTP Flow")
+    class RequestPinResetOtpFlow {
+
+        @Test
+        @DisplayName("Should reject an unregistered number after captcha without querying the database")
+        void requestPinResetOtp_whenFilterNegative_shouldThrowUserNotFound() {
+            var request = new AuthRequest(phoneNumber, captchaToken);
+            when(registeredPhoneFilter.mightContain(normalizedPhone)).thenReturn(false);
+            when(registeredPhoneFilter.trustsNegatives()).thenReturn(true);
+
+            var exception = assertThrows(BusinessException.class, () -> authFlowService.requestPinResetOtp(request, servletRequest));
+
+            assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+            verify(captchaService).validateToken(captchaToken, "login");
+            verify(userRepository, never()).findByPhoneNumber(anyString());
+            verify(otpService, never()).generateAndStoreOtp(anyString(), eq(true));
         }
     }
 
@@ -177,7 +233,7 @@ class AuthFlowServiceTest {
             when(otpService.isCooldown(normalizedPhone)).thenReturn(false);
             when(userRepository.findByPhoneNumber(normalizedPhone)).thenReturn(Optional.empty());
             doNothing().when(pendingRegistrationService).save(normalizedPhone);
-            when(otpService.generateAndStoreOtp(normalizedPhone)).thenReturn(otp);
+            when(otpService.generateAndStoreOtp(normalizedPhone, false)).thenReturn(otp);
 
             var response = authFlowService.requestRegistrationOtp(request, servletRequest);
 
@@ -187,6 +243,21 @@ class AuthFlowServiceTest {
             verify(pendingRegistrationService).save(normalizedPhone);
         }
 
+        @Test
+        @DisplayName("Should not query the database for a number the phone filter rules out")
+        void requestRegistrationOtp_whenFilterNegative_shouldSkipExistenceQuery() {
+            var request = new AuthRequest(phoneNumber, captchaToken);
+            when(registeredPhoneFilter.mightContain(normalizedPhone)).thenReturn(false);
+            when(registeredPhoneFilter.trustsNegatives()).thenReturn(true);
+            when(otpService.generateAndStoreOtp(normalizedPhone, false)).thenReturn(otp);
+
+            var response = authFlowService.requestRegistrationOtp(request, servletRequest);
+
+            assertEquals("OTP sent successfully", response.getMessage());
+            verify(userRepository, never()).findByPhoneNumber(anyString());
+            verify(pendingRegistrationService).save(normalizedPhone);
+        }
+
         @Test
         @DisplayName("Should throw UserAlreadyExists for existing user")
         void requestRegistrationOtp_forExistingUser_shouldThrowUserAlreadyExists() {
@@ -292,6 +363,7 @@ class AuthFlowServiceTest {
                 assertEquals("Authentication successful", response.getMessage());
 
                 verify(eventPublisher).publish(eq("user.registered"), eq(savedUser.getId().toString()), any());
+                verify(registeredPhoneFilter).add(normalizedPhone);
                 verify(loginAttemptService).loginSucceeded(normalizedPhone);
             }
         }
@@ -1,11 +1,13 @@
 package com.bni.orange.authentication.service;
 
 import com.bni.orange.authentication.config.properties.RedisPrefixProperties;
+import com.bni.orange.authentication.error.ErrorCode;
+import com.bni.orange.authentication.error.RetryLaterException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -18,9 +20,11 @@ import java.time.Duration;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,8 +35,8 @@ class LoginAttemptServiceTest {
 
     private static final int MAX_ATTEMPTS = 5;
 
-    @InjectMocks
     private LoginAttemptService loginAttemptService;
+    private SimpleMeterRegistry meterRegistry;
 
     @Mock
     private StringRedisTemplate redisTemplate;
@@ -49,6 +53,7 @@ class LoginAttemptServiceTest {
     private final String userKey = "user123";
     private String failKey;
     private String lockKey;
+    private String notBeforeKey;
 
     @BeforeEach
     void setUp() {
@@ -56,11 +61,15 @@ class LoginAttemptServiceTest {
         failKey = failCountPrefix + userKey;
         String lockedPrefix = "pin_locked:";
         lockKey = lockedPrefix + userKey;
+        notBeforeKey = failKey + ":not-before";
 
         when(redisProperties.prefix()).thenReturn(prefix);
         when(prefix.pinFailCount()).thenReturn(failCountPrefix);
         when(prefix.pinLocked()).thenReturn(lockedPrefix);
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        meterRegistry = new SimpleMeterRegistry();
+        loginAttemptService = new LoginAttemptService(redisTemplate, redisProperties, meterRegistry);
     }
 
     @Test
@@ -72,10 +81,31 @@ class LoginAttemptServiceTest {
 
         verify(valueOperations).increment(failKey);
         verify(redisTemplate).expire(failKey, Duration.ofMinutes(15));
-        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+        verify(valueOperations, never()).set(eq(lockKey), anyString(), any(Duration.class));
         verify(redisTemplate, never()).delete(failKey);
     }
 
+    @Test
+    @DisplayName("loginFailed should schedule the next attempt using the escalation schedule")
+    void loginFailed_whenAttemptsReachDelayThreshold_shouldSetNotBefore() {
+        when(valueOperations.increment(failKey)).thenReturn(3L);
+
+        loginAttemptService.loginFailed(userKey);
+
+        verify(valueOperations).set(eq(notBeforeKey), anyString(), eq(Duration.ofSeconds(4)));
+        assertEquals(1.0, meterRegistry.counter("auth.login.delay.scheduled").count());
+    }
+
+    @Test
+    @DisplayName("loginFailed should not delay the first failed attempt")
+    void loginFailed_whenFirstFailure_shouldNotSetNotBefore() {
+        when(valueOperations.increment(failKey)).thenReturn(1L);
+
+        loginAttemptService.loginFailed(userKey);
+
+        verify(valueOperations, never()).set(eq(notBeforeKey), anyString(), any(Duration.class));
+    }
+
     @Test
     @DisplayName("loginFailed should lock account when attempts reach max")
     void loginFailed_whenAttemptsReachMax_shouldLockAccount() {
@@ -109,6 +139,7 @@ class LoginAttemptServiceTest {
 
         verify(redisTemplate).delete(failKey);
         verify(redisTemplate).delete(lockKey);
+        verify(redisTemplate).delete(notBeforeKey);
     }
 
     @Test
@@ -152,30 +183,31 @@ class LoginAttemptServiceTest {
     }
 
     @Test
-    @DisplayName("applyProgressiveDelay should not sleep when attempts are below threshold")
-    void applyProgressiveDelay_belowThreshold_shouldNotSleep() {
-        when(valueOperations.get(failKey)).thenReturn("1");
+    @DisplayName("applyProgressiveDelay should allow the attempt when no delay is pending")
+    void applyProgressiveDelay_whenNoDelayPending_shouldPass() {
+        when(valueOperations.get(notBeforeKey)).thenReturn(null);
 
         assertDoesNotThrow(() -> loginAttemptService.applyProgressiveDelay(userKey));
     }
 
     @Test
-    @DisplayName("applyProgressiveDelay should trigger sleep when attempts are at or above threshold")
-    void applyProgressiveDelay_aboveThreshold_shouldTriggerSleep() {
-        when(valueOperations.get(failKey)).thenReturn("3");
+    @DisplayName("applyProgressiveDelay should allow the attempt once the delay has elapsed")
+    void applyProgressiveDelay_whenDelayElapsed_shouldPass() {
+        when(valueOperations.get(notBeforeKey)).thenReturn(String.valueOf(System.currentTimeMillis() - 1000));
 
         assertDoesNotThrow(() -> loginAttemptService.applyProgressiveDelay(userKey));
     }
 
     @Test
-    @DisplayName("applyProgressiveDelay should handle interruption during sleep")
-    void applyProgressiveDelay_whenInterrupted_shouldHandleGracefully() {
-        when(valueOperations.get(failKey)).thenReturn("4");
-
-        Thread.currentThread().interrupt();
+    @DisplayName("applyProgressiveDelay should reject with Retry-After while the delay is running")
+    void applyProgressiveDelay_whenDelayPending_shouldRejectWithRetryAfter() {
+        when(valueOperations.get(notBeforeKey)).thenReturn(String.valueOf(System.currentTimeMillis() + 3500));
 
-        loginAttemptService.applyProgressiveDelay(userKey);
+        var exception = assertThrows(RetryLaterException.class,
+            () -> loginAttemptService.applyProgressiveDelay(userKey));
 
-        assertTrue(Thread.interrupted(), "Interrupted status should be true after catching InterruptedException");
+        assertEquals(ErrorCode.LOGIN_THROTTLED, exception.getErrorCode());
+        assertTrue(exception.getRetryAfterSeconds() >= 3 && exception.getRetryAfterSeconds() <= 4);
+        assertEquals(1.0, meterRegistry.counter("auth.login.delay.rejected").count());
     }
 }
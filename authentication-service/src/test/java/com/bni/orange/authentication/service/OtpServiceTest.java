@@ -3,10 +3,12 @@ package com.bni.orange.authentication.service;
 import com.bni.orange.authentication.config.properties.RedisPrefixProperties;
 import com.bni.orange.authentication.error.BusinessException;
 import com.bni.orange.authentication.error.ErrorCode;
+import com.bni.orange.shared.redis.OneTimeCodeStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -23,9 +25,11 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.eq;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,6 +54,9 @@ class OtpServiceTest {
     @Mock
     private RedisPrefixProperties.Prefix prefix;
 
+    @Mock
+    private OneTimeCodeStore oneTimeCodeStore;
+
     private final String phoneNumber = "+6281234567890";
     private String otpKey, cooldownKey, failCountKey, lockedKey;
 
@@ -71,31 +78,63 @@ class OtpServiceTest {
     @Test
     @DisplayName("generateAndStoreOtp should throw exception if account is locked")
     void generateAndStoreOtp_whenLocked_shouldThrowException() {
-        when(redisTemplate.hasKey(lockedKey)).thenReturn(true);
+        when(oneTimeCodeStore.issue(any(), anyString(), any(Duration.class), any(Duration.class), anyInt(), any()))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.LOCKED, 600, null));
 
-        var exception = assertThrows(BusinessException.class, () -> otpService.generateAndStoreOtp(phoneNumber));
+        var exception = assertThrows(BusinessException.class, () -> otpService.generateAndStoreOtp(phoneNumber, false));
 
         assertEquals(ErrorCode.ACCOUNT_LOCKED, exception.getErrorCode());
-        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
     }
 
     @Test
-    @DisplayName("generateAndStoreOtp should generate and store a 6-digit OTP")
+    @DisplayName("generateAndStoreOtp should throw OTP_COOLDOWN while the cooldown window is open")
+    void generateAndStoreOtp_duringCooldown_shouldThrowCooldown() {
+        when(oneTimeCodeStore.issue(any(), anyString(), any(Duration.class), any(Duration.class), anyInt(), any()))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.THROTTLED, 42, null));
+
+        var exception = assertThrows(BusinessException.class, () -> otpService.generateAndStoreOtp(phoneNumber, false));
+        var resetException = assertThrows(BusinessException.class, () -> otpService.generateAndStoreOtp(phoneNumber, true));
+
+        assertEquals(ErrorCode.OTP_COOLDOWN, exception.getErrorCode());
+        assertEquals(ErrorCode.OTP_COOLDOWN_RESET, resetException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("generateAndStoreOtp should issue a 6-digit OTP and its cooldown in one store call")
     void generateAndStoreOtp_whenNotLocked_shouldGenerateAndStoreOtp() {
-        when(redisTemplate.hasKey(lockedKey)).thenReturn(false);
+        when(oneTimeCodeStore.issue(any(), anyString(), any(Duration.class), any(Duration.class), anyInt(), any()))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.OK, 0, null));
 
-        var otp = otpService.generateAndStoreOtp(phoneNumber);
+        var otp = otpService.generateAndStoreOtp(phoneNumber, false);
 
         assertNotNull(otp);
         assertEquals(6, otp.length());
         assertTrue(otp.matches("\\d{6}"));
-        verify(valueOperations).set(eq(otpKey), eq(otp), any(Duration.class));
+        var keys = ArgumentCaptor.forClass(OneTimeCodeStore.Keys.class);
+        verify(oneTimeCodeStore).issue(keys.capture(), eq(otp), eq(Duration.ofMinutes(3)), eq(Duration.ofSeconds(60)), eq(1), isNull());
+        assertEquals(otpKey, keys.getValue().code());
+        assertEquals(lockedKey, keys.getValue().lock());
+        assertEquals(cooldownKey, keys.getValue().throttle());
+    }
+
+    @Test
+    @DisplayName("generateAndStoreOtp should use the reset cooldown for PIN reset")
+    void generateAndStoreOtp_forPinReset_shouldUseResetCooldown() {
+        when(oneTimeCodeStore.issue(any(), anyString(), any(Duration.class), any(Duration.class), anyInt(), any()))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.OK, 0, null));
+
+        otpService.generateAndStoreOtp(phoneNumber, true);
+
+        var keys = ArgumentCaptor.forClass(OneTimeCodeStore.Keys.class);
+        verify(oneTimeCodeStore).issue(keys.capture(), anyString(), any(Duration.class), any(Duration.class), anyInt(), any());
+        assertEquals("otp_cooldown:reset:" + phoneNumber, keys.getValue().throttle());
     }
 
     @Test
     @DisplayName("isOtpValid should throw exception if account is locked")
     void isOtpValid_whenLocked_shouldThrowException() {
-        when(redisTemplate.hasKey(lockedKey)).thenReturn(true);
+        when(oneTimeCodeStore.verify(any(), anyString(), anyInt(), any(Duration.class), anyBoolean()))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.LOCKED, 600, null));
 
         var exception = assertThrows(BusinessException.class, () -> otpService.isOtpValid(phoneNumber, "123456"));
 
@@ -103,50 +142,37 @@ class OtpServiceTest {
     }
 
     @Test
-    @DisplayName("isOtpValid should return true and clear failures for correct OTP")
-    void isOtpValid_withCorrectOtp_shouldReturnTrueAndClearFailures() {
-        var correctOtp = "123456";
-        when(redisTemplate.hasKey(lockedKey)).thenReturn(false);
-        when(valueOperations.get(otpKey)).thenReturn(correctOtp);
+    @DisplayName("isOtpValid should return true for correct OTP")
+    void isOtpValid_withCorrectOtp_shouldReturnTrue() {
+        when(oneTimeCodeStore.verify(any(), eq("123456"), anyInt(), any(Duration.class), anyBoolean()))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.OK, 0, null));
 
-        var isValid = otpService.isOtpValid(phoneNumber, correctOtp);
+        var isValid = otpService.isOtpValid(phoneNumber, "123456");
 
         assertTrue(isValid);
-        verify(redisTemplate).delete(otpKey);
-        verify(redisTemplate).delete(failCountKey);
-        verify(redisTemplate).delete(lockedKey);
+        var keys = ArgumentCaptor.forClass(OneTimeCodeStore.Keys.class);
+        verify(oneTimeCodeStore).verify(keys.capture(), eq("123456"), eq(MAX_OTP_ATTEMPTS), eq(Duration.ofMinutes(15)), eq(true));
+        assertEquals(failCountKey, keys.getValue().failCount());
     }
 
     @Test
-    @DisplayName("isOtpValid should return false and increment failures for incorrect OTP")
-    void isOtpValid_withIncorrectOtp_shouldReturnFalseAndIncrementFailures() {
-        var correctOtp = "123456";
-        var incorrectOtp = "654321";
-        when(redisTemplate.hasKey(lockedKey)).thenReturn(false);
-        when(valueOperations.get(otpKey)).thenReturn(correctOtp);
-        when(valueOperations.increment(failCountKey)).thenReturn(1L);
-
-        var isValid = otpService.isOtpValid(phoneNumber, incorrectOtp);
-
-        assertFalse(isValid);
-        verify(valueOperations).increment(failCountKey); // Verifies incrementOtpFailures
-        verify(redisTemplate, never()).delete(anyString());
+    @DisplayName("isOtpValid should return false for incorrect OTP")
+    void isOtpValid_withIncorrectOtp_shouldReturnFalse() {
+        when(oneTimeCodeStore.verify(any(), eq("654321"), anyInt(), any(Duration.class), anyBoolean()))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.MISMATCH, 2, null));
+
+        assertFalse(otpService.isOtpValid(phoneNumber, "654321"));
     }
 
     @Test
-    @DisplayName("isOtpValid should lock account on max incorrect attempts")
-    void isOtpValid_onMaxAttempts_shouldLockAccountAndThrow() {
-        var correctOtp = "123456";
-        var incorrectOtp = "654321";
-        when(redisTemplate.hasKey(lockedKey)).thenReturn(false);
-        when(valueOperations.get(otpKey)).thenReturn(correctOtp);
-        when(valueOperations.increment(failCountKey)).thenReturn((long) MAX_OTP_ATTEMPTS);
+    @DisplayName("isOtpValid should throw ACCOUNT_LOCKED when the last attempt locks the account")
+    void isOtpValid_onMaxAttempts_shouldThrowLocked() {
+        when(oneTimeCodeStore.verify(any(), eq("654321"), anyInt(), any(Duration.class), anyBoolean()))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.JUST_LOCKED, 900, null));
 
-        var exception = assertThrows(BusinessException.class, () -> otpService.isOtpValid(phoneNumber, incorrectOtp));
+        var exception = assertThrows(BusinessException.class, () -> otpService.isOtpValid(phoneNumber, "654321"));
 
         assertEquals(ErrorCode.ACCOUNT_LOCKED, exception.getErrorCode());
-        verify(valueOperations).set(eq(lockedKey), eq("true"), any(Duration.class));
-        verify(redisTemplate).delete(failCountKey);
     }
 
     @Test
@@ -163,13 +189,6 @@ class OtpServiceTest {
         assertFalse(otpService.isCooldown(phoneNumber));
     }
 
-    @Test
-    @DisplayName("setCooldown should set the cooldown key in Redis with correct duration")
-    void setCooldown_shouldSetKeyWithDuration() {
-        otpService.setCooldown(phoneNumber);
-        verify(valueOperations).set(eq(cooldownKey), eq("true"), eq(Duration.ofSeconds(60)));
-    }
-
     @Test
     @DisplayName("getOtpAttemptsLeft should return correct count when key exists")
     void getOtpAttemptsLeft_whenKeyExists_shouldReturnCorrectCount() {
@@ -5,6 +5,7 @@ import com.bni.orange.authentication.error.ErrorCode;
 import com.bni.orange.authentication.model.entity.User;
 import com.bni.orange.authentication.model.request.PinChangeRequest;
 import com.bni.orange.authentication.model.request.PinResetConfirmRequest;
+import com.bni.orange.authentication.model.request.PinVerifyRequest;
 import com.bni.orange.authentication.repository.RefreshTokenRepository;
 import com.bni.orange.authentication.repository.UserRepository;
 import com.bni.orange.authentication.validator.PinValidator;
@@ -25,8 +26,10 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
@@ -50,6 +53,10 @@ class PinServiceTest {
     @Mock
     private PinValidator pinValidator;
     @Mock
+    private PinVerificationEngine pinVerificationEngine;
+    @Mock
+    private TokenService tokenService;
+    @Mock
     private HttpServletRequest servletRequest;
     @Mock
     private User user;
@@ -84,6 +91,7 @@ class PinServiceTest {
             verify(user).setUserPins("encodedNewPin");
             verify(userRepository).save(user);
             verify(refreshTokenRepository).revokeAllByUser(user);
+            verify(tokenService).revokeAllInStore(userId);
         }
 
         @Test
@@ -172,4 +180,78 @@ class PinServiceTest {
             assertEquals("PIN contains sequential numbers.", exception.getMessage());
         }
     }
+
+    @Nested
+    @DisplayName("verifyPin Tests")
+    class VerifyPinTests {
+
+        private final PinVerifyRequest verifyRequest = new PinVerifyRequest("123456");
+
+        @Test
+        @DisplayName("Should report a valid PIN without touching the stored hash")
+        void verifyPin_withCorrectPin_shouldReturnValid() {
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(pinVerificationEngine.verify(verifyRequest.pin(), userPinHash))
+                .thenReturn(new PinVerificationEngine.Result(true, null));
+
+            var response = pinService.verifyPin(userId, verifyRequest, servletRequest);
+
+            assertTrue(response.getData().valid());
+            verify(userRepository, never()).updatePinIfUnchanged(any(), any(), any());
+            verify(userRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should store the re-encoded hash when the engine upgrades it")
+        void verifyPin_whenHashUpgraded_shouldPersistNewHash() {
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(pinVerificationEngine.verify(verifyRequest.pin(), userPinHash))
+                .thenReturn(new PinVerificationEngine.Result(true, "upgradedHash"));
+
+            var response = pinService.verifyPin(userId, verifyRequest, servletRequest);
+
+            assertTrue(response.getData().valid());
+            verify(userRepository).updatePinIfUnchanged(userId, userPinHash, "upgradedHash");
+            verify(userRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should report an invalid PIN")
+        void verifyPin_withWrongPin_shouldReturnInvalid() {
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(pinVerificationEngine.verify(verifyRequest.pin(), userPinHash))
+                .thenReturn(new PinVerificationEngine.Result(false, null));
+
+            var response = pinService.verifyPin(userId, verifyRequest, servletRequest);
+
+            assertFalse(response.getData().valid());
+            verify(userRepository, never()).updatePinIfUnchanged(any(), any(), any());
+            verify(userRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should throw PIN_NOT_SET when the user has no PIN")
+        void verifyPin_whenPinNotSet_shouldThrowException() {
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(user.getUserPins()).thenReturn(null);
+
+            var exception = assertThrows(BusinessException.class,
+                () -> pinService.verifyPin(userId, verifyRequest, servletRequest));
+
+            assertEquals(ErrorCode.PIN_NOT_SET, exception.getErrorCode());
+        }
+
+        @Test
+        @DisplayName("Should propagate PIN_VERIFICATION_BUSY when the engine is saturated")
+        void verifyPin_whenEngineSaturated_shouldThrowBusy() {
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(pinVerificationEngine.verify(verifyRequest.pin(), userPinHash))
+                .thenThrow(new BusinessException(ErrorCode.PIN_VERIFICATION_BUSY));
+
+            var exception = assertThrows(BusinessException.class,
+                () -> pinService.verifyPin(userId, verifyRequest, servletRequest));
+
+            assertEquals(ErrorCode.PIN_VERIFICATION_BUSY, exception.getErrorCode());
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package com.bni.orange.authentication.service;
+
+import com.bni.orange.authentication.config.properties.PinHashProperties;
+import com.bni.orange.authentication.error.BusinessException;
+import com.bni.orange.authentication.error.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PinVerificationEngineTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PinVerificationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new PinVerificationEngine(passwordEncoder, new PinHashProperties(0, 0, 0, 0, 0, 1, 1, 500), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should match without re-encoding when the hash is current")
+    void verify_withCurrentHash_shouldNotUpgrade() {
+        when(passwordEncoder.matches("123456", "hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hash")).thenReturn(false);
+
+        var result = engine.verify("123456", "hash");
+
+        assertTrue(result.matched());
+        assertNull(result.upgradedHash());
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    @Test
+    @DisplayName("Should re-encode the PIN when the stored hash uses an older work factor")
+    void verify_withOutdatedHash_shouldReturnUpgradedHash() {
+        when(passwordEncoder.matches("123456", "oldHash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("oldHash")).thenReturn(true);
+        when(passwordEncoder.encode("123456")).thenReturn("newHash");
+
+        var result = engine.verify("123456", "oldHash");
+
+        assertTrue(result.matched());
+        assertEquals("newHash", result.upgradedHash());
+        assertEquals(1.0, meterRegistry.counter("auth.pin.hash.upgraded").count());
+    }
+
+    @Test
+    @DisplayName("Should never upgrade on a mismatch")
+    void verify_withWrongPin_shouldNotUpgrade() {
+        when(passwordEncoder.matches("000000", "hash")).thenReturn(false);
+
+        var result = engine.verify("000000", "hash");
+
+        assertFalse(result.matched());
+        verify(passwordEncoder, never()).upgradeEncoding(anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject fast with PIN_VERIFICATION_BUSY when the pool and queue are full")
+    void verify_whenSaturated_shouldRejectFast() throws Exception {
+        // Long enough that neither held verification times out while the pool is saturated
+        engine.shutdown();
+        engine = new PinVerificationEngine(passwordEncoder, new PinHashProperties(0, 0, 0, 0, 0, 1, 1, 5000), meterRegistry);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(passwordEncoder.matches("slow", "hash")).thenAnswer(invocation -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+
+        var callers = Executors.newFixedThreadPool(2);
+        try {
+            var busyWorker = callers.submit(() -> engine.verify("slow", "hash"));
+            assertTrue(started.await(1, TimeUnit.SECONDS), "First verification never reached a worker");
+            var queued = callers.submit(() -> engine.verify("slow", "hash"));
+            await().atMost(1, TimeUnit.SECONDS).pollInterval(5, TimeUnit.MILLISECONDS)
+                .until(() -> meterRegistry.get("auth.pin.verify.queue.depth").gauge().value() >= 1);
+
+            var exception = assertThrows(BusinessException.class, () -> engine.verify("slow", "hash"));
+
+            assertEquals(ErrorCode.PIN_VERIFICATION_BUSY, exception.getErrorCode());
+            assertEquals(1.0, meterRegistry.counter("auth.pin.verify.rejected").count());
+            release.countDown();
+            assertTrue(busyWorker.get(1, TimeUnit.SECONDS).matched());
+            assertTrue(queued.get(1, TimeUnit.SECONDS).matched());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+}
@@ -7,6 +7,8 @@ import com.bni.orange.authentication.model.entity.User;
 import com.bni.orange.authentication.model.response.SessionResponse;
 import com.bni.orange.authentication.repository.RefreshTokenRepository;
 import com.bni.orange.authentication.repository.UserRepository;
+import com.bni.orange.authentication.service.redis.RefreshTokenStore;
+import com.bni.orange.authentication.service.session.RefreshTokenWriteBehind;
 import com.bni.orange.authentication.util.SecurityUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -45,6 +48,10 @@ class SessionServiceTest {
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
     @Mock
+    private RefreshTokenStore refreshTokenStore;
+    @Mock
+    private RefreshTokenWriteBehind refreshTokenWriteBehind;
+    @Mock
     private HttpServletRequest servletRequest;
     @Mock
     private User user;
@@ -100,6 +107,25 @@ class SessionServiceTest {
             assertEquals(otherSessionToken.getId(), otherSession.sessionId());
         }
 
+        @Test
+        @DisplayName("Should list sessions from Redis without reading the database")
+        void getUserSessions_withSessionsInStore_shouldNotQueryDatabase() {
+            var current = new RefreshTokenStore.Session(UUID.randomUUID(), userId, currentTokenHash,
+                Instant.now().plusSeconds(3600), "192.168.1.1", "UserAgent1", Instant.now());
+            var other = new RefreshTokenStore.Session(UUID.randomUUID(), userId, "other-hash",
+                Instant.now().plusSeconds(3600), "192.168.1.2", "UserAgent2", Instant.now().minusSeconds(3600));
+
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(refreshTokenStore.findActive(userId)).thenReturn(List.of(current, other));
+
+            var response = sessionService.getUserSessions(userId, currentTokenString, servletRequest);
+
+            assertEquals(2, response.getData().size());
+            var currentSession = response.getData().stream().filter(SessionResponse::isCurrent).findFirst().orElseThrow();
+            assertEquals(current.sessionId(), currentSession.sessionId());
+            verify(refreshTokenRepository, never()).findAllByUserAndIsRevokedFalse(any());
+        }
+
         @Test
         @DisplayName("Should throw IllegalArgumentException for null refresh token")
         void getUserSessions_withNullToken_shouldThrowException() {
@@ -148,6 +174,18 @@ class SessionServiceTest {
             verify(refreshTokenRepository).save(tokenToTerminate);
         }
 
+        @Test
+        @DisplayName("Should end a session held in Redis and queue its database revoke")
+        void terminateSession_withSessionInStore_shouldQueueRevoke() {
+            when(refreshTokenStore.terminate(userId, sessionId)).thenReturn(Optional.of("terminated-hash"));
+
+            var response = sessionService.terminateSession(userId, sessionId, servletRequest);
+
+            assertEquals("Session terminated successfully", response.getMessage());
+            verify(refreshTokenWriteBehind).enqueue(new RefreshTokenWriteBehind.Revoke("terminated-hash"));
+            verify(refreshTokenRepository, never()).findById(any());
+        }
+
         @Test
         @DisplayName("Should throw SESSION_NOT_FOUND when session does not exist")
         void terminateSession_whenSessionNotFound_shouldThrowException() {
@@ -1,13 +1,18 @@
 package com.bni.orange.authentication.service;
 
 import com.bni.orange.authentication.config.properties.JwtProperties;
+import com.bni.orange.authentication.config.properties.JwtSigningProperties;
 import com.bni.orange.authentication.config.properties.RedisPrefixProperties;
 import com.bni.orange.authentication.error.BusinessException;
 import com.bni.orange.authentication.error.ErrorCode;
 import com.bni.orange.authentication.model.entity.RefreshToken;
 import com.bni.orange.authentication.model.entity.User;
+import com.bni.orange.authentication.model.enums.SigningAlgorithm;
 import com.bni.orange.authentication.repository.RefreshTokenRepository;
+import com.bni.orange.authentication.service.redis.RefreshTokenStore;
+import com.bni.orange.authentication.service.session.RefreshTokenWriteBehind;
 import com.bni.orange.authentication.util.SecurityUtils;
+import com.bni.orange.shared.redis.OneTimeCodeStore;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +25,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -39,6 +45,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.contains;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -62,12 +69,20 @@ class TokenServiceTest {
     @Mock
     private JwtProperties jwtProperties;
     @Mock
+    private JwtSigningProperties jwtSigningProperties;
+    @Mock
     private StringRedisTemplate redisTemplate;
     @Mock
     private RedisPrefixProperties redisProperties;
     @Mock
     private ValueOperations<String, String> valueOperations;
     @Mock
+    private OneTimeCodeStore oneTimeCodeStore;
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+    @Mock
+    private RefreshTokenWriteBehind refreshTokenWriteBehind;
+    @Mock
     private HttpServletRequest servletRequest;
     @Mock
     private User user;
@@ -86,6 +101,7 @@ class TokenServiceTest {
         when(jwtProperties.stateTokenDuration()).thenReturn(Duration.ofMinutes(5));
         when(jwtProperties.accessTokenDuration()).thenReturn(Duration.ofMinutes(15));
         when(jwtProperties.refreshTokenDuration()).thenReturn(Duration.ofDays(30));
+        when(jwtSigningProperties.algorithm()).thenReturn(SigningAlgorithm.RS256);
 
         var mockJwt = mock(org.springframework.security.oauth2.jwt.Jwt.class);
         when(mockJwt.getTokenValue()).thenReturn("encoded-jwt-string");
@@ -106,21 +122,33 @@ class TokenServiceTest {
             assertEquals("encoded-jwt-string", token);
         }
 
+        @Test
+        @DisplayName("generateStateToken should sign with the configured algorithm")
+        void generateStateToken_shouldUseConfiguredAlgorithm() {
+            when(jwtSigningProperties.algorithm()).thenReturn(SigningAlgorithm.ES256);
+
+            tokenService.generateStateToken(user, "TEST_SCOPE");
+
+            var parameters = ArgumentCaptor.forClass(JwtEncoderParameters.class);
+            verify(jwtEncoder).encode(parameters.capture());
+            assertEquals("ES256", parameters.getValue().getJwsHeader().getAlgorithm().getName());
+        }
+
         @Test
         @DisplayName("consumeStateToken should delete a valid token")
         void consumeStateToken_withValidToken_shouldDeleteKey() {
             var jti = "valid-jti";
-            when(valueOperations.get(stateTokenPrefix + jti)).thenReturn("active");
+            when(oneTimeCodeStore.consume(stateTokenPrefix + jti, "active")).thenReturn(OneTimeCodeStore.Outcome.OK);
 
             assertDoesNotThrow(() -> tokenService.consumeStateToken(jti));
-            verify(redisTemplate).delete(stateTokenPrefix + jti);
+            verify(oneTimeCodeStore).consume(stateTokenPrefix + jti, "active");
         }
 
         @Test
         @DisplayName("consumeStateToken should throw if token is not found")
         void consumeStateToken_whenTokenNotFound_shouldThrow() {
             var jti = "not-found-jti";
-            when(valueOperations.get(stateTokenPrefix + jti)).thenReturn(null);
+            when(oneTimeCodeStore.consume(stateTokenPrefix + jti, "active")).thenReturn(OneTimeCodeStore.Outcome.NOT_FOUND);
 
             var ex = assertThrows(BusinessException.class, () -> tokenService.consumeStateToken(jti));
             assertEquals(ErrorCode.INVALID_TOKEN_SCOPE, ex.getErrorCode());
@@ -130,7 +158,7 @@ class TokenServiceTest {
         @DisplayName("consumeStateToken should throw if token is not active")
         void consumeStateToken_whenTokenNotActive_shouldThrow() {
             var jti = "used-jti";
-            when(valueOperations.get(stateTokenPrefix + jti)).thenReturn("used");
+            when(oneTimeCodeStore.consume(stateTokenPrefix + jti, "active")).thenReturn(OneTimeCodeStore.Outcome.ALREADY_USED);
 
             var ex = assertThrows(BusinessException.class, () -> tokenService.consumeStateToken(jti));
             assertEquals(ErrorCode.INVALID_TOKEN_SCOPE, ex.getErrorCode());
@@ -144,8 +172,50 @@ class TokenServiceTest {
         private final String oldTokenHash = SecurityUtils.hashToken(oldTokenString);
 
         @Test
-        @DisplayName("Should rotate token successfully for valid, active token")
-        void rotate_withValidToken_shouldSucceed() {
+        @DisplayName("Should rotate in Redis and queue the database write")
+        void rotate_withActiveTokenInStore_shouldRotateAndQueueWrites() {
+            when(refreshTokenStore.rotate(eq(oldTokenHash), any(RefreshTokenStore.Session.class)))
+                .thenReturn(Optional.of(new RefreshTokenStore.Rotation(RefreshTokenStore.RotationStatus.ROTATED, userId)));
+
+            var response = tokenService.rotateRefreshToken(oldTokenString, servletRequest);
+
+            assertEquals("Token refreshed successfully", response.getMessage());
+            assertEquals("encoded-jwt-string", response.getData().accessToken());
+            verify(refreshTokenWriteBehind).enqueue(new RefreshTokenWriteBehind.Revoke(oldTokenHash));
+            var change = ArgumentCaptor.forClass(RefreshTokenWriteBehind.Change.class);
+            verify(refreshTokenWriteBehind, times(2)).enqueue(change.capture());
+            var insert = (RefreshTokenWriteBehind.Insert) change.getAllValues().get(1);
+            assertEquals(userId, insert.session().userId());
+            verify(refreshTokenRepository, never()).findByTokenHashAndIsRevokedFalse(anyString());
+        }
+
+        @Test
+        @DisplayName("Should revoke the family when Redis reports reuse")
+        void rotate_whenStoreDetectsReuse_shouldThrowAndQueueRevokeAll() {
+            when(refreshTokenStore.rotate(eq(oldTokenHash), any(RefreshTokenStore.Session.class)))
+                .thenReturn(Optional.of(new RefreshTokenStore.Rotation(RefreshTokenStore.RotationStatus.REUSED, userId)));
+
+            var ex = assertThrows(BusinessException.class, () -> tokenService.rotateRefreshToken(oldTokenString, servletRequest));
+
+            assertEquals(ErrorCode.TOKEN_REUSE_DETECTED, ex.getErrorCode());
+            verify(refreshTokenWriteBehind).enqueue(new RefreshTokenWriteBehind.RevokeAll(userId));
+        }
+
+        @Test
+        @DisplayName("Should throw REFRESH_TOKEN_EXPIRED when Redis reports expiry")
+        void rotate_whenStoreReportsExpired_shouldThrow() {
+            when(refreshTokenStore.rotate(eq(oldTokenHash), any(RefreshTokenStore.Session.class)))
+                .thenReturn(Optional.of(new RefreshTokenStore.Rotation(RefreshTokenStore.RotationStatus.EXPIRED, userId)));
+
+            var ex = assertThrows(BusinessException.class, () -> tokenService.rotateRefreshToken(oldTokenString, servletRequest));
+
+            assertEquals(ErrorCode.REFRESH_TOKEN_EXPIRED, ex.getErrorCode());
+            verify(refreshTokenWriteBehind, never()).enqueue(any());
+        }
+
+        @Test
+        @DisplayName("Should rotate against the database for a token unknown to Redis")
+        void rotate_withLegacyToken_shouldFallBackToDatabase() {
             var refreshToken = mock(RefreshToken.class);
             when(refreshToken.getExpiryDate()).thenReturn(Instant.now().plus(Duration.ofDays(1)));
             when(refreshToken.getUser()).thenReturn(user);
@@ -155,9 +225,8 @@ class TokenServiceTest {
 
             verify(refreshToken).setRevoked(true);
             verify(refreshToken).setRevokedAt(any(Instant.class));
-
-            verify(refreshTokenRepository, times(2)).save(any(RefreshToken.class));
             verify(refreshTokenRepository).save(eq(refreshToken));
+            verify(refreshTokenStore).save(any(RefreshTokenStore.Session.class));
 
             assertEquals("Token refreshed successfully", response.getMessage());
         }
@@ -187,6 +256,7 @@ class TokenServiceTest {
 
             assertEquals(ErrorCode.TOKEN_REUSE_DETECTED, ex.getErrorCode());
             verify(refreshTokenRepository).revokeAllByUser(user);
+            verify(refreshTokenStore).revokeAll(userId);
         }
 
         @Test
@@ -208,18 +278,18 @@ class TokenServiceTest {
         private final String jti = "jwt-id";
 
         @Test
-        @DisplayName("Should blacklist access token and delete refresh token")
-        void logout_withAllTokens_shouldBlacklistAndDelete() {
+        @DisplayName("Should blacklist access token and revoke refresh token")
+        void logout_withAllTokens_shouldBlacklistAndRevoke() {
             when(jwt.getId()).thenReturn(jti);
             when(jwt.getExpiresAt()).thenReturn(Instant.now().plus(Duration.ofMinutes(5)));
-            var refreshToken = mock(RefreshToken.class);
-            when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
 
-            var refreshTokenString = "refresh-token-to-delete";
+            var refreshTokenString = "refresh-token-to-revoke";
+            var tokenHash = SecurityUtils.hashToken(refreshTokenString);
             tokenService.logout(jwt, refreshTokenString, servletRequest);
 
             verify(blacklistService).blacklistToken(eq(jti), any(Duration.class));
-            verify(refreshTokenRepository).delete(refreshToken);
+            verify(refreshTokenStore).revoke(tokenHash);
+            verify(refreshTokenWriteBehind).enqueue(new RefreshTokenWriteBehind.Revoke(tokenHash));
         }
 
         @Test
@@ -242,28 +312,43 @@ class TokenServiceTest {
             tokenService.logout(jwt, null, servletRequest);
 
             verify(blacklistService).blacklistToken(eq(jti), any(Duration.class));
-            verify(refreshTokenRepository, never()).findByTokenHash(anyString());
+            verify(refreshTokenStore, never()).revoke(anyString());
         }
     }
 
     @Test
-    @DisplayName("generateTokens should save a new refresh token and return a TokenResponse")
+    @DisplayName("generateTokens should store a new session and queue its database write")
     void generateTokens_shouldSaveTokenAndReturnResponse() {
         var ipAddress = "127.0.0.1";
         var userAgent = "Test Agent";
 
         var response = tokenService.generateTokens(user, ipAddress, userAgent);
 
-        var tokenCaptor = ArgumentCaptor.forClass(RefreshToken.class);
-        verify(refreshTokenRepository).save(tokenCaptor.capture());
+        var sessionCaptor = ArgumentCaptor.forClass(RefreshTokenStore.Session.class);
+        verify(refreshTokenStore).save(sessionCaptor.capture());
 
-        var savedToken = tokenCaptor.getValue();
-        assertEquals(user, savedToken.getUser());
-        assertEquals(ipAddress, savedToken.getIpAddress());
-        assertEquals(userAgent, savedToken.getUserAgent());
+        var session = sessionCaptor.getValue();
+        assertEquals(userId, session.userId());
+        assertEquals(ipAddress, session.ipAddress());
+        assertEquals(userAgent, session.userAgent());
+        assertEquals(SecurityUtils.hashToken(response.refreshToken()), session.tokenHash());
+        verify(refreshTokenWriteBehind).enqueue(new RefreshTokenWriteBehind.Insert(session));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
 
         assertEquals("encoded-jwt-string", response.accessToken());
         assertNotNull(response.refreshToken());
         assertTrue(response.expiresIn() > 0);
     }
+
+    @Test
+    @DisplayName("generateTokens should write to the database directly when Redis is unavailable")
+    void generateTokens_whenStoreUnavailable_shouldPersistDirectly() {
+        doThrow(new RedisConnectionFailureException("down")).when(refreshTokenStore).save(any(RefreshTokenStore.Session.class));
+
+        tokenService.generateTokens(user, "127.0.0.1", "Test Agent");
+
+        verify(refreshTokenRepository).insertIfAbsent(any(UUID.class), eq(userId), anyString(), any(Instant.class),
+            eq("127.0.0.1"), eq("Test Agent"), any(Instant.class));
+        verify(refreshTokenWriteBehind, never()).enqueue(any());
+    }
 }
@@ -0,0 +1,125 @@
+package com.bni.orange.authentication.service.lookup;
+
+import com.bni.orange.authentication.config.properties.PhoneNumberFilterProperties;
+import com.bni.orange.authentication.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RegisteredPhoneFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RegisteredPhoneFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = newFilter(true);
+    }
+
+    private RegisteredPhoneFilter newFilter(boolean enabled) {
+        var properties = new PhoneNumberFilterProperties(enabled, 1_000, 0.001, 2, Duration.ofMinutes(10), false);
+        return new RegisteredPhoneFilter(userRepository, properties, Runnable::run, meterRegistry);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("auth.phone_filter.lookups").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should report every number as possibly present before the first build")
+    void mightContain_beforeBuild_shouldBypass() {
+        assertTrue(filter.mightContain("+6281111111111"));
+        assertEquals(1.0, lookups("bypassed"));
+    }
+
+    @Test
+    @DisplayName("Should page through the database and rule out unknown numbers")
+    void bootstrap_shouldLoadAllPagesAndAnswerNegatives() {
+        when(userRepository.findPhoneNumbersAfter("", Limit.of(2)))
+            .thenReturn(List.of("+6281000000001", "+6281000000002"));
+        when(userRepository.findPhoneNumbersAfter("+6281000000002", Limit.of(2)))
+            .thenReturn(List.of("+6281000000003"));
+
+        filter.bootstrap();
+
+        assertTrue(filter.mightContain("+6281000000001"));
+        assertTrue(filter.mightContain("+6281000000003"));
+        assertFalse(filter.mightContain("+6289999999999"));
+        assertEquals(1.0, lookups("negative"));
+        assertEquals(1.0, meterRegistry.get("auth.phone_filter.ready").gauge().value());
+        assertEquals(1L, meterRegistry.get("auth.phone_filter.rebuild").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should include numbers added after the build")
+    void add_afterBuild_shouldBeVisible() {
+        when(userRepository.findPhoneNumbersAfter(anyString(), any(Limit.class))).thenReturn(List.of());
+        filter.rebuild();
+
+        filter.add("+6281234567890");
+
+        assertTrue(filter.mightContain("+6281234567890"));
+    }
+
+    @Test
+    @DisplayName("Should keep numbers registered while a rebuild is scanning")
+    void add_duringRebuild_shouldSurviveSwap() {
+        when(userRepository.findPhoneNumbersAfter(anyString(), any(Limit.class))).thenAnswer(invocation -> {
+            filter.add("+6281234567890");
+            return List.of();
+        });
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("+6281234567890"));
+    }
+
+    @Test
+    @DisplayName("Should keep the previous filter when a rebuild fails")
+    void rebuild_whenDatabaseFails_shouldKeepPreviousFilter() {
+        when(userRepository.findPhoneNumbersAfter(anyString(), any(Limit.class))).thenReturn(List.of("+6281000000001"));
+        filter.rebuild();
+        when(userRepository.findPhoneNumbersAfter(anyString(), any(Limit.class))).thenThrow(new IllegalStateException("db down"));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("+6281000000001"));
+        assertFalse(filter.mightContain("+6289999999999"));
+    }
+
+    @Test
+    @DisplayName("Should not scan the database when disabled")
+    void bootstrap_whenDisabled_shouldNotScan() {
+        var disabled = newFilter(false);
+
+        disabled.bootstrap();
+
+        assertTrue(disabled.mightContain("+6281000000001"));
+        verify(userRepository, never()).findPhoneNumbersAfter(anyString(), any(Limit.class));
+    }
+}
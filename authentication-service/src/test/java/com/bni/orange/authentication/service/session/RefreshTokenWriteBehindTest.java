@@ -0,0 +1,119 @@
+package com.bni.orange.authentication.service.session;
+
+import com.bni.orange.authentication.config.properties.RefreshTokenProperties;
+import com.bni.orange.authentication.repository.RefreshTokenRepository;
+import com.bni.orange.authentication.service.redis.RefreshTokenStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RefreshTokenWriteBehindTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehind = new RefreshTokenWriteBehind(
+            refreshTokenRepository,
+            new TransactionTemplate(transactionManager),
+            new RefreshTokenProperties(null, 1, 0, 0, 0, 0),
+            meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should keep inserts queued until the next flush")
+    void enqueue_insert_shouldWaitForFlush() {
+        writeBehind.enqueue(new RefreshTokenWriteBehind.Insert(session("hash-1")));
+
+        verify(refreshTokenRepository, never()).insertIfAbsent(any(), any(), any(), any(), any(), any(), any());
+
+        writeBehind.flush();
+
+        verify(refreshTokenRepository).insertIfAbsent(any(), any(), eq("hash-1"), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should leave a revocation to the flush and write it after the queued insert of its token")
+    void enqueue_revoke_shouldFollowQueuedInsert() {
+        writeBehind.enqueue(new RefreshTokenWriteBehind.Insert(session("hash-1")));
+        writeBehind.enqueue(new RefreshTokenWriteBehind.Revoke("hash-1"));
+
+        verify(refreshTokenRepository, never()).revokeByTokenHash(any());
+
+        writeBehind.flush();
+
+        var order = inOrder(refreshTokenRepository);
+        order.verify(refreshTokenRepository).insertIfAbsent(any(), any(), eq("hash-1"), any(), any(), any(), any());
+        order.verify(refreshTokenRepository).revokeByTokenHash("hash-1");
+    }
+
+    @Test
+    @DisplayName("Should write a revoke-all after the queued inserts of the user, bounded by its request time")
+    void enqueue_revokeAll_shouldFollowQueuedInsert() {
+        var session = session("hash-1");
+        writeBehind.enqueue(new RefreshTokenWriteBehind.Insert(session));
+        var before = Instant.now();
+        writeBehind.enqueue(new RefreshTokenWriteBehind.RevokeAll(session.userId()));
+
+        verify(refreshTokenRepository, never()).revokeAllByUserId(any(), any());
+
+        writeBehind.flush();
+
+        var issuedBefore = ArgumentCaptor.forClass(Instant.class);
+        var order = inOrder(refreshTokenRepository);
+        order.verify(refreshTokenRepository).insertIfAbsent(any(), any(), eq("hash-1"), any(), any(), any(), any());
+        order.verify(refreshTokenRepository).revokeAllByUserId(eq(session.userId()), issuedBefore.capture());
+        assertFalse(issuedBefore.getValue().isBefore(before));
+    }
+
+    @Test
+    @DisplayName("Should write an insert that overflows the queue directly, leaving the queued ones to the flush")
+    void enqueue_whenQueueFull_shouldWriteOverflowDirectly() {
+        writeBehind.enqueue(new RefreshTokenWriteBehind.Insert(session("hash-1")));
+        writeBehind.enqueue(new RefreshTokenWriteBehind.Insert(session("hash-2")));
+
+        verify(refreshTokenRepository).insertIfAbsent(any(), any(), eq("hash-2"), any(), any(), any(), any());
+        verify(refreshTokenRepository, never()).insertIfAbsent(any(), any(), eq("hash-1"), any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("auth.refresh_token.write_behind.overflow").count());
+
+        writeBehind.flush();
+
+        verify(refreshTokenRepository).insertIfAbsent(any(), any(), eq("hash-1"), any(), any(), any(), any());
+    }
+
+    private static RefreshTokenStore.Session session(String tokenHash) {
+        var now = Instant.now();
+        return new RefreshTokenStore.Session(
+            UUID.randomUUID(), UUID.randomUUID(), tokenHash, now.plus(Duration.ofDays(7)), "127.0.0.1", "JUnit", now);
+    }
+}
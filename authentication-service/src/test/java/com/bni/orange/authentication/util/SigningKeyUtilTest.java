@@ -0,0 +1,72 @@
+package com.bni.orange.authentication.util;
+
+import com.bni.orange.authentication.model.enums.SigningAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SigningKeyUtilTest {
+
+    private static String sign(SigningAlgorithm algorithm, JWK key) {
+        var now = Instant.now();
+        var claims = JwtClaimsSet.builder()
+            .issuer("auth-service")
+            .subject("subject")
+            .issuedAt(now)
+            .expiresAt(now.plusSeconds(60))
+            .build();
+        var header = JwsHeader.with(algorithm.getJwsAlgorithm()).build();
+        return SigningKeyUtil.encoder(key).encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SigningAlgorithm.class)
+    @DisplayName("Should sign and verify a token with each supported algorithm")
+    void encodeAndDecode_shouldRoundTrip(SigningAlgorithm algorithm) {
+        var key = SigningKeyUtil.toJwk(algorithm, SigningKeyUtil.generateKeyPair(algorithm));
+
+        var token = sign(algorithm, key);
+        var jwt = SigningKeyUtil.decoder(new JWKSet(key)).decode(token);
+
+        assertEquals("subject", jwt.getSubject());
+        assertEquals(algorithm.getJoseAlgorithm().getName(), jwt.getHeaders().get("alg"));
+        assertEquals(key.getKeyID(), jwt.getHeaders().get("kid"));
+        assertFalse(new JWKSet(key).toJSONObject().toString().contains("\"d\""));
+    }
+
+    @Test
+    @DisplayName("Should verify tokens from every published key during an algorithm switch")
+    void decoder_withMixedKeys_shouldAcceptEachAlgorithm() {
+        var rsa = SigningKeyUtil.toJwk(SigningAlgorithm.RS256, SigningKeyUtil.generateKeyPair(SigningAlgorithm.RS256));
+        var ec = SigningKeyUtil.toJwk(SigningAlgorithm.ES256, SigningKeyUtil.generateKeyPair(SigningAlgorithm.ES256));
+        var decoder = SigningKeyUtil.decoder(new JWKSet(List.of(ec, rsa.toPublicJWK())));
+
+        assertEquals("subject", decoder.decode(sign(SigningAlgorithm.ES256, ec)).getSubject());
+        assertEquals("subject", decoder.decode(sign(SigningAlgorithm.RS256, rsa)).getSubject());
+    }
+
+    @Test
+    @DisplayName("Should reject a token signed by a key that is not published")
+    void decoder_withUnknownKey_shouldReject() {
+        var published = SigningKeyUtil.toJwk(SigningAlgorithm.ES256, SigningKeyUtil.generateKeyPair(SigningAlgorithm.ES256));
+        var other = SigningKeyUtil.toJwk(SigningAlgorithm.ES256, SigningKeyUtil.generateKeyPair(SigningAlgorithm.ES256));
+
+        var token = sign(SigningAlgorithm.ES256, other);
+
+        assertThrows(JwtException.class, () -> SigningKeyUtil.decoder(new JWKSet(published)).decode(token));
+    }
+}
@@ -0,0 +1,111 @@
+package com.bni.orange.notification.benchmark;
+
+import com.bni.orange.notification.config.properties.EmailDeliveryProperties;
+import com.bni.orange.notification.service.mail.EmailDeliveryEngine;
+import com.bni.orange.notification.service.mail.EmailTemplate;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emails per second through {@link EmailDeliveryEngine}'s pooled, batched connections against one
+ * {@link JavaMailSenderImpl#send} per email, which opens and authenticates a connection every time. Both
+ * deliver to an in-process GreenMail SMTP server, so the gap is connection setup rather than network latency.
+ * <p>
+ * Run with {@code ./gradlew jmh -Pjmh.includes=EmailDeliveryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmailDeliveryBenchmark {
+
+    private static final int EMAILS = 200;
+    private static final EmailTemplate TEMPLATE = EmailTemplate.compile("<p>Your OTP is <b>{{otpCode}}</b></p>");
+
+    private GreenMail smtp;
+    private JavaMailSenderImpl mailSender;
+    private EmailDeliveryEngine engine;
+
+    @Setup
+    public void setUp() {
+        smtp = new GreenMail(ServerSetupTest.SMTP);
+        smtp.setUser("sender", "secret");
+        smtp.start();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getSmtp().getPort());
+        mailSender.setUsername("sender");
+        mailSender.setPassword("secret");
+        var javaMailProperties = new Properties();
+        javaMailProperties.put("mail.smtp.auth", "true");
+        mailSender.setJavaMailProperties(javaMailProperties);
+
+        engine = new EmailDeliveryEngine(
+            mailSender,
+            new EmailDeliveryProperties(4, 20, 10_000, Duration.ofSeconds(30), 1000),
+            new SimpleMeterRegistry());
+        engine.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        smtp.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.stop();
+        smtp.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EMAILS)
+    public void connectionPerEmail() throws MessagingException {
+        for (int i = 0; i < EMAILS; i++) {
+            mailSender.send(message(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EMAILS)
+    public void pooled() throws MessagingException {
+        var messages = new MimeMessage[EMAILS];
+        for (int i = 0; i < EMAILS; i++) {
+            messages[i] = message(i);
+        }
+        Flux.fromArray(messages)
+            .flatMap(engine::send, EMAILS)
+            .blockLast(Duration.ofSeconds(60));
+    }
+
+    private MimeMessage message(int index) throws MessagingException {
+        var message = mailSender.createMimeMessage();
+        var helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom("noreply@orange.test");
+        helper.setTo("user" + index + "@orange.test");
+        helper.setSubject("Your OTP Code");
+        helper.setText(TEMPLATE.render(Map.of("otpCode", "123456")), true);
+        return message;
+    }
+}
@@ -0,0 +1,78 @@
+package com.bni.orange.notification.benchmark;
+
+import com.bni.orange.notification.component.NotificationEventDecoder;
+import com.bni.orange.splitbill.proto.v1.MemberLink;
+import com.bni.orange.splitbill.proto.v1.SplitBillCreatedEvent;
+import com.google.protobuf.Timestamp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding one split-bill-created event from its JSON and its protobuf encoding through
+ * {@link NotificationEventDecoder}, including the per-format counter it bumps. Both payloads carry the same
+ * three-member event.
+ * <p>
+ * Run with {@code ./gradlew jmh -Pjmh.includes=NotificationEventDecoderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NotificationEventDecoderBenchmark {
+
+    private static final String SPLIT_BILL_CREATED_JSON = """
+        {"eventId":"event-1","billId":"bill-123","ownerUserId":"user-owner-1","ownerPhoneE164":"+6281234567890",\
+        "ownerFullName":"Budi Santoso","ownerShortLink":"https://s.orange.id/abc123",\
+        "memberLinks":[\
+        {"userId":"user-1","memberId":"member-1","shortLink":"https://s.orange.id/m1","phoneE164":"+6281200000001"},\
+        {"userId":"user-2","memberId":"member-2","shortLink":"https://s.orange.id/m2","phoneE164":"+6281200000002"},\
+        {"userId":"user-3","memberId":"member-3","shortLink":"https://s.orange.id/m3","phoneE164":"+6281200000003"}],\
+        "createdAt":"2025-01-15T10:30:00Z"}""";
+
+    private NotificationEventDecoder decoder;
+    private byte[] json;
+    private byte[] protobuf;
+
+    @Setup
+    public void setUp() {
+        decoder = new NotificationEventDecoder(new SimpleMeterRegistry());
+        json = SPLIT_BILL_CREATED_JSON.getBytes(StandardCharsets.UTF_8);
+
+        var builder = SplitBillCreatedEvent.newBuilder()
+            .setEventId("event-1")
+            .setBillId("bill-123")
+            .setOwnerUserId("user-owner-1")
+            .setOwnerPhoneE164("+6281234567890")
+            .setOwnerFullName("Budi Santoso")
+            .setOwnerShortLink("https://s.orange.id/abc123")
+            .setCreatedAt(Timestamp.newBuilder().setSeconds(1_736_937_000));
+        for (int i = 1; i <= 3; i++) {
+            builder.addMemberLinks(MemberLink.newBuilder()
+                .setUserId("user-" + i)
+                .setMemberId("member-" + i)
+                .setShortLink("https://s.orange.id/m" + i)
+                .setPhoneE164("+628120000000" + i));
+        }
+        protobuf = builder.build().toByteArray();
+    }
+
+    @Benchmark
+    public void json(Blackhole blackhole) throws IOException {
+        blackhole.consume(decoder.splitBillCreated(json));
+    }
+
+    @Benchmark
+    public void protobuf(Blackhole blackhole) throws IOException {
+        blackhole.consume(decoder.splitBillCreated(protobuf));
+    }
+}
@@ -8,6 +8,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 @Component
 @RequiredArgsConstructor
 public class UserClient {
@@ -33,4 +38,16 @@ public class UserClient {
                 .bodyToMono(new ParameterizedTypeReference<ApiResponse<UserProfileResponse>>() {})
                 .map(ApiResponse::getData);
     }
+
+    /**
+     * Resolves many users in one call; unknown ids and phone numbers are absent from the result.
+     */
+    public Mono<List<UserProfileResponse>> findUsers(Collection<UUID> userIds, Collection<String> phonesE164) {
+        return this.userWebClient.post()
+                .uri("/internal/v1/user/batch")
+                .bodyValue(Map.of("ids", userIds, "phoneNumbers", phonesE164))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ApiResponse<List<UserProfileResponse>>>() {})
+                .map(ApiResponse::getData);
+    }
 }
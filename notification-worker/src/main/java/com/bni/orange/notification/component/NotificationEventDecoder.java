@@ -0,0 +1,162 @@
+package com.bni.orange.notification.component;
+
+import com.bni.orange.notification.model.MemberLink;
+import com.bni.orange.notification.model.PaymentIntentCreatedEvent;
+import com.bni.orange.notification.model.PaymentStatusUpdatedEvent;
+import com.bni.orange.notification.model.SplitBillCreatedEvent;
+import com.bni.orange.notification.model.SplitBillRemindedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.protobuf.Timestamp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Reads split-bill and payment events in either wire format while producers move from JSON to the v1
+ * protobuf schemas. The format is taken from the first byte: a JSON object always starts with {@code '{'},
+ * which protobuf never writes as a first byte (it would be the tag of a field-15 group, a wire type proto3
+ * does not use). Both formats decode into the same model classes, and {@code notification.event.decoded}
+ * counts them per format so the JSON path can be removed once it stops moving.
+ */
+@Component
+public class NotificationEventDecoder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader SPLIT_BILL_CREATED = MAPPER.readerFor(SplitBillCreatedEvent.class);
+    private static final ObjectReader SPLIT_BILL_REMINDED = MAPPER.readerFor(SplitBillRemindedEvent.class);
+    private static final ObjectReader PAYMENT_INTENT_CREATED = MAPPER.readerFor(PaymentIntentCreatedEvent.class);
+    private static final ObjectReader PAYMENT_STATUS_UPDATED = MAPPER.readerFor(PaymentStatusUpdatedEvent.class);
+
+    private final DecodedCounters splitBillCreated;
+    private final DecodedCounters splitBillReminded;
+    private final DecodedCounters paymentIntentCreated;
+    private final DecodedCounters paymentStatusUpdated;
+
+    public NotificationEventDecoder(MeterRegistry meterRegistry) {
+        this.splitBillCreated = DecodedCounters.register(meterRegistry, "splitbill-created");
+        this.splitBillReminded = DecodedCounters.register(meterRegistry, "splitbill-reminded");
+        this.paymentIntentCreated = DecodedCounters.register(meterRegistry, "payment-intent-created");
+        this.paymentStatusUpdated = DecodedCounters.register(meterRegistry, "payment-status-updated");
+    }
+
+    public SplitBillCreatedEvent splitBillCreated(byte[] payload) throws IOException {
+        if (isJson(payload, splitBillCreated)) {
+            return SPLIT_BILL_CREATED.readValue(payload);
+        }
+        var proto = com.bni.orange.splitbill.proto.v1.SplitBillCreatedEvent.parseFrom(payload);
+        var event = new SplitBillCreatedEvent();
+        event.setEventId(emptyToNull(proto.getEventId()));
+        event.setBillId(emptyToNull(proto.getBillId()));
+        event.setOwnerUserId(emptyToNull(proto.getOwnerUserId()));
+        event.setOwnerPhoneE164(emptyToNull(proto.getOwnerPhoneE164()));
+        event.setOwnerFullName(emptyToNull(proto.getOwnerFullName()));
+        event.setOwnerShortLink(emptyToNull(proto.getOwnerShortLink()));
+        event.setMemberLinks(memberLinks(proto.getMemberLinksList()));
+        event.setCreatedAt(proto.hasCreatedAt() ? toIsoString(proto.getCreatedAt()) : null);
+        return event;
+    }
+
+    public SplitBillRemindedEvent splitBillReminded(byte[] payload) throws IOException {
+        if (isJson(payload, splitBillReminded)) {
+            return SPLIT_BILL_REMINDED.readValue(payload);
+        }
+        var proto = com.bni.orange.splitbill.proto.v1.SplitBillRemindedEvent.parseFrom(payload);
+        var event = new SplitBillRemindedEvent();
+        event.setEventId(emptyToNull(proto.getEventId()));
+        event.setBillId(emptyToNull(proto.getBillId()));
+        event.setRemindedByUserId(emptyToNull(proto.getRemindedByUserId()));
+        event.setRequestedChannels(List.copyOf(proto.getRequestedChannelsList()));
+        event.setMemberLinks(memberLinks(proto.getMemberLinksList()));
+        event.setResult(new HashMap<>(proto.getResultMap()));
+        event.setRemindedAt(proto.hasRemindedAt() ? toIsoString(proto.getRemindedAt()) : null);
+        return event;
+    }
+
+    public PaymentIntentCreatedEvent paymentIntentCreated(byte[] payload) throws IOException {
+        if (isJson(payload, paymentIntentCreated)) {
+            return PAYMENT_INTENT_CREATED.readValue(payload);
+        }
+        var proto = com.bni.orange.splitbill.proto.v1.PaymentIntentCreatedEvent.parseFrom(payload);
+        var event = new PaymentIntentCreatedEvent();
+        event.setEventId(emptyToNull(proto.getEventId()));
+        event.setPaymentIntentId(emptyToNull(proto.getPaymentIntentId()));
+        event.setUserId(emptyToNull(proto.getUserId()));
+        event.setBillId(emptyToNull(proto.getBillId()));
+        event.setCurrency(emptyToNull(proto.getCurrency()));
+        event.setAmountMinor(proto.hasAmountMinor() ? proto.getAmountMinor() : null);
+        event.setCreatedAt(proto.hasCreatedAt() ? toIsoString(proto.getCreatedAt()) : null);
+        event.setMetadata(new HashMap<>(proto.getMetadataMap()));
+        return event;
+    }
+
+    public PaymentStatusUpdatedEvent paymentStatusUpdated(byte[] payload) throws IOException {
+        if (isJson(payload, paymentStatusUpdated)) {
+            return PAYMENT_STATUS_UPDATED.readValue(payload);
+        }
+        var proto = com.bni.orange.splitbill.proto.v1.PaymentStatusUpdatedEvent.parseFrom(payload);
+        var event = new PaymentStatusUpdatedEvent();
+        event.setPaymentIntentId(emptyToNull(proto.getPaymentIntentId()));
+        event.setTransactionId(emptyToNull(proto.getTransactionId()));
+        event.setTransactionRef(emptyToNull(proto.getTransactionRef()));
+        event.setBillId(emptyToNull(proto.getBillId()));
+        event.setMemberId(emptyToNull(proto.getMemberId()));
+        event.setAmount(proto.getAmount());
+        event.setStatus(emptyToNull(proto.getStatus()));
+        event.setFailureCode(emptyToNull(proto.getFailureCode()));
+        event.setFailureMessage(emptyToNull(proto.getFailureReason()));
+        if (proto.hasUpdatedAt()) {
+            event.setUpdatedAt(toIsoString(proto.getUpdatedAt()));
+        } else if (proto.hasPaidAt()) {
+            event.setUpdatedAt(toIsoString(proto.getPaidAt()));
+        }
+        return event;
+    }
+
+    private static boolean isJson(byte[] payload, DecodedCounters counters) {
+        var json = payload != null && payload.length > 0 && payload[0] == '{';
+        (json ? counters.json() : counters.protobuf()).increment();
+        return json;
+    }
+
+    private static List<MemberLink> memberLinks(List<com.bni.orange.splitbill.proto.v1.MemberLink> protos) {
+        return protos.stream()
+            .map(proto -> {
+                var link = new MemberLink();
+                link.setUserId(emptyToNull(proto.getUserId()));
+                link.setMemberId(emptyToNull(proto.getMemberId()));
+                link.setShortLink(emptyToNull(proto.getShortLink()));
+                link.setPhoneE164(emptyToNull(proto.getPhoneE164()));
+                return link;
+            })
+            .toList();
+    }
+
+    private static String toIsoString(Timestamp timestamp) {
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()).toString();
+    }
+
+    /**
+     * proto3 has no null strings; the services treat a missing value as null.
+     */
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Registered once per event type, so decoding does not look meters up in the registry.
+     */
+    private record DecodedCounters(Counter json, Counter protobuf) {
+
+        static DecodedCounters register(MeterRegistry meterRegistry, String eventType) {
+            return new DecodedCounters(
+                meterRegistry.counter("notification.event.decoded", "event", eventType, "format", "json"),
+                meterRegistry.counter("notification.event.decoded", "event", eventType, "format", "protobuf"));
+        }
+    }
+}
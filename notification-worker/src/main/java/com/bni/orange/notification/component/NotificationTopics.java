@@ -0,0 +1,62 @@
+package com.bni.orange.notification.component;
+
+import com.bni.orange.notification.config.properties.KafkaRetryProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Source topics this worker consumes, split by how failures are handled. Retried topics get delayed retry
+ * topics before their dead-letter topic. OTP topics go straight to theirs: a code arriving after several
+ * minutes of backoff would already have expired.
+ */
+@Component
+public class NotificationTopics {
+
+    private final KafkaRetryProperties retryProperties;
+    private final List<String> retried;
+    private final List<String> deadLetterOnly;
+
+    public NotificationTopics(
+        KafkaRetryProperties retryProperties,
+        @Value("${orange.kafka.topics.otp-whatsapp}") String otpWhatsapp,
+        @Value("${orange.kafka.topics.otp-email}") String otpEmail,
+        @Value("${orange.kafka.topics.splitbill-created:splitbill.events.created}") String splitBillCreated,
+        @Value("${orange.kafka.topics.splitbill-reminded:splitbill.events.reminded}") String splitBillReminded,
+        @Value("${orange.kafka.topics.payment-intent:payment.intent.created}") String paymentIntent,
+        @Value("${orange.kafka.topics.payment-status:payment.status.updated}") String paymentStatus,
+        @Value("${orange.kafka.topics.wallet-invite-generated:wallet.events.invite-generated}") String inviteGenerated
+    ) {
+        this.retryProperties = retryProperties;
+        this.retried = List.of(splitBillCreated, splitBillReminded, paymentIntent, paymentStatus, inviteGenerated);
+        this.deadLetterOnly = List.of(otpWhatsapp, otpEmail);
+    }
+
+    public List<String> retried() {
+        return retried;
+    }
+
+    public List<String> deadLetterOnly() {
+        return deadLetterOnly;
+    }
+
+    public boolean isSource(String topic) {
+        return retried.contains(topic) || deadLetterOnly.contains(topic);
+    }
+
+    public List<String> deadLetterTopics() {
+        return Stream.concat(retried.stream(), deadLetterOnly.stream())
+            .map(retryProperties::dltTopic)
+            .toList();
+    }
+
+    /**
+     * Where a replayed record is re-injected. Retried sources get their first retry topic, which only this
+     * worker consumes, so replaying does not redeliver the event to other services sharing the source topic.
+     */
+    public String replayTarget(String sourceTopic) {
+        return retried.contains(sourceTopic) ? retryProperties.firstRetryTopic(sourceTopic) : sourceTopic;
+    }
+}
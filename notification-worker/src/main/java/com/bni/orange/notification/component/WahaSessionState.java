@@ -0,0 +1,199 @@
+package com.bni.orange.notification.component;
+
+import com.bni.orange.notification.client.WahaApiClient;
+import com.bni.orange.notification.config.properties.WahaSessionStateProperties;
+import com.bni.orange.notification.service.WahaSessionService.SessionNotReadyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Last known WAHA session status, fed by session webhooks and by every status check this worker makes.
+ * Senders call {@link #awaitReady()} instead of asking WAHA themselves: while the session is WORKING it
+ * completes immediately, otherwise the send is parked in a bounded queue and released on the next
+ * transition. While anything is parked the status is polled every {@code refreshInterval}, so recovery is
+ * noticed even when webhooks are not configured.
+ * <p>
+ * A status check or send that cannot reach WAHA at all marks the session {@value #UNREACHABLE} at once, rather
+ * than trusting the last WORKING observation until the next health check: the next send parks and starts the
+ * poll, which releases it as soon as WAHA answers WORKING again.
+ */
+@Slf4j
+@Component
+public class WahaSessionState {
+
+    private static final String WORKING = "WORKING";
+    private static final String FAILED = "FAILED";
+    private static final String UNREACHABLE = "UNREACHABLE";
+
+    private final WahaApiClient wahaApiClient;
+    private final WahaSessionStateProperties properties;
+
+    private final Queue<Sinks.Empty<Void>> parked = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger parkedCount = new AtomicInteger();
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    private volatile String status;
+    private volatile Instant observedAt;
+
+    public WahaSessionState(
+        WahaApiClient wahaApiClient,
+        WahaSessionStateProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.wahaApiClient = wahaApiClient;
+        this.properties = properties;
+        Gauge.builder("notification.waha.session.parked", parkedCount, AtomicInteger::get)
+            .description("Sends waiting for the WAHA session to become WORKING")
+            .register(meterRegistry);
+        Gauge.builder("notification.waha.session.ready", this, state -> state.isReady() ? 1 : 0)
+            .description("1 while the last known WAHA session status is WORKING")
+            .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return WORKING.equalsIgnoreCase(status);
+    }
+
+    /**
+     * @return the last observed status, or {@code null} before the first observation
+     */
+    public String status() {
+        return status;
+    }
+
+    /**
+     * Records a status observation and releases parked sends: they proceed on WORKING and fail on FAILED.
+     */
+    public void update(String newStatus, String source) {
+        if (newStatus == null) {
+            return;
+        }
+        var previous = status;
+        status = newStatus;
+        observedAt = Instant.now();
+        if (!newStatus.equalsIgnoreCase(previous)) {
+            log.info("WAHA session status {} -> {} (source: {})", previous, newStatus, source);
+        }
+
+        if (isReady()) {
+            releaseParked(null);
+        } else if (FAILED.equalsIgnoreCase(newStatus)) {
+            releaseParked(new IllegalStateException("Session is in FAILED state"));
+        }
+    }
+
+    /**
+     * Marks the session {@value #UNREACHABLE} when {@code error} shows WAHA could not be reached: a failed
+     * connection, an I/O error or a timeout. Errors WAHA answered with, such as 4xx and 5xx responses, say
+     * nothing about the session and are ignored.
+     */
+    public void recordFailure(Throwable error, String source) {
+        if (isConnectionFailure(error)) {
+            update(UNREACHABLE, source);
+        }
+    }
+
+    /**
+     * Completes once the session is WORKING. Fails with {@link SessionNotReadyException} when the parking
+     * queue is full, and with {@link IllegalStateException} when the session has FAILED or stays down for
+     * longer than {@code maxWait}.
+     */
+    public Mono<Void> awaitReady() {
+        return Mono.defer(() -> {
+            if (isReady()) {
+                return Mono.empty();
+            }
+            if (FAILED.equalsIgnoreCase(status) && !isStale()) {
+                return Mono.error(new IllegalStateException("Session is in FAILED state"));
+            }
+            return park();
+        });
+    }
+
+    private Mono<Void> park() {
+        if (parkedCount.incrementAndGet() > properties.maxParked()) {
+            parkedCount.decrementAndGet();
+            log.warn("WAHA session not ready ({}) and {} sends already parked, rejecting", status, properties.maxParked());
+            return Mono.error(new SessionNotReadyException(status));
+        }
+
+        var waiter = Sinks.<Void>empty();
+        parked.add(waiter);
+        // The session may have come up between the readiness check and the add
+        if (isReady()) {
+            releaseParked(null);
+        }
+        pollWhileParked();
+
+        return waiter.asMono()
+            .timeout(properties.maxWait(), Mono.error(() -> new IllegalStateException(
+                "Session did not become ready within " + properties.maxWait() + " (status: " + status + ")")))
+            .doFinally(signal -> {
+                if (parked.remove(waiter)) {
+                    parkedCount.decrementAndGet();
+                }
+            });
+    }
+
+    private void releaseParked(Throwable error) {
+        Sinks.Empty<Void> waiter;
+        while ((waiter = parked.poll()) != null) {
+            parkedCount.decrementAndGet();
+            if (error == null) {
+                waiter.tryEmitEmpty();
+            } else {
+                waiter.tryEmitError(error);
+            }
+        }
+    }
+
+    /**
+     * Starts a single status poll loop unless one is running; it stops once nothing is parked.
+     */
+    private void pollWhileParked() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        Mono.defer(wahaApiClient::getSessionStatus)
+            .doOnNext(session -> update(session.status(), "poll"))
+            .onErrorResume(error -> {
+                recordFailure(error, "poll");
+                log.warn("Could not poll WAHA session status: {}", error.getMessage());
+                return Mono.empty();
+            })
+            .repeatWhen(completions -> completions
+                .takeWhile(tick -> !parked.isEmpty())
+                .delayElements(properties.refreshInterval()))
+            .doFinally(signal -> polling.set(false))
+            .subscribe();
+    }
+
+    private static boolean isConnectionFailure(Throwable error) {
+        for (var cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientRequestException
+                || cause instanceof IOException
+                || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isStale() {
+        var at = observedAt;
+        return at == null || at.plus(properties.refreshInterval()).isBefore(Instant.now());
+    }
+}
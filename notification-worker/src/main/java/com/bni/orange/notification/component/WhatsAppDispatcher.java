@@ -0,0 +1,325 @@
+package com.bni.orange.notification.component;
+
+import com.bni.orange.notification.client.WahaApiClient;
+import com.bni.orange.notification.config.properties.WahaConfigProperties;
+import com.bni.orange.notification.config.properties.WhatsAppDispatchProperties;
+import com.bni.orange.notification.model.response.WahaMessageResponse;
+import com.bni.orange.notification.service.ledger.DeliveryLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single outbound path to WAHA for every WhatsApp sender. Messages queue in priority lanes and leave through
+ * a token bucket sized for the session, highest lane first. The last {@code reservedForOtp} tokens are only
+ * spent on OTPs, so a reminder blast that drains the bucket still leaves room for the next OTP.
+ */
+@Slf4j
+@Component
+public class WhatsAppDispatcher {
+
+    /**
+     * Dispatch lanes, highest priority first.
+     */
+    public enum Lane {
+        OTP,
+        PAYMENT,
+        BULK
+    }
+
+    private final WahaApiClient wahaApiClient;
+    private final WahaSessionState sessionState;
+    private final DeliveryLedger deliveryLedger;
+    private final WhatsAppDispatchProperties properties;
+    private final TokenBucket bucket;
+    private final Map<Lane, LaneQueue> lanes = new EnumMap<>(Lane.class);
+
+    private static final long NO_DRAIN_SCHEDULED = Long.MIN_VALUE;
+
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private final AtomicLong drainDeadline = new AtomicLong(NO_DRAIN_SCHEDULED);
+
+    public WhatsAppDispatcher(
+        WahaApiClient wahaApiClient,
+        WahaSessionState sessionState,
+        DeliveryLedger deliveryLedger,
+        WahaConfigProperties wahaConfig,
+        WhatsAppDispatchProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.wahaApiClient = wahaApiClient;
+        this.sessionState = sessionState;
+        this.deliveryLedger = deliveryLedger;
+        this.properties = properties;
+        this.bucket = new TokenBucket(properties.ratePerSecond(), properties.burst());
+        for (var lane : Lane.values()) {
+            lanes.put(lane, new LaneQueue(lane, wahaConfig.sessionName(), properties.queueCapacity(), meterRegistry));
+        }
+    }
+
+    /**
+     * Queues a text message on {@code lane}. The returned mono completes with WAHA's response once the message
+     * has been sent, or fails with {@link DispatchRejectedException} when the lane is full. Cancelling it
+     * before the message leaves the queue withdraws the message.
+     */
+    public Mono<WahaMessageResponse> send(Lane lane, String phoneNumber, String message) {
+        return enqueue(lane, Mono.defer(() -> wahaApiClient.sendTextMessage(phoneNumber, message)));
+    }
+
+    /**
+     * Like {@link #send}, but at most once per {@code deliveryId} and phone number: when the
+     * {@link DeliveryLedger} already holds that delivery, completes with the earlier WAHA message id instead of
+     * sending again.
+     * <p>
+     * The ledger is consulted when the message leaves its lane, not when it is queued. A claim taken at enqueue
+     * would have to outlive the whole wait in a slow lane, which can exceed the ledger's {@code inFlightTtl} and
+     * let a redelivered copy claim and send it a second time.
+     */
+    public Mono<WahaMessageResponse> sendOnce(Lane lane, String deliveryId, String phoneNumber, String message) {
+        return enqueue(lane, Mono.defer(() -> deliveryLedger.deliverOnce(
+            deliveryId,
+            phoneNumber,
+            wahaApiClient.sendTextMessage(phoneNumber, message),
+            WahaMessageResponse::id,
+            messageId -> new WahaMessageResponse(messageId, null, null, phoneNumber, null)
+        )));
+    }
+
+    /**
+     * Queues {@code dispatch}, which is subscribed once the message has a send token.
+     */
+    private Mono<WahaMessageResponse> enqueue(Lane lane, Mono<WahaMessageResponse> dispatch) {
+        return Mono.defer(() -> {
+            var queue = lanes.get(lane);
+            if (!queue.reserveSlot()) {
+                queue.dropped.increment();
+                log.warn("WhatsApp {} lane full ({} queued), dropping message", lane, properties.queueCapacity());
+                return Mono.error(new DispatchRejectedException(lane));
+            }
+
+            var pending = new Pending(dispatch);
+            queue.items.add(pending);
+            drain();
+
+            return pending.result.asMono()
+                .doOnCancel(() -> {
+                    if (pending.claim()) {
+                        queue.depth.decrementAndGet();
+                    }
+                });
+        });
+    }
+
+    /**
+     * Serialised drain: only one thread dispatches at a time, and a request made while it runs causes one
+     * more pass instead of a concurrent one.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        var missed = 1;
+        do {
+            var waitNanos = dispatchAvailable();
+            if (waitNanos > 0) {
+                scheduleDrain(waitNanos);
+            }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Sends queued messages while the bucket allows.
+     *
+     * @return nanoseconds until the next queued message may go, or 0 when every lane is empty
+     */
+    private long dispatchAvailable() {
+        while (true) {
+            var queue = highestNonEmptyLane();
+            if (queue == null) {
+                return 0;
+            }
+
+            var reserve = queue.lane == Lane.OTP ? 0 : properties.reservedForOtp();
+            var waitNanos = bucket.tryAcquire(reserve);
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+
+            var pending = queue.items.poll();
+            if (pending == null || !pending.claim()) {
+                // Withdrawn after the lane was picked
+                bucket.refund();
+                continue;
+            }
+            queue.depth.decrementAndGet();
+            queue.waitTimer.record(System.nanoTime() - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+
+            pending.dispatch
+                .subscribe(
+                    pending.result::tryEmitValue,
+                    error -> {
+                        sessionState.recordFailure(error, "send");
+                        pending.result.tryEmitError(error);
+                    },
+                    pending.result::tryEmitEmpty
+                );
+        }
+    }
+
+    private LaneQueue highestNonEmptyLane() {
+        for (var queue : lanes.values()) {
+            var head = queue.items.peek();
+            while (head != null && head.isClaimed()) {
+                queue.items.poll();
+                head = queue.items.peek();
+            }
+            if (head != null) {
+                return queue;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes sure a drain runs within {@code delayNanos}. A pending wake-up that is due sooner is kept; a later
+     * one, typically set while only a lower lane was waiting on the OTP reserve, is superseded and only
+     * causes a harmless extra pass when it fires.
+     */
+    private void scheduleDrain(long delayNanos) {
+        var deadline = System.nanoTime() + delayNanos;
+        while (true) {
+            var current = drainDeadline.get();
+            if (current != NO_DRAIN_SCHEDULED && current - deadline <= 0) {
+                return;
+            }
+            if (drainDeadline.compareAndSet(current, deadline)) {
+                break;
+            }
+        }
+        Schedulers.parallel().schedule(() -> {
+            drainDeadline.compareAndSet(deadline, NO_DRAIN_SCHEDULED);
+            drain();
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static class DispatchRejectedException extends RuntimeException {
+        public DispatchRejectedException(Lane lane) {
+            super("WhatsApp " + lane + " lane is full");
+        }
+    }
+
+    private static final class Pending {
+        private final Mono<WahaMessageResponse> dispatch;
+        private final long enqueuedAt = System.nanoTime();
+        private final Sinks.One<WahaMessageResponse> result = Sinks.one();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Pending(Mono<WahaMessageResponse> dispatch) {
+            this.dispatch = dispatch;
+        }
+
+        /**
+         * Taken exactly once, either by the dispatcher to send it or by the caller withdrawing it.
+         */
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        private boolean isClaimed() {
+            return claimed.get();
+        }
+    }
+
+    private static final class LaneQueue {
+        private final Lane lane;
+        private final int capacity;
+        private final Queue<Pending> items = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final Timer waitTimer;
+        private final Counter dropped;
+
+        private LaneQueue(Lane lane, String session, int capacity, MeterRegistry meterRegistry) {
+            this.lane = lane;
+            this.capacity = capacity;
+            var laneTag = lane.name().toLowerCase();
+            Gauge.builder("notification.whatsapp.dispatch.queue_depth", depth, AtomicInteger::get)
+                .description("WhatsApp messages waiting for a send token")
+                .tag("session", session)
+                .tag("lane", laneTag)
+                .register(meterRegistry);
+            this.waitTimer = Timer.builder("notification.whatsapp.dispatch.wait")
+                .description("Time a WhatsApp message spent queued before being sent")
+                .tag("session", session)
+                .tag("lane", laneTag)
+                .register(meterRegistry);
+            this.dropped = Counter.builder("notification.whatsapp.dispatch.dropped")
+                .description("WhatsApp messages rejected because their lane was full")
+                .tag("session", session)
+                .tag("lane", laneTag)
+                .register(meterRegistry);
+        }
+
+        private boolean reserveSlot() {
+            if (depth.incrementAndGet() > capacity) {
+                depth.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private TokenBucket(double ratePerSecond, int burst) {
+            this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = burst;
+            this.tokens = burst;
+        }
+
+        /**
+         * Takes a token if more than {@code reserve} would remain available before taking it.
+         *
+         * @return 0 when a token was taken, otherwise nanoseconds until one could be
+         */
+        private synchronized long tryAcquire(int reserve) {
+            refill();
+            // A reserve the bucket can never exceed would starve the lane
+            var needed = Math.min(reserve, capacity - 1) + 1;
+            if (tokens >= needed) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((needed - tokens) / tokensPerNano));
+        }
+
+        private synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        private void refill() {
+            var now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
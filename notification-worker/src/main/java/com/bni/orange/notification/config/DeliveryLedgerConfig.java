@@ -0,0 +1,10 @@
+package com.bni.orange.notification.config;
+
+import com.bni.orange.notification.config.properties.DeliveryLedgerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DeliveryLedgerProperties.class)
+public class DeliveryLedgerConfig {
+}
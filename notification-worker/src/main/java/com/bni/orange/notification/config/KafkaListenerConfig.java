@@ -0,0 +1,32 @@
+package com.bni.orange.notification.config;
+
+import com.bni.orange.notification.config.properties.EmailOtpConsumerProperties;
+import com.bni.orange.notification.config.properties.OtpConsumerProperties;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+@Configuration
+@EnableConfigurationProperties({OtpConsumerProperties.class, EmailOtpConsumerProperties.class})
+public class KafkaListenerConfig {
+
+  /**
+   * Listener factory for consumers that finish records asynchronously. Acks may arrive out of order from
+   * other threads; the container defers each commit until every earlier offset of the partition is acked.
+   */
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<Object, Object> asyncAckKafkaListenerContainerFactory(
+      ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+      ConsumerFactory<Object, Object> consumerFactory
+  ) {
+    var factory = new ConcurrentKafkaListenerContainerFactory<Object, Object>();
+    configurer.configure(factory, consumerFactory);
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    factory.getContainerProperties().setAsyncAcks(true);
+    return factory;
+  }
+}
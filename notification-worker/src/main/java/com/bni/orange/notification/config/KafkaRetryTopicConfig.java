@@ -0,0 +1,79 @@
+package com.bni.orange.notification.config;
+
+import com.bni.orange.notification.component.NotificationTopics;
+import com.bni.orange.notification.config.properties.KafkaRetryProperties;
+import com.bni.orange.notification.consumer.DeadLetterTimestampingRecoverer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+@Configuration
+@EnableConfigurationProperties(KafkaRetryProperties.class)
+public class KafkaRetryTopicConfig extends RetryTopicConfigurationSupport {
+
+  /**
+   * Retry and dead-letter hops are published with the time of the hop, the same as {@link
+   * com.bni.orange.notification.consumer.DlqProducer}, so dead-letter timestamps are when records were
+   * dead-lettered.
+   */
+  @Override
+  protected Consumer<DeadLetterPublishingRecovererFactory> configureDeadLetterPublishingContainerFactory() {
+    return factory -> factory.setDeadLetterPublisherCreator(DeadLetterTimestampingRecoverer::new);
+  }
+
+  /**
+   * Non-blocking retries for the WhatsApp notification topics. A failed record is republished to a delayed
+   * retry topic and the listener moves on, so backoff never holds a consumer thread. After the last attempt,
+   * or straight away for a malformed payload, the record lands in its source topic's dead-letter topic.
+   */
+  @Bean
+  public RetryTopicConfiguration notificationRetryTopics(
+      KafkaTemplate<String, byte[]> kafkaTemplate,
+      KafkaRetryProperties properties,
+      NotificationTopics topics
+  ) {
+    return RetryTopicConfigurationBuilder.newInstance()
+        .maxAttempts(properties.attempts())
+        .exponentialBackoff(
+            properties.initialDelay().toMillis(),
+            properties.multiplier(),
+            properties.maxDelay().toMillis())
+        .retryTopicSuffix(properties.retryTopicSuffix())
+        .dltSuffix(properties.dltTopicSuffix())
+        .suffixTopicsWithIndexValues()
+        .notRetryOn(List.of(
+            InvalidProtocolBufferException.class,
+            JsonProcessingException.class,
+            IllegalArgumentException.class))
+        .traversingCauses()
+        .includeTopics(topics.retried())
+        .autoCreateTopicsWith(properties.partitions(), (short) 1)
+        .create(kafkaTemplate);
+  }
+
+  /**
+   * Dead-letter topics for sources without retry topics; the retry configuration creates the others.
+   */
+  @Bean
+  public KafkaAdmin.NewTopics deadLetterOnlyTopics(KafkaRetryProperties properties, NotificationTopics topics) {
+    return new KafkaAdmin.NewTopics(topics.deadLetterOnly().stream()
+        .map(source -> TopicBuilder.name(properties.dltTopic(source))
+            .partitions(properties.partitions())
+            .replicas(1)
+            .build())
+        .toArray(NewTopic[]::new));
+  }
+}
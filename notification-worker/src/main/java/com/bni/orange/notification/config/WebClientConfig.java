@@ -3,7 +3,9 @@ package com.bni.orange.notification.config;
 import com.bni.orange.notification.config.properties.ResilienceProperties;
 import com.bni.orange.notification.config.properties.UserServiceConfigProperties;
 import com.bni.orange.notification.config.properties.WahaConfigProperties;
+import com.bni.orange.notification.config.properties.WahaSessionStateProperties;
 import com.bni.orange.notification.config.properties.WebhookConfigProperties;
+import com.bni.orange.notification.config.properties.WhatsAppDispatchProperties;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.core.IntervalFunction;
@@ -30,6 +32,8 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 @EnableConfigurationProperties({
     WahaConfigProperties.class,
+    WahaSessionStateProperties.class,
+    WhatsAppDispatchProperties.class,
     WebhookConfigProperties.class,
     ResilienceProperties.class,
     UserServiceConfigProperties.class
@@ -0,0 +1,62 @@
+package com.bni.orange.notification.config.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "orange.delivery-ledger")
+public record DeliveryLedgerProperties(
+    /**
+     * When false every send goes out without consulting the ledger.
+     */
+    @DefaultValue("true")
+    boolean enabled,
+
+    /**
+     * Where entries live: {@code redis}, shared by every worker instance, or {@code local}, this instance only.
+     */
+    @NotNull
+    @DefaultValue("redis")
+    Store store,
+
+    /**
+     * How long a delivery is remembered. Must outlast the retry topics and any DLQ replay of the same records.
+     */
+    @NotNull
+    @DefaultValue("72h")
+    Duration deliveredTtl,
+
+    /**
+     * How long a claim taken before sending blocks other sends of the same message, in case its holder dies
+     * mid-send. Must exceed the longest send, including the wait for the WAHA session.
+     */
+    @NotNull
+    @DefaultValue("2m")
+    Duration inFlightTtl,
+
+    /**
+     * Prefix of the Redis keys.
+     */
+    @NotBlank
+    @DefaultValue("notification:delivery:")
+    String keyPrefix,
+
+    /**
+     * Most entries the local store keeps; beyond this the entries closest to expiry are evicted first.
+     */
+    @Min(1)
+    @DefaultValue("100000")
+    int localMaxEntries
+) {
+
+    public enum Store {
+        REDIS,
+        LOCAL
+    }
+}
@@ -0,0 +1,49 @@
+package com.bni.orange.notification.config.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "orange.email.delivery")
+public record EmailDeliveryProperties(
+    /**
+     * SMTP connections kept open, each owned by one delivery worker.
+     */
+    @Min(1)
+    @DefaultValue("4")
+    int connections,
+
+    /**
+     * Most queued messages a worker sends over its connection before taking the next batch.
+     */
+    @Min(1)
+    @DefaultValue("20")
+    int batchSize,
+
+    /**
+     * Messages waiting for a worker; sends beyond this fail immediately.
+     */
+    @Min(1)
+    @DefaultValue("1000")
+    int queueCapacity,
+
+    /**
+     * A connection idle this long is closed, well before typical server-side idle timeouts drop it.
+     */
+    @NotNull
+    @DefaultValue("30s")
+    Duration maxIdle,
+
+    /**
+     * Messages sent over one connection before it is replaced, staying under per-connection server limits.
+     */
+    @Min(1)
+    @DefaultValue("100")
+    int maxMessagesPerConnection
+) {
+}
@@ -0,0 +1,18 @@
+package com.bni.orange.notification.config.properties;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "orange.kafka.consumers.otp-email")
+public record EmailOtpConsumerProperties(
+    /**
+     * Email OTP sends allowed in flight per listener container before polling pauses for a free slot.
+     */
+    @Min(1)
+    @DefaultValue("32")
+    int maxInFlight
+) {
+}
@@ -0,0 +1,67 @@
+package com.bni.orange.notification.config.properties;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "orange.kafka.retry")
+public record KafkaRetryProperties(
+    /**
+     * Deliveries per record including the first, so {@code attempts - 1} retry topics per source topic.
+     */
+    @Min(1)
+    @DefaultValue("4")
+    int attempts,
+
+    @NotNull
+    @DefaultValue("10s")
+    Duration initialDelay,
+
+    @DecimalMin("1.0")
+    @DefaultValue("4.0")
+    double multiplier,
+
+    @NotNull
+    @DefaultValue("10m")
+    Duration maxDelay,
+
+    /**
+     * Appended to a source topic to name its retry topics. Namespaced to this worker because the source
+     * topics are shared with other services' consumer groups.
+     */
+    @NotBlank
+    @DefaultValue("-notification-retry")
+    String retryTopicSuffix,
+
+    @NotBlank
+    @DefaultValue("-notification-dlt")
+    String dltTopicSuffix,
+
+    @Min(1)
+    @DefaultValue("3")
+    int partitions,
+
+    /**
+     * Records per second re-injected by a DLQ replay unless the request sets its own rate.
+     */
+    @Positive
+    @DefaultValue("5")
+    double replayRatePerSecond
+) {
+
+    public String dltTopic(String sourceTopic) {
+        return sourceTopic + dltTopicSuffix;
+    }
+
+    public String firstRetryTopic(String sourceTopic) {
+        return sourceTopic + retryTopicSuffix + "-0";
+    }
+}
@@ -0,0 +1,36 @@
+package com.bni.orange.notification.config.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "orange.waha-client.session-state")
+public record WahaSessionStateProperties(
+    /**
+     * Sends allowed to wait for the session at once; further sends fail immediately while it is down.
+     */
+    @Min(1)
+    @DefaultValue("500")
+    int maxParked,
+
+    /**
+     * How long a parked send waits for the session to become WORKING before failing.
+     */
+    @NotNull
+    @DefaultValue("25s")
+    Duration maxWait,
+
+    /**
+     * Interval between WAHA status polls while sends are parked, and how long a FAILED status is trusted
+     * before sends stop failing fast on it.
+     */
+    @NotNull
+    @DefaultValue("3s")
+    Duration refreshInterval
+) {
+}
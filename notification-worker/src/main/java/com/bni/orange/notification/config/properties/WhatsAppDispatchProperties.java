@@ -0,0 +1,40 @@
+package com.bni.orange.notification.config.properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "orange.waha-client.dispatch")
+public record WhatsAppDispatchProperties(
+    /**
+     * Sustained messages per second sent through the WAHA session.
+     */
+    @Positive
+    @DefaultValue("5")
+    double ratePerSecond,
+
+    /**
+     * Tokens the bucket holds when idle, i.e. how many messages may go out back to back after a quiet spell.
+     */
+    @Min(1)
+    @DefaultValue("10")
+    int burst,
+
+    /**
+     * Tokens only the OTP lane may spend, so an OTP arriving mid-blast goes out without waiting for a refill.
+     */
+    @Min(0)
+    @DefaultValue("2")
+    int reservedForOtp,
+
+    /**
+     * Messages each lane may hold; further sends on a full lane are dropped.
+     */
+    @Min(1)
+    @DefaultValue("1000")
+    int queueCapacity
+) {
+}
@@ -0,0 +1,88 @@
+package com.bni.orange.notification.consumer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs record handlers concurrently behind a bounded in-flight window and acknowledges each record when its
+ * handler finishes, in whatever order that happens. Used with a container that has async acks enabled, so
+ * commits only advance over offsets whose records have all finished. When the window is full the listener
+ * thread waits for a slot, which stops polling and keeps the backlog in Kafka rather than in memory.
+ */
+@Slf4j
+public class ConcurrentRecordDispatcher {
+
+    private final Semaphore window;
+    private final int maxInFlight;
+    private final Timer handlerTimer;
+
+    public ConcurrentRecordDispatcher(String name, int maxInFlight, MeterRegistry meterRegistry) {
+        this.window = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.handlerTimer = Timer.builder("notification.consumer.handler")
+            .description("Time from dispatch until a record's handler finished")
+            .tag("consumer", name)
+            .register(meterRegistry);
+        Gauge.builder("notification.consumer.in_flight", window, w -> maxInFlight - w.availablePermits())
+            .description("Records dispatched and not yet finished")
+            .tag("consumer", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to {@code handler} once a slot is free. The record is acknowledged after the handler
+     * completes, or after {@code onFailure} has dealt with its error.
+     */
+    public void dispatch(
+        ConsumerRecord<?, ?> record,
+        Acknowledgment acknowledgment,
+        Mono<?> handler,
+        Consumer<Throwable> onFailure
+    ) {
+        acquireSlot(record);
+        var startedAt = System.nanoTime();
+
+        handler
+            .doFinally(signal -> {
+                window.release();
+                handlerTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            })
+            .subscribe(
+                result -> { },
+                error -> {
+                    try {
+                        onFailure.accept(error);
+                    } catch (Exception e) {
+                        // Leaving the record unacked would hold back every later commit on the partition
+                        log.error("Failure handling failed, acknowledging anyway - Partition: {}, Offset: {}",
+                            record.partition(), record.offset(), e);
+                    }
+                    acknowledgment.acknowledge();
+                },
+                acknowledgment::acknowledge
+            );
+    }
+
+    private void acquireSlot(ConsumerRecord<?, ?> record) {
+        if (window.tryAcquire()) {
+            return;
+        }
+        log.debug("In-flight window of {} full, waiting - Partition: {}, Offset: {}",
+            maxInFlight, record.partition(), record.offset());
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight slot", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bni.orange.notification.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.lang.Nullable;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Dead-letter publisher that stamps each record with the time it is published instead of carrying the failed
+ * record's timestamp over, so a dead-letter topic's timestamps say when records were dead-lettered and a DLQ
+ * replay can select a window by them. The original timestamp stays in the {@code kafka_dlt-original-timestamp}
+ * header.
+ */
+public class DeadLetterTimestampingRecoverer extends DeadLetterPublishingRecoverer {
+
+    public DeadLetterTimestampingRecoverer(
+        Function<ProducerRecord<?, ?>, KafkaOperations<?, ?>> templateResolver,
+        BiFunction<ConsumerRecord<?, ?>, Exception, TopicPartition> destinationResolver
+    ) {
+        super(templateResolver, destinationResolver);
+    }
+
+    public DeadLetterTimestampingRecoverer(
+        KafkaOperations<?, ?> template,
+        BiFunction<ConsumerRecord<?, ?>, Exception, TopicPartition> destinationResolver
+    ) {
+        super(template, destinationResolver);
+    }
+
+    @Override
+    protected ProducerRecord<Object, Object> createProducerRecord(
+        ConsumerRecord<?, ?> record,
+        TopicPartition topicPartition,
+        Headers headers,
+        @Nullable byte[] key,
+        @Nullable byte[] value
+    ) {
+        var produced = super.createProducerRecord(record, topicPartition, headers, key, value);
+        return new ProducerRecord<>(produced.topic(), produced.partition(), System.currentTimeMillis(),
+            produced.key(), produced.value(), produced.headers());
+    }
+}
@@ -1,30 +1,35 @@
 package com.bni.orange.notification.consumer;
 
-import lombok.RequiredArgsConstructor;
+import com.bni.orange.notification.config.properties.KafkaRetryProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.producer.ProducerRecord;
-import org.springframework.beans.factory.annotation.Value;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.stereotype.Component;
 
+/**
+ * Dead-letters records that consumers give up on themselves, into the same per-source topic and with the same
+ * {@code kafka_dlt-*} headers and dead-letter timestamp the retry topics use, so a DLQ replay handles both alike.
+ * Publishing does not wait for the broker; send failures are logged by the recoverer.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class DlqProducer {
 
-    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final KafkaRetryProperties retryProperties;
+    private final DeadLetterPublishingRecoverer recoverer;
 
-    @Value("${orange.kafka.topics.otp-whatsapp-dlq}")
-    private String dlqTopic;
+    public DlqProducer(KafkaTemplate<String, byte[]> kafkaTemplate, KafkaRetryProperties retryProperties) {
+        this.retryProperties = retryProperties;
+        this.recoverer = new DeadLetterTimestampingRecoverer(kafkaTemplate,
+            (record, exception) -> new TopicPartition(retryProperties.dltTopic(record.topic()), -1));
+        this.recoverer.setFailIfSendResultIsError(false);
+    }
 
     public void send(ConsumerRecord<String, byte[]> originalRecord, Exception exception) {
-        log.warn("Sending message to DLQ topic [{}]. Reason: {}", dlqTopic, exception.getMessage());
-        var producerRecord = new ProducerRecord<>(dlqTopic, originalRecord.key(), originalRecord.value());
-        originalRecord.headers().forEach(header -> producerRecord.headers().add(header));
-        producerRecord.headers().add("X-DLQ-Reason", exception.getClass().getSimpleName().getBytes());
-        producerRecord.headers().add("X-Original-Topic", originalRecord.topic().getBytes());
-        
-        kafkaTemplate.send(producerRecord);
+        log.warn("Sending message to DLQ topic [{}]. Reason: {}",
+            retryProperties.dltTopic(originalRecord.topic()), exception.getMessage());
+        recoverer.accept(originalRecord, exception);
     }
-}
\ No newline at end of file
+}
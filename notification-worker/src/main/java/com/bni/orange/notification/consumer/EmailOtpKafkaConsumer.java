@@ -1,54 +1,80 @@
 package com.bni.orange.notification.consumer;
 
+import com.bni.orange.notification.config.properties.EmailOtpConsumerProperties;
 import com.bni.orange.notification.service.EmailService;
+import com.bni.orange.notification.service.ledger.DeliveryLedger.DeliveryInProgressException;
 import com.bni.orange.users.proto.OtpEmailNotificationEvent;
 import com.google.protobuf.InvalidProtocolBufferException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
+/**
+ * Hands email OTPs to the delivery engine without waiting on the listener thread, so a burst queues up
+ * behind the pooled SMTP connections and goes out in batches instead of one connection per record.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class EmailOtpKafkaConsumer {
 
     private final EmailService emailService;
     private final DlqProducer dlqProducer;
+    private final ConcurrentRecordDispatcher dispatcher;
+
+    public EmailOtpKafkaConsumer(
+        EmailService emailService,
+        DlqProducer dlqProducer,
+        EmailOtpConsumerProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.emailService = emailService;
+        this.dlqProducer = dlqProducer;
+        this.dispatcher = new ConcurrentRecordDispatcher("otp-email", properties.maxInFlight(), meterRegistry);
+    }
 
     @KafkaListener(
         topics = "${orange.kafka.topics.otp-email}",
         groupId = "${orange.kafka.groups.otp-email}",
-        concurrency = "2"
+        concurrency = "2",
+        containerFactory = "asyncAckKafkaListenerContainerFactory"
     )
     public void listen(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
-        OtpEmailNotificationEvent event = null;
-
+        OtpEmailNotificationEvent event;
         try {
             event = OtpEmailNotificationEvent.parseFrom(record.value());
-            log.info("Received email OTP notification - Topic: {}, Partition: {}, Offset: {}, User ID: {}, Email: {}",
-                record.topic(), record.partition(), record.offset(), event.getUserId(), maskEmail(event.getEmail()));
-
-            emailService.sendOtp(event).block();
-
-            acknowledgment.acknowledge();
-            log.info("Successfully sent OTP email and acknowledged - User ID: {}, Offset: {}",
-                event.getUserId(), record.offset());
-
         } catch (InvalidProtocolBufferException e) {
             log.error("Failed to deserialize Protobuf message - Key: {}, Partition: {}, Offset: {}. Sending to DLQ.",
                 record.key(), record.partition(), record.offset(), e);
             dlqProducer.send(record, e);
             acknowledgment.acknowledge();
-
-        } catch (Exception e) {
-            log.error("Failed to process email OTP notification after all retries - User ID: {}, Key: {}, Offset: {}. Sending to DLQ.",
-                event != null ? event.getUserId() : "unknown", record.key(), record.offset(), e);
-            dlqProducer.send(record, e);
-            acknowledgment.acknowledge();
+            return;
         }
+
+        log.info("Received email OTP notification - Topic: {}, Partition: {}, Offset: {}, User ID: {}, Email: {}",
+            record.topic(), record.partition(), record.offset(), event.getUserId(), maskEmail(event.getEmail()));
+
+        dispatcher.dispatch(
+            record,
+            acknowledgment,
+            Mono.defer(() -> emailService.sendOtp(event))
+                .doOnSuccess(sent -> log.info("Successfully sent OTP email and acknowledged - User ID: {}, Offset: {}",
+                    event.getUserId(), record.offset())),
+            error -> {
+                if (error instanceof DeliveryInProgressException) {
+                    // No retry tier on OTP topics: the instance holding the claim finishes the delivery
+                    log.info("Email OTP delivery already in progress elsewhere, skipping - User ID: {}, Offset: {}",
+                        event.getUserId(), record.offset());
+                    return;
+                }
+                log.error("Failed to process email OTP notification after all retries - User ID: {}, Key: {}, Offset: {}. Sending to DLQ.",
+                    event.getUserId(), record.key(), record.offset(), error);
+                dlqProducer.send(record, error instanceof Exception e ? e : new RuntimeException(error));
+            }
+        );
     }
 
     private String maskEmail(String email) {
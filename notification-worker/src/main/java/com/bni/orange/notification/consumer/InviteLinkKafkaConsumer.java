@@ -11,20 +11,24 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+/**
+ * Failures propagate to the container, which hands the record to the retry topics configured in
+ * {@code KafkaRetryTopicConfig} and then to the source topic's dead-letter topic.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class InviteLinkKafkaConsumer {
 
   private final InviteWhatsAppService whatsAppService;
-  private final DlqProducer dlqProducer;
 
   @KafkaListener(
       topics = "${orange.kafka.topics.wallet-invite-generated:wallet.events.invite-generated}",
       groupId = "${orange.kafka.groups.invite-link}",
       concurrency = "2"
   )
-  public void listen(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+  public void listen(ConsumerRecord<String, byte[]> record, Acknowledgment ack)
+      throws InvalidProtocolBufferException {
     WalletInviteLinkGeneratedEvent event;
 
     try {
@@ -47,23 +51,16 @@ public class InviteLinkKafkaConsumer {
 
       // Kirim WA: link + kode (masked / plain sesuai kebijakan)
       whatsAppService
-          .sendInviteLink(event)
+          .sendInviteLink(env.getEventId(), event)
           .block(java.time.Duration.ofSeconds(35));
 
       ack.acknowledge();
       log.info("Invite link sent & acked for phone={}", mask(phone));
 
-    } catch (InvalidProtocolBufferException e) {
-      log.error("Protobuf deserialization failed. key={}, offset={}. Send to DLQ.",
-          record.key(), record.offset(), e);
-      dlqProducer.send(record, e);
-      ack.acknowledge();
-
     } catch (Exception e) {
-      log.error("Processing failed. key={}, offset={}. Send to DLQ.",
-          record.key(), record.offset(), e);
-      dlqProducer.send(record, e);
-      ack.acknowledge();
+      log.warn("Processing failed. key={}, offset={}. Handing to retry topology: {}",
+          record.key(), record.offset(), e.toString());
+      throw e;
     }
   }
 
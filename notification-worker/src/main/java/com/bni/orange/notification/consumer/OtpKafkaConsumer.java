@@ -1,53 +1,82 @@
 package com.bni.orange.notification.consumer;
 
 import com.bni.orange.authentication.proto.OtpNotificationEvent;
+import com.bni.orange.notification.config.properties.OtpConsumerProperties;
 import com.bni.orange.notification.service.WhatsAppService;
+import com.bni.orange.notification.service.ledger.DeliveryLedger.DeliveryInProgressException;
 import com.google.protobuf.InvalidProtocolBufferException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
+/**
+ * Sends OTPs without waiting for WAHA on the listener thread: up to {@code maxInFlight} sends per container run
+ * at once, so one slow send no longer delays the OTPs queued behind it. Each record is acknowledged when its
+ * send finishes or has been routed to the DLQ, and offsets commit only once every earlier record is done.
+ * <p>
+ * OTP topics have no retry tier, so a record whose delivery another instance is still sending is acknowledged
+ * and left to that send instead of being dead-lettered.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class OtpKafkaConsumer {
 
     private final WhatsAppService whatsAppService;
     private final DlqProducer dlqProducer;
+    private final ConcurrentRecordDispatcher dispatcher;
+
+    public OtpKafkaConsumer(
+        WhatsAppService whatsAppService,
+        DlqProducer dlqProducer,
+        OtpConsumerProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.whatsAppService = whatsAppService;
+        this.dlqProducer = dlqProducer;
+        this.dispatcher = new ConcurrentRecordDispatcher("otp-whatsapp", properties.maxInFlight(), meterRegistry);
+    }
 
     @KafkaListener(
         topics = "${orange.kafka.topics.otp-whatsapp}",
         groupId = "${orange.kafka.groups.otp-whatsapp}",
-        concurrency = "2"
+        concurrency = "2",
+        containerFactory = "asyncAckKafkaListenerContainerFactory"
     )
     public void listen(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
-        OtpNotificationEvent event = null;
-
+        OtpNotificationEvent event;
         try {
             event = OtpNotificationEvent.parseFrom(record.value());
-            log.info("Received OTP notification - Topic: {}, Partition: {}, Offset: {}, User ID: {}, Phone: {}",
-                record.topic(), record.partition(), record.offset(), event.getUserId(), event.getPhoneNumber());
-
-            whatsAppService.sendOtp(event).block();
-
-            acknowledgment.acknowledge();
-            log.info("Successfully sent OTP and acknowledged - User ID: {}, Offset: {}",
-                event.getUserId(), record.offset());
-
         } catch (InvalidProtocolBufferException e) {
             log.error("Failed to deserialize Protobuf message - Key: {}, Partition: {}, Offset: {}. Sending to DLQ.",
                 record.key(), record.partition(), record.offset(), e);
             dlqProducer.send(record, e);
             acknowledgment.acknowledge();
-
-        } catch (Exception e) {
-            log.error("Failed to process OTP notification after all retries - User ID: {}, Key: {}, Offset: {}. Sending to DLQ.",
-                event != null ? event.getUserId() : "unknown", record.key(), record.offset(), e);
-            dlqProducer.send(record, e);
-            acknowledgment.acknowledge();
+            return;
         }
+
+        log.info("Received OTP notification - Topic: {}, Partition: {}, Offset: {}, User ID: {}, Phone: {}",
+            record.topic(), record.partition(), record.offset(), event.getUserId(), event.getPhoneNumber());
+
+        dispatcher.dispatch(
+            record,
+            acknowledgment,
+            Mono.defer(() -> whatsAppService.sendOtp(event))
+                .doOnSuccess(response -> log.info("Successfully sent OTP and acknowledged - User ID: {}, Offset: {}",
+                    event.getUserId(), record.offset())),
+            error -> {
+                if (error instanceof DeliveryInProgressException) {
+                    log.info("OTP delivery already in progress elsewhere, skipping - User ID: {}, Offset: {}",
+                        event.getUserId(), record.offset());
+                    return;
+                }
+                log.error("Failed to process OTP notification after all retries - User ID: {}, Key: {}, Offset: {}. Sending to DLQ.",
+                    event.getUserId(), record.key(), record.offset(), error);
+                dlqProducer.send(record, error instanceof Exception e ? e : new RuntimeException(error));
+            }
+        );
     }
-}
\ No newline at end of file
+}
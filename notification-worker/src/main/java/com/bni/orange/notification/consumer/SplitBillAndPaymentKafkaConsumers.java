@@ -1,12 +1,8 @@
 package com.bni.orange.notification.consumer;
 
-import com.bni.orange.notification.model.PaymentIntentCreatedEvent;
-import com.bni.orange.notification.model.PaymentStatusUpdatedEvent;
-import com.bni.orange.notification.model.SplitBillCreatedEvent;
-import com.bni.orange.notification.model.SplitBillRemindedEvent;
+import com.bni.orange.notification.component.NotificationEventDecoder;
 import com.bni.orange.notification.service.PaymentNotificationService;
 import com.bni.orange.notification.service.SplitBillWhatsAppService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -14,29 +10,32 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.time.Duration;
 
+/**
+ * Payloads may be JSON or v1 protobuf during the producers' migration; see {@link NotificationEventDecoder}.
+ * Failures propagate to the container, which hands the record to the retry topics configured in
+ * {@code KafkaRetryTopicConfig} and then to the source topic's dead-letter topic.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SplitBillAndPaymentKafkaConsumers {
 
-  private static final ObjectMapper MAPPER = new ObjectMapper();
-
   private final SplitBillWhatsAppService splitBillWhatsAppService;
   private final PaymentNotificationService paymentNotificationService;
-  private final DlqProducer dlqProducer;
+  private final NotificationEventDecoder decoder;
 
   @KafkaListener(
       topics = "${orange.kafka.topics.splitbill-created:splitbill.events.created}",
       groupId = "${orange.kafka.groups.split-bill}",
       concurrency = "2"
   )
-  public void onSplitBillCreated(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+  public void onSplitBillCreated(ConsumerRecord<String, byte[]> record, Acknowledgment ack)
+      throws IOException {
     try {
-      var json = new String(record.value(), StandardCharsets.UTF_8);
-      var event = MAPPER.readValue(json, SplitBillCreatedEvent.class);
+      var event = decoder.splitBillCreated(record.value());
 
       if (isBlank(event.getBillId()) || isBlank(event.getOwnerUserId())) {
         throw new IllegalArgumentException("billId/ownerUserId missing");
@@ -49,9 +48,9 @@ public class SplitBillAndPaymentKafkaConsumers {
       ack.acknowledge();
       log.info("SplitBillCreated processed & acked: billId={}", event.getBillId());
     } catch (Exception e) {
-      log.error("SplitBillCreated failed. key={}, offset={}. Send to DLQ.", record.key(), record.offset(), e);
-      dlqProducer.send(record, e);
-      ack.acknowledge();
+      log.warn("SplitBillCreated failed. key={}, offset={}. Handing to retry topology: {}",
+          record.key(), record.offset(), e.toString());
+      throw e;
     }
   }
 
@@ -60,10 +59,10 @@ public class SplitBillAndPaymentKafkaConsumers {
       groupId = "${orange.kafka.groups.split-bill}",
       concurrency = "3"
   )
-  public void onSplitBillReminded(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+  public void onSplitBillReminded(ConsumerRecord<String, byte[]> record, Acknowledgment ack)
+      throws IOException {
     try {
-      var json = new String(record.value(), StandardCharsets.UTF_8);
-      var event = MAPPER.readValue(json, SplitBillRemindedEvent.class);
+      var event = decoder.splitBillReminded(record.value());
 
       if (isBlank(event.getBillId()) || isBlank(event.getRemindedByUserId())) {
         throw new IllegalArgumentException("billId/remindedByUserId missing");
@@ -76,9 +75,9 @@ public class SplitBillAndPaymentKafkaConsumers {
       ack.acknowledge();
       log.info("SplitBillReminded processed & acked: billId={}", event.getBillId());
     } catch (Exception e) {
-      log.error("SplitBillReminded failed. key={}, offset={}. Send to DLQ.", record.key(), record.offset(), e);
-      dlqProducer.send(record, e);
-      ack.acknowledge();
+      log.warn("SplitBillReminded failed. key={}, offset={}. Handing to retry topology: {}",
+          record.key(), record.offset(), e.toString());
+      throw e;
     }
   }
 
@@ -87,10 +86,10 @@ public class SplitBillAndPaymentKafkaConsumers {
       groupId = "${orange.kafka.groups.payment}",
       concurrency = "3"
   )
-  public void onPaymentIntentCreated(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+  public void onPaymentIntentCreated(ConsumerRecord<String, byte[]> record, Acknowledgment ack)
+      throws IOException {
     try {
-      var json = new String(record.value(), StandardCharsets.UTF_8);
-      var event = MAPPER.readValue(json, PaymentIntentCreatedEvent.class);
+      var event = decoder.paymentIntentCreated(record.value());
 
       if (isBlank(event.getPaymentIntentId()) || isBlank(event.getUserId())) {
         throw new IllegalArgumentException("paymentIntentId/userId missing");
@@ -103,9 +102,9 @@ public class SplitBillAndPaymentKafkaConsumers {
       ack.acknowledge();
       log.info("PaymentIntentCreated processed & acked: id={}", event.getPaymentIntentId());
     } catch (Exception e) {
-      log.error("PaymentIntentCreated failed. key={}, offset={}. Send to DLQ.", record.key(), record.offset(), e);
-      dlqProducer.send(record, e);
-      ack.acknowledge();
+      log.warn("PaymentIntentCreated failed. key={}, offset={}. Handing to retry topology: {}",
+          record.key(), record.offset(), e.toString());
+      throw e;
     }
   }
 
@@ -114,25 +113,25 @@ public class SplitBillAndPaymentKafkaConsumers {
       groupId = "${orange.kafka.groups.payment}",
       concurrency = "3"
   )
-  public void onPaymentStatusUpdated(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+  public void onPaymentStatusUpdated(ConsumerRecord<String, byte[]> record, Acknowledgment ack)
+      throws IOException {
     try {
-      var json = new String(record.value(), StandardCharsets.UTF_8);
-      var event = MAPPER.readValue(json, PaymentStatusUpdatedEvent.class);
+      var event = decoder.paymentStatusUpdated(record.value());
 
-      if (isBlank(event.getPaymentIntentId()) || isBlank(event.getStatus())) {
-        throw new IllegalArgumentException("paymentIntentId/status missing");
+      var id = isBlank(event.getPaymentIntentId()) ? event.getTransactionId() : event.getPaymentIntentId();
+      if (isBlank(id) || isBlank(event.getStatus())) {
+        throw new IllegalArgumentException("paymentIntentId|transactionId/status missing");
       }
 
-      log.info("PaymentStatusUpdated received: id={}, status={}",
-          event.getPaymentIntentId(), event.getStatus());
+      log.info("PaymentStatusUpdated received: id={}, status={}", id, event.getStatus());
 
       paymentNotificationService.sendPaymentStatus(event).block(Duration.ofSeconds(35));
       ack.acknowledge();
-      log.info("PaymentStatusUpdated processed & acked: id={}", event.getPaymentIntentId());
+      log.info("PaymentStatusUpdated processed & acked: id={}", id);
     } catch (Exception e) {
-      log.error("PaymentStatusUpdated failed. key={}, offset={}. Send to DLQ.", record.key(), record.offset(), e);
-      dlqProducer.send(record, e);
-      ack.acknowledge();
+      log.warn("PaymentStatusUpdated failed. key={}, offset={}. Handing to retry topology: {}",
+          record.key(), record.offset(), e.toString());
+      throw e;
     }
   }
 
@@ -0,0 +1,37 @@
+package com.bni.orange.notification.controller;
+
+import com.bni.orange.notification.model.request.DlqReplayRequest;
+import com.bni.orange.notification.model.response.DlqReplayStatus;
+import com.bni.orange.notification.service.DlqReplayService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/kafka/dlq/replay")
+public class DlqReplayController {
+
+    private final DlqReplayService replayService;
+
+    @PostMapping
+    public Mono<ResponseEntity<DlqReplayStatus>> start(@Valid @RequestBody DlqReplayRequest request) {
+        return Mono.fromCallable(() -> replayService.start(request))
+            .subscribeOn(Schedulers.boundedElastic())
+            .map(status -> ResponseEntity.status(HttpStatus.ACCEPTED).body(status));
+    }
+
+    @GetMapping
+    public ResponseEntity<DlqReplayStatus> status() {
+        var status = replayService.status();
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+}
@@ -1,5 +1,6 @@
 package com.bni.orange.notification.controller;
 
+import com.bni.orange.notification.component.WahaSessionState;
 import com.bni.orange.notification.model.WahaWebhookEvent;
 import com.bni.orange.notification.security.WebhookSecurityService;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -23,6 +24,7 @@ public class WahaWebhookController {
 
     private final WebhookSecurityService securityService;
     private final ObjectMapper objectMapper;
+    private final WahaSessionState sessionState;
 
     @PostMapping
     public Mono<ResponseEntity<Void>> handleWebhook(
@@ -72,6 +74,7 @@ public class WahaWebhookController {
     private Mono<Void> handleSessionStatus(WahaWebhookEvent event) {
         String status = (String) event.payload().get("status");
         log.info("Session status changed to: {}", status);
+        sessionState.update(status, "webhook");
 
         return switch (status) {
             case "WORKING" -> {
@@ -7,6 +7,7 @@ import java.util.Map;
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class PaymentIntentCreatedEvent {
+  private String eventId;       // set by protobuf producers only
   private String paymentIntentId;
   private String userId;
   private String billId;      
@@ -9,7 +9,12 @@ import java.util.Map;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class PaymentStatusUpdatedEvent {
   private String paymentIntentId;
-  private String status;        // "PENDING","SUCCEEDED","FAILED","CANCELLED"
+  private String transactionId;   // set instead of paymentIntentId by transaction-service
+  private String transactionRef;
+  private String billId;
+  private String memberId;
+  private Long amount;
+  private String status;        // "PENDING","SUCCEEDED","FAILED","CANCELLED"; "CAPTURED" from transaction-service
   private String updatedAt;
   private String failureCode;     // optional
   private String failureMessage;  // optional
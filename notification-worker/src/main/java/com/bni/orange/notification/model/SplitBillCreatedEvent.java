@@ -8,6 +8,7 @@ import java.util.List;
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class SplitBillCreatedEvent {
+    private String eventId;     // set by protobuf producers only
     private String billId;
     private String ownerUserId;
     private String ownerPhoneE164;
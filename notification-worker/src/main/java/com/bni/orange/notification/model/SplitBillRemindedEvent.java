@@ -8,9 +8,11 @@ import java.util.Map;
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class SplitBillRemindedEvent {
+  private String eventId;     // set by protobuf producers only
   private String billId;
   private String remindedByUserId;
   private List<String> requestedChannels;
   private List<MemberLink> memberLinks;
   private Map<String, Object> result;     
+  private String remindedAt;
 }
@@ -0,0 +1,32 @@
+package com.bni.orange.notification.model.request;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @param sourceTopics  source topics whose dead-letter topics to replay; each carries a single event type
+ * @param from          earliest dead-letter time to replay, inclusive; open when null
+ * @param to            latest dead-letter time to replay, inclusive; open when null
+ * @param exceptionType only replay records that failed with this exception, matched on its simple or
+ *                      fully-qualified class name or that of its cause
+ * @param ratePerSecond re-injection rate; the configured default when null
+ * @param maxRecords    stop after re-injecting this many records; unlimited when null
+ */
+public record DlqReplayRequest(
+    @NotEmpty List<String> sourceTopics,
+    Instant from,
+    Instant to,
+    String exceptionType,
+    @Positive Double ratePerSecond,
+    @Positive Integer maxRecords
+) {
+
+    @AssertTrue(message = "from must not be after to")
+    public boolean isRangeValid() {
+        return from == null || to == null || !from.isAfter(to);
+    }
+}
@@ -0,0 +1,23 @@
+package com.bni.orange.notification.model.response;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record DlqReplayStatus(
+    UUID id,
+    State state,
+    List<String> sourceTopics,
+    long scanned,
+    long replayed,
+    long skipped,
+    Instant startedAt,
+    Instant finishedAt,
+    String error
+) {
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
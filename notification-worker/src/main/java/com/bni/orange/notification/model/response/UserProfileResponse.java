@@ -1,5 +1,6 @@
 package com.bni.orange.notification.model.response;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,7 +13,9 @@ import java.util.UUID;
 @AllArgsConstructor
 public class UserProfileResponse {
     
+    @JsonAlias("id")
     private UUID userId;
     private String phoneNumber;
+    @JsonAlias("name")
     private String fullName;
 }
\ No newline at end of file
@@ -0,0 +1,275 @@
+package com.bni.orange.notification.service;
+
+import com.bni.orange.notification.component.NotificationTopics;
+import com.bni.orange.notification.config.properties.KafkaRetryProperties;
+import com.bni.orange.notification.model.request.DlqReplayRequest;
+import com.bni.orange.notification.model.response.DlqReplayStatus;
+import com.bni.orange.notification.model.response.DlqReplayStatus.State;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Re-injects dead-lettered records at a fixed rate, so a backlog left by an outage can be drained without
+ * flooding WAHA once it is back. Replays run one at a time on a dedicated thread and read the dead-letter
+ * topics directly, without a consumer group, so they never move any listener's offsets.
+ */
+@Slf4j
+@Service
+public class DlqReplayService {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(10);
+    private static final String REPLAYED_AT_HEADER = "X-Replayed-At";
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final KafkaRetryProperties retryProperties;
+    private final NotificationTopics topics;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "dlq-replay"));
+    private final AtomicReference<ReplayJob> current = new AtomicReference<>();
+
+    public DlqReplayService(
+        ConsumerFactory<?, ?> consumerFactory,
+        KafkaTemplate<String, byte[]> kafkaTemplate,
+        KafkaRetryProperties retryProperties,
+        NotificationTopics topics
+    ) {
+        var config = new HashMap<>(consumerFactory.getConfigurationProperties());
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        this.consumerFactory = new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), new ByteArrayDeserializer());
+        this.kafkaTemplate = kafkaTemplate;
+        this.retryProperties = retryProperties;
+        this.topics = topics;
+    }
+
+    public DlqReplayStatus start(DlqReplayRequest request) {
+        var unknown = request.sourceTopics().stream().filter(topic -> !topics.isSource(topic)).toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Not a notification source topic: " + unknown);
+        }
+
+        var job = new ReplayJob(request);
+        var running = current.get();
+        if (running != null && running.state == State.RUNNING) {
+            throw new IllegalStateException("DLQ replay " + running.id + " is still running");
+        }
+        if (!current.compareAndSet(running, job)) {
+            throw new IllegalStateException("Another DLQ replay was started concurrently");
+        }
+
+        log.info("Starting DLQ replay {} - topics: {}, from: {}, to: {}, exceptionType: {}, rate: {}/s",
+            job.id, request.sourceTopics(), request.from(), request.to(), request.exceptionType(), job.ratePerSecond);
+        executor.execute(() -> run(job));
+        return job.snapshot();
+    }
+
+    public DlqReplayStatus status() {
+        var job = current.get();
+        return job == null ? null : job.snapshot();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ReplayJob job) {
+        try (var consumer = consumerFactory.createConsumer()) {
+            for (var source : job.request.sourceTopics()) {
+                if (job.limitReached()) {
+                    break;
+                }
+                replayTopic(consumer, job, source);
+            }
+            job.finish(State.COMPLETED, null);
+            log.info("DLQ replay {} completed - scanned: {}, replayed: {}, skipped: {}",
+                job.id, job.scanned.get(), job.replayed.get(), job.skipped.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(State.FAILED, "Interrupted");
+            log.warn("DLQ replay {} interrupted after replaying {} records", job.id, job.replayed.get());
+        } catch (Exception e) {
+            job.finish(State.FAILED, e.getMessage());
+            log.error("DLQ replay {} failed after replaying {} records", job.id, job.replayed.get(), e);
+        }
+    }
+
+    /**
+     * Reads the source's dead-letter topic from {@code from} up to the end offsets seen at the start, so
+     * records dead-lettered while the replay runs, including replayed ones failing again, are left alone.
+     * <p>
+     * Record timestamps are when each record was dead-lettered (see {@code DeadLetterTimestampingRecoverer}),
+     * but producers stamp them before sending, so they are not strictly ordered within a partition. The seek
+     * is still safe, as every offset before the one found for {@code from} is older, but the window is
+     * checked on each record rather than ending a partition at the first record past {@code to}.
+     */
+    private void replayTopic(Consumer<String, byte[]> consumer, ReplayJob job, String source)
+        throws InterruptedException, ExecutionException, TimeoutException {
+        var dlt = retryProperties.dltTopic(source);
+        var target = topics.replayTarget(source);
+        var partitions = consumer.partitionsFor(dlt).stream()
+            .map(info -> new TopicPartition(dlt, info.partition()))
+            .toList();
+        consumer.assign(partitions);
+        seekToStart(consumer, partitions, job.request.from());
+
+        var endOffsets = consumer.endOffsets(partitions);
+        var remaining = new HashSet<>(partitions);
+        remaining.removeIf(partition -> consumer.position(partition) >= endOffsets.get(partition));
+
+        while (!remaining.isEmpty() && !job.limitReached()) {
+            for (var record : consumer.poll(POLL_TIMEOUT)) {
+                var partition = new TopicPartition(record.topic(), record.partition());
+                if (!remaining.contains(partition) || record.offset() >= endOffsets.get(partition)) {
+                    continue;
+                }
+                job.scanned.incrementAndGet();
+
+                if (!inWindow(record, job.request.from(), job.request.to())
+                    || !matchesException(record, job.request.exceptionType())) {
+                    job.skipped.incrementAndGet();
+                    continue;
+                }
+
+                job.pace();
+                kafkaTemplate.send(toReplay(record, target)).get(SEND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                if (job.replayed.incrementAndGet() % 100 == 0) {
+                    log.info("DLQ replay {} progress - topic: {}, replayed: {}", job.id, dlt, job.replayed.get());
+                }
+                if (job.limitReached()) {
+                    break;
+                }
+            }
+            remaining.removeIf(partition -> consumer.position(partition) >= endOffsets.get(partition));
+            consumer.pause(partitions.stream().filter(partition -> !remaining.contains(partition)).toList());
+        }
+    }
+
+    private static void seekToStart(Consumer<String, byte[]> consumer, List<TopicPartition> partitions, Instant from) {
+        if (from == null) {
+            consumer.seekToBeginning(partitions);
+            return;
+        }
+        var timestamps = new HashMap<TopicPartition, Long>();
+        partitions.forEach(partition -> timestamps.put(partition, from.toEpochMilli()));
+        consumer.offsetsForTimes(timestamps).forEach((partition, offset) -> {
+            if (offset == null) {
+                consumer.seekToEnd(List.of(partition));
+            } else {
+                consumer.seek(partition, offset.offset());
+            }
+        });
+    }
+
+    private static boolean inWindow(ConsumerRecord<String, byte[]> record, Instant from, Instant to) {
+        return (from == null || record.timestamp() >= from.toEpochMilli())
+            && (to == null || record.timestamp() <= to.toEpochMilli());
+    }
+
+    private static boolean matchesException(ConsumerRecord<String, byte[]> record, String exceptionType) {
+        if (exceptionType == null || exceptionType.isBlank()) {
+            return true;
+        }
+        return matchesClassName(record.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_FQCN), exceptionType)
+            || matchesClassName(record.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN), exceptionType);
+    }
+
+    private static boolean matchesClassName(Header header, String exceptionType) {
+        if (header == null) {
+            return false;
+        }
+        var fqcn = new String(header.value(), StandardCharsets.UTF_8);
+        return fqcn.equals(exceptionType) || fqcn.endsWith("." + exceptionType);
+    }
+
+    /**
+     * Copies the record without the dead-letter and retry bookkeeping headers, so the retry topics treat it
+     * as a first failure again.
+     */
+    private static ProducerRecord<String, byte[]> toReplay(ConsumerRecord<String, byte[]> record, String target) {
+        var headers = new RecordHeaders();
+        for (var header : record.headers()) {
+            if (!header.key().startsWith("kafka_dlt-") && !header.key().startsWith("retry_topic-")) {
+                headers.add(header);
+            }
+        }
+        headers.add(REPLAYED_AT_HEADER, Instant.now().toString().getBytes(StandardCharsets.UTF_8));
+        return new ProducerRecord<>(target, null, record.key(), record.value(), headers);
+    }
+
+    private final class ReplayJob {
+        private final UUID id = UUID.randomUUID();
+        private final DlqReplayRequest request;
+        private final double ratePerSecond;
+        private final long intervalNanos;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong replayed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private volatile State state = State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private long nextSendAt = System.nanoTime();
+
+        private ReplayJob(DlqReplayRequest request) {
+            this.request = request;
+            this.ratePerSecond = request.ratePerSecond() != null
+                ? request.ratePerSecond()
+                : retryProperties.replayRatePerSecond();
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        }
+
+        private void pace() throws InterruptedException {
+            var now = System.nanoTime();
+            if (nextSendAt > now) {
+                TimeUnit.NANOSECONDS.sleep(nextSendAt - now);
+            }
+            nextSendAt = Math.max(now, nextSendAt) + intervalNanos;
+        }
+
+        private boolean limitReached() {
+            return request.maxRecords() != null && replayed.get() >= request.maxRecords();
+        }
+
+        private void finish(State finalState, String failure) {
+            this.error = failure;
+            this.finishedAt = Instant.now();
+            this.state = finalState;
+        }
+
+        private DlqReplayStatus snapshot() {
+            return new DlqReplayStatus(id, state, request.sourceTopics(), scanned.get(), replayed.get(),
+                skipped.get(), startedAt, finishedAt, error);
+        }
+    }
+}
@@ -1,35 +1,43 @@
 package com.bni.orange.notification.service;
 
 import com.bni.orange.notification.config.properties.EmailConfigProperties;
+import com.bni.orange.notification.service.ledger.DeliveryLedger;
+import com.bni.orange.notification.service.mail.EmailDeliveryEngine;
+import com.bni.orange.notification.service.mail.EmailTemplate;
 import com.bni.orange.users.proto.OtpEmailNotificationEvent;
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
+    private static final String OTP_SUBJECT = "Your OTP Code - BNI Orange E-Wallet";
+
     private final JavaMailSender mailSender;
+    private final EmailDeliveryEngine deliveryEngine;
+    private final DeliveryLedger deliveryLedger;
     private final EmailConfigProperties emailConfig;
 
     public Mono<Boolean> sendOtp(OtpEmailNotificationEvent event) {
         log.info("Preparing to send OTP email to user {} at {}",
             event.getUserId(), maskEmail(event.getEmail()));
 
-        return Mono.fromCallable(() -> {
-                sendOtpEmail(event);
-                return true;
-            })
-            .subscribeOn(Schedulers.boundedElastic())
+        var send = Mono.fromCallable(() -> buildOtpEmail(event))
+            .flatMap(deliveryEngine::send);
+
+        return deliveryLedger.deliverOnce(deliveryId(event), event.getEmail(), send, ignored -> null, ignored -> null)
+            .thenReturn(true)
             .doOnSuccess(success -> log.info(
                 "OTP email successfully sent to user {} at {}",
                 event.getUserId(),
@@ -43,27 +51,29 @@ public class EmailService {
             .timeout(Duration.ofSeconds(30));
     }
 
-    private void sendOtpEmail(OtpEmailNotificationEvent event) {
+    private String deliveryId(OtpEmailNotificationEvent event) {
+        return event.getEventCreatedAt() == 0 ? null : "otp-email:" + event.getUserId() + ":" + event.getEventCreatedAt();
+    }
+
+    private MimeMessage buildOtpEmail(OtpEmailNotificationEvent event) {
         try {
             var message = mailSender.createMimeMessage();
             var helper = new MimeMessageHelper(message, true, "UTF-8");
 
             helper.setFrom(emailConfig.fromAddress(), emailConfig.fromName());
             helper.setTo(event.getEmail());
-            helper.setSubject("Your OTP Code - BNI Orange E-Wallet");
-            helper.setText(buildHtmlContent(event.getOtpCode()), true);
-
-            mailSender.send(message);
+            helper.setSubject(OTP_SUBJECT);
+            helper.setText(OTP_TEMPLATE.render(Map.of("otpCode", event.getOtpCode())), true);
+            return message;
 
         } catch (MessagingException e) {
-            throw new EmailSendException("Failed to send OTP email", e);
+            throw new EmailSendException("Failed to build OTP email", e);
         } catch (Exception e) {
-            throw new EmailSendException("Unexpected error while sending email", e);
+            throw new EmailSendException("Unexpected error while building email", e);
         }
     }
 
-    private String buildHtmlContent(String otpCode) {
-        return """
+    private static final EmailTemplate OTP_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head>
@@ -135,7 +145,7 @@ public class EmailService {
 
                     <div class="otp-box">
                         <p style="margin: 0; color: #6c757d;">Your OTP Code:</p>
-                        <div class="otp-code">%s</div>
+                        <div class="otp-code">{{otpCode}}</div>
                     </div>
 
                     <div class="info">
@@ -157,8 +167,7 @@ public class EmailService {
                 </div>
             </body>
             </html>
-            """.formatted(otpCode);
-    }
+            """);
 
     private String maskEmail(String email) {
         if (email == null || !email.contains("@")) {
@@ -1,6 +1,8 @@
 package com.bni.orange.notification.service;
 
-import com.bni.orange.notification.client.WahaApiClient;
+import com.bni.orange.notification.component.WahaSessionState;
+import com.bni.orange.notification.component.WhatsAppDispatcher;
+import com.bni.orange.notification.component.WhatsAppDispatcher.Lane;
 import com.bni.orange.notification.model.response.WahaMessageResponse;
 import com.bni.orange.wallet.proto.WalletInviteLinkGeneratedEvent;
 import lombok.RequiredArgsConstructor;
@@ -15,18 +17,17 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class InviteWhatsAppService {
 
-    private final WahaApiClient wahaApiClient;
-    private final WahaSessionService wahaSessionService;
+    private final WhatsAppDispatcher dispatcher;
+    private final WahaSessionState sessionState;
 
-    public Mono<WahaMessageResponse> sendInviteLink(WalletInviteLinkGeneratedEvent event) {
+    public Mono<WahaMessageResponse> sendInviteLink(String eventId, WalletInviteLinkGeneratedEvent event) {
         final String phone = event.getPhoneE164();
         log.info("Preparing link invite to {}", mask(phone));
 
         var message = formatLinkInviteMessage(event);
 
-        return wahaSessionService.waitForSessionReady(5, 3)
-            .doOnSuccess(s -> log.info("WhatsApp session ready"))
-            .flatMap(s -> wahaApiClient.sendTextMessage(phone, message))
+        return sessionState.awaitReady()
+            .then(dispatcher.sendOnce(Lane.BULK, eventId.isBlank() ? null : "wallet-invite:" + eventId, phone, message))
             .doOnSuccess(this::logOk)
             .doOnError(err -> log.error("Failed link invite to {}: {}", mask(phone), err.getMessage()))
             .timeout(Duration.ofSeconds(35));
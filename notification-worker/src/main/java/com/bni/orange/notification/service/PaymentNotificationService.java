@@ -1,7 +1,9 @@
 package com.bni.orange.notification.service;
 
 import com.bni.orange.notification.client.UserClient;
-import com.bni.orange.notification.client.WahaApiClient;
+import com.bni.orange.notification.component.WahaSessionState;
+import com.bni.orange.notification.component.WhatsAppDispatcher;
+import com.bni.orange.notification.component.WhatsAppDispatcher.Lane;
 import com.bni.orange.notification.model.PaymentIntentCreatedEvent;
 import com.bni.orange.notification.model.PaymentStatusUpdatedEvent;
 import com.bni.orange.notification.model.response.UserProfileResponse;
@@ -21,15 +23,14 @@ import java.util.Locale;
 @RequiredArgsConstructor
 public class PaymentNotificationService {
 
-  private final WahaApiClient wahaApiClient;
-  private final WahaSessionService wahaSessionService;
+  private final WhatsAppDispatcher dispatcher;
+  private final WahaSessionState sessionState;
   private final UserClient userClient;
 
   public Mono<Void> sendPaymentIntent(PaymentIntentCreatedEvent e) {
-    return wahaSessionService.waitForSessionReady(5, 3)
-      .doOnSuccess(s -> log.info("WhatsApp session ready"))
+    return sessionState.awaitReady()
       .then(resolveUserLite(e.getUserId())
-        .flatMap(u -> wahaApiClient.sendTextMessage(u.phoneE164(), formatPaymentIntentMessage(e, u))
+        .flatMap(u -> dispatcher.sendOnce(Lane.PAYMENT, deliveryId(e), u.phoneE164(), formatPaymentIntentMessage(e, u))
           .doOnSuccess(this::logOk)
           .doOnError(err -> log.error("Failed payment-intent {}: {}", mask(u.phoneE164()), err.getMessage()))
         )
@@ -43,6 +44,10 @@ public class PaymentNotificationService {
     return Mono.empty();
   }
 
+  private String deliveryId(PaymentIntentCreatedEvent e) {
+    return e.getEventId() != null ? e.getEventId() : "payment-intent:" + e.getPaymentIntentId();
+  }
+
   private Mono<UserLite> resolveUserLite(String userId) {
     return userClient.findUserById(userId)
       .switchIfEmpty(Mono.error(new IllegalStateException("User not found: " + userId)))
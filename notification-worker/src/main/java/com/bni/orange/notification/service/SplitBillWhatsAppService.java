@@ -1,7 +1,9 @@
 package com.bni.orange.notification.service;
 
 import com.bni.orange.notification.client.UserClient;
-import com.bni.orange.notification.client.WahaApiClient;
+import com.bni.orange.notification.component.WahaSessionState;
+import com.bni.orange.notification.component.WhatsAppDispatcher;
+import com.bni.orange.notification.component.WhatsAppDispatcher.Lane;
 import com.bni.orange.notification.model.MemberLink;
 import com.bni.orange.notification.model.SplitBillCreatedEvent;
 import com.bni.orange.notification.model.SplitBillRemindedEvent;
@@ -16,8 +18,12 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
@@ -25,20 +31,27 @@ import java.util.concurrent.atomic.AtomicInteger;
 @RequiredArgsConstructor
 public class SplitBillWhatsAppService {
 
-  private final WahaApiClient wahaApiClient;
-  private final WahaSessionService wahaSessionService;
+  private final WhatsAppDispatcher dispatcher;
+  private final WahaSessionState sessionState;
   private final UserClient userClient;
 
   @Value("${orange.app.register-url:https://app.orangebybni.my.id/register}")
   private String registerUrl;
 
   public Mono<Void> sendBillCreated(SplitBillCreatedEvent e) {
-    Mono<Void> sendOwner = resolveRecipient(e.getOwnerPhoneE164(), e.getOwnerFullName(), e.getOwnerUserId())
+    var deliveryId = e.getEventId() != null ? e.getEventId() : "splitbill-created:" + e.getBillId();
+    var members = nullSafe(e.getMemberLinks());
+    var directory = lookupRecipients(
+        concat(e.getOwnerPhoneE164(), members.stream().map(MemberLink::getPhoneE164).toList()),
+        concat(e.getOwnerUserId(), members.stream().map(MemberLink::getUserId).toList())
+    );
+
+    Mono<Void> sendOwner = resolveRecipient(directory, e.getOwnerPhoneE164(), e.getOwnerFullName(), e.getOwnerUserId())
         .flatMap(r -> {
           String msg = r.known()
               ? formatOwnerBillCreatedKnown(e, r)
               : formatOwnerBillCreatedUnknown(e, r);
-          return wahaApiClient.sendTextMessage(r.phoneE164(), msg).doOnSuccess(this::logOk);
+          return dispatcher.sendOnce(Lane.BULK, deliveryId + ":owner", r.phoneE164(), msg).doOnSuccess(this::logOk);
         })
         .then();
 
@@ -52,13 +65,13 @@ public class SplitBillWhatsAppService {
             var idx = t.getT1() + 1;
             var m = t.getT2();
 
-          return resolveRecipient(m.getPhoneE164(), null, String.valueOf(m.getUserId()))
+          return resolveRecipient(directory, m.getPhoneE164(), null, m.getUserId())
               .flatMap(r -> {
                   var msg = r.known()
                     ? formatMemberBillCreatedKnown(e, safe(m.getShortLink()), r)
                     : formatMemberBillCreatedUnknown(e, safe(m.getShortLink()), r);
                   var start = System.nanoTime();
-                return wahaApiClient.sendTextMessage(r.phoneE164(), msg)
+                return dispatcher.sendOnce(Lane.BULK, deliveryId + ":member", r.phoneE164(), msg)
                     .doOnSuccess(resp -> {
                       ok.incrementAndGet();
                         var durMs = (System.nanoTime() - start) / 1_000_000;
@@ -83,17 +96,25 @@ public class SplitBillWhatsAppService {
             e.getBillId(), total, ok.get(), fail.get(), sig)
         );
 
-    return wahaSessionService.waitForSessionReady(5, 3)
+    return sessionState.awaitReady()
         .then(sendOwner)
         .then(sendMembers)
         .timeout(Duration.ofSeconds(35));
   }
 
   public Mono<Void> sendBillReminded(SplitBillRemindedEvent e) {
+      var deliveryId = reminderDeliveryId(e);
+      var members = nullSafe(e.getMemberLinks());
+      var directory = lookupRecipients(
+          members.stream().map(MemberLink::getPhoneE164).toList(),
+          concat(e.getRemindedByUserId(), members.stream().map(MemberLink::getUserId).toList())
+      );
+
       var sendMembers = Flux
           .fromIterable(nullSafe(e.getMemberLinks()))
-          .flatMap((MemberLink m) -> resolveRecipient(m.getPhoneE164(), null, String.valueOf(m.getUserId()))
-              .flatMap(r -> wahaApiClient.sendTextMessage(
+          .flatMap((MemberLink m) -> resolveRecipient(directory, m.getPhoneE164(), null, m.getUserId())
+              .flatMap(r -> dispatcher.sendOnce(Lane.BULK,
+                  deliveryId == null ? null : deliveryId + ":member",
                   r.phoneE164(),
                   r.known()
                       ? formatMemberReminderKnown(e, safe(m.getShortLink()), r)
@@ -107,32 +128,82 @@ public class SplitBillWhatsAppService {
         , 5)
         .then();
 
-      var sendActorSummary = resolveRecipient(null, null, e.getRemindedByUserId())
-        .flatMap(actor -> wahaApiClient.sendTextMessage(
+      var sendActorSummary = resolveRecipient(directory, null, null, e.getRemindedByUserId())
+        .flatMap(actor -> dispatcher.sendOnce(Lane.BULK,
+            deliveryId == null ? null : deliveryId + ":summary",
             actor.phoneE164(), formatRemindedSummaryMessage(e, actor)
           ).doOnSuccess(this::logOk)
         )
         .then();
 
-    return wahaSessionService.waitForSessionReady(5, 3)
+    return sessionState.awaitReady()
         .then(sendMembers)
         .then(sendActorSummary)
         .timeout(Duration.ofSeconds(35));
   }
 
-  private Mono<Recipient> resolveRecipient(String phoneFromEvent, String nameFromEvent, String userId) {
+  /**
+   * Resolves every recipient of an event with a single user-service call, made on first use and shared by
+   * all sends of that event.
+   */
+  private Mono<RecipientDirectory> lookupRecipients(List<String> phones, List<String> userIds) {
+    var phoneKeys = phones.stream().map(this::normalizeE164).filter(Objects::nonNull).distinct().toList();
+    var idKeys = userIds.stream().map(this::parseUserId).filter(Objects::nonNull).distinct().toList();
+    if (phoneKeys.isEmpty() && idKeys.isEmpty()) {
+      return Mono.just(new RecipientDirectory(Map.of(), Map.of()));
+    }
+
+    return userClient.findUsers(idKeys, phoneKeys)
+        .map(users -> {
+          var byPhone = new HashMap<String, UserProfileResponse>();
+          var byId = new HashMap<UUID, UserProfileResponse>();
+          for (var u : users) {
+            var phone = normalizeE164(u.getPhoneNumber());
+            if (phone != null) byPhone.put(phone, u);
+            if (u.getUserId() != null) byId.put(u.getUserId(), u);
+          }
+          log.debug("Resolved {} of {} recipients in one lookup", users.size(), phoneKeys.size() + idKeys.size());
+          return new RecipientDirectory(byPhone, byId);
+        })
+        .cache();
+  }
+
+  private Mono<Recipient> resolveRecipient(Mono<RecipientDirectory> directory, String phoneFromEvent, String nameFromEvent, String userId) {
       var phone = normalizeE164(phoneFromEvent);
     if (phone != null && !phone.isBlank()) {
-      return userClient.findUserByPhone(phone)
-          .map(this::toRecipientKnown)
-          .switchIfEmpty(Mono.just(Recipient.unknown(phone, displayNameOrDefault(nameFromEvent))));
+      return directory.map(d -> {
+        var user = d.byPhone().get(phone);
+        return user != null ? toRecipientKnown(user) : Recipient.unknown(phone, displayNameOrDefault(nameFromEvent));
+      });
     }
-    if (userId != null && !userId.isBlank()) {
-      return userClient.findUserById(userId).map(this::toRecipientKnown);
+    var id = parseUserId(userId);
+    if (id != null) {
+      return directory.flatMap(d -> {
+        var user = d.byId().get(id);
+        return user != null
+            ? Mono.just(toRecipientKnown(user))
+            : Mono.error(new IllegalStateException("User not found: " + maskUser(userId)));
+      });
     }
     return Mono.error(new IllegalStateException("No phone or userId to resolve recipient"));
   }
 
+  private UUID parseUserId(String userId) {
+    if (userId == null || userId.isBlank()) return null;
+    try {
+      return UUID.fromString(userId);
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  private static <T> List<T> concat(T first, List<T> rest) {
+    var all = new ArrayList<T>(rest.size() + 1);
+    all.add(first);
+    all.addAll(rest);
+    return all;
+  }
+
   private Recipient toRecipientKnown(UserProfileResponse u) {
       var phone = normalizeE164(u.getPhoneNumber());
       var name = displayNameOrDefault(u.getFullName());
@@ -241,6 +312,16 @@ public class SplitBillWhatsAppService {
   }
 
   private <T> List<T> nullSafe(List<T> v) { return v == null ? List.of() : v; }
+
+  /**
+   * A bill can be reminded many times, so without an event id a reminder is only identified by its time;
+   * reminders with neither skip the delivery ledger.
+   */
+  private String reminderDeliveryId(SplitBillRemindedEvent e) {
+    if (e.getEventId() != null) return e.getEventId();
+    return e.getRemindedAt() == null ? null : "splitbill-reminded:" + e.getBillId() + ":" + e.getRemindedAt();
+  }
+
   private String summarizeResult(SplitBillRemindedEvent e) {
     if (e.getResult() == null || e.getResult().isEmpty()) return "-";
     var sb = new StringBuilder();
@@ -275,6 +356,8 @@ public class SplitBillWhatsAppService {
   private String mask(String phone) { return (phone == null || phone.length() < 8) ? "***" : phone.substring(0,6) + "****" + phone.substring(phone.length()-2); }
   private String maskUser(String userId) { return (userId == null || userId.length()<6) ? "***" : userId.substring(0,3) + "***" + userId.substring(userId.length()-2); }
 
+  private record RecipientDirectory(Map<String, UserProfileResponse> byPhone, Map<UUID, UserProfileResponse> byId) {}
+
   private record Recipient(String phoneE164, String displayName, boolean known) {
     static Recipient unknown(String phoneE164, String displayName) { return new Recipient(phoneE164, displayName, false); }
   }
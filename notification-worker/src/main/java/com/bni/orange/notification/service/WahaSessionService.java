@@ -1,6 +1,7 @@
 package com.bni.orange.notification.service;
 
 import com.bni.orange.notification.client.WahaApiClient;
+import com.bni.orange.notification.component.WahaSessionState;
 import com.bni.orange.notification.model.response.WahaQRCodeResponse;
 import com.bni.orange.notification.model.response.WahaSessionResponse;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -12,21 +13,22 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 
-import static reactor.util.retry.Retry.backoff;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WahaSessionService {
 
     private final WahaApiClient wahaApiClient;
+    private final WahaSessionState sessionState;
 
     public Mono<WahaSessionResponse> getSessionStatus() {
         log.debug("Fetching session status");
         return wahaApiClient.getSessionStatus()
-            .doOnSuccess(session ->
-                log.info("Session status: {}", session.status())
-            );
+            .doOnNext(session -> {
+                log.info("Session status: {}", session.status());
+                sessionState.update(session.status(), "status-check");
+            })
+            .doOnError(error -> sessionState.recordFailure(error, "status-check"));
     }
 
     @Retry(name = "waha-session", fallbackMethod = "startSessionFallback")
@@ -93,28 +95,6 @@ public class WahaSessionService {
             );
     }
 
-    public Mono<WahaSessionResponse> waitForSessionReady(int maxAttempts, int delaySeconds) {
-        return getSessionStatus()
-            .flatMap(session -> {
-                if ("WORKING".equalsIgnoreCase(session.status())) {
-                    log.info("Session is ready! {}",session);
-                    return Mono.just(session);
-                }
-                if ("FAILED".equalsIgnoreCase(session.status())) {
-                    log.error("Session failed! Manual intervention required.");
-                    return Mono.error(new IllegalStateException("Session is in FAILED state"));
-                }
-                log.info("Session status: {}. Waiting...", session.status());
-                return Mono.error(new SessionNotReadyException(session.status()));
-            })
-            .retryWhen(backoff(maxAttempts, Duration.ofSeconds(delaySeconds))
-                .filter(throwable -> throwable instanceof SessionNotReadyException)
-                .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) ->
-                    new IllegalStateException("Session did not become ready after " + maxAttempts + " attempts.", retrySignal.failure())
-                )
-            );
-    }
-
     public static class SessionNotReadyException extends RuntimeException {
         public SessionNotReadyException(String status) {
             super("Session not ready. Current status: " + status);
@@ -1,7 +1,9 @@
 package com.bni.orange.notification.service;
 
 import com.bni.orange.authentication.proto.OtpNotificationEvent;
-import com.bni.orange.notification.client.WahaApiClient;
+import com.bni.orange.notification.component.WahaSessionState;
+import com.bni.orange.notification.component.WhatsAppDispatcher;
+import com.bni.orange.notification.component.WhatsAppDispatcher.Lane;
 import com.bni.orange.notification.model.response.WahaMessageResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,17 +18,16 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class WhatsAppService {
 
-    private final WahaApiClient wahaApiClient;
-    private final WahaSessionService wahaSessionService;
+    private final WhatsAppDispatcher dispatcher;
+    private final WahaSessionState sessionState;
 
     public Mono<WahaMessageResponse> sendOtp(OtpNotificationEvent event) {
         log.info("Preparing to send OTP to user {} via phone {}", event.getUserId(), maskPhoneNumber(event.getPhoneNumber()));
 
         var message = formatOtpMessage(event.getOtpCode());
 
-        return wahaSessionService.waitForSessionReady(5, 3)
-            .doOnSuccess(session -> log.info("WhatsApp session ready for user {}", event.getUserId()))
-            .flatMap(session -> wahaApiClient.sendTextMessage(event.getPhoneNumber(), message))
+        return sessionState.awaitReady()
+            .then(dispatcher.sendOnce(Lane.OTP, deliveryId(event), event.getPhoneNumber(), message))
             .doOnSuccess(response -> {
                 var timestamp = response.timestamp() != null ? Instant.ofEpochSecond(response.timestamp()) : "N/A";
                 log.info("OTP successfully sent to user {}. Message ID: {}, Timestamp: {}",
@@ -42,6 +43,13 @@ public class WhatsAppService {
             .timeout(Duration.ofSeconds(35));
     }
 
+    /**
+     * An OTP request is identified by its user and creation time; events without a creation time skip the ledger.
+     */
+    private String deliveryId(OtpNotificationEvent event) {
+        return event.getEventCreatedAt() == 0 ? null : "otp-whatsapp:" + event.getUserId() + ":" + event.getEventCreatedAt();
+    }
+
     private String formatOtpMessage(String otpCode) {
         return """
             🔸 *BNI Orange E-Wallet* 🔸
@@ -0,0 +1,196 @@
+package com.bni.orange.notification.service.ledger;
+
+import com.bni.orange.notification.config.properties.DeliveryLedgerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Remembers which notification went to which recipient, so a record redelivered after a crash or rebalance,
+ * retried from a retry topic or replayed from a dead-letter topic does not message anyone twice.
+ *
+ * <p>A send first claims its entry under a token of its own. The claim becomes a delivered entry, kept for
+ * {@code deliveredTtl}, once the send succeeds, and is dropped when it fails so a retry can try again. Only
+ * the token's holder can drop it, so a slow send cannot release a claim another instance took after its own
+ * lapsed. A send that timed out or was cancelled may still have gone out, so its claim is kept until
+ * {@code inFlightTtl} ends rather than inviting a duplicate. A later send that finds a delivered entry is
+ * skipped; one that finds a claim still held fails with {@link DeliveryInProgressException} and is retried.
+ * If the store cannot be reached the send goes ahead without it: a duplicate is better than a lost OTP.
+ */
+@Slf4j
+@Component
+public class DeliveryLedger {
+
+    private static final String DELIVERED = "D";
+
+    private final DeliveryLedgerStore store;
+    private final DeliveryLedgerProperties properties;
+
+    private final Counter claimed;
+    private final Counter duplicates;
+    private final Counter inFlight;
+    private final Counter unavailable;
+
+    public DeliveryLedger(DeliveryLedgerStore store, DeliveryLedgerProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.claimed = outcomeCounter(meterRegistry, "claimed");
+        this.duplicates = outcomeCounter(meterRegistry, "duplicate");
+        this.inFlight = outcomeCounter(meterRegistry, "in_flight");
+        this.unavailable = outcomeCounter(meterRegistry, "unavailable");
+    }
+
+    /**
+     * Runs {@code send} unless the ledger already holds a delivery of {@code eventId} to {@code recipient}.
+     *
+     * @param receipt maps the send's result to the string recorded with the delivery
+     * @param replay  maps a recorded receipt back to the result returned in place of a duplicate send;
+     *                may return null to complete empty
+     */
+    public <T> Mono<T> deliverOnce(
+        String eventId,
+        String recipient,
+        Mono<T> send,
+        Function<T, String> receipt,
+        Function<String, T> replay
+    ) {
+        if (!properties.enabled() || isBlank(eventId) || isBlank(recipient)) {
+            return send;
+        }
+        var key = key(eventId, recipient);
+        var token = UUID.randomUUID().toString();
+        return store.claim(key, token, properties.inFlightTtl())
+            .map(Claim::of)
+            .onErrorResume(error -> {
+                log.warn("Delivery ledger unavailable, sending {} without it: {}", eventId, error.toString());
+                return Mono.just(Claim.UNAVAILABLE);
+            })
+            .flatMap(claim -> switch (claim.outcome()) {
+                case ACQUIRED -> {
+                    claimed.increment();
+                    yield sendClaimed(key, token, send, receipt);
+                }
+                case DELIVERED -> {
+                    duplicates.increment();
+                    log.info("Skipping duplicate delivery of {}", eventId);
+                    yield Mono.justOrEmpty(replay.apply(claim.receipt()));
+                }
+                case IN_FLIGHT -> {
+                    inFlight.increment();
+                    yield Mono.error(new DeliveryInProgressException(eventId));
+                }
+                case UNAVAILABLE -> {
+                    unavailable.increment();
+                    yield send;
+                }
+            });
+    }
+
+    /**
+     * Cancellation deliberately keeps the claim as well: the send may already be on its way.
+     */
+    private <T> Mono<T> sendClaimed(String key, String token, Mono<T> send, Function<T, String> receipt) {
+        return send
+            .flatMap(result -> markDelivered(key, receipt.apply(result)).thenReturn(result))
+            .switchIfEmpty(Mono.defer(() -> markDelivered(key, null).then(Mono.empty())))
+            .onErrorResume(error -> {
+                if (isTimeout(error)) {
+                    log.warn("Send of {} timed out, keeping its claim until it expires", key);
+                    return Mono.error(error);
+                }
+                return release(key, token).then(Mono.error(error));
+            });
+    }
+
+    /**
+     * A failure here only costs the record: the message did go out, and the claim lapses after
+     * {@code inFlightTtl}.
+     */
+    private Mono<Void> markDelivered(String key, String receipt) {
+        return store.complete(key, DELIVERED + (receipt == null ? "" : receipt), properties.deliveredTtl())
+            .onErrorResume(error -> {
+                log.warn("Failed to record delivery {}: {}", key, error.toString());
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Void> release(String key, String token) {
+        return store.release(key, token)
+            .onErrorResume(error -> {
+                log.warn("Failed to release delivery claim {}: {}", key, error.toString());
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Hashed so keys stay short and carry no phone numbers or email addresses.
+     */
+    private String key(String eventId, String recipient) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256")
+                .digest((eventId + '\n' + recipient).getBytes(StandardCharsets.UTF_8));
+            return properties.keyPrefix() + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notification.delivery_ledger")
+            .description("Delivery ledger lookups by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (var cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof io.netty.handler.timeout.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private enum Outcome {
+        ACQUIRED,
+        DELIVERED,
+        IN_FLIGHT,
+        UNAVAILABLE
+    }
+
+    private record Claim(Outcome outcome, String receipt) {
+        private static final Claim UNAVAILABLE = new Claim(Outcome.UNAVAILABLE, null);
+
+        private static Claim of(String existing) {
+            if (existing.isEmpty()) {
+                return new Claim(Outcome.ACQUIRED, null);
+            }
+            if (existing.startsWith(DELIVERED)) {
+                var receipt = existing.substring(DELIVERED.length());
+                return new Claim(Outcome.DELIVERED, receipt.isEmpty() ? null : receipt);
+            }
+            return new Claim(Outcome.IN_FLIGHT, null);
+        }
+    }
+
+    public static class DeliveryInProgressException extends RuntimeException {
+        public DeliveryInProgressException(String eventId) {
+            super("Delivery of " + eventId + " is already in progress");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.bni.orange.notification.service.ledger;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Key-value store behind {@link DeliveryLedger}. Entries expire after their TTL.
+ */
+public interface DeliveryLedgerStore {
+
+    /**
+     * Prefix of an entry claimed for a send that has not finished yet; the rest is the claimant's token.
+     */
+    String PENDING = "P";
+
+    /**
+     * Atomically creates a {@link #PENDING} entry holding {@code token} for {@code key} unless one already
+     * exists.
+     *
+     * @return an empty string when the claim was taken, otherwise the existing entry's value
+     */
+    Mono<String> claim(String key, String token, Duration ttl);
+
+    /**
+     * Replaces the entry for {@code key}, whatever it holds.
+     */
+    Mono<Void> complete(String key, String value, Duration ttl);
+
+    /**
+     * Removes the entry for {@code key} if it is still the {@link #PENDING} claim holding {@code token}, so a
+     * claim that expired and was taken by another send is left alone.
+     */
+    Mono<Void> release(String key, String token);
+}
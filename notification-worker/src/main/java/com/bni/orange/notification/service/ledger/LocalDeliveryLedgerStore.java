@@ -0,0 +1,89 @@
+package com.bni.orange.notification.service.ledger;
+
+import com.bni.orange.notification.config.properties.DeliveryLedgerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ledger entries kept in this instance's memory. Covers redeliveries and retries handled by the same
+ * instance, but not a partition moving to another instance, and is lost on restart; meant for single-instance
+ * deployments and local runs.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "orange.delivery-ledger.store", havingValue = "local")
+public class LocalDeliveryLedgerStore implements DeliveryLedgerStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public LocalDeliveryLedgerStore(DeliveryLedgerProperties properties) {
+        this.maxEntries = properties.localMaxEntries();
+    }
+
+    @Override
+    public Mono<String> claim(String key, String token, Duration ttl) {
+        return Mono.fromSupplier(() -> {
+            var now = System.nanoTime();
+            var existing = new String[]{""};
+            entries.compute(key, (k, current) -> {
+                if (current != null && !current.isExpired(now)) {
+                    existing[0] = current.value;
+                    return current;
+                }
+                return new Entry(PENDING + token, now + ttl.toNanos());
+            });
+            if (existing[0].isEmpty() && entries.size() > maxEntries) {
+                evict(now);
+            }
+            return existing[0];
+        });
+    }
+
+    @Override
+    public Mono<Void> complete(String key, String value, Duration ttl) {
+        return Mono.fromRunnable(() -> entries.put(key, new Entry(value, System.nanoTime() + ttl.toNanos())));
+    }
+
+    @Override
+    public Mono<Void> release(String key, String token) {
+        var claimed = PENDING + token;
+        return Mono.fromRunnable(() -> entries.computeIfPresent(key,
+            (k, current) -> claimed.equals(current.value) ? null : current));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    void purgeExpired() {
+        var now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    private synchronized void evict(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        var overflow = entries.size() - maxEntries;
+        if (overflow <= 0) {
+            return;
+        }
+        log.warn("Local delivery ledger over {} entries, evicting {} closest to expiry", maxEntries, overflow);
+        entries.entrySet().stream()
+            .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt))
+            .limit(overflow)
+            .map(Map.Entry::getKey)
+            .toList()
+            .forEach(entries::remove);
+    }
+
+    private record Entry(String value, long expiresAt) {
+        private boolean isExpired(long now) {
+            return expiresAt - now <= 0;
+        }
+    }
+}
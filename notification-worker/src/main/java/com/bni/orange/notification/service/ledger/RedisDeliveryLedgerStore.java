@@ -0,0 +1,59 @@
+package com.bni.orange.notification.service.ledger;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ledger entries shared by every worker instance, so a partition that moves to another instance on a
+ * rebalance still sees what the previous owner delivered. Claim and release are single Lua script calls.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "orange.delivery-ledger.store", havingValue = "redis", matchIfMissing = true)
+public class RedisDeliveryLedgerStore implements DeliveryLedgerStore {
+
+    // KEYS: entry | ARGV: pending value with the claimant's token, ttlMillis
+    private static final RedisScript<String> CLAIM = new DefaultRedisScript<>("""
+        local current = redis.call('GET', KEYS[1])
+        if current then
+          return current
+        end
+        redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+        return ''
+        """, String.class);
+
+    // KEYS: entry | ARGV: pending value with the claimant's token
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+          return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    @Override
+    public Mono<String> claim(String key, String token, Duration ttl) {
+        return redisTemplate.execute(CLAIM, List.of(key), List.of(PENDING + token, String.valueOf(ttl.toMillis())))
+            .next()
+            .defaultIfEmpty("");
+    }
+
+    @Override
+    public Mono<Void> complete(String key, String value, Duration ttl) {
+        return redisTemplate.opsForValue().set(key, value, ttl).then();
+    }
+
+    @Override
+    public Mono<Void> release(String key, String token) {
+        return redisTemplate.execute(RELEASE, List.of(key), List.of(PENDING + token)).then();
+    }
+}
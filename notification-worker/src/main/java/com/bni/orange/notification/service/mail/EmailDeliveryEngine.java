@@ -0,0 +1,235 @@
+package com.bni.orange.notification.service.mail;
+
+import com.bni.orange.notification.config.properties.EmailDeliveryProperties;
+import com.bni.orange.notification.service.EmailService.EmailSendException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers MIME messages over a fixed set of long-lived, authenticated SMTP connections. Each worker thread
+ * owns one connection and sends whatever has queued up, up to {@code batchSize} messages, over it in one go,
+ * so under load most messages skip the connect, TLS and AUTH round trips entirely. Connections are closed
+ * after {@code maxIdle} without traffic or after {@code maxMessagesPerConnection} messages.
+ */
+@Slf4j
+@Component
+public class EmailDeliveryEngine {
+
+    private final JavaMailSenderImpl mailSender;
+    private final EmailDeliveryProperties properties;
+    private final BlockingQueue<PendingEmail> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final Timer deliveryTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter connectionsOpened;
+    private final Counter rejected;
+
+    public EmailDeliveryEngine(
+        JavaMailSenderImpl mailSender,
+        EmailDeliveryProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+
+        this.deliveryTimer = Timer.builder("notification.email.delivery")
+            .description("Time from queueing an email until the SMTP server accepted it")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("notification.email.batch_size")
+            .description("Emails sent per connection checkout")
+            .register(meterRegistry);
+        this.connectionsOpened = Counter.builder("notification.email.connections_opened")
+            .description("SMTP connections opened and authenticated")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("notification.email.rejected")
+            .description("Emails refused because the delivery queue was full")
+            .register(meterRegistry);
+        Gauge.builder("notification.email.queue_depth", queue, BlockingQueue::size)
+            .description("Emails waiting for a delivery worker")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < properties.connections(); i++) {
+            var worker = new Thread(this::runWorker, "email-delivery-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (var worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        PendingEmail pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.tryEmitError(new EmailSendException("Email delivery stopped", null));
+        }
+    }
+
+    /**
+     * Queues {@code message} for delivery. The returned mono completes once the SMTP server has accepted it;
+     * cancelling it before a worker picks the message up withdraws the message.
+     */
+    public Mono<Void> send(MimeMessage message) {
+        return Mono.defer(() -> {
+            var pending = new PendingEmail(message);
+            if (!queue.offer(pending)) {
+                rejected.increment();
+                return Mono.error(new EmailSendException(
+                    "Email delivery queue full (" + properties.queueCapacity() + ")", null));
+            }
+            return pending.result.asMono()
+                .doOnCancel(() -> pending.withdrawn.set(true));
+        });
+    }
+
+    private void runWorker() {
+        var connection = new Connection();
+        var batch = new ArrayList<PendingEmail>(properties.batchSize());
+        try {
+            while (running) {
+                var first = queue.poll(properties.maxIdle().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    connection.close();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                deliver(connection, batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            batch.forEach(pending -> pending.result.tryEmitError(new EmailSendException("Email delivery stopped", null)));
+            connection.close();
+        }
+    }
+
+    private void deliver(Connection connection, List<PendingEmail> batch) {
+        batchSizes.record(batch.size());
+        for (var pending : batch) {
+            if (pending.withdrawn.get()) {
+                continue;
+            }
+            try {
+                connection.send(pending.message);
+                pending.complete(deliveryTimer);
+            } catch (SendFailedException e) {
+                // Recipients rejected; the connection itself is still usable
+                pending.result.tryEmitError(new EmailSendException("SMTP server rejected the email", e));
+            } catch (MessagingException e) {
+                // Most likely a connection the server dropped while it sat in the pool: retry once on a new one
+                connection.close();
+                try {
+                    connection.send(pending.message);
+                    pending.complete(deliveryTimer);
+                } catch (MessagingException | RuntimeException retryFailure) {
+                    connection.close();
+                    pending.result.tryEmitError(new EmailSendException("Failed to send email", retryFailure));
+                }
+            } catch (RuntimeException e) {
+                pending.result.tryEmitError(new EmailSendException("Unexpected error while sending email", e));
+            }
+        }
+    }
+
+    /**
+     * One worker's SMTP connection, opened lazily and replaced after {@code maxMessagesPerConnection} sends.
+     */
+    private final class Connection {
+        private Transport transport;
+        private int sent;
+
+        private void send(MimeMessage message) throws MessagingException {
+            // No liveness probe here: isConnected() costs a NOOP round trip, and a dropped connection
+            // surfaces on the send itself, which the caller retries once on a fresh connection
+            if (transport == null || sent >= properties.maxMessagesPerConnection()) {
+                close();
+                open();
+            }
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            var recipients = message.getAllRecipients();
+            transport.sendMessage(message, recipients != null ? recipients : new Address[0]);
+            sent++;
+        }
+
+        private void open() throws MessagingException {
+            var opened = mailSender.getSession().getTransport(
+                mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+            opened.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            connectionsOpened.increment();
+            transport = opened;
+            sent = 0;
+        }
+
+        private void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Ignoring failure closing SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+
+    private static final class PendingEmail {
+        private final MimeMessage message;
+        private final long queuedAt = System.nanoTime();
+        private final Sinks.Empty<Void> result = Sinks.empty();
+        private final AtomicBoolean withdrawn = new AtomicBoolean();
+
+        private PendingEmail(MimeMessage message) {
+            this.message = message;
+        }
+
+        private void complete(Timer deliveryTimer) {
+            deliveryTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            result.tryEmitEmpty();
+        }
+    }
+}
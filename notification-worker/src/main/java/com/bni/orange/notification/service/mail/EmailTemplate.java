@@ -0,0 +1,59 @@
+package com.bni.orange.notification.service.mail;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * HTML template with {@code {{name}}} placeholders, split into literal segments once at compile time so
+ * rendering is a single pass of appends. Parameter values are HTML-escaped.
+ */
+public final class EmailTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(\\w+)}}");
+
+    private final String[] literals;
+    private final String[] names;
+    private final int literalLength;
+
+    private EmailTemplate(String[] literals, String[] names) {
+        this.literals = literals;
+        this.names = names;
+        var length = 0;
+        for (var literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static EmailTemplate compile(String source) {
+        var literals = new ArrayList<String>();
+        var names = new ArrayList<String>();
+        var matcher = PLACEHOLDER.matcher(source);
+        var last = 0;
+        while (matcher.find()) {
+            literals.add(source.substring(last, matcher.start()));
+            names.add(matcher.group(1));
+            last = matcher.end();
+        }
+        literals.add(source.substring(last));
+        return new EmailTemplate(literals.toArray(String[]::new), names.toArray(String[]::new));
+    }
+
+    /**
+     * @throws IllegalArgumentException when a placeholder has no value in {@code params}
+     */
+    public String render(Map<String, String> params) {
+        var out = new StringBuilder(literalLength + names.length * 16);
+        for (int i = 0; i < names.length; i++) {
+            var value = params.get(names[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing email template parameter: " + names[i]);
+            }
+            out.append(literals[i]).append(HtmlUtils.htmlEscape(value));
+        }
+        return out.append(literals[names.length]).toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.bni.orange.notification.component;
+
+import com.bni.orange.splitbill.proto.v1.MemberLink;
+import com.bni.orange.splitbill.proto.v1.PaymentStatusUpdatedEvent;
+import com.bni.orange.splitbill.proto.v1.SplitBillCreatedEvent;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationEventDecoderTest {
+
+    private static final String SPLIT_BILL_CREATED_JSON = """
+        {"eventId":"event-1","billId":"bill-123","ownerUserId":"user-owner-1","ownerPhoneE164":"+6281234567890",\
+        "ownerFullName":"Budi Santoso","ownerShortLink":"https://s.orange.id/abc123",\
+        "memberLinks":[\
+        {"userId":"user-1","memberId":"member-1","shortLink":"https://s.orange.id/m1","phoneE164":"+6281200000001"},\
+        {"userId":"user-2","memberId":"member-2","shortLink":"https://s.orange.id/m2","phoneE164":"+6281200000002"},\
+        {"userId":"user-3","memberId":"member-3","shortLink":"https://s.orange.id/m3","phoneE164":"+6281200000003"}],\
+        "createdAt":"2025-01-15T10:30:00Z"}""";
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationEventDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new NotificationEventDecoder(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should decode JSON and protobuf split-bill-created payloads into the same event")
+    void splitBillCreated_DecodesBothFormats() throws IOException {
+        var fromJson = decoder.splitBillCreated(SPLIT_BILL_CREATED_JSON.getBytes(StandardCharsets.UTF_8));
+        var fromProto = decoder.splitBillCreated(splitBillCreatedProto().toByteArray());
+
+        assertThat(fromProto).isEqualTo(fromJson);
+        assertThat(fromProto.getMemberLinks()).hasSize(3);
+        assertThat(meterRegistry.counter("notification.event.decoded",
+            "event", "splitbill-created", "format", "json").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("notification.event.decoded",
+            "event", "splitbill-created", "format", "protobuf").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should map transaction-service payment status events, leaving unset fields null")
+    void paymentStatusUpdated_DecodesTransactionServiceEvent() throws IOException {
+        var payload = PaymentStatusUpdatedEvent.newBuilder()
+            .setEventId("event-1")
+            .setBillId("bill-123")
+            .setMemberId("member-1")
+            .setTransactionId("txn-1")
+            .setTransactionRef("TRX-0001")
+            .setStatus("CAPTURED")
+            .setAmount(125_000)
+            .setPaidAt(Timestamp.newBuilder().setSeconds(1_736_937_000))
+            .build()
+            .toByteArray();
+
+        var event = decoder.paymentStatusUpdated(payload);
+
+        assertThat(event.getTransactionId()).isEqualTo("txn-1");
+        assertThat(event.getStatus()).isEqualTo("CAPTURED");
+        assertThat(event.getAmount()).isEqualTo(125_000L);
+        assertThat(event.getUpdatedAt()).isEqualTo("2025-01-15T10:30:00Z");
+        assertThat(event.getPaymentIntentId()).isNull();
+        assertThat(event.getFailureMessage()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a payload that is neither JSON nor protobuf")
+    void splitBillCreated_RejectsGarbage() {
+        var payload = new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+
+        assertThatThrownBy(() -> decoder.splitBillCreated(payload))
+            .isInstanceOf(InvalidProtocolBufferException.class);
+    }
+
+    private static SplitBillCreatedEvent splitBillCreatedProto() {
+        var builder = SplitBillCreatedEvent.newBuilder()
+            .setEventId("event-1")
+            .setBillId("bill-123")
+            .setOwnerUserId("user-owner-1")
+            .setOwnerPhoneE164("+6281234567890")
+            .setOwnerFullName("Budi Santoso")
+            .setOwnerShortLink("https://s.orange.id/abc123")
+            .setCreatedAt(Timestamp.newBuilder().setSeconds(1_736_937_000));
+        for (int i = 1; i <= 3; i++) {
+            builder.addMemberLinks(MemberLink.newBuilder()
+                .setUserId("user-" + i)
+                .setMemberId("member-" + i)
+                .setShortLink("https://s.orange.id/m" + i)
+                .setPhoneE164("+628120000000" + i));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.bni.orange.notification.component;
+
+import com.bni.orange.notification.client.WahaApiClient;
+import com.bni.orange.notification.client.WahaApiClient.WahaServiceException;
+import com.bni.orange.notification.config.properties.WahaSessionStateProperties;
+import com.bni.orange.notification.model.response.WahaSessionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WahaSessionStateTest {
+
+    @Mock
+    private WahaApiClient wahaApiClient;
+
+    private WahaSessionState sessionState;
+
+    @BeforeEach
+    void setUp() {
+        sessionState = new WahaSessionState(wahaApiClient,
+            new WahaSessionStateProperties(10, Duration.ofSeconds(2), Duration.ofMillis(50)),
+            new SimpleMeterRegistry());
+        sessionState.update("WORKING", "test");
+    }
+
+    @Test
+    @DisplayName("Should stop reporting ready as soon as WAHA cannot be reached")
+    void recordFailure_connectionError_marksUnreachable() {
+        sessionState.recordFailure(new RuntimeException(new ConnectException("Connection refused")), "send");
+
+        assertThat(sessionState.isReady()).isFalse();
+        assertThat(sessionState.status()).isEqualTo("UNREACHABLE");
+    }
+
+    @Test
+    @DisplayName("Should treat a timeout as unreachable")
+    void recordFailure_timeout_marksUnreachable() {
+        sessionState.recordFailure(new TimeoutException("Did not observe any item"), "status-check");
+
+        assertThat(sessionState.isReady()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the session ready when WAHA answered with an error")
+    void recordFailure_serviceError_keepsStatus() {
+        sessionState.recordFailure(new WahaServiceException("WAHA service error"), "send");
+
+        assertThat(sessionState.isReady()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should park sends after a connection failure and release them once a poll sees WORKING")
+    void awaitReady_afterConnectionFailure_parksUntilPollSeesWorking() {
+        when(wahaApiClient.getSessionStatus()).thenReturn(Mono.just(new WahaSessionResponse("default", "WORKING", null)));
+
+        sessionState.recordFailure(new ConnectException("Connection refused"), "send");
+
+        sessionState.awaitReady().block(Duration.ofSeconds(1));
+        assertThat(sessionState.isReady()).isTrue();
+    }
+}
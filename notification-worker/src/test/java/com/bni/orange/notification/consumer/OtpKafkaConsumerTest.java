@@ -1,22 +1,26 @@
 package com.bni.orange.notification.consumer;
 
 import com.bni.orange.authentication.proto.OtpNotificationEvent;
+import com.bni.orange.notification.config.properties.OtpConsumerProperties;
 import com.bni.orange.notification.model.response.WahaMessageResponse;
 import com.bni.orange.notification.service.WhatsAppService;
+import com.bni.orange.notification.service.ledger.DeliveryLedger.DeliveryInProgressException;
 import com.google.protobuf.InvalidProtocolBufferException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.support.Acknowledgment;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -34,7 +38,6 @@ class OtpKafkaConsumerTest {
     @Mock
     private Acknowledgment acknowledgment;
 
-    @InjectMocks
     private OtpKafkaConsumer otpKafkaConsumer;
 
     private String testUserId;
@@ -48,6 +51,8 @@ class OtpKafkaConsumerTest {
         testPhoneNumber = "+628123456789";
         testOtpCode = "123456";
         testTopic = "otp-whatsapp";
+        otpKafkaConsumer = new OtpKafkaConsumer(
+            whatsAppService, dlqProducer, new OtpConsumerProperties(4), new SimpleMeterRegistry());
     }
 
     @Test
@@ -130,6 +135,32 @@ class OtpKafkaConsumerTest {
         verify(acknowledgment, times(1)).acknowledge();
     }
 
+    @Test
+    @DisplayName("Should acknowledge without DLQ when the delivery is already in progress elsewhere")
+    void listen_DeliveryInProgress() {
+        var event = OtpNotificationEvent.newBuilder()
+            .setUserId(testUserId)
+            .setPhoneNumber(testPhoneNumber)
+            .setOtpCode(testOtpCode)
+            .build();
+
+        var record = new ConsumerRecord<>(
+            testTopic,
+            0,
+            100L,
+            testUserId,
+            event.toByteArray()
+        );
+
+        when(whatsAppService.sendOtp(any(OtpNotificationEvent.class)))
+            .thenReturn(Mono.error(new DeliveryInProgressException("otp-whatsapp:" + testUserId + ":1")));
+
+        otpKafkaConsumer.listen(record, acknowledgment);
+
+        verify(dlqProducer, never()).send(any(), any());
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
     @Test
     @DisplayName("Should send to DLQ when WhatsApp service times out")
     void listen_WhatsAppServiceTimeout() {
@@ -222,4 +253,48 @@ class OtpKafkaConsumerTest {
         verify(whatsAppService, times(1)).sendOtp(any(OtpNotificationEvent.class));
         verify(acknowledgment, times(1)).acknowledge();
     }
+
+    @Test
+    @DisplayName("Should acknowledge a fast send while an earlier slow send is still in flight")
+    void listen_SlowSendDoesNotBlockLaterRecords() {
+        var slow = OtpNotificationEvent.newBuilder().setUserId("slow-user").setPhoneNumber(testPhoneNumber).setOtpCode(testOtpCode).build();
+        var fast = OtpNotificationEvent.newBuilder().setUserId("fast-user").setPhoneNumber(testPhoneNumber).setOtpCode(testOtpCode).build();
+        var slowAck = mock(Acknowledgment.class);
+        var fastAck = mock(Acknowledgment.class);
+
+        var slowSend = Sinks.<WahaMessageResponse>one();
+        var response = new WahaMessageResponse("msg-123", System.currentTimeMillis(), "whatsapp-sender", testPhoneNumber, "OTP message");
+        when(whatsAppService.sendOtp(eq(slow))).thenReturn(slowSend.asMono());
+        when(whatsAppService.sendOtp(eq(fast))).thenReturn(Mono.just(response));
+
+        otpKafkaConsumer.listen(new ConsumerRecord<>(testTopic, 0, 100L, "slow-user", slow.toByteArray()), slowAck);
+        otpKafkaConsumer.listen(new ConsumerRecord<>(testTopic, 0, 101L, "fast-user", fast.toByteArray()), fastAck);
+
+        verify(fastAck, times(1)).acknowledge();
+        verify(slowAck, never()).acknowledge();
+
+        slowSend.tryEmitValue(response);
+
+        verify(slowAck, times(1)).acknowledge();
+        verify(dlqProducer, never()).send(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should send to DLQ and acknowledge when the send fails before subscribing")
+    void listen_WhatsAppServiceThrowsSynchronously() {
+        var event = OtpNotificationEvent.newBuilder()
+            .setUserId(testUserId)
+            .setPhoneNumber(testPhoneNumber)
+            .setOtpCode(testOtpCode)
+            .build();
+        var record = new ConsumerRecord<>(testTopic, 0, 100L, testUserId, event.toByteArray());
+
+        when(whatsAppService.sendOtp(any(OtpNotificationEvent.class)))
+            .thenThrow(new IllegalStateException("session lookup failed"));
+
+        otpKafkaConsumer.listen(record, acknowledgment);
+
+        verify(dlqProducer, times(1)).send(eq(record), any(IllegalStateException.class));
+        verify(acknowledgment, times(1)).acknowledge();
+    }
 }
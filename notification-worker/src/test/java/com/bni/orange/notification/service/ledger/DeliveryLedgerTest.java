@@ -0,0 +1,150 @@
+package com.bni.orange.notification.service.ledger;
+
+import com.bni.orange.notification.config.properties.DeliveryLedgerProperties;
+import com.bni.orange.notification.config.properties.DeliveryLedgerProperties.Store;
+import com.bni.orange.notification.service.ledger.DeliveryLedger.DeliveryInProgressException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeliveryLedgerTest {
+
+    private static final DeliveryLedgerProperties PROPERTIES = new DeliveryLedgerProperties(
+        true, Store.LOCAL, Duration.ofHours(72), Duration.ofMinutes(2), "notification:delivery:", 1000);
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeliveryLedger ledger;
+    private AtomicInteger sends;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ledger = new DeliveryLedger(new LocalDeliveryLedgerStore(PROPERTIES), PROPERTIES, meterRegistry);
+        sends = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should skip a redelivered message and return the recorded receipt")
+    void deliverOnce_SkipsDuplicate() {
+        StepVerifier.create(deliver("event-1", "+6281234567890", Mono.just("wa-1")))
+            .expectNext("wa-1")
+            .verifyComplete();
+
+        StepVerifier.create(deliver("event-1", "+6281234567890", Mono.just("wa-2")))
+            .expectNext("wa-1")
+            .verifyComplete();
+
+        assertThat(sends.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("notification.delivery_ledger", "outcome", "duplicate").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should send the same event to each recipient")
+    void deliverOnce_KeysByRecipient() {
+        deliver("event-1", "+6281200000001", Mono.just("wa-1")).block();
+        deliver("event-1", "+6281200000002", Mono.just("wa-2")).block();
+
+        assertThat(sends.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should release the claim when the send fails so a retry can send")
+    void deliverOnce_ReleasesClaimOnFailure() {
+        StepVerifier.create(deliver("event-1", "+6281234567890", Mono.error(new IllegalStateException("WAHA down"))))
+            .expectError(IllegalStateException.class)
+            .verify();
+
+        StepVerifier.create(deliver("event-1", "+6281234567890", Mono.just("wa-2")))
+            .expectNext("wa-2")
+            .verifyComplete();
+
+        assertThat(sends.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should fail a send whose message is still being sent elsewhere, even after it is cancelled")
+    void deliverOnce_RejectsWhileInFlight() {
+        var first = deliver("event-1", "+6281234567890", Mono.never()).subscribe();
+
+        StepVerifier.create(deliver("event-1", "+6281234567890", Mono.just("wa-2")))
+            .expectError(DeliveryInProgressException.class)
+            .verify();
+
+        first.dispose();
+        StepVerifier.create(deliver("event-1", "+6281234567890", Mono.just("wa-3")))
+            .expectError(DeliveryInProgressException.class)
+            .verify();
+        assertThat(sends.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep the claim when the send times out, since the message may have gone out")
+    void deliverOnce_KeepsClaimOnTimeout() {
+        StepVerifier.create(deliver("event-1", "+6281234567890", Mono.error(new TimeoutException())))
+            .expectError(TimeoutException.class)
+            .verify();
+
+        StepVerifier.create(deliver("event-1", "+6281234567890", Mono.just("wa-2")))
+            .expectError(DeliveryInProgressException.class)
+            .verify();
+    }
+
+    @Test
+    @DisplayName("Should only release a claim for the token that took it")
+    void release_IgnoresOtherTokens() {
+        var store = new LocalDeliveryLedgerStore(PROPERTIES);
+        store.claim("key", "token-1", Duration.ofMinutes(1)).block();
+
+        store.release("key", "token-2").block();
+        assertThat(store.claim("key", "token-3", Duration.ofMinutes(1)).block()).isEqualTo("Ptoken-1");
+
+        store.release("key", "token-1").block();
+        assertThat(store.claim("key", "token-3", Duration.ofMinutes(1)).block()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should record empty results, so sends without a receipt are also deduplicated")
+    void deliverOnce_RecordsEmptyResult() {
+        StepVerifier.create(deliver("event-1", "user@orange.test", Mono.empty())).verifyComplete();
+        StepVerifier.create(deliver("event-1", "user@orange.test", Mono.empty())).verifyComplete();
+
+        assertThat(sends.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should send without the ledger when the store is unavailable")
+    void deliverOnce_FailsOpenWhenStoreUnavailable() {
+        var store = mock(DeliveryLedgerStore.class);
+        when(store.claim(anyString(), anyString(), any())).thenReturn(Mono.error(new IllegalStateException("Redis down")));
+        ledger = new DeliveryLedger(store, PROPERTIES, meterRegistry);
+
+        StepVerifier.create(deliver("event-1", "+6281234567890", Mono.just("wa-1")))
+            .expectNext("wa-1")
+            .verifyComplete();
+
+        assertThat(sends.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("notification.delivery_ledger", "outcome", "unavailable").count()).isEqualTo(1);
+    }
+
+    private Mono<String> deliver(String eventId, String recipient, Mono<String> result) {
+        var send = Mono.defer(() -> {
+            sends.incrementAndGet();
+            return result;
+        });
+        return ledger.deliverOnce(eventId, recipient, send, Function.identity(), Function.identity());
+    }
+}
@@ -0,0 +1,123 @@
+package com.bni.orange.notification.service.mail;
+
+import com.bni.orange.notification.config.properties.EmailDeliveryProperties;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the delivery engine against an in-process GreenMail SMTP server. The throughput comparison lives in
+ * the JMH suite as {@code EmailDeliveryBenchmark}.
+ */
+class EmailDeliveryEngineTest {
+
+    private static final EmailTemplate TEMPLATE = EmailTemplate.compile("<p>Your OTP is <b>{{otpCode}}</b></p>");
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP)
+        .withConfiguration(GreenMailConfiguration.aConfig().withUser("sender", "secret"));
+
+    private JavaMailSenderImpl mailSender;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailDeliveryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getSmtp().getPort());
+        mailSender.setUsername("sender");
+        mailSender.setPassword("secret");
+        var javaMailProperties = new Properties();
+        javaMailProperties.put("mail.smtp.auth", "true");
+        mailSender.setJavaMailProperties(javaMailProperties);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver every queued email over at most one connection per worker")
+    void send_ReusesConnections() throws MessagingException {
+        startEngine(2, 20, 1000);
+
+        sendAll(50);
+
+        assertThat(smtp.getReceivedMessages()).hasSize(50);
+        assertThat(meterRegistry.counter("notification.email.connections_opened").count()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should replace a connection once it reaches its message limit")
+    void send_ReplacesConnectionAfterMessageLimit() throws MessagingException {
+        startEngine(1, 20, 5);
+
+        sendAll(12);
+
+        assertThat(smtp.getReceivedMessages()).hasSize(12);
+        assertThat(meterRegistry.counter("notification.email.connections_opened").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should render template parameters HTML-escaped")
+    void send_RendersEscapedTemplate() throws Exception {
+        startEngine(1, 1, 1000);
+        var message = message(0, "<123>");
+
+        engine.send(message).block(Duration.ofSeconds(10));
+
+        var received = smtp.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getContent().toString()).contains("&lt;123&gt;");
+    }
+
+    private void startEngine(int connections, int batchSize, int maxMessagesPerConnection) {
+        engine = new EmailDeliveryEngine(
+            mailSender,
+            new EmailDeliveryProperties(connections, batchSize, 10_000, Duration.ofSeconds(30), maxMessagesPerConnection),
+            meterRegistry);
+        engine.start();
+    }
+
+    private void sendAll(int count) throws MessagingException {
+        var messages = new MimeMessage[count];
+        for (int i = 0; i < count; i++) {
+            messages[i] = message(i, "123456");
+        }
+        Flux.fromArray(messages)
+            .flatMap(engine::send, count)
+            .blockLast(Duration.ofSeconds(60));
+    }
+
+    private MimeMessage message(int index, String otpCode) throws MessagingException {
+        var message = mailSender.createMimeMessage();
+        var helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom("noreply@orange.test");
+        helper.setTo("user" + index + "@orange.test");
+        helper.setSubject("Your OTP Code");
+        helper.setText(TEMPLATE.render(Map.of("otpCode", otpCode)), true);
+        return message;
+    }
+}
@@ -0,0 +1,40 @@
+plugins {
+    `java-library`
+    id("io.spring.dependency-management") version "1.1.7"
+}
+
+group = "com.bni.orange"
+version = "0.0.1-SNAPSHOT"
+description = "Bounded, callback-based Kafka event publisher shared by the services that emit protobuf events"
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencyManagement {
+    imports {
+        mavenBom("org.springframework.boot:spring-boot-dependencies:3.5.6")
+    }
+}
+
+dependencies {
+    api("org.springframework.kafka:spring-kafka")
+    api("io.micrometer:micrometer-core")
+    implementation("org.slf4j:slf4j-api")
+    // Each service brings the protobuf runtime that matches its generated code
+    compileOnly("com.google.protobuf:protobuf-java:4.29.2")
+
+    testImplementation("com.google.protobuf:protobuf-java:4.29.2")
+    testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
+}
@@ -0,0 +1,168 @@
+package com.bni.orange.shared.kafka;
+
+import com.google.protobuf.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Publishes protobuf events without parking a thread per send: the producer's own callback completes the
+ * returned future. At most {@code maxInFlight} sends may be unacknowledged at once; beyond that callers wait
+ * up to {@code acquireTimeoutMs} for a slot and then fail fast instead of queueing without bound. That wait is
+ * the only time a caller blocks: {@link KafkaTemplate#send} itself can block for up to the producer's
+ * {@code max.block.ms} on a metadata fetch or a full buffer, so it runs on {@code sendExecutor}.
+ * Latency, failures and rejections are reported per topic.
+ * <p>
+ * Shared by authentication-, transaction-, user- and wallet-service; each registers it as a bean over its own
+ * {@link KafkaTemplate} and virtual-thread executor.
+ */
+public class EventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublisher.class);
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final Executor sendExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+    private final long acquireTimeoutMs;
+
+    public EventPublisher(
+        KafkaTemplate<String, byte[]> kafkaTemplate,
+        Executor sendExecutor,
+        MeterRegistry meterRegistry,
+        int maxInFlight,
+        long acquireTimeoutMs
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.sendExecutor = sendExecutor;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+
+        Gauge.builder("kafka.publisher.in_flight", inFlight, s -> maxInFlight - s.availablePermits())
+            .description("Sends waiting for a broker acknowledgement")
+            .register(meterRegistry);
+    }
+
+    public <T extends Message> void publish(String topic, String key, T event) {
+        publishAsync(topic, key, event);
+    }
+
+    public <T extends Message> void publish(String topic, T event) {
+        publish(topic, null, event);
+    }
+
+    public <T extends Message> CompletableFuture<SendResult<String, byte[]>> publishAsync(String topic, String key, T event) {
+        return send(new ProducerRecord<>(topic, key, event.toByteArray()));
+    }
+
+    public <T extends Message> void publishWithCallback(
+        String topic, String key,
+        T event,
+        Consumer<SendResult<String, byte[]>> onSuccess,
+        Consumer<Throwable> onError
+    ) {
+        publishAsync(topic, key, event).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                onError.accept(unwrap(throwable));
+            } else {
+                onSuccess.accept(result);
+            }
+        });
+    }
+
+    /**
+     * Hands every record to the producer back to back so they share its batches, and completes once all
+     * of them are acknowledged or one fails.
+     */
+    public <T extends Message> CompletableFuture<Void> publishBatch(String topic, Map<String, T> events) {
+        var futures = events.entrySet().stream()
+            .map(entry -> send(new ProducerRecord<>(topic, entry.getKey(), entry.getValue().toByteArray())))
+            .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> send(ProducerRecord<String, byte[]> record) {
+        var topic = record.topic();
+        if (!acquire()) {
+            counter("kafka.publisher.rejected", topic).increment();
+            log.error("Kafka publisher saturated, dropping event. Topic: {}, Key: {}", topic, record.key());
+            return CompletableFuture.failedFuture(
+                new RejectedExecutionException("Too many unacknowledged sends for topic: " + topic));
+        }
+
+        var startedAt = System.nanoTime();
+        CompletableFuture<SendResult<String, byte[]>> future;
+        try {
+            future = CompletableFuture
+                .supplyAsync(() -> kafkaTemplate.send(record), sendExecutor)
+                .thenCompose(Function.identity());
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            recordFailure(record, startedAt, e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, throwable) -> {
+            inFlight.release();
+            if (throwable != null) {
+                recordFailure(record, startedAt, unwrap(throwable));
+                return;
+            }
+            timer(topic, "success").record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            log.debug("Event published. Topic: {}, Partition: {}, Offset: {}, Key: {}",
+                topic, result.getRecordMetadata().partition(), result.getRecordMetadata().offset(), record.key());
+        });
+    }
+
+    private boolean acquire() {
+        try {
+            return inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void recordFailure(ProducerRecord<String, byte[]> record, long startedAt, Throwable throwable) {
+        timer(record.topic(), "failure").record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        counter("kafka.publisher.errors", record.topic()).increment();
+        log.error("Failed to publish event. Topic: {}, Key: {}, error: {}",
+            record.topic(), record.key(), throwable.getMessage(), throwable);
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    private Timer timer(String topic, String outcome) {
+        return Timer.builder("kafka.publisher.send")
+            .description("Time from send to broker acknowledgement")
+            .tag("topic", topic)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private Counter counter(String name, String topic) {
+        return Counter.builder(name)
+            .tag("topic", topic)
+            .register(meterRegistry);
+    }
+}
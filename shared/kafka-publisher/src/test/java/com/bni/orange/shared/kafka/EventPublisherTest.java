@@ -0,0 +1,228 @@
+package com.bni.orange.shared.kafka;
+
+import com.google.protobuf.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EventPublisherTest {
+
+    private EventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Mock
+    private Message mockEvent;
+
+    @Mock
+    private SendResult<String, byte[]> sendResult;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventPublisher = new EventPublisher(kafkaTemplate, Runnable::run, meterRegistry, 2, 10);
+
+        when(mockEvent.toByteArray()).thenReturn(new byte[]{1, 2, 3});
+
+        var topicPartition = new TopicPartition("default-topic", 1);
+        var recordMetadata = new RecordMetadata(topicPartition, 0, 0, 0, 0, 0);
+        when(sendResult.getRecordMetadata()).thenReturn(recordMetadata);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, byte[]> sentRecord() {
+        var captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("publish(topic, key, event) should send message successfully")
+    void publishWithKey_shouldSendMessage() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        eventPublisher.publish("test-topic", "test-key", mockEvent);
+
+        var record = sentRecord();
+        assertEquals("test-topic", record.topic());
+        assertEquals("test-key", record.key());
+        assertEquals(1L, meterRegistry.get("kafka.publisher.send").tag("topic", "test-topic").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("publish(topic, event) should send with a null key")
+    void publishWithNullKey_shouldSendWithoutKey() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        eventPublisher.publish("test-topic", mockEvent);
+
+        assertNull(sentRecord().key());
+    }
+
+    @Test
+    @DisplayName("publishAsync should return a future that completes with SendResult")
+    void publishAsync_onSuccess_shouldCompleteFuture() throws Exception {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        var resultFuture = eventPublisher.publishAsync("test-topic", "test-key", mockEvent);
+
+        assertEquals(sendResult, resultFuture.get());
+    }
+
+    @Test
+    @DisplayName("publishAsync should complete exceptionally on failure")
+    void publishAsync_onFailure_shouldCompleteExceptionally() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenThrow(new RuntimeException("Kafka is down"));
+
+        var resultFuture = eventPublisher.publishAsync("test-topic", "test-key", mockEvent);
+
+        assertTrue(resultFuture.isCompletedExceptionally());
+        assertThrows(Exception.class, resultFuture::get);
+        assertEquals(1.0, meterRegistry.get("kafka.publisher.errors").tag("topic", "test-topic").counter().count());
+    }
+
+    @Test
+    @DisplayName("publishWithCallback should call onSuccess on successful publish")
+    @SuppressWarnings("unchecked")
+    void publishWithCallback_onSuccess_shouldCallSuccessCallback() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        Consumer<SendResult<String, byte[]>> onSuccess = mock(Consumer.class);
+        Consumer<Throwable> onError = mock(Consumer.class);
+
+        eventPublisher.publishWithCallback("test-topic", "test-key", mockEvent, onSuccess, onError);
+
+        verify(onSuccess).accept(sendResult);
+        verify(onError, never()).accept(any());
+    }
+
+    @Test
+    @DisplayName("publishWithCallback should call onError when the broker rejects the send")
+    @SuppressWarnings("unchecked")
+    void publishWithCallback_onFailure_shouldCallErrorCallback() {
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Kafka error")));
+
+        Consumer<SendResult<String, byte[]>> onSuccess = mock(Consumer.class);
+        Consumer<Throwable> onError = mock(Consumer.class);
+
+        eventPublisher.publishWithCallback("test-topic", "test-key", mockEvent, onSuccess, onError);
+
+        verify(onSuccess, never()).accept(any());
+        verify(onError).accept(any(Throwable.class));
+    }
+
+    @Test
+    @DisplayName("publishBatch should send every event and complete when all are acknowledged")
+    void publishBatch_shouldSendEachEvent() throws Exception {
+        var event1 = mock(Message.class);
+        var event2 = mock(Message.class);
+        when(event1.toByteArray()).thenReturn(new byte[]{1});
+        when(event2.toByteArray()).thenReturn(new byte[]{2});
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        eventPublisher.publishBatch("batch-topic", Map.of("key1", event1, "key2", event2)).get();
+
+        verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    @DisplayName("publish should not throw when the send fails")
+    void publish_onFailure_shouldNotThrow() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenThrow(new RuntimeException("Async Error"));
+
+        assertDoesNotThrow(() -> eventPublisher.publish("fail-topic", "fail-key", mockEvent));
+
+        verify(kafkaTemplate).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should reject sends beyond the in-flight limit and accept again once acknowledged")
+    void send_whenSaturated_shouldRejectUntilAcknowledged() {
+        var pending = new CompletableFuture<SendResult<String, byte[]>>();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(pending);
+
+        eventPublisher.publishAsync("busy-topic", "k1", mockEvent);
+        eventPublisher.publishAsync("busy-topic", "k2", mockEvent);
+        var rejected = eventPublisher.publishAsync("busy-topic", "k3", mockEvent);
+
+        var cause = assertThrows(ExecutionException.class, rejected::get).getCause();
+        assertInstanceOf(RejectedExecutionException.class, cause);
+        assertEquals(1.0, meterRegistry.get("kafka.publisher.rejected").tag("topic", "busy-topic").counter().count());
+        assertEquals(2.0, meterRegistry.get("kafka.publisher.in_flight").gauge().value());
+
+        pending.complete(sendResult);
+
+        assertEquals(0.0, meterRegistry.get("kafka.publisher.in_flight").gauge().value());
+        assertFalse(eventPublisher.publishAsync("busy-topic", "k4", mockEvent).isCompletedExceptionally());
+    }
+
+    @Test
+    @DisplayName("Should hand the producer call to the send executor instead of running it on the caller")
+    void send_shouldRunProducerCallOnExecutor() throws Exception {
+        var tasks = new ArrayList<Runnable>();
+        var offloaded = new EventPublisher(kafkaTemplate, tasks::add, meterRegistry, 2, 10);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        var future = offloaded.publishAsync("test-topic", "test-key", mockEvent);
+
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        assertFalse(future.isDone());
+
+        tasks.forEach(Runnable::run);
+
+        assertEquals(sendResult, future.get());
+    }
+
+    @Test
+    @DisplayName("publishWithCallback should pass the producer's own exception to onError")
+    @SuppressWarnings("unchecked")
+    void publishWithCallback_onSendException_shouldPassUnwrappedCause() {
+        var failure = new IllegalStateException("Metadata not available");
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenThrow(failure);
+
+        Consumer<SendResult<String, byte[]>> onSuccess = mock(Consumer.class);
+        Consumer<Throwable> onError = mock(Consumer.class);
+
+        eventPublisher.publishWithCallback("test-topic", "test-key", mockEvent, onSuccess, onError);
+
+        verify(onError).accept(failure);
+    }
+}
@@ -0,0 +1,35 @@
+plugins {
+    `java-library`
+    id("io.spring.dependency-management") version "1.1.7"
+}
+
+group = "com.bni.orange"
+version = "0.0.1-SNAPSHOT"
+description = "Redis-backed one-time codes shared by authentication-service and user-service"
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencyManagement {
+    imports {
+        mavenBom("org.springframework.boot:spring-boot-dependencies:3.5.6")
+    }
+}
+
+dependencies {
+    api("org.springframework.data:spring-data-redis")
+
+    testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
+}
@@ -0,0 +1 @@
+rootProject.name = "one-time-code"
@@ -0,0 +1,168 @@
+package com.bni.orange.shared.redis;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * One-time codes and tokens kept in Redis, where every operation is a single Lua script call.
+ * Lock, throttle, attempt counting and deletion happen server-side, so each operation costs
+ * one round trip and concurrent callers cannot interleave between a check and its write.
+ * <p>
+ * Shared by authentication-service (login OTPs and state tokens) and user-service (email and phone
+ * verification OTPs); each service registers it as a bean over its own {@link StringRedisTemplate}.
+ */
+public class OneTimeCodeStore {
+
+    public enum Outcome { OK, LOCKED, THROTTLED, MISMATCH, JUST_LOCKED, NOT_FOUND, ALREADY_USED }
+
+    /**
+     * @param value seconds left on the lock or throttle window for LOCKED/THROTTLED,
+     *              attempts left for MISMATCH, lock seconds for JUST_LOCKED
+     */
+    public record Result(Outcome outcome, long value, String meta) {}
+
+    public record Keys(String code, String lock, String failCount, String throttle, String meta) {}
+
+    // KEYS: code, lock, throttle, meta | ARGV: code, ttlSeconds, throttleWindowSeconds, throttleMax, metaValue
+    // A non-numeric throttle value is a cooldown flag written before issues were counted; it throttles until it expires.
+    private static final RedisScript<List<Object>> ISSUE = listScript("""
+        if redis.call('EXISTS', KEYS[2]) == 1 then
+          return {-1, redis.call('TTL', KEYS[2])}
+        end
+        local throttle = redis.call('GET', KEYS[3])
+        if throttle then
+          local issued = tonumber(throttle)
+          if not issued or issued >= tonumber(ARGV[4]) then
+            return {-2, redis.call('TTL', KEYS[3])}
+          end
+        end
+        if redis.call('INCR', KEYS[3]) == 1 then
+          redis.call('EXPIRE', KEYS[3], ARGV[3])
+        end
+        redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2])
+        if ARGV[5] ~= '' then
+          redis.call('SET', KEYS[4], ARGV[5], 'EX', ARGV[2])
+        end
+        return {1, 0}
+        """);
+
+    // KEYS: code, lock, failCount, meta | ARGV: candidate, maxAttempts, lockSeconds, countMissing
+    private static final RedisScript<List<Object>> VERIFY = listScript("""
+        if redis.call('EXISTS', KEYS[2]) == 1 then
+          return {-1, redis.call('TTL', KEYS[2]), ''}
+        end
+        local stored = redis.call('GET', KEYS[1])
+        if stored == ARGV[1] then
+          local meta = redis.call('GET', KEYS[4]) or ''
+          redis.call('DEL', KEYS[1], KEYS[2], KEYS[3], KEYS[4])
+          return {1, 0, meta}
+        end
+        if not stored and ARGV[4] ~= '1' then
+          return {0, 0, ''}
+        end
+        local attempts = redis.call('INCR', KEYS[3])
+        if attempts >= tonumber(ARGV[2]) then
+          redis.call('SET', KEYS[2], 'true', 'EX', ARGV[3])
+          redis.call('DEL', KEYS[3])
+          return {-3, tonumber(ARGV[3]), ''}
+        end
+        redis.call('EXPIRE', KEYS[3], ARGV[3])
+        return {-4, tonumber(ARGV[2]) - attempts, ''}
+        """);
+
+    // KEYS: token | ARGV: expected status
+    private static final RedisScript<Long> CONSUME = new DefaultRedisScript<>("""
+        local status = redis.call('GET', KEYS[1])
+        if not status then
+          return 0
+        end
+        if status ~= ARGV[1] then
+          return -1
+        end
+        redis.call('DEL', KEYS[1])
+        return 1
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public OneTimeCodeStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Stores {@code code} unless the subject is locked or has used up {@code throttleMax} issues
+     * within the current throttle window. A previous code is replaced.
+     */
+    public Result issue(Keys keys, String code, Duration ttl, Duration throttleWindow, int throttleMax, String metaValue) {
+        var reply = redisTemplate.execute(ISSUE,
+            List.of(keys.code(), keys.lock(), keys.throttle(), keys.meta()),
+            code,
+            String.valueOf(ttl.toSeconds()),
+            String.valueOf(throttleWindow.toSeconds()),
+            String.valueOf(throttleMax),
+            metaValue == null ? "" : metaValue);
+
+        return switch ((int) asLong(reply, 0)) {
+            case 1 -> new Result(Outcome.OK, 0, null);
+            case -1 -> new Result(Outcome.LOCKED, Math.max(0, asLong(reply, 1)), null);
+            case -2 -> new Result(Outcome.THROTTLED, Math.max(0, asLong(reply, 1)), null);
+            default -> throw new IllegalStateException("Unexpected issue reply: " + reply);
+        };
+    }
+
+    /**
+     * Checks {@code candidate}; a match deletes the code together with its failure and lock state,
+     * a mismatch counts towards {@code maxAttempts} and locks the subject for {@code lockDuration} on the last one.
+     * When {@code countMissing} is set, guessing against an expired code also counts as a failure.
+     */
+    public Result verify(Keys keys, String candidate, int maxAttempts, Duration lockDuration, boolean countMissing) {
+        var reply = redisTemplate.execute(VERIFY,
+            List.of(keys.code(), keys.lock(), keys.failCount(), keys.meta()),
+            candidate,
+            String.valueOf(maxAttempts),
+            String.valueOf(lockDuration.toSeconds()),
+            countMissing ? "1" : "0");
+
+        var value = asLong(reply, 1);
+        return switch ((int) asLong(reply, 0)) {
+            case 1 -> new Result(Outcome.OK, 0, emptyToNull(reply.get(2)));
+            case 0 -> new Result(Outcome.NOT_FOUND, 0, null);
+            case -1 -> new Result(Outcome.LOCKED, Math.max(0, value), null);
+            case -3 -> new Result(Outcome.JUST_LOCKED, value, null);
+            case -4 -> new Result(Outcome.MISMATCH, value, null);
+            default -> throw new IllegalStateException("Unexpected verify reply: " + reply);
+        };
+    }
+
+    /**
+     * Deletes {@code key} only if it still holds {@code expectedStatus}, so a one-time token can be spent once.
+     */
+    public Outcome consume(String key, String expectedStatus) {
+        var reply = redisTemplate.execute(CONSUME, List.of(key), expectedStatus);
+        if (reply == null || reply == 0L) {
+            return Outcome.NOT_FOUND;
+        }
+        return reply == 1L ? Outcome.OK : Outcome.ALREADY_USED;
+    }
+
+    // DefaultRedisScript takes a Class, which cannot carry List's element type
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RedisScript<List<Object>> listScript(String source) {
+        return (RedisScript) new DefaultRedisScript<>(source, List.class);
+    }
+
+    private static long asLong(List<?> reply, int index) {
+        if (reply == null || reply.size() <= index || reply.get(index) == null) {
+            return 0L;
+        }
+        return ((Number) reply.get(index)).longValue();
+    }
+
+    private static String emptyToNull(Object value) {
+        return value == null || value.toString().isEmpty() ? null : value.toString();
+    }
+}
@@ -0,0 +1,112 @@
+package com.bni.orange.shared.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OneTimeCodeStoreTest {
+
+    @InjectMocks
+    private OneTimeCodeStore store;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private OneTimeCodeStore.Keys keys;
+
+    @BeforeEach
+    void setUp() {
+        keys = new OneTimeCodeStore.Keys("otp:1", "otp_locked:1", "otp_fail_count:1", "otp_cooldown:1", "otp:1:meta");
+    }
+
+    @Test
+    @DisplayName("issue should map an accepted issue to OK in a single script call")
+    void issue_whenAccepted_shouldReturnOk() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of(1L, 0L));
+
+        var result = store.issue(keys, "123456", Duration.ofMinutes(3), Duration.ofSeconds(60), 1, null);
+
+        assertEquals(OneTimeCodeStore.Outcome.OK, result.outcome());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class),
+            eq(List.of("otp:1", "otp_locked:1", "otp_cooldown:1", "otp:1:meta")), any(Object[].class));
+        verifyNoMoreInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("issue should report the remaining throttle window")
+    void issue_whenThrottled_shouldReturnTtl() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of(-2L, 42L));
+
+        var result = store.issue(keys, "123456", Duration.ofMinutes(3), Duration.ofSeconds(60), 1, null);
+
+        assertEquals(OneTimeCodeStore.Outcome.THROTTLED, result.outcome());
+        assertEquals(42L, result.value());
+    }
+
+    @Test
+    @DisplayName("verify should return the stored metadata on a match")
+    void verify_whenMatched_shouldReturnMeta() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of(1L, 0L, "new@mail.com"));
+
+        var result = store.verify(keys, "123456", 3, Duration.ofMinutes(15), true);
+
+        assertEquals(OneTimeCodeStore.Outcome.OK, result.outcome());
+        assertEquals("new@mail.com", result.meta());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class),
+            eq(List.of("otp:1", "otp_locked:1", "otp_fail_count:1", "otp:1:meta")), any(Object[].class));
+        verifyNoMoreInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("verify should report attempts left on a mismatch and the lock on the last attempt")
+    void verify_whenMismatched_shouldReportAttemptsOrLock() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenReturn(List.of(-4L, 2L, ""))
+            .thenReturn(List.of(-3L, 900L, ""));
+
+        var mismatch = store.verify(keys, "000000", 3, Duration.ofMinutes(15), true);
+        var locked = store.verify(keys, "000000", 3, Duration.ofMinutes(15), true);
+
+        assertEquals(OneTimeCodeStore.Outcome.MISMATCH, mismatch.outcome());
+        assertEquals(2L, mismatch.value());
+        assertNull(mismatch.meta());
+        assertEquals(OneTimeCodeStore.Outcome.JUST_LOCKED, locked.outcome());
+        assertEquals(900L, locked.value());
+    }
+
+    @Test
+    @DisplayName("consume should distinguish spent, missing and already used tokens")
+    void consume_shouldMapReplies() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenReturn(1L)
+            .thenReturn(0L)
+            .thenReturn(-1L);
+
+        assertEquals(OneTimeCodeStore.Outcome.OK, store.consume("state_token:a", "active"));
+        assertEquals(OneTimeCodeStore.Outcome.NOT_FOUND, store.consume("state_token:a", "active"));
+        assertEquals(OneTimeCodeStore.Outcome.ALREADY_USED, store.consume("state_token:a", "active"));
+    }
+}
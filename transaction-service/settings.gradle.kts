@@ -1 +1,4 @@
 rootProject.name = "transaction-service"
+
+// Shared Kafka publisher, built from source together with this service
+includeBuild("../shared/kafka-publisher")
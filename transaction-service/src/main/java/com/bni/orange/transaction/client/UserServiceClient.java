@@ -12,6 +12,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -57,4 +60,20 @@ public class UserServiceClient extends BaseServiceClient {
             notFoundMapper(ErrorCode.USER_NOT_FOUND, "User not found with ID: " + userId)
         );
     }
+
+    /**
+     * Resolves users by id and phone number in one request; keys user-service does not know are absent
+     * from the result rather than failing the call.
+     */
+    public Mono<List<UserProfileResponse>> findAll(Collection<UUID> userIds, Collection<String> phoneNumbers, String accessToken) {
+        log.debug("Finding users in batch: ids={}, phoneNumbers={}", userIds.size(), phoneNumbers.size());
+
+        return executePost(
+            uriSpec -> uriSpec
+                .uri("/internal/v1/user/batch")
+                .header("Authorization", "Bearer " + accessToken)
+                .bodyValue(Map.of("ids", userIds, "phoneNumbers", phoneNumbers)),
+            new ParameterizedTypeReference<ApiResponse<List<UserProfileResponse>>>() {}
+        );
+    }
 }
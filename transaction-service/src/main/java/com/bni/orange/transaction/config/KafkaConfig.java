@@ -1,13 +1,16 @@
 package com.bni.orange.transaction.config;
 
+import com.bni.orange.shared.kafka.EventPublisher;
 import com.bni.orange.transaction.config.properties.KafkaConsumerProperties;
 import com.bni.orange.transaction.config.properties.KafkaProducerProperties;
 import com.bni.orange.transaction.config.properties.KafkaTopicProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -79,6 +82,16 @@ public class KafkaConfig {
         return Executors.newVirtualThreadPerTaskExecutor();
     }
 
+    @Bean
+    public EventPublisher eventPublisher(
+        KafkaTemplate<String, byte[]> kafkaTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${orange.kafka.publisher.max-in-flight:1000}") int maxInFlight,
+        @Value("${orange.kafka.publisher.acquire-timeout-ms:100}") long acquireTimeoutMs
+    ) {
+        return new EventPublisher(kafkaTemplate, kafkaVirtualThreadExecutor(), meterRegistry, maxInFlight, acquireTimeoutMs);
+    }
+
     @Bean
     public List<NewTopic> kafkaTopics() {
         if (Objects.isNull(topicProps.definitions())) {
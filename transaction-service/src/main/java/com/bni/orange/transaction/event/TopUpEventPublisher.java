@@ -1,5 +1,6 @@
 package com.bni.orange.transaction.event;
 
+import com.bni.orange.shared.kafka.EventPublisher;
 import com.bni.orange.transaction.config.properties.TopUpEventTopicProperties;
 import com.bni.orange.transaction.model.entity.Transaction;
 import com.bni.orange.transaction.model.entity.VirtualAccount;
@@ -1,8 +1,8 @@
 package com.bni.orange.transaction.service.helper;
 
-import com.bni.orange.splitbill.proto.PaymentStatusUpdatedEvent;
+import com.bni.orange.shared.kafka.EventPublisher;
+import com.bni.orange.splitbill.proto.v1.PaymentStatusUpdatedEvent;
 import com.bni.orange.transaction.config.properties.KafkaTopicProperties;
-import com.bni.orange.transaction.event.EventPublisher;
 import com.bni.orange.transaction.event.TransactionEventFactory;
 import com.bni.orange.transaction.model.entity.Transaction;
 import com.bni.orange.transaction.model.entity.TransactionLedger;
@@ -145,6 +145,7 @@ public class TransferFinalizer {
     }
 
     private void publishSplitBillPaymentEvent(Transaction transaction) {
+        var now = toTimestamp(Instant.now());
         var eventBuilder = PaymentStatusUpdatedEvent.newBuilder()
             .setEventId(UUID.randomUUID().toString())
             .setBillId(transaction.getSplitBillId())
@@ -152,7 +153,8 @@ public class TransferFinalizer {
             .setTransactionId(transaction.getId().toString())
             .setTransactionRef(transaction.getTransactionRef())
             .setStatus("CAPTURED")
-            .setPaidAt(Timestamp.newBuilder().setSeconds(Instant.now().getEpochSecond()).setNanos(Instant.now().getNano()));
+            .setPaidAt(now)
+            .setUpdatedAt(now);
 
         if (transaction.getAmount() != null) {
             eventBuilder.setAmount(transaction.getAmount().longValue());
@@ -173,7 +175,8 @@ public class TransferFinalizer {
             .setTransactionId(transaction.getId().toString())
             .setTransactionRef(transaction.getTransactionRef())
             .setStatus("FAILED")
-            .setFailureReason(failureReason != null ? failureReason : "Transaction failed");
+            .setFailureReason(failureReason != null ? failureReason : "Transaction failed")
+            .setUpdatedAt(toTimestamp(Instant.now()));
 
         if (transaction.getAmount() != null) {
             eventBuilder.setAmount(transaction.getAmount().longValue());
@@ -186,4 +189,8 @@ public class TransferFinalizer {
             topic, transaction.getSplitBillId(), transaction.getSplitBillMemberId(),
             transaction.getTransactionRef(), failureReason);
     }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.newBuilder().setSeconds(instant.getEpochSecond()).setNanos(instant.getNano()).build();
+    }
 }
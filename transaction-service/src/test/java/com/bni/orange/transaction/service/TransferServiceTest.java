@@ -6,7 +6,7 @@
 //import com.bni.orange.transaction.config.properties.KafkaTopicProperties;
 //import com.bni.orange.transaction.error.BusinessException;
 //import com.bni.orange.transaction.error.ErrorCode;
-//import com.bni.orange.transaction.event.EventPublisher;
+//import com.bni.orange.shared.kafka.EventPublisher;
 //import com.bni.orange.transaction.model.entity.Transaction;
 //import com.bni.orange.transaction.model.enums.TransactionStatus;
 //import com.bni.orange.transaction.model.enums.TransactionType;
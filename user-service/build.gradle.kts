@@ -35,12 +35,15 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-actuator")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-data-redis")
+	implementation("com.bni.orange:one-time-code")
+	implementation("com.github.ben-manes.caffeine:caffeine")
 	implementation("org.springframework.boot:spring-boot-starter-mail")
     implementation("org.springframework.boot:spring-boot-starter-oauth2-resource-server")
 	implementation("org.springframework.boot:spring-boot-starter-thymeleaf")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-web")
 	implementation("org.springframework.kafka:spring-kafka")
+	implementation("com.bni.orange:kafka-publisher")
 	implementation("org.xerial.snappy:snappy-java:1.1.10.5")
 	implementation("com.google.protobuf:protobuf-java:4.29.2")
 	implementation("com.google.cloud:spring-cloud-gcp-starter-storage:6.5.0")
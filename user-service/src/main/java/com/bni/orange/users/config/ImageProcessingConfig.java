@@ -0,0 +1,40 @@
+package com.bni.orange.users.config;
+
+import com.bni.orange.users.config.properties.ProfileImageProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableConfigurationProperties(ProfileImageProperties.class)
+public class ImageProcessingConfig {
+
+    @Bean(name = "profileImageExecutor", destroyMethod = "shutdown")
+    public ExecutorService profileImageExecutor(ProfileImageProperties properties) {
+        var threadCount = new AtomicInteger();
+        BlockingQueue<Runnable> queue = properties.queueCapacity() > 0
+            ? new ArrayBlockingQueue<>(properties.queueCapacity())
+            : new SynchronousQueue<>();
+        return new ThreadPoolExecutor(
+            properties.workerThreads(),
+            properties.workerThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            queue,
+            runnable -> {
+                var thread = new Thread(runnable, "profile-image-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.bni.orange.users.config;
+
+import com.bni.orange.shared.redis.OneTimeCodeStore;
+import com.bni.orange.users.config.properties.ProfileCacheProperties;
+import com.bni.orange.users.service.redis.ProfileCache;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+@EnableConfigurationProperties(ProfileCacheProperties.class)
+public class RedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer profileCacheListenerContainer(
+        RedisConnectionFactory connectionFactory,
+        ProfileCache profileCache
+    ) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(profileCache, new ChannelTopic(ProfileCache.EVICTION_CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public OneTimeCodeStore oneTimeCodeStore(StringRedisTemplate redisTemplate) {
+        return new OneTimeCodeStore(redisTemplate);
+    }
+}
@@ -19,6 +19,14 @@ public record GcsProperties(
     @DefaultValue("60")
     Integer signedUrlDurationMinutes,
 
+    /**
+     * How long before a signed URL expires it stops being served from cache, so clients never receive
+     * a URL about to lapse.
+     */
+    @Min(0)
+    @DefaultValue("5")
+    Integer signedUrlRefreshMarginMinutes,
+
     @DefaultValue("orange-wallet-storage@orange-wallet-project.iam.gserviceaccount.com")
     String serviceAccountEmail,
 
@@ -0,0 +1,29 @@
+package com.bni.orange.users.config.properties;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "orange.profile-cache")
+public record ProfileCacheProperties(
+    @DefaultValue("true")
+    Boolean enabled,
+
+    @Min(1)
+    @DefaultValue("50000")
+    Integer localMaxEntries,
+
+    /**
+     * Upper bound on how long a node can serve a profile whose eviction broadcast it missed.
+     */
+    @DefaultValue("30s")
+    Duration localTtl,
+
+    @DefaultValue("10m")
+    Duration redisTtl
+) {
+}
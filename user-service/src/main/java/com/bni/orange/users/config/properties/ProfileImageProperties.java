@@ -0,0 +1,39 @@
+package com.bni.orange.users.config.properties;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "orange.profile-image")
+public record ProfileImageProperties(
+    /**
+     * Images decoded at the same time; each holds a decoded bitmap, so this bounds processing heap.
+     */
+    @Min(1)
+    @DefaultValue("2")
+    Integer workerThreads,
+
+    /**
+     * Uploads allowed to wait for a worker before new ones are turned away.
+     */
+    @Min(0)
+    @DefaultValue("8")
+    Integer queueCapacity,
+
+    @Min(1)
+    @DefaultValue("10")
+    Integer processingTimeoutSeconds,
+
+    /**
+     * Largest width x height accepted, checked from the image header before anything is decoded.
+     */
+    @Min(1)
+    @DefaultValue("40000000")
+    Long maxSourcePixels,
+
+    @DefaultValue("0.85")
+    Float jpegQuality
+) {
+}
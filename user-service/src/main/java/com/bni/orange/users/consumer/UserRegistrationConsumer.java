@@ -3,104 +3,175 @@ package com.bni.orange.users.consumer;
 import com.bni.orange.users.model.entity.UserProfile;
 import com.bni.orange.users.model.enums.SyncStatus;
 import com.bni.orange.users.proto.UserRegisteredEvent;
-import com.bni.orange.users.repository.UserProfileRepository;
+import com.bni.orange.users.repository.UserProfileBatchRepository;
 import com.google.protobuf.InvalidProtocolBufferException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
-import java.time.OffsetDateTime;
-import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates profiles for newly registered users a whole poll at a time: records are deduplicated by user id (the
+ * latest offset wins), written with a single multi-row insert that skips existing profiles, and the batch is
+ * acknowledged only after that insert succeeds.
+ * <p>
+ * A record that cannot be parsed, has no valid user id or has a blank name is never skipped silently: the profiles
+ * from the records before it are stored and it is reported as a {@link BatchListenerFailedException}, so the error
+ * handler commits past them and dead-letters it. Formats are left to the table's CHECK constraints. If the insert
+ * hits one of those, or a phone number or email already held by another profile, the batch is retried row by row
+ * and the first failing row is reported the same way. Any other failure leaves the batch uncommitted so the error
+ * handler redelivers all of it.
+ */
 @Slf4j
 @Component
 @Lazy(false)
-@RequiredArgsConstructor
 public class UserRegistrationConsumer {
 
-    private final UserProfileRepository profileRepository;
+    private final UserProfileBatchRepository profileBatchRepository;
+    private final Timer batchTimer;
+    private final Counter insertedCounter;
+    private final Counter duplicateCounter;
+    private final Counter invalidCounter;
+
+    public UserRegistrationConsumer(UserProfileBatchRepository profileBatchRepository, MeterRegistry meterRegistry) {
+        this.profileBatchRepository = profileBatchRepository;
+        this.batchTimer = Timer.builder("user.registration.batch")
+            .description("Time to persist one poll of user registration events")
+            .register(meterRegistry);
+        this.insertedCounter = recordCounter(meterRegistry, "inserted");
+        this.duplicateCounter = recordCounter(meterRegistry, "duplicate");
+        this.invalidCounter = recordCounter(meterRegistry, "invalid");
+    }
 
     @KafkaListener(
         topics = "${orange.kafka.topics.user-registered:auth.user.registered}",
         groupId = "${spring.kafka.consumer.group-id:user-service}",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "batchKafkaListenerContainerFactory"
     )
-    @Transactional
-    public void handleUserRegistered(
-        @Payload byte[] payload,
-        @Header(KafkaHeaders.RECEIVED_KEY) String key,
-        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-        @Header(KafkaHeaders.OFFSET) long offset,
-        Acknowledgment acknowledgment
+    public void handleUserRegistered(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        var startedAt = System.nanoTime();
+        var profiles = new LinkedHashMap<UUID, UserProfile>();
+        var recordIndexes = new HashMap<UUID, Integer>();
+
+        for (int i = 0; i < records.size(); i++) {
+            var record = records.get(i);
+            UserProfile profile;
+            try {
+                profile = toProfile(UserRegisteredEvent.parseFrom(record.value()));
+            } catch (InvalidProtocolBufferException e) {
+                throw reject(records, i, profiles, recordIndexes, "unparseable payload", e);
+            } catch (IllegalArgumentException e) {
+                throw reject(records, i, profiles, recordIndexes, "invalid userId", e);
+            }
+            if (profile.getName() == null || profile.getName().isBlank()) {
+                throw reject(records, i, profiles, recordIndexes, "blank name",
+                    new IllegalArgumentException("Profile " + profile.getId() + " has a blank name"));
+            }
+            profiles.put(profile.getId(), profile);
+            recordIndexes.put(profile.getId(), i);
+        }
+
+        var inserted = insert(profiles, recordIndexes);
+        acknowledgment.acknowledge();
+
+        var elapsedNanos = System.nanoTime() - startedAt;
+        batchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        insertedCounter.increment(inserted);
+        duplicateCounter.increment(records.size() - inserted);
+        log.info("User registration batch persisted: records={}, unique={}, inserted={}, took={}ms",
+            records.size(), profiles.size(), inserted, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    /**
+     * Stores the profiles collected from the records before {@code index}, then returns the exception that makes
+     * the error handler commit up to that record and dead-letter it.
+     */
+    private BatchListenerFailedException reject(
+        List<ConsumerRecord<String, byte[]>> records, int index,
+        Map<UUID, UserProfile> profiles, Map<UUID, Integer> recordIndexes,
+        String reason, Exception cause
     ) {
-        try {
-            log.info("Received UserRegisteredEvent: key={}, partition={}, offset={}", key, partition, offset);
+        var record = records.get(index);
+        insertedCounter.increment(insert(profiles, recordIndexes));
+        invalidCounter.increment();
+        log.error("Rejecting UserRegisteredEvent with {}: partition={}, offset={}",
+            reason, record.partition(), record.offset(), cause);
+        return new BatchListenerFailedException("UserRegisteredEvent with " + reason, cause, index);
+    }
 
-            var event = UserRegisteredEvent.parseFrom(payload);
-            var userId = UUID.fromString(event.getUserId());
+    private int insert(Map<UUID, UserProfile> profiles, Map<UUID, Integer> recordIndexes) {
+        try {
+            return profileBatchRepository.insertIgnoringExisting(new ArrayList<>(profiles.values()));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("User registration batch rejected by a constraint, retrying {} profiles one by one",
+                profiles.size(), e);
+            return insertOneByOne(profiles, recordIndexes);
+        }
+    }
 
-            if (profileRepository.existsById(userId)) {
-                log.warn("User profile already exists for userId={}, skipping creation (idempotent)", userId);
-                acknowledgment.acknowledge();
-                return;
+    /**
+     * Inserts in record order so that, when a row fails, every profile from an earlier record is already stored
+     * and the error handler can safely commit past them.
+     */
+    private int insertOneByOne(Map<UUID, UserProfile> profiles, Map<UUID, Integer> recordIndexes) {
+        var inserted = 0;
+        var ordered = profiles.values().stream()
+            .sorted(Comparator.comparing(profile -> recordIndexes.get(profile.getId())))
+            .toList();
+        for (var profile : ordered) {
+            try {
+                inserted += profileBatchRepository.insertIgnoringExisting(List.of(profile));
+            } catch (DataIntegrityViolationException e) {
+                throw new BatchListenerFailedException(
+                    "Profile " + profile.getId() + " violates a constraint", e, recordIndexes.get(profile.getId()));
             }
-
-            var profile = UserProfile.builder()
-                .id(userId)
-                .syncStatus(SyncStatus.PENDING_SYNC)
-                .build();
-
-            var email = !event.getEmail().trim().isEmpty()
-                ? event.getEmail()
-                : null;
-            var profileImageUrl = !event.getProfileImageUrl().trim().isEmpty()
-                ? event.getProfileImageUrl()
-                : null;
-
-            profile.syncFromAuthService(
-                event.getName(),
-                event.getPhoneNumber(),
-                email,
-                profileImageUrl,
-                event.getPhoneVerified(),
-                event.getEmailVerified()
-            );
-
-            profileRepository.save(profile);
-
-            log.info("User profile synced from auth-service: userId={}, phoneNumber={}, email={}, phoneVerified={}, emailVerified={}",
-                userId, event.getPhoneNumber(), event.getEmail(), event.getPhoneVerified(), event.getEmailVerified());
-
-            acknowledgment.acknowledge();
-
-        } catch (InvalidProtocolBufferException e) {
-            log.error("Failed to parse UserRegisteredEvent protobuf: partition={}, offset={}", partition, offset, e);
-            throw new RuntimeException("Invalid protobuf message", e);
-
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid userId format in event: partition={}, offset={}", partition, offset, e);
-            acknowledgment.acknowledge();
-
-        } catch (Exception e) {
-            log.error("Unexpected error processing UserRegisteredEvent: partition={}, offset={}",
-                partition, offset, e);
-            throw new RuntimeException("Failed to process user registration event", e);
         }
+        return inserted;
     }
 
-    private OffsetDateTime convertToOffsetDateTime(long epochSeconds) {
-        return OffsetDateTime.ofInstant(
-            Instant.ofEpochSecond(epochSeconds),
-            ZoneId.systemDefault()
+    private UserProfile toProfile(UserRegisteredEvent event) {
+        var profile = UserProfile.builder()
+            .id(UUID.fromString(event.getUserId()))
+            .syncStatus(SyncStatus.PENDING_SYNC)
+            .build();
+
+        var email = !event.getEmail().trim().isEmpty()
+            ? event.getEmail()
+            : null;
+        var profileImageUrl = !event.getProfileImageUrl().trim().isEmpty()
+            ? event.getProfileImageUrl()
+            : null;
+
+        profile.syncFromAuthService(
+            event.getName(),
+            event.getPhoneNumber(),
+            email,
+            profileImageUrl,
+            event.getPhoneVerified(),
+            event.getEmailVerified()
         );
+        return profile;
+    }
+
+    private static Counter recordCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("user.registration.records")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
     }
 }
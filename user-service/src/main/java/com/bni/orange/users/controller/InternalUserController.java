@@ -1,8 +1,10 @@
 package com.bni.orange.users.controller;
 
+import com.bni.orange.users.model.request.BatchUserLookupRequest;
 import com.bni.orange.users.model.response.ApiResponse;
 import com.bni.orange.users.model.response.UserProfileResponse;
 import com.bni.orange.users.service.InternalUserService;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,10 +12,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -33,6 +38,17 @@ public class InternalUserController {
         return ResponseEntity.ok(ApiResponse.success(userProfile));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<UserProfileResponse>>> findAll(
+        @Valid @RequestBody BatchUserLookupRequest request
+    ) {
+        log.debug("Finding users in batch: ids={}, phoneNumbers={}",
+            request.getIds() == null ? 0 : request.getIds().size(),
+            request.getPhoneNumbers() == null ? 0 : request.getPhoneNumbers().size());
+        var userProfiles = internalUserService.findAll(request.getIds(), request.getPhoneNumbers());
+        return ResponseEntity.ok(ApiResponse.success(userProfiles));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<UserProfileResponse>> findById(
         @PathVariable UUID id
@@ -1,5 +1,6 @@
 package com.bni.orange.users.controller;
 
+import com.bni.orange.users.model.enums.ProfileImageRendition;
 import com.bni.orange.users.model.response.ApiResponse;
 import com.bni.orange.users.model.response.UserProfileResponse;
 import com.bni.orange.users.service.UserQueryService;
@@ -11,6 +12,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.UUID;
@@ -26,8 +28,9 @@ public class UserController {
     @GetMapping("/me")
     @PreAuthorize("hasAuthority('SCOPE_FULL_ACCESS')")
     public ResponseEntity<ApiResponse<UserProfileResponse>> getCurrentUserProfile(
-        @AuthenticationPrincipal Jwt jwt
+        @AuthenticationPrincipal Jwt jwt,
+        @RequestParam(name = "imageSize", defaultValue = "MEDIUM") ProfileImageRendition imageSize
     ) {
-        return ResponseEntity.ok(ApiResponse.success(userQueryService.getCurrentUserProfile(UUID.fromString(jwt.getSubject()))));
+        return ResponseEntity.ok(ApiResponse.success(userQueryService.getCurrentUserProfile(UUID.fromString(jwt.getSubject()), imageSize)));
     }
 }
@@ -37,6 +37,7 @@ public enum ErrorCode {
     FILE_UPLOAD_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "USER-4004", "Failed to upload file"),
     FILE_NOT_FOUND(HttpStatus.NOT_FOUND, "USER-4005", "File not found in storage"),
     FILE_URL_GENERATION_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "USER-4006", "Failed to generate file URL"),
+    IMAGE_PROCESSING_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "USER-4007", "Image processing is busy, please retry shortly"),
 
     GENERAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "USER-9999", "An unexpected error occurred");
 
@@ -0,0 +1,35 @@
+package com.bni.orange.users.model.enums;
+
+/**
+ * Fixed square renditions generated for every decodable profile image, always encoded as JPEG.
+ */
+public enum ProfileImageRendition {
+    /**
+     * Avatars in lists and chat headers
+     */
+    THUMBNAIL("thumbnail", 128),
+
+    /**
+     * Profile screens
+     */
+    MEDIUM("medium", 512);
+
+    private final String fileName;
+    private final int size;
+
+    ProfileImageRendition(String fileName, int size) {
+        this.fileName = fileName;
+        this.size = size;
+    }
+
+    public String fileName() {
+        return fileName;
+    }
+
+    /**
+     * Edge length in pixels; smaller originals are never upscaled.
+     */
+    public int size() {
+        return size;
+    }
+}
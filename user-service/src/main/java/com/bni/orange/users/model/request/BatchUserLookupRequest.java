@@ -0,0 +1,35 @@
+package com.bni.orange.users.model.request;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUserLookupRequest {
+
+    public static final int MAX_KEYS = 500;
+
+    @Size(max = MAX_KEYS, message = "At most 500 ids per lookup")
+    private List<UUID> ids;
+
+    @Size(max = MAX_KEYS, message = "At most 500 phone numbers per lookup")
+    private List<String> phoneNumbers;
+
+    @AssertTrue(message = "At most 500 ids and phone numbers combined per lookup")
+    public boolean isWithinCombinedLimit() {
+        return size(ids) + size(phoneNumbers) <= MAX_KEYS;
+    }
+
+    private static int size(List<?> values) {
+        return values == null ? 0 : values.size();
+    }
+}
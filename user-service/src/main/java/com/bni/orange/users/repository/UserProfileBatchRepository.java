@@ -0,0 +1,65 @@
+package com.bni.orange.users.repository;
+
+import com.bni.orange.users.model.entity.UserProfile;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Set-based writes for profiles arriving in bulk from Kafka, which JPA would otherwise issue row by row.
+ */
+@Repository
+public class UserProfileBatchRepository {
+
+    private static final String ROW = "(:id%1$d, :name%1$d, :phone%1$d, :email%1$d, :image%1$d, "
+        + ":phoneVerifiedAt%1$d, :emailVerifiedAt%1$d, :syncedAt%1$d, :syncStatus%1$d)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public UserProfileBatchRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Inserts all profiles in one multi-row statement. Rows whose id already exists are skipped, so redelivered
+     * registrations are harmless; any other constraint violation, including a phone number or email taken by
+     * another profile, fails the whole statement.
+     *
+     * @return number of profiles actually inserted
+     */
+    public int insertIgnoringExisting(List<UserProfile> profiles) {
+        if (profiles.isEmpty()) {
+            return 0;
+        }
+
+        var values = new StringJoiner(",\n");
+        var params = new MapSqlParameterSource();
+        for (int i = 0; i < profiles.size(); i++) {
+            var profile = profiles.get(i);
+            values.add(ROW.formatted(i));
+            params
+                .addValue("id" + i, profile.getId())
+                .addValue("name" + i, profile.getName())
+                .addValue("phone" + i, profile.getPhoneNumber())
+                .addValue("email" + i, profile.getEmail())
+                .addValue("image" + i, profile.getProfileImageUrl())
+                .addValue("phoneVerifiedAt" + i, profile.getPhoneVerifiedAt())
+                .addValue("emailVerifiedAt" + i, profile.getEmailVerifiedAt())
+                .addValue("syncedAt" + i, profile.getSyncedAt())
+                .addValue("syncStatus" + i, profile.getSyncStatus().name());
+        }
+
+        var sql = """
+            INSERT INTO user_oltp.user_profiles
+                (id, name, phone_number, email, profile_image_url,
+                 phone_verified_at, email_verified_at, synced_at, sync_status)
+            VALUES
+            %s
+            ON CONFLICT (id) DO NOTHING
+            """.formatted(values);
+        return jdbc.update(sql, params);
+    }
+}
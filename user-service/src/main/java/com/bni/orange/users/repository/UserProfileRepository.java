@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,6 +17,15 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, UUID>
 
     Optional<UserProfile> findByEmail(String email);
 
+    /**
+     * Resolves a batch of ids and phone numbers in one statement. Arrays keep the statement text identical
+     * whatever the batch size, so it stays a single prepared statement rather than one per IN-list length.
+     */
+    @Query(value = "SELECT * FROM user_oltp.user_profiles " +
+                   "WHERE id = ANY(:ids) OR phone_number = ANY(:phoneNumbers)",
+           nativeQuery = true)
+    List<UserProfile> findAllByIdsOrPhoneNumbers(UUID[] ids, String[] phoneNumbers);
+
     boolean existsByEmail(String email);
 
     boolean existsByPhoneNumber(String phoneNumber);
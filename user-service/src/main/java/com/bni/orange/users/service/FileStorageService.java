@@ -3,27 +3,33 @@ package com.bni.orange.users.service;
 import com.bni.orange.users.config.properties.GcsProperties;
 import com.bni.orange.users.error.BusinessException;
 import com.bni.orange.users.error.ErrorCode;
-import com.google.cloud.storage.BlobId;
-import com.google.cloud.storage.BlobInfo;
-import com.google.cloud.storage.HttpMethod;
-import com.google.cloud.storage.Storage;
+import com.bni.orange.users.model.enums.ProfileImageRendition;
+import com.bni.orange.users.service.image.ProfileImageProcessor;
+import com.bni.orange.users.service.redis.SignedUrlCache;
+import com.bni.orange.users.service.storage.ObjectStorage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FileStorageService {
 
-    private final Storage storage;
+    private final ObjectStorage objectStorage;
+    private final ProfileImageProcessor profileImageProcessor;
     private final GcsProperties gcsProperties;
+    private final SignedUrlCache signedUrlCache;
+
+    private static final String ORIGINAL_FILE_NAME = "original";
+    private static final String RENDITION_CONTENT_TYPE = "image/jpeg";
 
     private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
         "image/jpeg",
@@ -35,29 +41,34 @@ public class FileStorageService {
     private static final long MAX_FILE_SIZE = 2 * 1024 * 1024; // 2 MB
 
 
+    /**
+     * Streams the original to storage and stores the generated renditions next to it.
+     *
+     * @return path of the stored original; renditions are addressed through {@link #renditionPath}
+     */
     public String uploadProfileImage(MultipartFile file, UUID userId) {
         validateFile(file);
 
-        var fileName = buildFileName(userId, file.getOriginalFilename());
-
         if (!gcsProperties.enabled()) {
+            var fileName = buildFileName(userId, file.getOriginalFilename());
             log.debug("GCS upload is disabled. Returning mock path for user: {}", userId);
             return fileName;
         }
 
-        var contentType = file.getContentType();
-
-        try {
-            var blobId = BlobId.of(gcsProperties.bucketName(), fileName);
-            var blobInfo = BlobInfo.newBuilder(blobId)
-                .setContentType(contentType)
-                .build();
+        var renditions = profileImageProcessor.render(file);
+        var originalPath = buildOriginalPath(userId, file.getOriginalFilename(), !renditions.isEmpty());
 
-            storage.create(blobInfo, file.getBytes());
+        try (var content = file.getInputStream()) {
+            objectStorage.write(originalPath, file.getContentType(), content);
+            for (var rendition : renditions.entrySet()) {
+                objectStorage.write(renditionPath(originalPath, rendition.getKey()), RENDITION_CONTENT_TYPE,
+                    new ByteArrayInputStream(rendition.getValue()));
+            }
 
-            log.info("Successfully uploaded profile image for user: {} to GCS path: {}", userId, fileName);
+            log.info("Successfully uploaded profile image for user: {} to GCS path: {} with {} renditions",
+                userId, originalPath, renditions.size());
 
-            return fileName;
+            return originalPath;
         } catch (IOException e) {
             log.error("Failed to upload profile image for user: {}", userId, e);
             throw new BusinessException(ErrorCode.FILE_UPLOAD_FAILED, "Failed to upload profile image");
@@ -75,8 +86,12 @@ public class FileStorageService {
         }
 
         try {
-            var blobId = BlobId.of(gcsProperties.bucketName(), gcsPath);
-            var deleted = storage.delete(blobId);
+            var deleted = deleteObject(gcsPath);
+            if (hasRenditions(gcsPath)) {
+                for (var rendition : ProfileImageRendition.values()) {
+                    deleteObject(renditionPath(gcsPath, rendition));
+                }
+            }
 
             if (deleted) {
                 log.info("Successfully deleted profile image at GCS path: {}", gcsPath);
@@ -88,6 +103,26 @@ public class FileStorageService {
         }
     }
 
+    private boolean deleteObject(String path) {
+        var deleted = objectStorage.delete(path);
+        signedUrlCache.invalidate(path);
+        return deleted;
+    }
+
+    /**
+     * Path of {@code rendition} for an original stored by {@link #uploadProfileImage}, or the original itself
+     * when it has no renditions (undecodable formats and images uploaded before renditions existed).
+     */
+    public String renditionPath(String originalPath, ProfileImageRendition rendition) {
+        if (!hasRenditions(originalPath)) {
+            return originalPath;
+        }
+        return originalPath.substring(0, originalPath.lastIndexOf('/') + 1) + rendition.fileName() + ".jpg";
+    }
+
+    private static boolean hasRenditions(String originalPath) {
+        return originalPath.substring(originalPath.lastIndexOf('/') + 1).startsWith(ORIGINAL_FILE_NAME + ".");
+    }
 
     public String generatePublicUrl(String gcsPath) {
         if (gcsPath == null || gcsPath.isBlank()) {
@@ -109,19 +144,21 @@ public class FileStorageService {
             return generatePublicUrl(gcsPath);
         }
 
+        var cacheTtl = Duration.ofMinutes(
+            gcsProperties.signedUrlDurationMinutes() - gcsProperties.signedUrlRefreshMarginMinutes());
+        return signedUrlCache.get(gcsPath, cacheTtl, () -> signUrl(gcsPath));
+    }
+
+    public String generateSignedUrl(String originalPath, ProfileImageRendition rendition) {
+        return generateSignedUrl(renditionPath(originalPath, rendition));
+    }
+
+    private String signUrl(String gcsPath) {
         try {
-            var blobInfo = BlobInfo.newBuilder(gcsProperties.bucketName(), gcsPath).build();
-
-            var url = storage.signUrl(
-                blobInfo,
-                gcsProperties.signedUrlDurationMinutes(),
-                TimeUnit.MINUTES,
-                Storage.SignUrlOption.withV4Signature(),
-                Storage.SignUrlOption.httpMethod(HttpMethod.GET)
-            );
+            var url = objectStorage.signedUrl(gcsPath, Duration.ofMinutes(gcsProperties.signedUrlDurationMinutes()));
 
             log.debug("Successfully generated signed URL for GCS path: {}", gcsPath);
-            return url.toString();
+            return url;
 
         } catch (Exception e) {
             log.error("Failed to generate signed URL for GCS path: {}. Error: {}. Troubleshooting: Run 'gcloud auth application-default login'",
@@ -160,6 +197,18 @@ public class FileStorageService {
         return String.format("profiles/%s.%s", userId, extension);
     }
 
+    /**
+     * Every upload gets a fresh directory, so clients and the signed URL cache never see stale content under
+     * a reused path. Only originals with renditions are named {@code original.*}.
+     */
+    private String buildOriginalPath(UUID userId, String originalFilename, boolean withRenditions) {
+        var extension = getFileExtension(originalFilename);
+        var uploadDir = String.format("profiles/%s/%s", userId, UUID.randomUUID());
+        return withRenditions
+            ? String.format("%s/%s.%s", uploadDir, ORIGINAL_FILE_NAME, extension)
+            : String.format("%s.%s", uploadDir, extension);
+    }
+
     private String getFileExtension(String filename) {
         if (filename == null || !filename.contains(".")) {
             return "jpg";
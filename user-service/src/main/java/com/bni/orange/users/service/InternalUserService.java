@@ -4,13 +4,21 @@ import com.bni.orange.users.error.BusinessException;
 import com.bni.orange.users.error.ErrorCode;
 import com.bni.orange.users.model.response.UserProfileResponse;
 import com.bni.orange.users.repository.UserProfileRepository;
+import com.bni.orange.users.service.redis.ProfileCache;
 import com.bni.orange.users.util.PhoneNumberUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Log4j2
 @Service
@@ -18,6 +26,7 @@ import java.util.UUID;
 public class InternalUserService {
 
     private final UserProfileRepository userProfileRepository;
+    private final ProfileCache profileCache;
 
     @Transactional(readOnly = true)
     public UserProfileResponse findByPhoneNumber(String phoneNumber) {
@@ -25,6 +34,12 @@ public class InternalUserService {
 
         var normalizedPhone = PhoneNumberUtils.normalize(phoneNumber);
 
+        var cached = profileCache.getByPhone(normalizedPhone);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        var ticket = profileCache.loadTicket();
         var userProfile = userProfileRepository
             .findByPhoneNumber(normalizedPhone)
             .orElseThrow(() -> {
@@ -32,20 +47,58 @@ public class InternalUserService {
                 return new BusinessException(ErrorCode.USER_NOT_FOUND);
             });
 
-        return mapToResponse(userProfile);
+        return cache(mapToResponse(userProfile), ticket);
     }
 
     @Transactional(readOnly = true)
     public UserProfileResponse findById(UUID uuid) {
         log.debug("Fetching profile for ID: {}", uuid);
 
+        var cached = profileCache.getById(uuid);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        var ticket = profileCache.loadTicket();
         var userProfile = userProfileRepository.findById(uuid)
             .orElseThrow(() -> {
                 log.warn("User profile not found for ID: {}", uuid);
                 return new BusinessException(ErrorCode.USER_NOT_FOUND);
             });
 
-        return mapToResponse(userProfile);
+        return cache(mapToResponse(userProfile), ticket);
+    }
+
+    /**
+     * Resolves users by id and/or phone number with at most one database query; unknown keys are simply
+     * absent from the result. Ids already cached are served from {@link ProfileCache}.
+     */
+    @Transactional(readOnly = true)
+    public List<UserProfileResponse> findAll(Collection<UUID> ids, Collection<String> phoneNumbers) {
+        var requestedIds = ids == null ? Set.<UUID>of() : new LinkedHashSet<>(ids);
+        var requestedPhones = phoneNumbers == null ? Set.<String>of() : phoneNumbers.stream()
+            .filter(Objects::nonNull)
+            .map(PhoneNumberUtils::normalize)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        log.debug("Batch profile lookup: ids={}, phoneNumbers={}", requestedIds.size(), requestedPhones.size());
+
+        var found = new LinkedHashMap<UUID, UserProfileResponse>(profileCache.getAllById(requestedIds));
+        var missingIds = requestedIds.stream().filter(id -> !found.containsKey(id)).toArray(UUID[]::new);
+
+        if (missingIds.length > 0 || !requestedPhones.isEmpty()) {
+            var ticket = profileCache.loadTicket();
+            var loaded = userProfileRepository.findAllByIdsOrPhoneNumbers(missingIds, requestedPhones.toArray(String[]::new));
+            for (var userProfile : loaded) {
+                found.putIfAbsent(userProfile.getId(), cache(mapToResponse(userProfile), ticket));
+            }
+        }
+
+        return List.copyOf(found.values());
+    }
+
+    private UserProfileResponse cache(UserProfileResponse response, ProfileCache.LoadTicket ticket) {
+        profileCache.put(response, ticket);
+        return response;
     }
 
 
@@ -1,22 +1,26 @@
 package com.bni.orange.users.service;
 
+import com.bni.orange.shared.kafka.EventPublisher;
 import com.bni.orange.users.config.properties.GcsProperties;
 import com.bni.orange.users.config.properties.KafkaTopicProperties;
 import com.bni.orange.users.error.BusinessException;
 import com.bni.orange.users.error.ErrorCode;
-import com.bni.orange.users.event.EventPublisher;
 import com.bni.orange.users.event.ProfileEventFactory;
 import com.bni.orange.users.model.entity.UserProfile;
+import com.bni.orange.users.model.enums.ProfileImageRendition;
 import com.bni.orange.users.model.enums.TokenType;
 import com.bni.orange.users.model.request.UpdateProfileRequest;
 import com.bni.orange.users.model.response.ProfileImageUploadResponse;
 import com.bni.orange.users.model.response.ProfileUpdateResponse;
 import com.bni.orange.users.model.response.VerificationResponse;
 import com.bni.orange.users.repository.UserProfileRepository;
+import com.bni.orange.users.service.redis.ProfileCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.ArrayList;
@@ -35,6 +39,7 @@ public class ProfileService {
     private final KafkaTopicProperties topicProperties;
     private final FileStorageService fileStorageService;
     private final GcsProperties gcsProperties;
+    private final ProfileCache profileCache;
 
     @Transactional
     public ProfileUpdateResponse updateProfile(UUID userId, UpdateProfileRequest request) {
@@ -63,6 +68,7 @@ public class ProfileService {
         }
 
         profileRepository.save(profile);
+        profileCache.evictAfterCommit(userId);
 
         return ProfileUpdateResponse.builder()
             .message(buildResponseMessage(updatedFields, pendingVerifications))
@@ -176,6 +182,7 @@ public class ProfileService {
         profile = profileRepository.findById(userId)
             .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
 
+        profileCache.evictAfterCommit(userId);
         publishEmailVerifiedEvent(profile);
         log.info("Email verified and updated for user: {}. New email: {}", userId, verifiedEmail);
         return VerificationResponse.success("email", verifiedEmail);
@@ -212,6 +219,7 @@ public class ProfileService {
         profile = profileRepository.findById(userId)
             .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
 
+        profileCache.evictAfterCommit(userId);
         publishPhoneVerifiedEvent(profile);
         log.info("Phone verified and updated for user: {}. New phone: {}", userId, verifiedPhone);
         return VerificationResponse.success("phoneNumber", verifiedPhone);
@@ -372,23 +380,42 @@ public class ProfileService {
         var profile = profileRepository.findById(userId)
             .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
 
-        if (profile.getProfileImageUrl() != null) {
-            log.debug("Deleting old profile image for user: {}", userId);
-            fileStorageService.deleteProfileImage(profile.getProfileImageUrl());
-        }
-
+        var previousPath = profile.getProfileImageUrl();
         var gcsPath = fileStorageService.uploadProfileImage(file, userId);
 
         profile.setProfileImageUrl(gcsPath);
         profileRepository.save(profile);
+        profileCache.evictAfterCommit(userId);
+
+        // Uploads never overwrite each other, so the old image is only removed once the new path is committed
+        if (previousPath != null) {
+            deleteAfterCommit(userId, previousPath);
+        }
 
         log.info("Profile image uploaded successfully for user: {}. GCS path: {}", userId, gcsPath);
 
-        var signedUrl = fileStorageService.generateSignedUrl(gcsPath);
+        var signedUrl = fileStorageService.generateSignedUrl(gcsPath, ProfileImageRendition.MEDIUM);
 
         return ProfileImageUploadResponse.success(
             signedUrl,
             gcsProperties.signedUrlDurationMinutes().longValue()
         );
     }
+
+    /**
+     * A rollback leaves the profile pointing at {@code path}, so it is only deleted once the transaction commits.
+     */
+    private void deleteAfterCommit(UUID userId, String path) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            fileStorageService.deleteProfileImage(path);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                log.debug("Deleting old profile image for user: {}", userId);
+                fileStorageService.deleteProfileImage(path);
+            }
+        });
+    }
 }
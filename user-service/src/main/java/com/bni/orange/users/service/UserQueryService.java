@@ -2,6 +2,7 @@ package com.bni.orange.users.service;
 
 import com.bni.orange.users.error.BusinessException;
 import com.bni.orange.users.error.ErrorCode;
+import com.bni.orange.users.model.enums.ProfileImageRendition;
 import com.bni.orange.users.model.response.UserProfileResponse;
 import com.bni.orange.users.repository.UserProfileRepository;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +22,15 @@ public class UserQueryService {
 
     @Transactional(readOnly = true)
     public UserProfileResponse getCurrentUserProfile(UUID userId) {
+        return getCurrentUserProfile(userId, ProfileImageRendition.MEDIUM);
+    }
+
+    /**
+     * @param imageRendition size of the profile image to link; falls back to the original when the stored
+     *                       image has no renditions
+     */
+    @Transactional(readOnly = true)
+    public UserProfileResponse getCurrentUserProfile(UUID userId, ProfileImageRendition imageRendition) {
         log.debug("Fetching profile for user ID: {}", userId);
 
         var userProfile = userProfileRepository
@@ -33,7 +43,7 @@ public class UserQueryService {
         String profileImageUrl = null;
         if (userProfile.getProfileImageUrl() != null && !userProfile.getProfileImageUrl().isBlank()) {
             try {
-                profileImageUrl = fileStorageService.generateSignedUrl(userProfile.getProfileImageUrl());
+                profileImageUrl = fileStorageService.generateSignedUrl(userProfile.getProfileImageUrl(), imageRendition);
                 log.debug("Generated signed URL for user {} profile image", userId);
             } catch (Exception e) {
                 log.error("Failed to generate signed URL for user {} profile image. Returning null.", userId, e);
@@ -48,7 +58,7 @@ public class UserQueryService {
             .bio(userProfile.getBio())
             .address(userProfile.getAddress())
             .dateOfBirth(userProfile.getDateOfBirth())
-            .profileImageUrl(profileImageUrl) // Fresh signed URL with 60-min expiry
+            .profileImageUrl(profileImageUrl) // Signed URL shared across instances until shortly before expiry
             .emailVerified(userProfile.hasVerifiedEmail())
             .phoneVerified(userProfile.hasVerifiedPhone())
             .emailVerifiedAt(userProfile.getEmailVerifiedAt())
@@ -1,10 +1,11 @@
 package com.bni.orange.users.service;
 
+import com.bni.orange.shared.kafka.EventPublisher;
+import com.bni.orange.shared.redis.OneTimeCodeStore;
 import com.bni.orange.users.config.properties.KafkaTopicProperties;
 import com.bni.orange.users.config.properties.RedisPrefixProperties;
 import com.bni.orange.users.error.BusinessException;
 import com.bni.orange.users.error.ErrorCode;
-import com.bni.orange.users.event.EventPublisher;
 import com.bni.orange.users.event.ProfileEventFactory;
 import com.bni.orange.users.model.enums.TokenType;
 import com.bni.orange.users.util.OtpGenerator;
@@ -16,7 +17,6 @@ import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 
 
@@ -29,6 +29,7 @@ public class VerificationService {
     private final EventPublisher eventPublisher;
     private final KafkaTopicProperties topicProperties;
     private final RedisPrefixProperties redisProperties;
+    private final OneTimeCodeStore oneTimeCodeStore;
     private static final Duration OTP_VALIDITY = Duration.ofMinutes(5);
     private static final int MAX_OTP_ATTEMPTS = 5;
     private static final Duration LOCK_DURATION = Duration.ofMinutes(15);
@@ -38,20 +39,8 @@ public class VerificationService {
     public void generateEmailOtp(UUID userId, String email) {
         log.info("Generating email OTP for user: {}", userId);
 
-        checkRateLimit(userId, TokenType.EMAIL);
-
-        if (isLocked(userId, TokenType.EMAIL)) {
-            throw new BusinessException(ErrorCode.OTP_LOCKED, "Account temporarily locked. Please try again later");
-        }
-
-        var otpKey = getOtpKey(userId, TokenType.EMAIL);
-        redisTemplate.delete(otpKey);
-
         var otpCode = OtpGenerator.generate();
-        redisTemplate.opsForValue().set(otpKey, otpCode, OTP_VALIDITY);
-
-        var metaKey = getMetaKey(userId, TokenType.EMAIL);
-        redisTemplate.opsForValue().set(metaKey, email, OTP_VALIDITY);
+        issue(userId, TokenType.EMAIL, otpCode, email);
 
         publishEmailOtpEvent(userId, email, otpCode);
 
@@ -62,20 +51,8 @@ public class VerificationService {
     public void generatePhoneOtp(UUID userId, String phoneNumber) {
         log.info("Generating phone OTP for user: {}", userId);
 
-        checkRateLimit(userId, TokenType.PHONE);
-
-        if (isLocked(userId, TokenType.PHONE)) {
-            throw new BusinessException(ErrorCode.OTP_LOCKED, "Account temporarily locked. Please try again later");
-        }
-
-        var otpKey = getOtpKey(userId, TokenType.PHONE);
-        redisTemplate.delete(otpKey);
-
         var otpCode = OtpGenerator.generate();
-        redisTemplate.opsForValue().set(otpKey, otpCode, OTP_VALIDITY);
-
-        var metaKey = getMetaKey(userId, TokenType.PHONE);
-        redisTemplate.opsForValue().set(metaKey, phoneNumber, OTP_VALIDITY);
+        issue(userId, TokenType.PHONE, otpCode, phoneNumber);
 
         publishPhoneOtpEvent(userId, phoneNumber, otpCode);
 
@@ -85,27 +62,20 @@ public class VerificationService {
     public String verifyOtp(UUID userId, TokenType tokenType, String otpCode) {
         log.info("Verifying {} OTP for user: {}", tokenType, userId);
 
-        var otpKey = getOtpKey(userId, tokenType);
-        var storedOtp = redisTemplate.opsForValue().get(otpKey);
+        var result = oneTimeCodeStore.verify(keys(userId, tokenType), otpCode, MAX_OTP_ATTEMPTS, LOCK_DURATION, false);
 
-        if (storedOtp == null) {
-            throw new BusinessException(ErrorCode.OTP_NOT_FOUND, "OTP not found or expired");
-        }
-
-        if (isLocked(userId, tokenType)) {
-            var lockKey = getLockKey(userId, tokenType);
-            var ttl = redisTemplate.getExpire(lockKey);
-            throw new BusinessException(
+        return switch (result.outcome()) {
+            case OK -> {
+                log.info("{} OTP verified successfully for user: {}", tokenType, userId);
+                yield result.meta();
+            }
+            case NOT_FOUND -> throw new BusinessException(ErrorCode.OTP_NOT_FOUND, "OTP not found or expired");
+            case LOCKED -> throw new BusinessException(
                 ErrorCode.OTP_LOCKED,
-                String.format("Too many failed attempts. Try again in %d seconds", ttl),
-                createLockDetails(ttl)
+                String.format("Too many failed attempts. Try again in %d seconds", result.value()),
+                createLockDetails(result.value())
             );
-        }
-
-        if (!storedOtp.equals(otpCode)) {
-            boolean maxAttemptsReached = incrementFailureCount(userId, tokenType);
-
-            if (maxAttemptsReached) {
+            case JUST_LOCKED -> {
                 log.warn("Max OTP attempts reached for user: {}, account locked", userId);
                 throw new BusinessException(
                     ErrorCode.OTP_LOCKED,
@@ -113,71 +83,40 @@ public class VerificationService {
                     createLockDetails(LOCK_DURATION.getSeconds())
                 );
             }
-
-            var attemptsLeft = getRemainingAttempts(userId, tokenType);
-            log.warn("Invalid OTP code for user: {}, attempts remaining: {}", userId, attemptsLeft);
-            throw new BusinessException(
-                ErrorCode.OTP_INVALID,
-                String.format("Invalid OTP code. %d attempts remaining", attemptsLeft)
-            );
-        }
-
-        var metaKey = getMetaKey(userId, tokenType);
-        var newValue = redisTemplate.opsForValue().get(metaKey);
-
-        clearOtpData(userId, tokenType);
-
-        log.info("{} OTP verified successfully for user: {}", tokenType, userId);
-        return newValue;
+            default -> {
+                log.warn("Invalid OTP code for user: {}, attempts remaining: {}", userId, result.value());
+                throw new BusinessException(
+                    ErrorCode.OTP_INVALID,
+                    String.format("Invalid OTP code. %d attempts remaining", result.value())
+                );
+            }
+        };
     }
 
-    private void checkRateLimit(UUID userId, TokenType tokenType) {
-        var rateLimitKey = getRateLimitKey(userId, tokenType);
-        var count = redisTemplate.opsForValue().get(rateLimitKey);
-
-        if (count != null && Integer.parseInt(count) >= MAX_TOKENS_PER_WINDOW) {
-            log.warn("Rate limit exceeded for user: {}, type: {}", userId, tokenType);
-            throw new BusinessException(
-                ErrorCode.RATE_LIMIT_EXCEEDED,
-                String.format("Too many OTP requests. Please wait %d minutes before trying again", RATE_LIMIT_WINDOW.toMinutes())
-            );
-        }
-
-        if (count == null) {
-            redisTemplate.opsForValue().set(rateLimitKey, "1", RATE_LIMIT_WINDOW);
-        } else {
-            redisTemplate.opsForValue().increment(rateLimitKey);
-        }
-    }
+    private void issue(UUID userId, TokenType tokenType, String otpCode, String pendingValue) {
+        var result = oneTimeCodeStore.issue(keys(userId, tokenType), otpCode, OTP_VALIDITY, RATE_LIMIT_WINDOW, MAX_TOKENS_PER_WINDOW, pendingValue);
 
-    private boolean incrementFailureCount(UUID userId, TokenType tokenType) {
-        var failKey = getFailCountKey(userId, tokenType);
-        var attempts = redisTemplate.opsForValue().increment(failKey);
-
-        if (attempts != null && attempts >= MAX_OTP_ATTEMPTS) {
-            // Lock the account
-            var lockKey = getLockKey(userId, tokenType);
-            redisTemplate.opsForValue().set(lockKey, "true", LOCK_DURATION);
-            redisTemplate.delete(failKey);
-            return true;
-        } else {
-            redisTemplate.expire(failKey, LOCK_DURATION);
-            return false;
+        switch (result.outcome()) {
+            case OK -> { }
+            case LOCKED -> throw new BusinessException(ErrorCode.OTP_LOCKED, "Account temporarily locked. Please try again later");
+            default -> {
+                log.warn("Rate limit exceeded for user: {}, type: {}", userId, tokenType);
+                throw new BusinessException(
+                    ErrorCode.RATE_LIMIT_EXCEEDED,
+                    String.format("Too many OTP requests. Please wait %d minutes before trying again", RATE_LIMIT_WINDOW.toMinutes())
+                );
+            }
         }
     }
 
-    private boolean isLocked(UUID userId, TokenType tokenType) {
-        var lockKey = getLockKey(userId, tokenType);
-        return redisTemplate.hasKey(lockKey);
-    }
-
-
-    private int getRemainingAttempts(UUID userId, TokenType tokenType) {
-        var failKey = getFailCountKey(userId, tokenType);
-        var attempts = Optional.ofNullable(redisTemplate.opsForValue().get(failKey))
-            .map(Long::parseLong)
-            .orElse(0L);
-        return (int) Math.max(0, MAX_OTP_ATTEMPTS - attempts);
+    private OneTimeCodeStore.Keys keys(UUID userId, TokenType tokenType) {
+        return new OneTimeCodeStore.Keys(
+            getOtpKey(userId, tokenType),
+            getLockKey(userId, tokenType),
+            getFailCountKey(userId, tokenType),
+            getRateLimitKey(userId, tokenType),
+            getMetaKey(userId, tokenType)
+        );
     }
 
     /**
@@ -0,0 +1,173 @@
+package com.bni.orange.users.service.image;
+
+import com.bni.orange.users.config.properties.ProfileImageProperties;
+import com.bni.orange.users.error.BusinessException;
+import com.bni.orange.users.error.ErrorCode;
+import com.bni.orange.users.model.enums.ProfileImageRendition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decodes uploaded profile images and re-encodes them into the fixed {@link ProfileImageRendition}s on a
+ * bounded worker pool. Images whose header declares more than {@code maxSourcePixels} are rejected before
+ * decoding; the rest are decoded as their centred square only, with source subsampling close to the largest
+ * rendition, so neither a high-resolution photo nor an extreme aspect ratio materialises as a large bitmap.
+ */
+@Slf4j
+@Component
+public class ProfileImageProcessor {
+
+    private static final int LARGEST_RENDITION = Arrays.stream(ProfileImageRendition.values())
+        .mapToInt(ProfileImageRendition::size)
+        .max()
+        .orElseThrow();
+
+    private final ExecutorService executor;
+    private final ProfileImageProperties properties;
+
+    public ProfileImageProcessor(
+        @Qualifier("profileImageExecutor") ExecutorService executor,
+        ProfileImageProperties properties
+    ) {
+        this.executor = executor;
+        this.properties = properties;
+    }
+
+    /**
+     * @return JPEG bytes per rendition, or an empty map when no installed decoder understands the image
+     */
+    public Map<ProfileImageRendition, byte[]> render(MultipartFile file) {
+        Future<Map<ProfileImageRendition, byte[]>> task;
+        try {
+            task = executor.submit(() -> renderNow(file));
+        } catch (RejectedExecutionException e) {
+            log.warn("Profile image workers saturated, rejecting upload");
+            throw new BusinessException(ErrorCode.IMAGE_PROCESSING_BUSY);
+        }
+
+        try {
+            return task.get(properties.processingTimeoutSeconds(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            log.error("Profile image processing timed out after {}s", properties.processingTimeoutSeconds());
+            throw new BusinessException(ErrorCode.FILE_UPLOAD_FAILED, "Profile image processing timed out");
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.FILE_UPLOAD_FAILED, "Profile image processing interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BusinessException rejected) {
+                throw rejected;
+            }
+            log.error("Failed to process profile image", e.getCause());
+            throw new BusinessException(ErrorCode.FILE_UPLOAD_FAILED, "Failed to process profile image");
+        }
+    }
+
+    private Map<ProfileImageRendition, byte[]> renderNow(MultipartFile file) throws IOException {
+        var source = decode(file);
+        if (source == null) {
+            return Map.of();
+        }
+
+        var renditions = new EnumMap<ProfileImageRendition, byte[]>(ProfileImageRendition.class);
+        for (var rendition : ProfileImageRendition.values()) {
+            renditions.put(rendition, encodeJpeg(squareScaled(source, rendition.size())));
+        }
+        return renditions;
+    }
+
+    private BufferedImage decode(MultipartFile file) throws IOException {
+        try (var raw = file.getInputStream(); var in = ImageIO.createImageInputStream(raw)) {
+            if (in == null) {
+                return null;
+            }
+            var readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                log.info("No decoder available for profile image of type {}, keeping original only",
+                    file.getContentType());
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                var width = reader.getWidth(0);
+                var height = reader.getHeight(0);
+                if ((long) width * height > properties.maxSourcePixels()) {
+                    log.warn("Rejecting {}x{} profile image, over the {} pixel limit",
+                        width, height, properties.maxSourcePixels());
+                    throw new BusinessException(ErrorCode.FILE_TOO_LARGE, "Image dimensions are too large");
+                }
+
+                var side = Math.min(width, height);
+                var subsampling = Math.max(1, side / LARGEST_RENDITION);
+
+                var param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Centre-crops to a square and scales it down to {@code size}, flattening any transparency onto white.
+     */
+    private static BufferedImage squareScaled(BufferedImage source, int size) {
+        var side = Math.min(source.getWidth(), source.getHeight());
+        var target = Math.min(size, side);
+        var x = (source.getWidth() - side) / 2;
+        var y = (source.getHeight() - side) / 2;
+
+        var scaled = new BufferedImage(target, target, BufferedImage.TYPE_INT_RGB);
+        var graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, target, target, x, y, x + side, y + side, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        var writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        var bytes = new ByteArrayOutputStream();
+        try (var out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            var param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.jpegQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,386 @@
+package com.bni.orange.users.service.redis;
+
+import com.bni.orange.users.config.properties.ProfileCacheProperties;
+import com.bni.orange.users.model.response.UserProfileResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-level cache of internal profile lookups: a node-local map in front of Redis, keyed by user id, with a
+ * phone-to-id index beside it. Phone hits are checked against the cached profile's number, so an index entry
+ * left behind by a number change falls through to the database instead of answering for the wrong user.
+ * <p>
+ * Evictions run after the writing transaction commits and are broadcast over Redis pub/sub to every node's
+ * local tier; {@code localTtl} bounds staleness on a node that misses a broadcast. Redis failures degrade to
+ * local-only caching rather than failing lookups.
+ * <p>
+ * A read-through caller takes a {@link LoadTicket} before it reads the database and hands it back to
+ * {@link #put}. Every eviction stamps the user with the next value of a sequence, locally and in Redis, and a put
+ * whose ticket predates that stamp is dropped, so a row read before a write commits cannot be cached after the
+ * write's eviction.
+ */
+@Slf4j
+@Component
+public class ProfileCache implements MessageListener {
+
+    public static final String EVICTION_CHANNEL = "users:profile-cache:evict";
+
+    private static final String ID_KEY_PREFIX = "users:profile:id:";
+    private static final String PHONE_KEY_PREFIX = "users:profile:phone:";
+    private static final String EVICTED_KEY_PREFIX = "users:profile:evicted:";
+    private static final String EVICTION_SEQUENCE_KEY = "users:profile:eviction-seq";
+
+    /**
+     * KEYS: eviction sequence, eviction stamp, profile. ARGV: stamp TTL in seconds.
+     */
+    private static final RedisScript<Long> EVICT = new DefaultRedisScript<>("""
+        local stamp = redis.call('INCR', KEYS[1])
+        redis.call('SET', KEYS[2], stamp, 'EX', ARGV[1])
+        redis.call('DEL', KEYS[3])
+        return stamp
+        """, Long.class);
+
+    /**
+     * KEYS: eviction stamp, profile, optional phone index. ARGV: ticket, TTL in seconds, profile JSON, user id.
+     * Returns 0 without writing when the user was evicted after the ticket was taken.
+     */
+    private static final RedisScript<Long> PUT = new DefaultRedisScript<>("""
+        local evicted = tonumber(redis.call('GET', KEYS[1]))
+        if evicted and evicted > tonumber(ARGV[1]) then
+            return 0
+        end
+        redis.call('SET', KEYS[2], ARGV[3], 'EX', ARGV[2])
+        if KEYS[3] then
+            redis.call('SET', KEYS[3], ARGV[4], 'EX', ARGV[2])
+        end
+        return 1
+        """, Long.class);
+
+    /**
+     * Position in the local and Redis eviction sequences when a database read began. {@code remote} is
+     * {@code null} when Redis could not be read, in which case {@link #put} skips the Redis tier.
+     */
+    public record LoadTicket(long local, Long remote) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProfileCacheProperties properties;
+
+    private final Cache<UUID, UserProfileResponse> localById;
+    private final Cache<String, UUID> localIdByPhone;
+    private final Cache<UUID, Set<String>> localPhonesById;
+    private final Cache<UUID, Long> localEvictedAt;
+    private final AtomicLong localEvictionSequence = new AtomicLong();
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public ProfileCache(
+        StringRedisTemplate redisTemplate,
+        ObjectMapper objectMapper,
+        ProfileCacheProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.localById = Caffeine.newBuilder()
+            .maximumSize(properties.localMaxEntries())
+            .expireAfterWrite(properties.localTtl())
+            .build();
+        this.localIdByPhone = Caffeine.newBuilder()
+            .maximumSize(properties.localMaxEntries())
+            .expireAfterWrite(properties.localTtl())
+            .build();
+        this.localPhonesById = Caffeine.newBuilder()
+            .maximumSize(properties.localMaxEntries())
+            .expireAfterWrite(properties.localTtl())
+            .build();
+        this.localEvictedAt = Caffeine.newBuilder()
+            .maximumSize(properties.localMaxEntries())
+            .expireAfterWrite(properties.localTtl())
+            .build();
+
+        this.localHits = lookupCounter(meterRegistry, "local", "hit");
+        this.redisHits = lookupCounter(meterRegistry, "redis", "hit");
+        this.misses = lookupCounter(meterRegistry, "database", "miss");
+        Gauge.builder("users.profile_cache.local.entries", localById, Cache::estimatedSize)
+            .description("Profiles held in this node's local cache tier")
+            .register(meterRegistry);
+    }
+
+    public Optional<UserProfileResponse> getById(UUID userId) {
+        if (!properties.enabled()) {
+            return Optional.empty();
+        }
+
+        var local = localById.getIfPresent(userId);
+        if (local != null) {
+            localHits.increment();
+            return Optional.of(local);
+        }
+
+        var ticket = localEvictionSequence.get();
+        var remote = readRedis(userId);
+        if (remote.isPresent()) {
+            redisHits.increment();
+            putLocal(remote.get(), ticket);
+            return remote;
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Bulk form of {@link #getById}: one local pass, then a single MGET for whatever the local tier lacks.
+     *
+     * @return cached profiles; ids absent from the map must be loaded by the caller
+     */
+    public Map<UUID, UserProfileResponse> getAllById(Collection<UUID> userIds) {
+        var found = new HashMap<UUID, UserProfileResponse>();
+        if (!properties.enabled() || userIds.isEmpty()) {
+            return found;
+        }
+
+        var remoteIds = new ArrayList<UUID>();
+        for (var userId : userIds) {
+            var local = localById.getIfPresent(userId);
+            if (local != null) {
+                localHits.increment();
+                found.put(userId, local);
+            } else {
+                remoteIds.add(userId);
+            }
+        }
+        if (remoteIds.isEmpty()) {
+            return found;
+        }
+
+        var ticket = localEvictionSequence.get();
+        try {
+            var values = redisTemplate.opsForValue().multiGet(remoteIds.stream().map(id -> ID_KEY_PREFIX + id).toList());
+            for (int i = 0; i < remoteIds.size(); i++) {
+                var json = values == null ? null : values.get(i);
+                if (json == null) {
+                    misses.increment();
+                    continue;
+                }
+                var profile = objectMapper.readValue(json, UserProfileResponse.class);
+                redisHits.increment();
+                putLocal(profile, ticket);
+                found.put(remoteIds.get(i), profile);
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable cached profiles in batch lookup", e);
+        } catch (DataAccessException e) {
+            log.warn("Profile Redis cache unavailable for batch lookup of {} ids", remoteIds.size(), e);
+        }
+        return found;
+    }
+
+    /**
+     * @param normalizedPhone phone number as stored on the profile
+     */
+    public Optional<UserProfileResponse> getByPhone(String normalizedPhone) {
+        if (!properties.enabled()) {
+            return Optional.empty();
+        }
+
+        var userId = localIdByPhone.getIfPresent(normalizedPhone);
+        if (userId == null) {
+            userId = readRedisPhoneIndex(normalizedPhone);
+            if (userId == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            indexLocalPhone(normalizedPhone, userId);
+        }
+
+        var profile = getById(userId);
+        if (profile.isPresent() && !normalizedPhone.equals(profile.get().getPhoneNumber())) {
+            // Number moved since the index entry was written
+            localIdByPhone.invalidate(normalizedPhone);
+            return Optional.empty();
+        }
+        return profile;
+    }
+
+    /**
+     * Takes a ticket for a database read whose result will be passed to {@link #put}. Call it before the read.
+     */
+    public LoadTicket loadTicket() {
+        var local = localEvictionSequence.get();
+        if (!properties.enabled()) {
+            return new LoadTicket(local, null);
+        }
+        try {
+            var remote = redisTemplate.opsForValue().get(EVICTION_SEQUENCE_KEY);
+            return new LoadTicket(local, remote == null ? 0L : Long.parseLong(remote));
+        } catch (DataAccessException | NumberFormatException e) {
+            log.warn("Profile Redis cache unavailable for load ticket", e);
+            return new LoadTicket(local, null);
+        }
+    }
+
+    /**
+     * Caches {@code profile} unless it was evicted after {@code ticket} was taken, in which case the value may
+     * predate the write that evicted it.
+     */
+    public void put(UserProfileResponse profile, LoadTicket ticket) {
+        if (!properties.enabled()) {
+            return;
+        }
+
+        putLocal(profile, ticket.local());
+        if (profile.getPhoneNumber() != null) {
+            indexLocalPhone(profile.getPhoneNumber(), profile.getId());
+        }
+        if (ticket.remote() == null) {
+            return;
+        }
+
+        try {
+            var json = objectMapper.writeValueAsString(profile);
+            var keys = new ArrayList<>(List.of(EVICTED_KEY_PREFIX + profile.getId(), ID_KEY_PREFIX + profile.getId()));
+            if (profile.getPhoneNumber() != null) {
+                keys.add(PHONE_KEY_PREFIX + profile.getPhoneNumber());
+            }
+            redisTemplate.execute(PUT, keys, ticket.remote().toString(),
+                String.valueOf(properties.redisTtl().toSeconds()), json, profile.getId().toString());
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize profile for cache: userId={}", profile.getId(), e);
+        } catch (DataAccessException e) {
+            log.warn("Failed to write profile to Redis cache: userId={}", profile.getId(), e);
+        }
+    }
+
+    /**
+     * Evicts {@code userId} from every node once the current transaction commits, or immediately outside a
+     * transaction. Evicting earlier would let a concurrent read re-cache the row as it was before the write.
+     */
+    public void evictAfterCommit(UUID userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userId);
+            }
+        });
+    }
+
+    private void evict(UUID userId) {
+        evictLocal(userId);
+        try {
+            redisTemplate.execute(EVICT,
+                List.of(EVICTION_SEQUENCE_KEY, EVICTED_KEY_PREFIX + userId, ID_KEY_PREFIX + userId),
+                String.valueOf(properties.redisTtl().toSeconds()));
+            redisTemplate.convertAndSend(EVICTION_CHANNEL, userId.toString());
+        } catch (DataAccessException e) {
+            log.warn("Failed to evict profile from Redis cache: userId={}", userId, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            evictLocal(UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed profile cache eviction message", e);
+        }
+    }
+
+    /**
+     * Stamps the user before invalidating, so a concurrent {@link #putLocal} either sees the stamp or is
+     * invalidated after it lands.
+     */
+    private void evictLocal(UUID userId) {
+        localEvictedAt.put(userId, localEvictionSequence.incrementAndGet());
+        localById.invalidate(userId);
+        var phones = localPhonesById.asMap().remove(userId);
+        if (phones != null) {
+            phones.forEach(phone -> localIdByPhone.asMap().remove(phone, userId));
+        }
+    }
+
+    private void putLocal(UserProfileResponse profile, long ticket) {
+        localById.put(profile.getId(), profile);
+        var evictedAt = localEvictedAt.getIfPresent(profile.getId());
+        if (evictedAt != null && evictedAt > ticket) {
+            localById.asMap().remove(profile.getId(), profile);
+        }
+    }
+
+    /**
+     * Records the phone under its user as well, so an eviction drops the user's phone entries without scanning the
+     * index. A reverse entry that expires first only leaves a forward entry that {@link #getByPhone} rejects once
+     * the number no longer matches.
+     */
+    private void indexLocalPhone(String phone, UUID userId) {
+        localIdByPhone.put(phone, userId);
+        localPhonesById.asMap().computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(phone);
+    }
+
+    private Optional<UserProfileResponse> readRedis(UUID userId) {
+        try {
+            var json = redisTemplate.opsForValue().get(ID_KEY_PREFIX + userId);
+            return json == null ? Optional.empty() : Optional.of(objectMapper.readValue(json, UserProfileResponse.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable cached profile: userId={}", userId, e);
+            return Optional.empty();
+        } catch (DataAccessException e) {
+            log.warn("Profile Redis cache unavailable: userId={}", userId, e);
+            return Optional.empty();
+        }
+    }
+
+    private UUID readRedisPhoneIndex(String normalizedPhone) {
+        try {
+            var id = redisTemplate.opsForValue().get(PHONE_KEY_PREFIX + normalizedPhone);
+            return id == null ? null : UUID.fromString(id);
+        } catch (DataAccessException e) {
+            log.warn("Profile Redis cache unavailable for phone lookup", e);
+            return null;
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("users.profile_cache.lookups")
+            .description("Internal profile lookups by the tier that answered them")
+            .tag("tier", tier)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package com.bni.orange.users.service.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Signed URLs shared by every instance through Redis, keyed by object path. The first instance to sign a
+ * path publishes its URL and the others adopt it, so clients see one stable URL per image until the entry
+ * expires and their image caches keep hitting. When Redis is unavailable URLs are signed on every call.
+ */
+@Slf4j
+@Component
+public class SignedUrlCache {
+
+    private static final String KEY_PREFIX = "users:signed-url:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Counter hits;
+    private final Counter misses;
+
+    public SignedUrlCache(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * Returns the cached URL for {@code objectPath}, or signs one and caches it for {@code ttl}.
+     * A non-positive {@code ttl} disables caching.
+     */
+    public String get(String objectPath, Duration ttl, Supplier<String> signer) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            return signer.get();
+        }
+
+        var key = KEY_PREFIX + objectPath;
+        try {
+            var cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Signed URL cache unavailable, signing directly: path={}", objectPath, e);
+            return signer.get();
+        }
+
+        misses.increment();
+        var signed = signer.get();
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, signed, ttl))) {
+                return signed;
+            }
+            // Another instance signed concurrently; serve its URL so all instances agree
+            var winner = redisTemplate.opsForValue().get(key);
+            return winner != null ? winner : signed;
+        } catch (DataAccessException e) {
+            log.warn("Failed to cache signed URL: path={}", objectPath, e);
+            return signed;
+        }
+    }
+
+    public void invalidate(String objectPath) {
+        try {
+            redisTemplate.delete(KEY_PREFIX + objectPath);
+        } catch (DataAccessException e) {
+            log.warn("Failed to invalidate cached signed URL: path={}", objectPath, e);
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("storage.signed_url.cache")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
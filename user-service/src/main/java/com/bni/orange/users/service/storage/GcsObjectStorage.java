@@ -0,0 +1,52 @@
+package com.bni.orange.users.service.storage;
+
+import com.bni.orange.users.config.properties.GcsProperties;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.HttpMethod;
+import com.google.cloud.storage.Storage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class GcsObjectStorage implements ObjectStorage {
+
+    private final Storage storage;
+    private final GcsProperties gcsProperties;
+
+    @Override
+    public void write(String path, String contentType, InputStream content) throws IOException {
+        var blobInfo = BlobInfo.newBuilder(BlobId.of(gcsProperties.bucketName(), path))
+            .setContentType(contentType)
+            .build();
+
+        // Resumable upload in chunks; the object is committed when the channel closes
+        try (var out = Channels.newOutputStream(storage.writer(blobInfo))) {
+            content.transferTo(out);
+        }
+    }
+
+    @Override
+    public boolean delete(String path) {
+        return storage.delete(BlobId.of(gcsProperties.bucketName(), path));
+    }
+
+    @Override
+    public String signedUrl(String path, Duration validity) {
+        var blobInfo = BlobInfo.newBuilder(gcsProperties.bucketName(), path).build();
+        return storage.signUrl(
+            blobInfo,
+            validity.toMinutes(),
+            TimeUnit.MINUTES,
+            Storage.SignUrlOption.withV4Signature(),
+            Storage.SignUrlOption.httpMethod(HttpMethod.GET)
+        ).toString();
+    }
+}
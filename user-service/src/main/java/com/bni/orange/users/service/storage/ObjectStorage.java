@@ -0,0 +1,27 @@
+package com.bni.orange.users.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Minimal blob store used for profile images. Content is always streamed, never required in memory as a whole.
+ */
+public interface ObjectStorage {
+
+    /**
+     * Writes {@code content} to {@code path}, replacing any existing object. The stream is read to the end
+     * but not closed.
+     */
+    void write(String path, String contentType, InputStream content) throws IOException;
+
+    /**
+     * @return whether an object existed at {@code path}
+     */
+    boolean delete(String path);
+
+    /**
+     * @return a URL granting read access to {@code path} for {@code validity}
+     */
+    String signedUrl(String path, Duration validity);
+}
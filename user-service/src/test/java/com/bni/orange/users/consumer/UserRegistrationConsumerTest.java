@@ -1,25 +1,32 @@
 package com.bni.orange.users.consumer;
 
 import com.bni.orange.users.model.entity.UserProfile;
+import com.bni.orange.users.model.enums.SyncStatus;
 import com.bni.orange.users.proto.UserRegisteredEvent;
-import com.bni.orange.users.repository.UserProfileRepository;
+import com.bni.orange.users.repository.UserProfileBatchRepository;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,152 +34,226 @@ import static org.mockito.Mockito.when;
 @DisplayName("UserRegistrationConsumer Tests")
 class UserRegistrationConsumerTest {
 
+    private static final String TOPIC = "auth.user.registered";
+
     @Mock
-    private UserProfileRepository profileRepository;
+    private UserProfileBatchRepository profileBatchRepository;
 
     @Mock
     private Acknowledgment acknowledgment;
 
-    @InjectMocks
     private UserRegistrationConsumer consumer;
+    private SimpleMeterRegistry meterRegistry;
 
     private UUID testUserId;
     private String testPhoneNumber;
     private String testName;
     private long testRegisteredAt;
+    private long nextOffset;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new UserRegistrationConsumer(profileBatchRepository, meterRegistry);
+
         testUserId = UUID.randomUUID();
         testPhoneNumber = "+628123456789";
         testName = "Test User";
         testRegisteredAt = Instant.now().getEpochSecond();
     }
 
-    @Test
-    @DisplayName("Should create user profile successfully when event is valid")
-    void handleUserRegistered_Success() throws Exception {
-        var event = UserRegisteredEvent.newBuilder()
-            .setUserId(testUserId.toString())
+    private ConsumerRecord<String, byte[]> record(byte[] payload) {
+        return new ConsumerRecord<>(TOPIC, 0, nextOffset++, null, payload);
+    }
+
+    private ConsumerRecord<String, byte[]> record(UserRegisteredEvent event) {
+        return record(event.toByteArray());
+    }
+
+    private UserRegisteredEvent.Builder event(UUID userId, String name) {
+        return UserRegisteredEvent.newBuilder()
+            .setUserId(userId.toString())
             .setPhoneNumber(testPhoneNumber)
-            .setName(testName)
-            .setRegisteredAt(testRegisteredAt)
+            .setName(name)
+            .setRegisteredAt(testRegisteredAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<UserProfile> insertedProfiles() {
+        ArgumentCaptor<List<UserProfile>> captor = ArgumentCaptor.forClass(List.class);
+        verify(profileBatchRepository).insertIgnoringExisting(captor.capture());
+        return captor.getValue();
+    }
+
+    private double recordCount(String outcome) {
+        return meterRegistry.get("user.registration.records").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should insert synced profiles and acknowledge the batch when events are valid")
+    void handleUserRegistered_Success() {
+        var event = event(testUserId, testName)
             .setPhoneVerified(true)
             .setEmailVerified(true)
             .build();
+        when(profileBatchRepository.insertIgnoringExisting(anyList())).thenReturn(1);
 
-        when(profileRepository.existsById(testUserId)).thenReturn(false);
-        when(profileRepository.save(any(UserProfile.class))).thenAnswer(inv -> inv.getArgument(0));
-
-        consumer.handleUserRegistered(
-            event.toByteArray(),
-            testUserId.toString(),
-            0,
-            100L,
-            acknowledgment
-        );
+        consumer.handleUserRegistered(List.of(record(event)), acknowledgment);
 
-        var profileCaptor = ArgumentCaptor.forClass(UserProfile.class);
-        verify(profileRepository).save(profileCaptor.capture());
+        var profiles = insertedProfiles();
         verify(acknowledgment).acknowledge();
 
-        var savedProfile = profileCaptor.getValue();
+        assertThat(profiles).hasSize(1);
+        var savedProfile = profiles.getFirst();
         assertThat(savedProfile.getId()).isEqualTo(testUserId);
         assertThat(savedProfile.getName()).isEqualTo(testName);
         assertThat(savedProfile.getPhoneNumber()).isEqualTo(testPhoneNumber);
+        assertThat(savedProfile.getEmail()).isNull();
         assertThat(savedProfile.getPhoneVerifiedAt()).isNotNull();
         assertThat(savedProfile.getEmailVerifiedAt()).isNotNull();
+        assertThat(savedProfile.getSyncStatus()).isEqualTo(SyncStatus.SYNCED);
+        assertThat(meterRegistry.get("user.registration.batch").timer().count()).isEqualTo(1);
+        assertThat(recordCount("inserted")).isEqualTo(1.0);
     }
 
     @Test
-    @DisplayName("Should skip creation when profile already exists (idempotency)")
-    void handleUserRegistered_AlreadyExists() throws Exception {
-        var event = UserRegisteredEvent.newBuilder()
-            .setUserId(testUserId.toString())
-            .setPhoneNumber(testPhoneNumber)
-            .setName(testName)
-            .setRegisteredAt(testRegisteredAt)
-            .build();
+    @DisplayName("Should keep only the latest event per user within a batch")
+    void handleUserRegistered_DeduplicatesWithinBatch() {
+        var otherUserId = UUID.randomUUID();
+        when(profileBatchRepository.insertIgnoringExisting(anyList())).thenReturn(2);
+
+        consumer.handleUserRegistered(List.of(
+            record(event(testUserId, "First Name").build()),
+            record(event(otherUserId, "Other User").setPhoneNumber("+628111111111").build()),
+            record(event(testUserId, "Latest Name").build())
+        ), acknowledgment);
+
+        var profiles = insertedProfiles();
+        assertThat(profiles).extracting(UserProfile::getId).containsExactly(testUserId, otherUserId);
+        assertThat(profiles.getFirst().getName()).isEqualTo("Latest Name");
+        assertThat(recordCount("duplicate")).isEqualTo(1.0);
+        verify(acknowledgment).acknowledge();
+    }
 
-        when(profileRepository.existsById(testUserId)).thenReturn(true);
+    @Test
+    @DisplayName("Should count existing profiles as duplicates and still acknowledge")
+    void handleUserRegistered_AlreadyExists() {
+        when(profileBatchRepository.insertIgnoringExisting(anyList())).thenReturn(0);
 
-        consumer.handleUserRegistered(
-            event.toByteArray(),
-            testUserId.toString(),
-            0,
-            100L,
-            acknowledgment
-        );
+        consumer.handleUserRegistered(List.of(record(event(testUserId, testName).build())), acknowledgment);
 
-        verify(profileRepository, never()).save(any());
         verify(acknowledgment).acknowledge();
+        assertThat(recordCount("inserted")).isZero();
+        assertThat(recordCount("duplicate")).isEqualTo(1.0);
     }
 
     @Test
-    @DisplayName("Should acknowledge and skip when userId is invalid")
-    void handleUserRegistered_InvalidUserId() throws Exception {
-        var event = UserRegisteredEvent.newBuilder()
+    @DisplayName("Should persist the records before an invalid userId or payload and report it for the DLT")
+    void handleUserRegistered_SkipsInvalidRecords() {
+        var invalidUserId = UserRegisteredEvent.newBuilder()
             .setUserId("invalid-uuid")
             .setPhoneNumber(testPhoneNumber)
             .setName(testName)
             .setRegisteredAt(testRegisteredAt)
             .build();
+        when(profileBatchRepository.insertIgnoringExisting(anyList())).thenReturn(1);
 
-        consumer.handleUserRegistered(
-            event.toByteArray(),
-            "invalid-uuid",
-            0,
-            100L,
-            acknowledgment
-        );
+        assertThatThrownBy(() -> consumer.handleUserRegistered(List.of(
+            record(event(testUserId, testName).build()),
+            record(invalidUserId),
+            record(event(UUID.randomUUID(), testName).build())
+        ), acknowledgment))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> {
+                assertThat(e.getIndex()).isEqualTo(1);
+                assertThat(e.getCause()).isInstanceOf(IllegalArgumentException.class);
+            });
 
-        verify(profileRepository, never()).save(any());
-        verify(acknowledgment).acknowledge();
+        assertThat(insertedProfiles()).extracting(UserProfile::getId).containsExactly(testUserId);
+        assertThat(recordCount("inserted")).isEqualTo(1.0);
+        assertThat(recordCount("invalid")).isEqualTo(1.0);
+        verify(acknowledgment, never()).acknowledge();
     }
 
     @Test
-    @DisplayName("Should throw exception when protobuf is invalid")
-    void handleUserRegistered_InvalidProtobuf() {
-        var invalidPayload = "not-a-protobuf".getBytes();
+    @DisplayName("Should report an unparseable payload for the DLT")
+    void handleUserRegistered_UnparseablePayload_ReportsRecord() {
+        when(profileBatchRepository.insertIgnoringExisting(anyList())).thenReturn(1);
 
-        assertThatThrownBy(() ->
-            consumer.handleUserRegistered(
-                invalidPayload,
-                testUserId.toString(),
-                0,
-                100L,
-                acknowledgment
-            )
-        ).isInstanceOf(RuntimeException.class)
-         .hasMessageContaining("Invalid protobuf message");
+        assertThatThrownBy(() -> consumer.handleUserRegistered(List.of(
+            record(event(testUserId, testName).build()),
+            record("not-a-protobuf".getBytes())
+        ), acknowledgment))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> {
+                assertThat(e.getIndex()).isEqualTo(1);
+                assertThat(e.getCause()).isInstanceOf(InvalidProtocolBufferException.class);
+            });
 
+        assertThat(insertedProfiles()).extracting(UserProfile::getId).containsExactly(testUserId);
         verify(acknowledgment, never()).acknowledge();
     }
 
     @Test
-    @DisplayName("Should throw exception when database operation fails")
-    void handleUserRegistered_DatabaseError() throws Exception {
-        var event = UserRegisteredEvent.newBuilder()
-            .setUserId(testUserId.toString())
-            .setPhoneNumber(testPhoneNumber)
-            .setName(testName)
-            .setRegisteredAt(testRegisteredAt)
-            .build();
+    @DisplayName("Should report events rejected by a table constraint or with a blank name for the DLT")
+    void handleUserRegistered_SkipsConstraintViolations() {
+        var malformedPhoneUserId = UUID.randomUUID();
+        when(profileBatchRepository.insertIgnoringExisting(anyList())).thenAnswer(invocation -> {
+            List<UserProfile> profiles = invocation.getArgument(0);
+            if (profiles.stream().anyMatch(profile -> profile.getId().equals(malformedPhoneUserId))) {
+                throw new DataIntegrityViolationException("new row violates check constraint \"chk_phone_format\"");
+            }
+            return profiles.size();
+        });
+
+        assertThatThrownBy(() -> consumer.handleUserRegistered(List.of(
+            record(event(testUserId, testName).build()),
+            record(event(malformedPhoneUserId, testName).setPhoneNumber("08123").build()),
+            record(event(UUID.randomUUID(), " ").build())
+        ), acknowledgment))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                e -> assertThat(e.getIndex()).isEqualTo(1));
 
-        when(profileRepository.existsById(testUserId)).thenReturn(false);
-        when(profileRepository.save(any(UserProfile.class)))
+        assertThatThrownBy(() -> consumer.handleUserRegistered(List.of(
+            record(event(UUID.randomUUID(), " ").build())
+        ), acknowledgment))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                e -> assertThat(e.getIndex()).isZero());
+
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should fall back to row inserts and report the colliding record when the batch hits a constraint")
+    void handleUserRegistered_ConstraintViolation_ReportsFailingRecord() {
+        var otherUserId = UUID.randomUUID();
+        when(profileBatchRepository.insertIgnoringExisting(anyList())).thenAnswer(invocation -> {
+            List<UserProfile> profiles = invocation.getArgument(0);
+            if (profiles.size() > 1 || profiles.getFirst().getId().equals(otherUserId)) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            return 1;
+        });
+
+        assertThatThrownBy(() -> consumer.handleUserRegistered(List.of(
+            record(event(testUserId, testName).build()),
+            record(event(otherUserId, "Other User").build())
+        ), acknowledgment))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                e -> assertThat(e.getIndex()).isEqualTo(1));
+
+        verify(profileBatchRepository, times(3)).insertIgnoringExisting(anyList());
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Should not acknowledge the batch when the insert fails")
+    void handleUserRegistered_DatabaseError() {
+        when(profileBatchRepository.insertIgnoringExisting(anyList()))
             .thenThrow(new RuntimeException("Database connection error"));
 
         assertThatThrownBy(() ->
-            consumer.handleUserRegistered(
-                event.toByteArray(),
-                testUserId.toString(),
-                0,
-                100L,
-                acknowledgment
-            )
+            consumer.handleUserRegistered(List.of(record(event(testUserId, testName).build())), acknowledgment)
         ).isInstanceOf(RuntimeException.class)
-         .hasMessageContaining("Failed to process user registration event");
+         .hasMessageContaining("Database connection error");
 
         verify(acknowledgment, never()).acknowledge();
     }
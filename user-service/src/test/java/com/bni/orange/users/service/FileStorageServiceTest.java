@@ -0,0 +1,201 @@
+package com.bni.orange.users.service;
+
+import com.bni.orange.users.config.properties.GcsProperties;
+import com.bni.orange.users.config.properties.ProfileImageProperties;
+import com.bni.orange.users.error.BusinessException;
+import com.bni.orange.users.error.ErrorCode;
+import com.bni.orange.users.model.enums.ProfileImageRendition;
+import com.bni.orange.users.service.image.ProfileImageProcessor;
+import com.bni.orange.users.service.redis.SignedUrlCache;
+import com.bni.orange.users.service.storage.LocalObjectStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FileStorageService Tests")
+class FileStorageServiceTest {
+
+    @TempDir
+    private Path storageRoot;
+
+    @Mock
+    private SignedUrlCache signedUrlCache;
+
+    private ExecutorService executor;
+    private LocalObjectStorage objectStorage;
+    private FileStorageService fileStorageService;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        objectStorage = new LocalObjectStorage(storageRoot);
+        var gcsProperties = new GcsProperties("bucket", null, 60, 5, "sa@example.com", true);
+        var imageProperties = new ProfileImageProperties(1, 1, 10, 4_000_000L, 0.85f);
+        fileStorageService = new FileStorageService(
+            objectStorage,
+            new ProfileImageProcessor(executor, imageProperties),
+            gcsProperties,
+            signedUrlCache
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should store the original with a thumbnail and medium rendition")
+    void uploadProfileImage_decodableImage_storesRenditions() throws IOException {
+        var original = image(1600, 1200, "png");
+
+        var path = fileStorageService.uploadProfileImage(
+            new MockMultipartFile("file", "avatar.png", "image/png", original), userId);
+
+        assertThat(path).startsWith("profiles/" + userId + "/").endsWith("/original.png");
+        assertThat(Files.readAllBytes(objectStorage.resolve(path))).isEqualTo(original);
+
+        var thumbnail = read(fileStorageService.renditionPath(path, ProfileImageRendition.THUMBNAIL));
+        assertThat(thumbnail.getWidth()).isEqualTo(128);
+        assertThat(thumbnail.getHeight()).isEqualTo(128);
+
+        var medium = read(fileStorageService.renditionPath(path, ProfileImageRendition.MEDIUM));
+        assertThat(medium.getWidth()).isEqualTo(512);
+        assertThat(medium.getHeight()).isEqualTo(512);
+    }
+
+    @Test
+    @DisplayName("Should not upscale images smaller than a rendition")
+    void uploadProfileImage_smallImage_keepsSourceSize() throws IOException {
+        var path = fileStorageService.uploadProfileImage(
+            new MockMultipartFile("file", "avatar.jpg", "image/jpeg", image(300, 200, "jpg")), userId);
+
+        var medium = read(fileStorageService.renditionPath(path, ProfileImageRendition.MEDIUM));
+        assertThat(medium.getWidth()).isEqualTo(200);
+        assertThat(medium.getHeight()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should crop panoramas to their centred square")
+    void uploadProfileImage_wideImage_rendersSquare() throws IOException {
+        var path = fileStorageService.uploadProfileImage(
+            new MockMultipartFile("file", "avatar.png", "image/png", image(3000, 400, "png")), userId);
+
+        var medium = read(fileStorageService.renditionPath(path, ProfileImageRendition.MEDIUM));
+        assertThat(medium.getWidth()).isEqualTo(400);
+        assertThat(medium.getHeight()).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("Should reject images over the pixel limit before decoding or storing them")
+    void uploadProfileImage_overPixelLimit_throws() throws IOException {
+        var file = new MockMultipartFile("file", "avatar.png", "image/png", image(2100, 2000, "png"));
+
+        assertThatThrownBy(() -> fileStorageService.uploadProfileImage(file, userId))
+            .isInstanceOf(BusinessException.class)
+            .extracting(e -> ((BusinessException) e).getErrorCode())
+            .isEqualTo(ErrorCode.FILE_TOO_LARGE);
+        assertThat(storageRoot).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Should keep only the original when no decoder understands the image")
+    void uploadProfileImage_undecodableImage_storesOriginalOnly() throws IOException {
+        var content = "RIFF0000WEBPVP8 not-really-an-image".getBytes();
+
+        var path = fileStorageService.uploadProfileImage(
+            new MockMultipartFile("file", "avatar.webp", "image/webp", content), userId);
+
+        assertThat(path).startsWith("profiles/" + userId + "/").endsWith(".webp").doesNotContain("original");
+        assertThat(Files.readAllBytes(objectStorage.resolve(path))).isEqualTo(content);
+        assertThat(fileStorageService.renditionPath(path, ProfileImageRendition.THUMBNAIL)).isEqualTo(path);
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported content types before touching storage")
+    void uploadProfileImage_invalidType_throws() {
+        var file = new MockMultipartFile("file", "avatar.gif", "image/gif", new byte[]{1, 2, 3});
+
+        assertThatThrownBy(() -> fileStorageService.uploadProfileImage(file, userId))
+            .isInstanceOf(BusinessException.class)
+            .extracting(e -> ((BusinessException) e).getErrorCode())
+            .isEqualTo(ErrorCode.INVALID_FILE_TYPE);
+        assertThat(storageRoot).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Should delete the original together with its renditions")
+    void deleteProfileImage_removesRenditions() throws IOException {
+        var path = fileStorageService.uploadProfileImage(
+            new MockMultipartFile("file", "avatar.png", "image/png", image(800, 800, "png")), userId);
+
+        fileStorageService.deleteProfileImage(path);
+
+        assertThat(objectStorage.resolve(path)).doesNotExist();
+        for (var rendition : ProfileImageRendition.values()) {
+            var renditionPath = fileStorageService.renditionPath(path, rendition);
+            assertThat(objectStorage.resolve(renditionPath)).doesNotExist();
+            verify(signedUrlCache).invalidate(renditionPath);
+        }
+        verify(signedUrlCache).invalidate(path);
+    }
+
+    @Test
+    @DisplayName("Should sign the requested rendition, falling back to the original for legacy paths")
+    @SuppressWarnings("unchecked")
+    void generateSignedUrl_resolvesRendition() {
+        when(signedUrlCache.get(anyString(), any(), any()))
+            .thenAnswer(invocation -> ((Supplier<String>) invocation.getArgument(2)).get());
+        var path = "profiles/" + userId + "/" + UUID.randomUUID() + "/original.png";
+        var legacyPath = "profiles/" + userId + ".jpg";
+
+        assertThat(fileStorageService.generateSignedUrl(path, ProfileImageRendition.THUMBNAIL))
+            .contains(path.replace("original.png", "thumbnail.jpg"));
+        assertThat(fileStorageService.generateSignedUrl(legacyPath, ProfileImageRendition.THUMBNAIL))
+            .contains(legacyPath);
+    }
+
+    private BufferedImage read(String path) throws IOException {
+        return ImageIO.read(objectStorage.resolve(path).toFile());
+    }
+
+    private static byte[] image(int width, int height, String format) throws IOException {
+        var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        var graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+
+        var bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, format, bytes);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,117 @@
+package com.bni.orange.users.service;
+
+import com.bni.orange.shared.kafka.EventPublisher;
+import com.bni.orange.shared.redis.OneTimeCodeStore;
+import com.bni.orange.users.config.properties.KafkaTopicProperties;
+import com.bni.orange.users.config.properties.RedisPrefixProperties;
+import com.bni.orange.users.error.BusinessException;
+import com.bni.orange.users.error.ErrorCode;
+import com.bni.orange.users.model.enums.TokenType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VerificationServiceTest {
+
+    private static final RedisPrefixProperties REDIS_PROPERTIES = new RedisPrefixProperties(new RedisPrefixProperties.Prefix(
+        "otp_email:", "otp_phone:", "otp_email_cooldown:", "otp_phone_cooldown:",
+        "otp_email_fail:", "otp_phone_fail:", "otp_email_locked:", "otp_phone_locked:"));
+
+    private static final KafkaTopicProperties TOPIC_PROPERTIES = new KafkaTopicProperties(Map.of(
+        "otp-email-notification", new KafkaTopicProperties.TopicConfig("notification.otp.email", 3, 1, false),
+        "otp-whatsapp-notification", new KafkaTopicProperties.TopicConfig("notification.otp.whatsapp", 3, 1, false)));
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private EventPublisher eventPublisher;
+    @Mock
+    private OneTimeCodeStore oneTimeCodeStore;
+
+    private VerificationService verificationService;
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        verificationService = new VerificationService(
+            redisTemplate, eventPublisher, TOPIC_PROPERTIES, REDIS_PROPERTIES, oneTimeCodeStore);
+    }
+
+    @Test
+    void generateEmailOtp_whenIssued_shouldStorePendingEmailAndPublish() {
+        var keys = new OneTimeCodeStore.Keys("otp_email:" + userId, "otp_email_locked:" + userId,
+            "otp_email_fail:" + userId, "otp_email:" + userId + ":ratelimit", "otp_email:" + userId + ":meta");
+        when(oneTimeCodeStore.issue(eq(keys), anyString(), eq(Duration.ofMinutes(5)), eq(Duration.ofMinutes(15)), eq(3), eq("new@mail.com")))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.OK, 0, null));
+
+        verificationService.generateEmailOtp(userId, "new@mail.com");
+
+        verify(eventPublisher).publish(eq("notification.otp.email"), eq(userId.toString()), any());
+    }
+
+    @Test
+    void generatePhoneOtp_whenThrottled_shouldThrowRateLimitWithoutPublishing() {
+        when(oneTimeCodeStore.issue(any(), anyString(), any(), any(), anyInt(), eq("+6281234567890")))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.THROTTLED, 600, null));
+
+        var exception = assertThrows(BusinessException.class,
+            () -> verificationService.generatePhoneOtp(userId, "+6281234567890"));
+
+        assertEquals(ErrorCode.RATE_LIMIT_EXCEEDED, exception.getErrorCode());
+        verify(eventPublisher, never()).publish(anyString(), anyString(), any());
+    }
+
+    @Test
+    void verifyOtp_whenMatched_shouldReturnPendingValue() {
+        var keys = new OneTimeCodeStore.Keys("otp_phone:" + userId, "otp_phone_locked:" + userId,
+            "otp_phone_fail:" + userId, "otp_phone:" + userId + ":ratelimit", "otp_phone:" + userId + ":meta");
+        when(oneTimeCodeStore.verify(keys, "123456", 5, Duration.ofMinutes(15), false))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.OK, 0, "+6281234567890"));
+
+        var pending = verificationService.verifyOtp(userId, TokenType.PHONE, "123456");
+
+        assertEquals("+6281234567890", pending);
+    }
+
+    @Test
+    void verifyOtp_whenMismatched_shouldThrowInvalidWithAttemptsLeft() {
+        when(oneTimeCodeStore.verify(any(), eq("000000"), anyInt(), any(), eq(false)))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.MISMATCH, 2, null));
+
+        var exception = assertThrows(BusinessException.class,
+            () -> verificationService.verifyOtp(userId, TokenType.EMAIL, "000000"));
+
+        assertEquals(ErrorCode.OTP_INVALID, exception.getErrorCode());
+        assertEquals("Invalid OTP code. 2 attempts remaining", exception.getMessage());
+    }
+
+    @Test
+    void verifyOtp_whenLastAttemptFails_shouldThrowLocked() {
+        when(oneTimeCodeStore.verify(any(), eq("000000"), anyInt(), any(), eq(false)))
+            .thenReturn(new OneTimeCodeStore.Result(OneTimeCodeStore.Outcome.JUST_LOCKED, 900, null));
+
+        var exception = assertThrows(BusinessException.class,
+            () -> verificationService.verifyOtp(userId, TokenType.EMAIL, "000000"));
+
+        assertEquals(ErrorCode.OTP_LOCKED, exception.getErrorCode());
+        assertEquals(Map.of("lockedUntilSeconds", 900L), exception.getDetails());
+    }
+}
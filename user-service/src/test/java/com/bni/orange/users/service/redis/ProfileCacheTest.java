@@ -0,0 +1,105 @@
+package com.bni.orange.users.service.redis;
+
+import com.bni.orange.users.config.properties.ProfileCacheProperties;
+import com.bni.orange.users.model.response.UserProfileResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProfileCache Tests")
+class ProfileCacheTest {
+
+    private static final String PHONE = "+628123456789";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ProfileCache cache;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProfileCache(redisTemplate, new ObjectMapper(),
+            new ProfileCacheProperties(true, 100, Duration.ofSeconds(30), Duration.ofMinutes(10)),
+            new SimpleMeterRegistry());
+        userId = UUID.randomUUID();
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private UserProfileResponse profile(String name) {
+        return UserProfileResponse.builder().id(userId).name(name).phoneNumber(PHONE).build();
+    }
+
+    private void evictionSequenceAt(String value) {
+        // lenient: lookups read other keys from the same mock
+        lenient().when(valueOperations.get("users:profile:eviction-seq")).thenReturn(value);
+    }
+
+    private void evictionBroadcast() {
+        cache.onMessage(new DefaultMessage(
+            ProfileCache.EVICTION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+            userId.toString().getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    @Test
+    @DisplayName("Should drop a read-through put whose ticket predates an eviction")
+    void put_AfterEviction_DropsStaleValue() {
+        evictionSequenceAt("7");
+        var ticket = cache.loadTicket();
+
+        evictionBroadcast();
+        cache.put(profile("Before Write"), ticket);
+
+        assertThat(cache.getById(userId)).isEmpty();
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), eq("7"), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should keep a put whose ticket was taken after the eviction")
+    void put_TicketAfterEviction_CachesValue() {
+        evictionBroadcast();
+        evictionSequenceAt("8");
+
+        cache.put(profile("After Write"), cache.loadTicket());
+
+        assertThat(cache.getById(userId)).get().extracting(UserProfileResponse::getName).isEqualTo("After Write");
+        assertThat(cache.getByPhone(PHONE)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should drop the user's phone index entries on eviction")
+    void evict_DropsPhoneIndex() {
+        evictionSequenceAt("1");
+        cache.put(profile("Cached"), cache.loadTicket());
+
+        evictionBroadcast();
+
+        assertThat(cache.getByPhone(PHONE)).isEmpty();
+        verify(valueOperations).get("users:profile:phone:" + PHONE);
+    }
+}
@@ -0,0 +1,46 @@
+package com.bni.orange.users.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+
+/**
+ * Filesystem stand-in for GCS: objects are files under {@code root} and signed URLs are plain file URIs.
+ */
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final Path root;
+
+    public LocalObjectStorage(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public void write(String path, String contentType, InputStream content) throws IOException {
+        var target = resolve(path);
+        Files.createDirectories(target.getParent());
+        Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public boolean delete(String path) {
+        try {
+            return Files.deleteIfExists(resolve(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String signedUrl(String path, Duration validity) {
+        return resolve(path).toUri() + "?expiresInMinutes=" + validity.toMinutes();
+    }
+
+    public Path resolve(String path) {
+        return root.resolve(path);
+    }
+}
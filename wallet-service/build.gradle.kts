@@ -40,6 +40,7 @@ dependencies {
     annotationProcessor("org.mapstruct:mapstruct-processor:1.6.3")
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("org.springframework.kafka:spring-kafka")
+    implementation("com.bni.orange:kafka-publisher")
     implementation("org.xerial.snappy:snappy-java:1.1.10.5")
     implementation("org.springframework.boot:spring-boot-starter-mail")
 
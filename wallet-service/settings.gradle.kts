@@ -1 +1,4 @@
-rootProject.name = "wallet-service"
\ No newline at end of file
+rootProject.name = "wallet-service"
+
+// Shared Kafka publisher, built from source together with this service
+includeBuild("../shared/kafka-publisher")
@@ -15,6 +15,9 @@ import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -84,6 +87,39 @@ public class UserClient {
         }
     }
 
+    /**
+     * Resolves many users in one call; ids unknown to user-service are absent from the result.
+     */
+    public List<UserProfileResponse> findUsersByIds(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        log.info("Fetching {} user profiles in batch", userIds.size());
+        var context = "find users by ids: " + userIds.size();
+
+        try {
+            return userWebClient.post()
+                .uri("/internal/v1/user/batch")
+                .bodyValue(Map.of("ids", userIds))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, handleClientError(context))
+                .onStatus(HttpStatusCode::is5xxServerError, handleServerError(context))
+                .bodyToMono(new ParameterizedTypeReference<ApiResponse<List<UserProfileResponse>>>() {
+                })
+                .timeout(REQUEST_TIMEOUT)
+                .retryWhen(buildRetrySpec(context))
+                .map(ApiResponse::getData)
+                .doOnSuccess(users -> log.info("Successfully fetched {} of {} users", users.size(), userIds.size()))
+                .doOnError(err -> handleError(context, err))
+                .block();
+        } catch (ExternalServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Unexpected error for {}: {}", context, e.getMessage(), e);
+            throw ExternalServiceException.userServiceNotAvailable(e.getMessage());
+        }
+    }
+
     private Function<ClientResponse, Mono<? extends Throwable>> handleClientError(String context) {
         return response -> response.bodyToMono(String.class)
             .switchIfEmpty(Mono.just("[no body]"))
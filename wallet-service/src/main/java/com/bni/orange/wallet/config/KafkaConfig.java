@@ -1,12 +1,16 @@
 package com.bni.orange.wallet.config;
 
+import com.bni.orange.shared.kafka.EventPublisher;
 import com.bni.orange.wallet.config.properties.KafkaConsumerProperties;
 import com.bni.orange.wallet.config.properties.KafkaProducerProperties;
 import com.bni.orange.wallet.config.properties.KafkaTopicProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,6 +21,9 @@ import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -33,6 +40,9 @@ import java.util.concurrent.Executors;
 })
 public class KafkaConfig {
 
+    private static final int BATCH_MAX_RETRIES = 5;
+    private static final String DLT_SUFFIX = "-wallet-service-dlt";
+
     private final KafkaProducerProperties producerProps;
     private final KafkaConsumerProperties consumerProps;
 
@@ -73,6 +83,16 @@ public class KafkaConfig {
         return Executors.newVirtualThreadPerTaskExecutor();
     }
 
+    @Bean
+    public EventPublisher eventPublisher(
+        KafkaTemplate<String, byte[]> kafkaTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${orange.kafka.publisher.max-in-flight:1000}") int maxInFlight,
+        @Value("${orange.kafka.publisher.acquire-timeout-ms:100}") long acquireTimeoutMs
+    ) {
+        return new EventPublisher(kafkaTemplate, kafkaVirtualThreadExecutor(), meterRegistry, maxInFlight, acquireTimeoutMs);
+    }
+
     @Bean
     public Map<String, Object> consumerConfigs() {
         Map<String, Object> props = new HashMap<>();
@@ -110,4 +130,33 @@ public class KafkaConfig {
             consumerProps.concurrency());
         return factory;
     }
+
+    /**
+     * Delivers each poll as one list; offsets are committed once the listener returns. A listener failure
+     * rewinds and redelivers the batch with backoff, so batch listeners must be idempotent. After
+     * {@value #BATCH_MAX_RETRIES} retries the records are published to {@code <topic>}{@value #DLT_SUFFIX}
+     * and skipped; a {@code BatchListenerFailedException} narrows that to the one failing record.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(consumerProps.concurrency());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.getContainerProperties().setObservationEnabled(true);
+
+        var backOff = new ExponentialBackOffWithMaxRetries(BATCH_MAX_RETRIES);
+        backOff.setInitialInterval(1000L);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(30_000L);
+        var recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate(),
+            (record, exception) -> new TopicPartition(record.topic() + DLT_SUFFIX, -1));
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+
+        log.info("Kafka batch consumer factory configured with up to {} records per batch",
+            consumerProps.maxPollRecords());
+        return factory;
+    }
 }
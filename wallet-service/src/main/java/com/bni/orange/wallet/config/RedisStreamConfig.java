@@ -0,0 +1,25 @@
+package com.bni.orange.wallet.config;
+
+import com.bni.orange.wallet.messaging.stream.BalanceStreamPublisher;
+import com.bni.orange.wallet.messaging.stream.BalanceStreamRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class RedisStreamConfig {
+
+    @Bean
+    public RedisMessageListenerContainer balanceStreamListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            BalanceStreamRegistry registry
+    ) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(registry, new ChannelTopic(BalanceStreamPublisher.CHANNEL));
+        container.addMessageListener(registry, new ChannelTopic(BalanceStreamPublisher.REVOKED_CHANNEL));
+        return container;
+    }
+}
@@ -11,6 +11,9 @@ import com.bni.orange.wallet.service.command.WalletCommandService;
 import com.bni.orange.wallet.service.query.WalletQueryService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -24,8 +27,10 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.net.URI;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -57,9 +62,11 @@ public class WalletController {
   @PreAuthorize("hasAuthority('SCOPE_FULL_ACCESS')")
   public ResponseEntity<ApiResponse<List<WalletListItemResponse>>> listMyWallets(
       @RequestParam(defaultValue="0") @Min(0) int page,
-      @RequestParam(defaultValue="20") @Min(1) int size
+      @RequestParam(defaultValue="20") @Min(1) int size,
+      @RequestParam(required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime cursorSortAt,
+      @RequestParam(required=false) UUID cursorId
   ) {
-    var list = query.listMyWallets(page, size);
+    var list = query.listMyWallets(page, size, cursorSortAt, cursorId);
     return ResponseEntity.ok(ApiResponse.ok("OK", list));
   }
 
@@ -86,6 +93,15 @@ public class WalletController {
     var dto = query.getBalance(walletId);
     return ResponseEntity.ok(ApiResponse.ok("OK", dto));
   }
+
+  @GetMapping(value = "/wallets/balances/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("hasAuthority('SCOPE_FULL_ACCESS')")
+  public SseEmitter streamBalances(
+      @RequestParam(value = "walletId", required = false) @Size(max = 50) List<UUID> walletIds
+  ) {
+    return query.streamBalances(walletIds);
+  }
+
   @DeleteMapping("/wallets/{walletId}")
   @PreAuthorize("hasAuthority('SCOPE_FULL_ACCESS')")
   public ResponseEntity<ApiResponse<WalletDeleteResultResponse>> deleteWallet(
@@ -13,6 +13,7 @@ import lombok.Value;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public class DomainEvents {
@@ -80,4 +81,34 @@ public class DomainEvents {
         UUID walletId;
     }
 
-}
\ No newline at end of file
+    /**
+     * A member was removed, left, or moved out of ACTIVE, and must stop seeing the wallet.
+     */
+    @Value
+    @Builder
+    public static class WalletMemberAccessRevoked {
+        UUID walletId;
+        UUID userId;
+    }
+
+    @Value
+    @Builder
+    public static class WalletBalanceChanged {
+        UUID walletId;
+        BigDecimal previousBalance;
+        BigDecimal newBalance;
+        BigDecimal delta;
+        OffsetDateTime occurredAt;
+    }
+
+    /**
+     * Default wallets created in bulk whose read model was already projected in the same transaction;
+     * only the outbound WalletCreated messages remain to be sent.
+     */
+    @Value
+    @Builder
+    public static class DefaultWalletsProvisioned {
+        List<WalletCreated> wallets;
+    }
+
+}
@@ -1,12 +1,12 @@
 package com.bni.orange.wallet.messaging;
 
+import com.bni.orange.shared.kafka.EventPublisher;
 import com.bni.orange.wallet.config.properties.KafkaTopicProperties;
 import com.bni.orange.wallet.proto.EventEnvelope;
 import com.google.protobuf.Any;
 import com.google.protobuf.util.Timestamps;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.producer.ProducerRecord;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
@@ -17,7 +17,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class WalletEventPublisher {
 
-  private final KafkaTemplate<String, byte[]> template;
+  private final EventPublisher eventPublisher;
   private final KafkaTopicProperties topicProperties;
   
   public void publish(String topic, String key, com.google.protobuf.Message payload, String eventType, int version) {
@@ -38,7 +38,7 @@ public class WalletEventPublisher {
     record.headers().add("eventType", eventType.getBytes(StandardCharsets.UTF_8));
     record.headers().add("eventVersion", String.valueOf(version).getBytes(StandardCharsets.UTF_8));
 
-    template.send(record);
+    eventPublisher.send(record);
   }
 
   public void publishWalletCreated(String walletId, com.google.protobuf.Message walletCreatedPayload) {
@@ -1,12 +1,18 @@
 package com.bni.orange.wallet.messaging.aftercommit;
 
+import com.bni.orange.wallet.domain.DomainEvents.DefaultWalletsProvisioned;
+import com.bni.orange.wallet.domain.DomainEvents.WalletBalanceChanged;
 import com.bni.orange.wallet.domain.DomainEvents.WalletCreated;
 import com.bni.orange.wallet.domain.DomainEvents.WalletInviteAccepted;
 import com.bni.orange.wallet.domain.DomainEvents.WalletInviteLinkGenerated;
+import com.bni.orange.wallet.domain.DomainEvents.WalletMemberAccessRevoked;
 import com.bni.orange.wallet.domain.DomainEvents.WalletMemberInvited;
 import com.bni.orange.wallet.domain.DomainEvents.WalletMembersCleared;
 import com.bni.orange.wallet.domain.DomainEvents.WalletUpdated;
 import com.bni.orange.wallet.messaging.WalletEventPublisher;
+import com.bni.orange.wallet.messaging.stream.BalanceStreamPublisher;
+import com.bni.orange.wallet.model.response.stream.BalanceChangedMessage;
+import com.bni.orange.wallet.model.response.stream.MemberAccessRevokedMessage;
 import com.bni.orange.wallet.proto.WalletCreatedEvent;
 import com.bni.orange.wallet.proto.WalletInviteAcceptedEvent;
 import com.bni.orange.wallet.proto.WalletInviteLinkGeneratedEvent;
@@ -27,6 +33,7 @@ public class WalletAfterCommitListener {
 
     private final WalletEventPublisher publisher;
     private final WalletReadModelProjector readModelProjector;
+    private final BalanceStreamPublisher balanceStreamPublisher;
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onWalletCreated(WalletCreated e) {
@@ -39,6 +46,16 @@ public class WalletAfterCommitListener {
                 "walletId={}, userId={}, type={}", e.getWalletId(), e.getUserId(), e.getType(), ex);
         }
 
+        publishWalletCreated(e);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDefaultWalletsProvisioned(DefaultWalletsProvisioned e) {
+        log.info("Publishing WalletCreated for {} provisioned default wallets", e.getWallets().size());
+        e.getWallets().forEach(this::publishWalletCreated);
+    }
+
+    private void publishWalletCreated(WalletCreated e) {
         var payload = WalletCreatedEvent.newBuilder()
                 .setWalletId(e.getWalletId().toString())
                 .setUserId(e.getUserId().toString())
@@ -156,4 +173,20 @@ public class WalletAfterCommitListener {
 
         log.info("WalletMembersCleared sent to Kafka: walletId={}", e.getWalletId());
     }
-}
\ No newline at end of file
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onWalletBalanceChanged(WalletBalanceChanged e) {
+        balanceStreamPublisher.publish(new BalanceChangedMessage(
+                e.getWalletId(),
+                e.getPreviousBalance(),
+                e.getNewBalance(),
+                e.getDelta(),
+                e.getOccurredAt()
+        ));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onWalletMemberAccessRevoked(WalletMemberAccessRevoked e) {
+        balanceStreamPublisher.publishRevoked(new MemberAccessRevokedMessage(e.getWalletId(), e.getUserId()));
+    }
+}
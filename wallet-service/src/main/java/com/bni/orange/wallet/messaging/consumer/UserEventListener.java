@@ -1,71 +1,73 @@
 package com.bni.orange.wallet.messaging.consumer;
 
 import com.bni.orange.authentication.proto.UserRegisteredEvent;
-import com.bni.orange.wallet.model.enums.WalletType;
-import com.bni.orange.wallet.model.request.wallet.WalletCreateRequest;
-import com.bni.orange.wallet.service.command.WalletCommandService;
+import com.bni.orange.wallet.service.command.initializer.DefaultWalletProvisioner;
 import com.google.protobuf.InvalidProtocolBufferException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Provisions default wallets for a whole poll of registrations at once. Records that cannot name a user are
+ * skipped; if provisioning fails the batch is redelivered, which is safe because already provisioned users
+ * are skipped on the next attempt.
+ */
 @Slf4j
 @Component
 @Lazy(false)
-@RequiredArgsConstructor
 public class UserEventListener {
 
-    private final WalletCommandService walletCommandService;
+    private final DefaultWalletProvisioner walletProvisioner;
+    private final Timer batchTimer;
 
-    @KafkaListener(topics = "auth.user.registered", groupId = "wallet-service-group")
-    public void handleUserRegistered(byte[] data) {
-        log.info("Received user-registered event from Kafka");
-        try {
-            var event = UserRegisteredEvent.parseFrom(data);
-            var userIdStr = event.getUserId();
+    public UserEventListener(DefaultWalletProvisioner walletProvisioner, MeterRegistry meterRegistry) {
+        this.walletProvisioner = walletProvisioner;
+        this.batchTimer = Timer.builder("wallet.default_provisioning.batch")
+            .description("Time to provision default wallets for one poll of user registrations")
+            .register(meterRegistry);
+    }
 
-            if (userIdStr == null || userIdStr.isEmpty()) {
-                log.error("CRITICAL: User ID is missing from user-registered event. Event will be skipped.");
-                return;
-            }
+    @KafkaListener(
+        topics = "auth.user.registered",
+        groupId = "wallet-service-group",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void handleUserRegistered(List<ConsumerRecord<String, byte[]>> records) {
+        var startedAt = System.nanoTime();
+        var userIds = new LinkedHashSet<UUID>();
 
-            UUID userId;
+        for (var record : records) {
             try {
-                userId = UUID.fromString(userIdStr);
+                var userIdStr = UserRegisteredEvent.parseFrom(record.value()).getUserId();
+                if (userIdStr == null || userIdStr.isEmpty()) {
+                    log.error("CRITICAL: User ID is missing from user-registered event at offset {}. Event will be skipped.",
+                        record.offset());
+                    continue;
+                }
+                userIds.add(UUID.fromString(userIdStr));
+            } catch (InvalidProtocolBufferException e) {
+                log.error("CRITICAL: Failed to parse Protobuf message from topic auth.user.registered at offset {}. " +
+                    "Message will be skipped. Error: {}", record.offset(), e.getMessage(), e);
             } catch (IllegalArgumentException e) {
-                log.error("CRITICAL: Invalid UUID format for user ID: {}. Event will be skipped.", userIdStr);
-                return;
+                log.error("CRITICAL: Invalid UUID format for user ID at offset {}. Event will be skipped.",
+                    record.offset(), e);
             }
+        }
 
-            log.info("Processing user-registered event for userId={}", userId);
-
-            var createRequest = WalletCreateRequest.builder()
-                .type(WalletType.PERSONAL)
-                .name("MAIN")
-                .metadata(Map.of())
-                .setAsDefaultReceive(true)
-                .build();
-
-            var idempotencyKey = "user-registered:" + userId;
-
-            log.info("Creating default PERSONAL wallet for userId={} with idempotencyKey={}", userId, idempotencyKey);
-
-            var result = walletCommandService.createWalletForUser(userId, createRequest, idempotencyKey);
-
-            log.info("Successfully created default wallet for userId={}, walletId={}, walletName={}",
-                userId, result.getId(), result.getName());
+        var created = walletProvisioner.provision(userIds);
 
-        } catch (InvalidProtocolBufferException e) {
-            log.error("CRITICAL: Failed to parse Protobuf message from topic auth.user.registered. " +
-                "Message will be skipped. Error: {}", e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("CRITICAL: Unexpected error while processing user-registered event. " +
-                "userId may not have default wallet! Error: {}", e.getMessage(), e);
-        }
+        var elapsedNanos = System.nanoTime() - startedAt;
+        batchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("User-registered batch processed: records={}, users={}, walletsCreated={}, took={}ms",
+            records.size(), userIds.size(), created.size(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
     }
 }
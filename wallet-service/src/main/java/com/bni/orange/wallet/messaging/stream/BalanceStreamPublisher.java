@@ -0,0 +1,42 @@
+package com.bni.orange.wallet.messaging.stream;
+
+import com.bni.orange.wallet.model.response.stream.BalanceChangedMessage;
+import com.bni.orange.wallet.model.response.stream.MemberAccessRevokedMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fans balance changes and membership revocations out to every wallet-service instance through
+ * Redis pub/sub, so a client connected to any pod receives the update or loses its stream.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceStreamPublisher {
+
+  public static final String CHANNEL = "wallet:balance-changed";
+  public static final String REVOKED_CHANNEL = "wallet:member-revoked";
+
+  private final StringRedisTemplate redis;
+  private final ObjectMapper om;
+
+  public void publish(BalanceChangedMessage message) {
+    try {
+      redis.convertAndSend(CHANNEL, om.writeValueAsString(message));
+    } catch (Exception e) {
+      log.warn("Failed to publish balance change for walletId={}: {}", message.walletId(), e.getMessage());
+    }
+  }
+
+  public void publishRevoked(MemberAccessRevokedMessage message) {
+    try {
+      redis.convertAndSend(REVOKED_CHANNEL, om.writeValueAsString(message));
+    } catch (Exception e) {
+      log.warn("Failed to publish member revocation for walletId={}, userId={}: {}",
+          message.walletId(), message.userId(), e.getMessage());
+    }
+  }
+}
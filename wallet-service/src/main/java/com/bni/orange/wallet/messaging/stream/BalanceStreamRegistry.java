@@ -0,0 +1,163 @@
+package com.bni.orange.wallet.messaging.stream;
+
+import com.bni.orange.wallet.exception.business.ConflictException;
+import com.bni.orange.wallet.model.response.stream.BalanceChangedMessage;
+import com.bni.orange.wallet.model.response.stream.MemberAccessRevokedMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local registry of SSE balance subscriptions. Capacity is bounded globally and per user,
+ * idle connections are kept alive by a periodic heartbeat, and dead ones are dropped on the first failed write.
+ * A stream is ended when its user loses membership of any wallet it covers; the client reconnects
+ * and is given only the wallets it is still an ACTIVE member of.
+ */
+@Slf4j
+@Component
+public class BalanceStreamRegistry implements MessageListener {
+
+  private record Subscription(UUID userId, Set<UUID> walletIds, SseEmitter emitter) {}
+
+  private final ObjectMapper om;
+  private final ConcurrentHashMap<UUID, Set<Subscription>> byWallet = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<UUID, Integer> perUser = new ConcurrentHashMap<>();
+  private final Set<Subscription> all = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger total = new AtomicInteger();
+
+  @Value("${app.balance-stream.max-connections:5000}")
+  private int maxConnections;
+
+  @Value("${app.balance-stream.max-connections-per-user:3}")
+  private int maxConnectionsPerUser;
+
+  @Value("${app.balance-stream.timeout-ms:1800000}")
+  private long timeoutMs;
+
+  public BalanceStreamRegistry(ObjectMapper om, MeterRegistry meterRegistry) {
+    this.om = om;
+    Gauge.builder("wallet.balance.stream.connections", total, AtomicInteger::get)
+        .description("Open SSE balance stream connections on this instance")
+        .register(meterRegistry);
+  }
+
+  public SseEmitter subscribe(UUID userId, Collection<UUID> walletIds) {
+    var granted = new boolean[1];
+    perUser.compute(userId, (id, n) -> {
+      int current = n == null ? 0 : n;
+      if (current >= maxConnectionsPerUser) return n;
+      granted[0] = true;
+      return current + 1;
+    });
+    if (!granted[0]) {
+      throw new ConflictException("Too many open balance streams for this user");
+    }
+    if (total.incrementAndGet() > maxConnections) {
+      total.decrementAndGet();
+      release(userId);
+      throw new ConflictException("Balance stream capacity reached, please retry later");
+    }
+
+    var emitter = new SseEmitter(timeoutMs);
+    var sub = new Subscription(userId, Set.copyOf(walletIds), emitter);
+    all.add(sub);
+    sub.walletIds().forEach(w -> byWallet.computeIfAbsent(w, id -> ConcurrentHashMap.newKeySet()).add(sub));
+
+    emitter.onCompletion(() -> remove(sub));
+    emitter.onTimeout(() -> remove(sub));
+    emitter.onError(e -> remove(sub));
+
+    send(sub, SseEmitter.event().name("subscribed").data(sub.walletIds(), MediaType.APPLICATION_JSON));
+    return emitter;
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    var channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+    var body = new String(message.getBody(), StandardCharsets.UTF_8);
+    if (BalanceStreamPublisher.REVOKED_CHANNEL.equals(channel)) {
+      onRevoked(body);
+    } else {
+      onBalanceChanged(body);
+    }
+  }
+
+  private void onBalanceChanged(String body) {
+    BalanceChangedMessage change;
+    try {
+      change = om.readValue(body, BalanceChangedMessage.class);
+    } catch (Exception e) {
+      log.warn("Ignoring malformed balance change message: {}", e.getMessage());
+      return;
+    }
+    var subs = byWallet.get(change.walletId());
+    if (subs == null || subs.isEmpty()) return;
+    for (var sub : List.copyOf(subs)) {
+      send(sub, SseEmitter.event().name("balance").data(change, MediaType.APPLICATION_JSON));
+    }
+  }
+
+  private void onRevoked(String body) {
+    MemberAccessRevokedMessage revoked;
+    try {
+      revoked = om.readValue(body, MemberAccessRevokedMessage.class);
+    } catch (Exception e) {
+      log.warn("Ignoring malformed member revocation message: {}", e.getMessage());
+      return;
+    }
+    var subs = byWallet.get(revoked.walletId());
+    if (subs == null || subs.isEmpty()) return;
+    for (var sub : List.copyOf(subs)) {
+      if (!sub.userId().equals(revoked.userId())) continue;
+      send(sub, SseEmitter.event().name("revoked").data(revoked, MediaType.APPLICATION_JSON));
+      remove(sub);
+      sub.emitter().complete();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.balance-stream.heartbeat-ms:20000}")
+  public void heartbeat() {
+    for (var sub : List.copyOf(all)) {
+      send(sub, SseEmitter.event().comment("ping"));
+    }
+  }
+
+  private void send(Subscription sub, SseEmitter.SseEventBuilder event) {
+    try {
+      sub.emitter().send(event);
+    } catch (Exception e) {
+      remove(sub);
+      sub.emitter().completeWithError(e);
+    }
+  }
+
+  private void remove(Subscription sub) {
+    if (!all.remove(sub)) return;
+    total.decrementAndGet();
+    sub.walletIds().forEach(w -> byWallet.computeIfPresent(w, (id, set) -> {
+      set.remove(sub);
+      return set.isEmpty() ? null : set;
+    }));
+    release(sub.userId());
+  }
+
+  private void release(UUID userId) {
+    perUser.computeIfPresent(userId, (id, n) -> n <= 1 ? null : n - 1);
+  }
+}
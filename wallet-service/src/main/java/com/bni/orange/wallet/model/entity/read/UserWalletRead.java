@@ -1,5 +1,6 @@
 package com.bni.orange.wallet.model.entity.read;
 
+import com.bni.orange.wallet.model.enums.WalletMemberRole;
 import com.bni.orange.wallet.model.enums.WalletStatus;
 import com.bni.orange.wallet.model.enums.WalletType;
 import jakarta.persistence.Column;
@@ -42,6 +43,16 @@ public class UserWalletRead {
   private WalletStatus walletStatus;
 
   @Column(length=160) private String walletName;
+
+  // Denormalized list columns, written only by WalletReadModelProjector.refreshUserWalletList
+  @Enumerated(EnumType.STRING)
+  @JdbcType(PostgreSQLEnumJdbcType.class)
+  @Column(name = "member_role", insertable = false, updatable = false, columnDefinition = "domain.wallet_member_role")
+  private WalletMemberRole memberRole;
+
+  @Column(insertable = false, updatable = false) private String currency;
+  @Column(insertable = false, updatable = false) private boolean isDefaultForUser;
+  @Column(insertable = false, updatable = false) private OffsetDateTime sortAt;
   @org.hibernate.annotations.UpdateTimestamp @Column(nullable=false) private OffsetDateTime updatedAt;
 
   @Getter @Setter @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
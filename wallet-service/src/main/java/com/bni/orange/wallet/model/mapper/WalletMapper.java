@@ -23,6 +23,8 @@ import java.util.UUID;
 public interface WalletMapper {
 
   @Mapping(target = "defaultForUser", source = "defaultForUser")
+  @Mapping(target = "role", ignore = true)
+  @Mapping(target = "sortAt", ignore = true)
   WalletListItemResponse toListItem(WalletRead read);
 
   @Mapping(target="id",       expression="java(read.getId())")
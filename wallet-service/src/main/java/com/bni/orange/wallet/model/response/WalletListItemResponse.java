@@ -1,5 +1,6 @@
 package com.bni.orange.wallet.model.response;
 
+import com.bni.orange.wallet.model.enums.WalletMemberRole;
 import com.bni.orange.wallet.model.enums.WalletStatus;
 import com.bni.orange.wallet.model.enums.WalletType;
 import lombok.AllArgsConstructor;
@@ -18,7 +19,10 @@ public class WalletListItemResponse {
   private String name;
   private WalletType type;
   private WalletStatus status;
+  private WalletMemberRole role;
+  private String currency;
   private BigDecimal balanceSnapshot;
   private boolean defaultForUser;
   private OffsetDateTime updatedAt;
+  private OffsetDateTime sortAt;
 }
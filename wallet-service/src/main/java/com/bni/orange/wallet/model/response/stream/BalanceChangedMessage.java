@@ -0,0 +1,13 @@
+package com.bni.orange.wallet.model.response.stream;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record BalanceChangedMessage(
+    UUID walletId,
+    BigDecimal previousBalance,
+    BigDecimal balance,
+    BigDecimal delta,
+    OffsetDateTime occurredAt
+) {}
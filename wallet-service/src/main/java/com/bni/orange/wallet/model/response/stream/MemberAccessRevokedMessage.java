@@ -0,0 +1,8 @@
+package com.bni.orange.wallet.model.response.stream;
+
+import java.util.UUID;
+
+public record MemberAccessRevokedMessage(
+    UUID walletId,
+    UUID userId
+) {}
@@ -1,6 +1,7 @@
 package com.bni.orange.wallet.repository;
 
 import com.bni.orange.wallet.model.enums.WalletMemberStatus;
+import com.bni.orange.wallet.model.enums.WalletType;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -15,6 +16,13 @@ public class WalletMemberInternalRepository {
   private final NamedParameterJdbcTemplate jdbc;
 
   public record MemberView(String role, WalletMemberStatus status) {}
+  public record MemberPolicyView(
+      String role,
+      WalletMemberStatus status,
+      WalletType walletType,
+      String currency,
+      long perTxLimitRp
+  ) {}
 
   public WalletMemberInternalRepository(NamedParameterJdbcTemplate jdbc) {
     this.jdbc = jdbc;
@@ -43,6 +51,34 @@ public class WalletMemberInternalRepository {
     }
   }
 
+  public Optional<MemberPolicyView> viewForPolicyCheck(UUID walletId, UUID userId) {
+    var sql = """
+      SELECT m.role::text AS role, m.status::text AS status, m.per_tx_limit_rp,
+             w.type::text AS wallet_type, w.currency
+      FROM wallet_oltp.wallet_members m
+      JOIN wallet_oltp.wallets w ON w.id = m.wallet_id
+      WHERE m.wallet_id = :wid AND m.user_id = :uid
+      """;
+    var p = new MapSqlParameterSource()
+        .addValue("wid", walletId)
+        .addValue("uid", userId);
+
+    try {
+      return Optional.ofNullable(jdbc.query(sql, p, rs -> {
+        if (!rs.next()) return null;
+        return new MemberPolicyView(
+            rs.getString("role"),
+            WalletMemberStatus.valueOf(rs.getString("status")),
+            WalletType.valueOf(rs.getString("wallet_type")),
+            rs.getString("currency"),
+            rs.getLong("per_tx_limit_rp")
+        );
+      }));
+    } catch (EmptyResultDataAccessException e) {
+      return Optional.empty();
+    }
+  }
+
   public long findPerTxLimit(UUID walletId, UUID userId) {
     var sql = """
       SELECT m.per_tx_limit_rp
@@ -18,6 +18,9 @@ public interface WalletMemberRepository extends JpaRepository<WalletMember, UUID
   @Query("SELECT wm.walletId FROM WalletMember wm WHERE wm.userId = :userId")
   List<UUID> findWalletIdsByUserId(@Param("userId") UUID userId);
 
+  @Query("SELECT wm.walletId FROM WalletMember wm WHERE wm.userId = :userId AND wm.status = :status")
+  List<UUID> findWalletIdsByUserIdAndStatus(@Param("userId") UUID userId, @Param("status") WalletMemberStatus status);
+
   Optional<WalletMember> findByWalletIdAndUserId(UUID walletId, UUID userId);
 
   boolean existsByWalletIdAndUserId(UUID walletId, UUID userId);
@@ -4,12 +4,16 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public class WalletPolicyInternalRepository {
   public record PolicyCheckResult(boolean allowed, String currency) {}
+  public record PolicyRow(String type, boolean allowExternalCredit, int maxMembers, String allowMemberDebitRoles) {}
+  public record PolicyVersion(long rows, OffsetDateTime lastUpdatedAt) {}
 
   private final NamedParameterJdbcTemplate jdbc;
 
@@ -57,4 +61,31 @@ public class WalletPolicyInternalRepository {
     String t = jdbc.query(sql, p, rs -> rs.next() ? rs.getString("type") : null);
     return Optional.ofNullable(t);
   }
+
+  public List<PolicyRow> findAllPolicies() {
+    var sql = """
+      SELECT p.type::text AS type,
+             p.allow_external_credit,
+             p.max_members,
+             p.allow_member_debit_roles::text AS debit_roles
+      FROM wallet_oltp.wallet_type_policy p
+      """;
+    return jdbc.query(sql, (rs, i) -> new PolicyRow(
+        rs.getString("type"),
+        rs.getBoolean("allow_external_credit"),
+        rs.getInt("max_members"),
+        rs.getString("debit_roles")
+    ));
+  }
+
+  public PolicyVersion currentVersion() {
+    var sql = """
+      SELECT count(*) AS row_count, max(p.updated_at) AS last_updated_at
+      FROM wallet_oltp.wallet_type_policy p
+      """;
+    return jdbc.query(sql, rs -> {
+      if (!rs.next()) return new PolicyVersion(0L, null);
+      return new PolicyVersion(rs.getLong("row_count"), rs.getObject("last_updated_at", OffsetDateTime.class));
+    });
+  }
 }
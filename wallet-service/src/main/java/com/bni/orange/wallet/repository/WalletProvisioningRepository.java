@@ -0,0 +1,190 @@
+package com.bni.orange.wallet.repository;
+
+import com.bni.orange.wallet.model.enums.WalletStatus;
+import com.bni.orange.wallet.model.enums.WalletType;
+import com.bni.orange.wallet.service.command.initializer.LimitsDefaultsProperties;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based counterpart of the single-wallet create path, used to give many newly registered users their
+ * default wallet in a handful of statements. Every statement is safe to repeat for the same users.
+ */
+@Repository
+public class WalletProvisioningRepository {
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  public record ProvisionedWallet(
+      UUID walletId,
+      UUID userId,
+      String currency,
+      WalletStatus status,
+      WalletType type,
+      String name,
+      BigDecimal balanceSnapshot,
+      OffsetDateTime createdAt,
+      OffsetDateTime updatedAt
+  ) {}
+
+  public WalletProvisioningRepository(NamedParameterJdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /**
+   * Creates a PERSONAL wallet named {@code name} for every user that has neither a completed idempotency
+   * record under {@code scope}/{@code keyPrefix + userId} nor a PERSONAL wallet with that name yet, together
+   * with the owner membership and default-receive preference.
+   *
+   * @return the wallets created; users that were skipped are absent
+   */
+  public List<ProvisionedWallet> insertDefaultWallets(Collection<UUID> userIds, String name, String scope, String keyPrefix) {
+    var sql = """
+      WITH pending AS (
+        SELECT u.user_id
+        FROM unnest(ARRAY[:userIds]::uuid[]) AS u(user_id)
+        WHERE NOT EXISTS (
+                SELECT 1 FROM infra.idempotency i
+                WHERE i.scope = :scope
+                  AND i.idem_key = :keyPrefix || u.user_id::text
+                  AND i.status = 'COMPLETED')
+          AND NOT EXISTS (
+                SELECT 1 FROM wallet_oltp.wallets w
+                WHERE w.user_id = u.user_id AND w.type = 'PERSONAL' AND w.name = :name)
+      ),
+      created AS (
+        INSERT INTO wallet_oltp.wallets (user_id, type, name)
+        SELECT user_id, 'PERSONAL'::domain.wallet_type, :name FROM pending
+        RETURNING id, user_id, currency, status, type, name, balance_snapshot, created_at, updated_at
+      ),
+      owners AS (
+        INSERT INTO wallet_oltp.wallet_members (wallet_id, user_id, role, status)
+        SELECT id, user_id, 'OWNER'::domain.wallet_member_role, 'ACTIVE'::domain.wallet_member_status FROM created
+      ),
+      prefs AS (
+        INSERT INTO wallet_oltp.user_receive_prefs (user_id, default_wallet_id)
+        SELECT user_id, id FROM created
+        ON CONFLICT (user_id) DO UPDATE SET default_wallet_id = EXCLUDED.default_wallet_id, updated_at = now()
+      )
+      SELECT id, user_id, currency, status::text AS status, type::text AS type, name, balance_snapshot,
+             created_at, updated_at
+      FROM created
+      """;
+    var p = new MapSqlParameterSource()
+        .addValue("userIds", userIds)
+        .addValue("name", name)
+        .addValue("scope", scope)
+        .addValue("keyPrefix", keyPrefix);
+    return jdbc.query(sql, p, (rs, i) -> new ProvisionedWallet(
+        rs.getObject("id", UUID.class),
+        rs.getObject("user_id", UUID.class),
+        rs.getString("currency"),
+        WalletStatus.valueOf(rs.getString("status")),
+        WalletType.valueOf(rs.getString("type")),
+        rs.getString("name"),
+        rs.getBigDecimal("balance_snapshot"),
+        rs.getObject("created_at", OffsetDateTime.class),
+        rs.getObject("updated_at", OffsetDateTime.class)
+    ));
+  }
+
+  /**
+   * Inserts the configured default limits for users that have none, then mirrors them into the read model.
+   */
+  public void insertDefaultLimits(Collection<UUID> userIds, LimitsDefaultsProperties defaults) {
+    var oltp = """
+      INSERT INTO wallet_oltp.user_limits
+        (user_id, per_tx_min_rp, per_tx_max_rp, daily_max_rp, weekly_max_rp, monthly_max_rp,
+         enforce_per_tx, enforce_daily, enforce_weekly, enforce_monthly, effective_from, timezone)
+      SELECT u.user_id, :perTxMin, :perTxMax, :dailyMax, :weeklyMax, :monthlyMax,
+             :enforcePerTx, :enforceDaily, :enforceWeekly, :enforceMonthly, now(), :timezone
+      FROM unnest(ARRAY[:userIds]::uuid[]) AS u(user_id)
+      ON CONFLICT (user_id) DO NOTHING
+      """;
+    var p = new MapSqlParameterSource()
+        .addValue("userIds", userIds)
+        .addValue("perTxMin", defaults.getPerTxMinRp())
+        .addValue("perTxMax", defaults.getPerTxMaxRp())
+        .addValue("dailyMax", defaults.getDailyMaxRp())
+        .addValue("weeklyMax", defaults.getWeeklyMaxRp())
+        .addValue("monthlyMax", defaults.getMonthlyMaxRp())
+        .addValue("enforcePerTx", defaults.isEnforcePerTx())
+        .addValue("enforceDaily", defaults.isEnforceDaily())
+        .addValue("enforceWeekly", defaults.isEnforceWeekly())
+        .addValue("enforceMonthly", defaults.isEnforceMonthly())
+        .addValue("timezone", defaults.getTimezone());
+    jdbc.update(oltp, p);
+
+    var mirror = """
+      INSERT INTO wallet_read.user_limits
+        (user_id, per_tx_max_rp, daily_max_rp, weekly_max_rp, monthly_max_rp, per_tx_min_rp,
+         enforce_per_tx, enforce_daily, enforce_weekly, enforce_monthly, effective_from, effective_through, timezone)
+      SELECT user_id, per_tx_max_rp, daily_max_rp, weekly_max_rp, monthly_max_rp, per_tx_min_rp,
+             enforce_per_tx, enforce_daily, enforce_weekly, enforce_monthly, effective_from, effective_through, timezone
+      FROM wallet_oltp.user_limits
+      WHERE user_id IN (:userIds)
+      ON CONFLICT (user_id) DO NOTHING
+      """;
+    jdbc.update(mirror, new MapSqlParameterSource("userIds", userIds));
+  }
+
+  /**
+   * Projects freshly created default wallets into wallet_read: the wallet row, the owner membership and the
+   * user's wallet list entry, each marked as the user's default receive wallet.
+   */
+  public void projectDefaultWallets(Collection<UUID> walletIds) {
+    var p = new MapSqlParameterSource("walletIds", walletIds);
+
+    jdbc.update("""
+      UPDATE wallet_read.wallets
+      SET is_default_for_user = FALSE
+      WHERE is_default_for_user
+        AND id NOT IN (:walletIds)
+        AND user_id IN (SELECT user_id FROM wallet_oltp.wallets WHERE id IN (:walletIds))
+      """, p);
+
+    jdbc.update("""
+      INSERT INTO wallet_read.wallets
+        (id, user_id, currency, status, balance_snapshot, type, name, members_active, is_default_for_user,
+         created_at, updated_at)
+      SELECT id, user_id, currency, status, balance_snapshot, type, name, 1, TRUE, created_at, updated_at
+      FROM wallet_oltp.wallets
+      WHERE id IN (:walletIds)
+      ON CONFLICT (id) DO NOTHING
+      """, p);
+
+    jdbc.update("""
+      INSERT INTO wallet_read.wallet_members (wallet_id, user_id, role, status, joined_at, updated_at)
+      SELECT id, user_id, 'OWNER'::domain.wallet_member_role, 'ACTIVE'::domain.wallet_member_status, now(), now()
+      FROM wallet_oltp.wallets
+      WHERE id IN (:walletIds)
+      ON CONFLICT (wallet_id, user_id) DO NOTHING
+      """, p);
+
+    jdbc.update("""
+      INSERT INTO wallet_read.user_wallets
+        (user_id, wallet_id, is_owner, wallet_type, wallet_status, wallet_name, member_role,
+         currency, is_default_for_user, sort_at, updated_at)
+      SELECT user_id, id, TRUE, type, status, name, 'OWNER'::domain.wallet_member_role, currency, TRUE, created_at, now()
+      FROM wallet_oltp.wallets
+      WHERE id IN (:walletIds)
+      ON CONFLICT (user_id, wallet_id) DO NOTHING
+      """, p);
+
+    jdbc.update("""
+      UPDATE wallet_read.user_wallets uw
+      SET is_default_for_user = w.is_default_for_user
+      FROM wallet_read.wallets w
+      WHERE w.id = uw.wallet_id
+        AND uw.is_default_for_user <> w.is_default_for_user
+        AND uw.user_id IN (SELECT user_id FROM wallet_oltp.wallets WHERE id IN (:walletIds))
+      """, p);
+  }
+}
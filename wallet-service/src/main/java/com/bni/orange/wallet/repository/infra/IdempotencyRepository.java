@@ -2,9 +2,80 @@ package com.bni.orange.wallet.repository.infra;
 
 import com.bni.orange.wallet.model.entity.infra.Idempotency;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface IdempotencyRepository extends JpaRepository<Idempotency, Long> {
   Optional<Idempotency> findByScopeAndIdemKey(String scope, String idemKey);
+
+  /**
+   * The conflicting row may be a FAILED attempt or an expired record whose key is being reused, so
+   * everything describing the new request is taken from it rather than kept from the old row.
+   */
+  @Modifying
+  @Query(value = """
+      INSERT INTO infra.idempotency
+        (scope, idem_key, request_hash, response_status, response_body, status, created_at, completed_at, expires_at)
+      VALUES
+        (:scope, :key, :hash, :httpStatus, CAST(:body AS jsonb), 'COMPLETED'::infra.idem_status, NOW(), NOW(), :expiresAt)
+      ON CONFLICT (scope, idem_key)
+      DO UPDATE SET
+        request_hash    = EXCLUDED.request_hash,
+        response_status = EXCLUDED.response_status,
+        response_body   = EXCLUDED.response_body,
+        status          = 'COMPLETED'::infra.idem_status,
+        created_at      = EXCLUDED.created_at,
+        completed_at    = NOW(),
+        expires_at      = EXCLUDED.expires_at
+      """, nativeQuery = true)
+  int upsertCompleted(@Param("scope") String scope,
+                      @Param("key") String key,
+                      @Param("hash") String requestHash,
+                      @Param("httpStatus") int httpStatus,
+                      @Param("body") String responseJson,
+                      @Param("expiresAt") OffsetDateTime expiresAt);
+
+  /**
+   * Multi-row form of {@link #upsertCompleted}: {@code keys} and {@code bodies} are parallel lists.
+   */
+  @Modifying
+  @Query(value = """
+      INSERT INTO infra.idempotency
+        (scope, idem_key, request_hash, response_status, response_body, status, created_at, completed_at, expires_at)
+      SELECT :scope, r.idem_key, :hash, :httpStatus, CAST(r.body AS jsonb), 'COMPLETED'::infra.idem_status,
+             NOW(), NOW(), :expiresAt
+      FROM unnest(CAST(ARRAY[:keys] AS varchar[]), CAST(ARRAY[:bodies] AS text[])) AS r(idem_key, body)
+      ON CONFLICT (scope, idem_key)
+      DO UPDATE SET
+        request_hash    = EXCLUDED.request_hash,
+        response_status = EXCLUDED.response_status,
+        response_body   = EXCLUDED.response_body,
+        status          = 'COMPLETED'::infra.idem_status,
+        created_at      = EXCLUDED.created_at,
+        completed_at    = NOW(),
+        expires_at      = EXCLUDED.expires_at
+      """, nativeQuery = true)
+  int upsertCompletedAll(@Param("scope") String scope,
+                         @Param("keys") List<String> keys,
+                         @Param("hash") String requestHash,
+                         @Param("httpStatus") int httpStatus,
+                         @Param("bodies") List<String> responseJsons,
+                         @Param("expiresAt") OffsetDateTime expiresAt);
+
+  @Modifying
+  @Query(value = """
+      DELETE FROM infra.idempotency
+      WHERE id IN (
+        SELECT id FROM infra.idempotency
+        WHERE expires_at < NOW()
+        ORDER BY expires_at
+        LIMIT :batchSize
+      )
+      """, nativeQuery = true)
+  int deleteExpiredBatch(@Param("batchSize") int batchSize);
 }
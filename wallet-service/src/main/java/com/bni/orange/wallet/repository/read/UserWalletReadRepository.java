@@ -5,11 +5,81 @@ import com.bni.orange.wallet.model.entity.read.UserWalletRead.PK;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserWalletReadRepository extends JpaRepository<UserWalletRead, PK> {
+
+  interface WalletListRow {
+    UUID getWalletId();
+    String getWalletName();
+    String getWalletType();
+    String getWalletStatus();
+    String getMemberRole();
+    String getCurrency();
+    BigDecimal getBalanceSnapshot();
+    boolean getIsDefaultForUser();
+    OffsetDateTime getUpdatedAt();
+    OffsetDateTime getSortAt();
+  }
+
+  @Query(value = """
+      SELECT uw.wallet_id AS walletId, uw.wallet_name AS walletName,
+             uw.wallet_type::text AS walletType, uw.wallet_status::text AS walletStatus,
+             uw.member_role::text AS memberRole, uw.currency AS currency,
+             w.balance_snapshot AS balanceSnapshot, uw.is_default_for_user AS isDefaultForUser,
+             w.updated_at AS updatedAt, uw.sort_at AS sortAt
+      FROM wallet_read.user_wallets uw
+      JOIN wallet_read.wallets w ON w.id = uw.wallet_id
+      WHERE uw.user_id = :userId
+      ORDER BY uw.sort_at DESC, uw.wallet_id DESC
+      LIMIT :limit OFFSET :offset
+      """, nativeQuery = true)
+  List<WalletListRow> findListPage(@Param("userId") UUID userId,
+                                   @Param("limit") int limit,
+                                   @Param("offset") int offset);
+
+  @Query(value = """
+      SELECT uw.wallet_id AS walletId, uw.wallet_name AS walletName,
+             uw.wallet_type::text AS walletType, uw.wallet_status::text AS walletStatus,
+             uw.member_role::text AS memberRole, uw.currency AS currency,
+             w.balance_snapshot AS balanceSnapshot, uw.is_default_for_user AS isDefaultForUser,
+             w.updated_at AS updatedAt, uw.sort_at AS sortAt
+      FROM wallet_read.user_wallets uw
+      JOIN wallet_read.wallets w ON w.id = uw.wallet_id
+      WHERE uw.user_id = :userId
+        AND (uw.sort_at, uw.wallet_id) < (:cursorAt, :cursorId)
+      ORDER BY uw.sort_at DESC, uw.wallet_id DESC
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<WalletListRow> findListAfter(@Param("userId") UUID userId,
+                                    @Param("cursorAt") OffsetDateTime cursorAt,
+                                    @Param("cursorId") UUID cursorId,
+                                    @Param("limit") int limit);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = """
+      UPDATE wallet_read.user_wallets uw
+      SET member_role         = (SELECT m.role FROM wallet_read.wallet_members m
+                                 WHERE m.wallet_id = uw.wallet_id AND m.user_id = uw.user_id),
+          wallet_name         = w.name,
+          wallet_type         = w.type,
+          wallet_status       = w.status,
+          currency            = w.currency,
+          is_default_for_user = w.is_default_for_user
+      FROM wallet_read.wallets w
+      WHERE w.id = uw.wallet_id
+        AND uw.wallet_id = :walletId
+      """, nativeQuery = true)
+  int refreshFromWalletRead(@Param("walletId") UUID walletId);
+
   Page<UserWalletRead> findByUserId(UUID userId, Pageable pageable);
   boolean existsByUserIdAndWalletId(UUID userId, UUID walletId);
   void deleteAllByWalletId(UUID walletId);
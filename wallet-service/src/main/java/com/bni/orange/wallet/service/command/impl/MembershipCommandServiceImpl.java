@@ -137,7 +137,9 @@ public class MembershipCommandServiceImpl implements MembershipCommandService {
       member.setRole(req.getRole());
     }
 
+    var revoked = false;
     if (req.getStatus() != null) {
+      revoked = member.getStatus() == WalletMemberStatus.ACTIVE && req.getStatus() != WalletMemberStatus.ACTIVE;
       member.setStatus(req.getStatus());
     }
 
@@ -149,6 +151,10 @@ public class MembershipCommandServiceImpl implements MembershipCommandService {
     member.setUpdatedAt(OffsetDateTime.now());
     member = memberRepo.save(member); 
     upsertRead(member);               
+    userWalletReadRepo.refreshFromWalletRead(walletId);
+    if (revoked) {
+      publishAccessRevoked(walletId, userId);
+    }
     return toDetailDTO(member);
   }
 
@@ -170,6 +176,7 @@ public class MembershipCommandServiceImpl implements MembershipCommandService {
     deleteRead(walletId, userId);            
     deleteUserWalletRead(walletId, userId);
     recountMembersActive(member);
+    publishAccessRevoked(walletId, userId);
     return MemberActionResultResponse.builder()
         .walletId(walletId)
         .userId(userId)
@@ -194,6 +201,7 @@ public class MembershipCommandServiceImpl implements MembershipCommandService {
     deleteRead(walletId, uid);               
     deleteUserWalletRead(walletId, uid);
     recountMembersActive(member);
+    publishAccessRevoked(walletId, uid);
     return MemberActionResultResponse.builder()
         .walletId(walletId)
         .userId(uid)
@@ -212,6 +220,7 @@ public class MembershipCommandServiceImpl implements MembershipCommandService {
       wr.setUpdatedAt(OffsetDateTime.now());
       walletReadRepo.save(wr);
     });
+    userWalletReadRepo.refreshFromWalletRead(m.getWalletId());
   }
   private WalletMember requireAdminOrOwner(UUID walletId) {
     var uid = CurrentUser.userId();
@@ -241,6 +250,13 @@ public class MembershipCommandServiceImpl implements MembershipCommandService {
     memberReadRepo.save(read);
   }
 
+  private void publishAccessRevoked(UUID walletId, UUID userId) {
+    appEvents.publishEvent(DomainEvents.WalletMemberAccessRevoked.builder()
+        .walletId(walletId)
+        .userId(userId)
+        .build());
+  }
+
   private void deleteRead(UUID walletId, UUID userId) {
     memberReadRepo.deleteByWalletIdAndUserId(walletId, userId);
   }
@@ -48,6 +48,7 @@ public class ReceiveCommandServiceImpl implements ReceiveCommandService {
                         oldWalletRead.setDefaultForUser(false);
                         walletReadRepo.save(oldWalletRead);
                     });
+                    userWalletReadRepo.refreshFromWalletRead(oldId);
                 }
             });
     WalletRead newWalletRead = walletReadRepo.findById(newDefaultWalletId)
@@ -55,6 +56,7 @@ public class ReceiveCommandServiceImpl implements ReceiveCommandService {
 
     newWalletRead.setDefaultForUser(true);
     walletReadRepo.save(newWalletRead);
+    userWalletReadRepo.refreshFromWalletRead(newDefaultWalletId);
     return DefaultReceiveResponse.builder()
         .walletId(newDefaultWalletId)
         .walletName(newWalletRead.getName())
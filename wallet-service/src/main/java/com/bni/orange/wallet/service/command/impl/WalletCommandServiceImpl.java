@@ -17,6 +17,7 @@ import com.bni.orange.wallet.model.mapper.WalletMapper;
 import com.bni.orange.wallet.model.request.wallet.WalletCreateRequest;
 import com.bni.orange.wallet.model.request.wallet.WalletUpdateRequest;
 import com.bni.orange.wallet.model.response.WalletDetailResponse;
+import com.bni.orange.wallet.model.response.users.UserProfileResponse;
 import com.bni.orange.wallet.model.response.wallet.WalletDeleteResultResponse;
 import com.bni.orange.wallet.model.response.wallet.WalletDeleteSession;
 import com.bni.orange.wallet.repository.UserReceivePrefsRepository;
@@ -48,9 +49,13 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -133,7 +138,7 @@ public class WalletCommandServiceImpl implements WalletCommandService {
       }
       try {
         var dto = doCreateWalletInternal(userId, req);
-        idem.complete(scope, idempotencyKey, HttpStatus.CREATED.value(), toJson(dto));
+        idem.complete(scope, idempotencyKey, hash, HttpStatus.CREATED.value(), toJson(dto));
         return dto;
       } catch (RuntimeException ex) {
         idem.fail(scope, idempotencyKey);
@@ -351,8 +356,14 @@ public class WalletCommandServiceImpl implements WalletCommandService {
     if (admins.isEmpty()) {
         return doDeleteWallet(walletId, uid);
     }
-    var ownerProfile = userClient.getUserProfile(uid);
-    if (ownerProfile.getEmail() == null || Boolean.FALSE.equals(ownerProfile.getEmailVerified())) {
+    var profileIds = new ArrayList<UUID>();
+    profileIds.add(uid);
+    admins.forEach(admin -> profileIds.add(admin.getUserId()));
+    Map<UUID, UserProfileResponse> profiles = userClient.findUsersByIds(profileIds).stream()
+        .collect(Collectors.toMap(UserProfileResponse::getId, Function.identity(), (a, b) -> a));
+
+    var ownerProfile = profiles.get(uid);
+    if (ownerProfile == null || ownerProfile.getEmail() == null || Boolean.FALSE.equals(ownerProfile.getEmailVerified())) {
         throw new ValidationFailedException("Owner email not available or not verified");
     }
     String nonce = UUID.randomUUID().toString().replace("-", "");
@@ -374,8 +385,8 @@ public class WalletCommandServiceImpl implements WalletCommandService {
     }
     for (WalletMember admin : admins) {
         UUID adminId = admin.getUserId();
-        var adminProfile = userClient.getUserProfile(adminId);
-        if (adminProfile.getEmail() == null || Boolean.FALSE.equals(adminProfile.getEmailVerified())) {
+        var adminProfile = profiles.get(adminId);
+        if (adminProfile == null || adminProfile.getEmail() == null || Boolean.FALSE.equals(adminProfile.getEmailVerified())) {
             continue;
         }
 
@@ -590,12 +601,14 @@ private UUID resolveDestinationWalletForUser(UUID userId, UUID sourceWalletId) {
         wr.setDefaultForUser(false);
         walletReadRepo.save(wr);
       });
+      userWalletReadRepo.refreshFromWalletRead(oldDefault);
     }
 
     WalletRead newWr = walletReadRepo.findById(newDefaultWalletId)
         .orElseThrow(() -> new IllegalStateException("WalletRead data is inconsistent"));
     newWr.setDefaultForUser(true);
     walletReadRepo.save(newWr);
+    userWalletReadRepo.refreshFromWalletRead(newDefaultWalletId);
   }
 
   private void upsertOwnerMembership(UUID walletId, UUID userId) {
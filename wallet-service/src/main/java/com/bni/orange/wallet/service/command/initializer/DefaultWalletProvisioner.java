@@ -0,0 +1,144 @@
+package com.bni.orange.wallet.service.command.initializer;
+
+import com.bni.orange.wallet.domain.DomainEvents;
+import com.bni.orange.wallet.model.entity.Wallet;
+import com.bni.orange.wallet.model.enums.WalletType;
+import com.bni.orange.wallet.model.mapper.WalletMapper;
+import com.bni.orange.wallet.model.request.wallet.WalletCreateRequest;
+import com.bni.orange.wallet.repository.WalletProvisioningRepository;
+import com.bni.orange.wallet.repository.WalletProvisioningRepository.ProvisionedWallet;
+import com.bni.orange.wallet.service.infra.IdempotencyService;
+import com.bni.orange.wallet.utils.crypto.HashUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Gives newly registered users their default MAIN wallet in bulk. The result matches what
+ * {@code WalletCommandService.createWalletForUser} produces for each user with idempotency key
+ * {@code user-registered:{userId}}, including the stored response, so either path sees the other's work as done.
+ */
+@Slf4j
+@Service
+public class DefaultWalletProvisioner {
+
+    private static final String IDEMPOTENCY_SCOPE = "wallet:create";
+    private static final String IDEMPOTENCY_KEY_PREFIX = "user-registered:";
+
+    private static final WalletCreateRequest DEFAULT_WALLET = WalletCreateRequest.builder()
+        .type(WalletType.PERSONAL)
+        .name("MAIN")
+        .metadata(Map.of())
+        .setAsDefaultReceive(true)
+        .build();
+
+    private final WalletProvisioningRepository provisioningRepo;
+    private final IdempotencyService idem;
+    private final WalletMapper mapper;
+    private final ObjectMapper om;
+    private final ApplicationEventPublisher appEvents;
+    private final LimitsDefaultsProperties limitsDefaults;
+    private final String requestHash;
+
+    public DefaultWalletProvisioner(
+        WalletProvisioningRepository provisioningRepo,
+        IdempotencyService idem,
+        WalletMapper mapper,
+        ObjectMapper om,
+        ApplicationEventPublisher appEvents,
+        LimitsDefaultsProperties limitsDefaults
+    ) {
+        this.provisioningRepo = provisioningRepo;
+        this.idem = idem;
+        this.mapper = mapper;
+        this.om = om;
+        this.appEvents = appEvents;
+        this.limitsDefaults = limitsDefaults;
+        // Same canonical form the single-wallet path hashes, so replays through it match these records
+        try {
+            this.requestHash = HashUtil.sha256Hex(om.writer().withDefaultPrettyPrinter().writeValueAsString(DEFAULT_WALLET));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize default wallet request", e);
+        }
+    }
+
+    private static String idempotencyKey(UUID userId) {
+        return IDEMPOTENCY_KEY_PREFIX + userId;
+    }
+
+    /**
+     * @return wallets created by this call; users that already had their default wallet are skipped
+     */
+    @Transactional
+    public List<ProvisionedWallet> provision(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+
+        var wallets = provisioningRepo.insertDefaultWallets(
+            userIds, DEFAULT_WALLET.getName(), IDEMPOTENCY_SCOPE, IDEMPOTENCY_KEY_PREFIX);
+        if (wallets.isEmpty()) {
+            return wallets;
+        }
+
+        provisioningRepo.insertDefaultLimits(wallets.stream().map(ProvisionedWallet::userId).toList(), limitsDefaults);
+        provisioningRepo.projectDefaultWallets(wallets.stream().map(ProvisionedWallet::walletId).toList());
+
+        var responses = new LinkedHashMap<String, String>();
+        for (var wallet : wallets) {
+            responses.put(idempotencyKey(wallet.userId()), toResponseJson(wallet));
+        }
+        idem.completeAll(IDEMPOTENCY_SCOPE, requestHash, HttpStatus.CREATED.value(), responses);
+
+        appEvents.publishEvent(DomainEvents.DefaultWalletsProvisioned.builder()
+            .wallets(wallets.stream().map(DefaultWalletProvisioner::toCreatedEvent).toList())
+            .build());
+        log.info("Provisioned {} default wallets for {} users", wallets.size(), userIds.size());
+        return wallets;
+    }
+
+    private String toResponseJson(ProvisionedWallet wallet) {
+        var entity = Wallet.builder()
+            .id(wallet.walletId())
+            .userId(wallet.userId())
+            .currency(wallet.currency())
+            .status(wallet.status())
+            .type(wallet.type())
+            .name(wallet.name())
+            .balanceSnapshot(wallet.balanceSnapshot())
+            .metadata(Map.of())
+            .createdAt(wallet.createdAt())
+            .updatedAt(wallet.updatedAt())
+            .build();
+        try {
+            return om.writeValueAsString(mapper.toDetailResponseFromWalletEntity(entity, Map.of(), true));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize wallet response", e);
+        }
+    }
+
+    private static DomainEvents.WalletCreated toCreatedEvent(ProvisionedWallet wallet) {
+        return DomainEvents.WalletCreated.builder()
+            .walletId(wallet.walletId())
+            .userId(wallet.userId())
+            .type(wallet.type())
+            .status(wallet.status())
+            .currency(wallet.currency())
+            .name(wallet.name())
+            .balanceSnapshot(wallet.balanceSnapshot())
+            .defaultForUser(true)
+            .createdAt(wallet.createdAt())
+            .updatedAt(wallet.updatedAt())
+            .build();
+    }
+}
@@ -72,6 +72,7 @@ public class WalletReadModelProjector {
         if (event.isDefaultForUser()) {
             markAsDefaultReceive(event.getUserId(), event.getWalletId());
         }
+        refreshUserWalletList(event.getWalletId());
 
         log.info("Successfully completed projection for new wallet: walletId={}", event.getWalletId());
     }
@@ -95,6 +96,7 @@ public class WalletReadModelProjector {
         idx.setWalletType(event.getType());
         idx.setUpdatedAt(OffsetDateTime.now());
         userWalletReadRepo.save(idx);
+        refreshUserWalletList(event.getWalletId());
     }
 
     @Transactional
@@ -198,12 +200,24 @@ public class WalletReadModelProjector {
                 wr.setDefaultForUser(false);
                 walletReadRepo.save(wr);
             });
+            refreshUserWalletList(oldDefault);
         }
 
         WalletRead newWr = walletReadRepo.findById(newDefaultWalletId)
                 .orElseThrow(() -> new IllegalStateException("WalletRead data is inconsistent"));
         newWr.setDefaultForUser(true);
         walletReadRepo.save(newWr);
+        refreshUserWalletList(newDefaultWalletId);
+    }
+
+    /**
+     * Copies name, type, status, default flag and member role from wallet_read.wallets into every
+     * user_wallets row of the wallet. The balance is not copied; the list joins it in. sort_at is
+     * set once when the row is inserted and never refreshed, so list order and cursors stay stable.
+     */
+    @Transactional
+    public void refreshUserWalletList(UUID walletId) {
+        userWalletReadRepo.refreshFromWalletRead(walletId);
     }
 
     private void syncMirrorFields(Wallet wl, WalletRead read, boolean isNew) {
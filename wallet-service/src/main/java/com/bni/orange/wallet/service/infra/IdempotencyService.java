@@ -1,10 +1,17 @@
 package com.bni.orange.wallet.service.infra;
 
+import java.util.Map;
 import java.util.Optional;
 
 public interface IdempotencyService {
 
   Optional<String> begin(String scope, String key, String requestHash);
-  void complete(String scope, String key, int httpStatus, String responseJson);
+  void complete(String scope, String key, String requestHash, int httpStatus, String responseJson);
   void fail(String scope, String key);
+
+  /**
+   * Records many completed requests sharing one scope and request payload, e.g. work done in bulk on
+   * behalf of keys that never went through {@link #begin}.
+   */
+  void completeAll(String scope, String requestHash, int httpStatus, Map<String, String> responseJsonByKey);
 }
@@ -0,0 +1,53 @@
+package com.bni.orange.wallet.service.infra.impl;
+
+import com.bni.orange.wallet.repository.infra.IdempotencyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes expired idempotency records in small batches, each in its own short transaction,
+ * so the purge never holds long locks on infra.idempotency.
+ */
+@Slf4j
+@Component
+public class IdempotencyPurgeJob {
+
+  private final IdempotencyRepository repo;
+  private final TransactionTemplate tx;
+
+  @Value("${app.idempotency.purge.batch-size:1000}")
+  private int batchSize;
+
+  @Value("${app.idempotency.purge.max-batches:100}")
+  private int maxBatches;
+
+  public IdempotencyPurgeJob(IdempotencyRepository repo, TransactionTemplate tx) {
+    this.repo = repo;
+    this.tx = tx;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.idempotency.purge.interval-ms:600000}",
+      initialDelayString = "${app.idempotency.purge.initial-delay-ms:120000}"
+  )
+  public void purgeExpired() {
+    long total = 0;
+    try {
+      for (int i = 0; i < maxBatches; i++) {
+        Integer deleted = tx.execute(status -> repo.deleteExpiredBatch(batchSize));
+        if (deleted == null || deleted == 0) break;
+        total += deleted;
+        if (deleted < batchSize) break;
+      }
+    } catch (Exception e) {
+      log.error("Idempotency purge failed after deleting {} rows", total, e);
+      return;
+    }
+    if (total > 0) {
+      log.info("Purged {} expired idempotency records", total);
+    }
+  }
+}
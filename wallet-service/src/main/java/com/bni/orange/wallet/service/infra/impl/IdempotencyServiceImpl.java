@@ -5,24 +5,137 @@ import com.bni.orange.wallet.model.entity.infra.Idempotency;
 import com.bni.orange.wallet.model.enums.IdemStatus;
 import com.bni.orange.wallet.repository.infra.IdempotencyRepository;
 import com.bni.orange.wallet.service.infra.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Redis holds the hot in-flight/completed state (one atomic call per begin); Postgres keeps the
+ * durable completed record, is checked whenever Redis has no entry for a key, and serves as the
+ * fallback whenever Redis is unreachable.
+ */
+@Slf4j
 @Service
 public class IdempotencyServiceImpl implements IdempotencyService {
 
+  private static final String KEY_FMT = "idem:%s:%s";
+
+  // Returns the existing state, or nil after storing ARGV[1] with TTL ARGV[2] seconds
+  private static final DefaultRedisScript<String> BEGIN_SCRIPT = new DefaultRedisScript<>("""
+      local existing = redis.call('GET', KEYS[1])
+      if existing then return existing end
+      redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2])
+      return nil
+      """, String.class);
+
+  record IdemState(IdemStatus status, String requestHash, Integer responseStatus, String responseBody) {}
+
   private final IdempotencyRepository repo;
+  private final StringRedisTemplate redis;
+  private final ObjectMapper om;
+
+  @Value("${app.idempotency.ttl-hours:72}")
+  private long ttlHours;
+
+  @Value("${app.idempotency.processing-ttl-seconds:300}")
+  private long processingTtlSeconds;
 
-  public IdempotencyServiceImpl(IdempotencyRepository repo) {
+  public IdempotencyServiceImpl(IdempotencyRepository repo, StringRedisTemplate redis, ObjectMapper om) {
     this.repo = repo;
+    this.redis = redis;
+    this.om = om;
   }
 
   @Override
   @Transactional
   public Optional<String> begin(String scope, String key, String requestHash) {
+    String raw;
+    try {
+      var processing = toJson(new IdemState(IdemStatus.PROCESSING, requestHash, null, null));
+      raw = redis.execute(BEGIN_SCRIPT, List.of(redisKey(scope, key)), processing, String.valueOf(processingTtlSeconds));
+    } catch (DataAccessException e) {
+      log.warn("Redis unavailable for idempotency begin, using database: scope={}, key={}", scope, key, e);
+      return beginDurable(scope, key, requestHash);
+    }
+    if (raw == null) {
+      return resumeDurable(scope, key, requestHash);
+    }
+
+    var state = fromJson(raw);
+    if (!state.requestHash().equals(requestHash)) {
+      throw new IdempotencyKeyConflictException("Idempotency-Key reused with different payload");
+    }
+    return switch (state.status()) {
+      case COMPLETED -> Optional.ofNullable(state.responseBody());
+      case PROCESSING -> throw new IdempotencyKeyConflictException("Request with the same Idempotency-Key is still processing");
+      case FAILED -> {
+        redis.delete(redisKey(scope, key));
+        yield begin(scope, key, requestHash);
+      }
+    };
+  }
+
+  @Override
+  @Transactional
+  public void complete(String scope, String key, String requestHash, int httpStatus, String responseJson) {
+    repo.upsertCompleted(scope, key, requestHash, httpStatus, responseJson, OffsetDateTime.now().plusHours(ttlHours));
+    var completed = toJson(new IdemState(IdemStatus.COMPLETED, requestHash, httpStatus, responseJson));
+    afterCompletion(
+        () -> redisQuietly(() -> redis.opsForValue().set(redisKey(scope, key), completed, Duration.ofHours(ttlHours))),
+        () -> redisQuietly(() -> redis.delete(redisKey(scope, key)))
+    );
+  }
+
+  @Override
+  @Transactional
+  public void fail(String scope, String key) {
+    repo.findByScopeAndIdemKey(scope, key).ifPresent(idem -> {
+      idem.setStatus(IdemStatus.FAILED);
+      repo.save(idem);
+    });
+    redisQuietly(() -> redis.delete(redisKey(scope, key)));
+  }
+
+  @Override
+  @Transactional
+  public void completeAll(String scope, String requestHash, int httpStatus, Map<String, String> responseJsonByKey) {
+    if (responseJsonByKey.isEmpty()) {
+      return;
+    }
+    var keys = List.copyOf(responseJsonByKey.keySet());
+    var bodies = keys.stream().map(responseJsonByKey::get).toList();
+    repo.upsertCompletedAll(scope, keys, requestHash, httpStatus, bodies, OffsetDateTime.now().plusHours(ttlHours));
+
+    var ttlSeconds = Duration.ofHours(ttlHours).toSeconds();
+    afterCompletion(
+        () -> redisQuietly(() -> redis.executePipelined((RedisCallback<Object>) connection -> {
+          var stringConnection = (StringRedisConnection) connection;
+          responseJsonByKey.forEach((key, body) -> stringConnection.setEx(
+              redisKey(scope, key), ttlSeconds,
+              toJson(new IdemState(IdemStatus.COMPLETED, requestHash, httpStatus, body))));
+          return null;
+        })),
+        () -> {}
+    );
+  }
+
+  private Optional<String> beginDurable(String scope, String key, String requestHash) {
     var existed = repo.findByScopeAndIdemKey(scope, key);
     if (existed.isEmpty()) {
       var idem = Idempotency.builder()
@@ -31,13 +144,18 @@ public class IdempotencyServiceImpl implements IdempotencyService {
           .requestHash(requestHash)
           .status(IdemStatus.PROCESSING)
           .createdAt(OffsetDateTime.now())
-          .expiresAt(OffsetDateTime.now().plusHours(72))
+          .expiresAt(OffsetDateTime.now().plusHours(ttlHours))
           .build();
       repo.save(idem);
       return Optional.empty();
     }
 
     var idem = existed.get();
+    if (idem.getExpiresAt().isBefore(OffsetDateTime.now())) {
+      // Expired but not yet purged: the key is free again, whatever it was used for before
+      restart(idem, requestHash);
+      return Optional.empty();
+    }
     if (!idem.getRequestHash().equals(requestHash)) {
       throw new IdempotencyKeyConflictException("Idempotency-Key reused with different payload");
     }
@@ -46,31 +164,91 @@ public class IdempotencyServiceImpl implements IdempotencyService {
       case COMPLETED -> Optional.ofNullable(idem.getResponseBody()).map(Object::toString);
       case PROCESSING -> throw new IdempotencyKeyConflictException("Request with the same Idempotency-Key is still processing");
       case FAILED -> {
-        idem.setStatus(IdemStatus.PROCESSING);
-        idem.setCreatedAt(OffsetDateTime.now());
-        repo.save(idem);
+        restart(idem, requestHash);
         yield Optional.empty();
       }
     };
   }
-@Override
-@Transactional
-public void complete(String scope, String key, int httpStatus, String responseJson) {
-    var idem = repo.findByScopeAndIdemKey(scope, key)
-        .orElseThrow(() -> new IllegalStateException("Idempotency record not found"));
-    idem.setResponseStatus(httpStatus);
-    idem.setResponseBody(responseJson);
-    idem.setStatus(IdemStatus.COMPLETED);
-    idem.setCompletedAt(OffsetDateTime.now());
+
+  private void restart(Idempotency idem, String requestHash) {
+    idem.setRequestHash(requestHash);
+    idem.setStatus(IdemStatus.PROCESSING);
+    idem.setResponseStatus(null);
+    idem.setResponseBody(null);
+    idem.setCreatedAt(OffsetDateTime.now());
+    idem.setCompletedAt(null);
+    idem.setExpiresAt(OffsetDateTime.now().plusHours(ttlHours));
     repo.save(idem);
-}
+  }
 
-  @Override
-  @Transactional
-  public void fail(String scope, String key) {
-    repo.findByScopeAndIdemKey(scope, key).ifPresent(idem -> {
-      idem.setStatus(IdemStatus.FAILED);
-      repo.save(idem);
+  /**
+   * A Redis miss is not proof the key is new: the entry may have been evicted, flushed or lost in a
+   * failover, or the key may have been begun while Redis was down. Redis already holds our PROCESSING
+   * marker at this point, so only the durable row decides.
+   */
+  private Optional<String> resumeDurable(String scope, String key, String requestHash) {
+    var existed = repo.findByScopeAndIdemKey(scope, key);
+    var remaining = existed.map(row -> Duration.between(OffsetDateTime.now(), row.getExpiresAt())).orElse(Duration.ZERO);
+    if (existed.isEmpty() || existed.get().getStatus() == IdemStatus.FAILED || !remaining.isPositive()) {
+      return Optional.empty();
+    }
+
+    var idem = existed.get();
+    if (!idem.getRequestHash().equals(requestHash)) {
+      // Drop our marker so a retry with the original payload is not rejected for the wrong reason
+      redisQuietly(() -> redis.delete(redisKey(scope, key)));
+      throw new IdempotencyKeyConflictException("Idempotency-Key reused with different payload");
+    }
+    if (idem.getStatus() == IdemStatus.PROCESSING) {
+      throw new IdempotencyKeyConflictException("Request with the same Idempotency-Key is still processing");
+    }
+
+    var body = Optional.ofNullable(idem.getResponseBody()).map(Object::toString);
+    var completed = toJson(new IdemState(IdemStatus.COMPLETED, requestHash, idem.getResponseStatus(), body.orElse(null)));
+    // Seed Redis so later retries of this key are answered without the database
+    redisQuietly(() -> redis.opsForValue().set(redisKey(scope, key), completed, remaining));
+    return body;
+  }
+
+  private void afterCompletion(Runnable onCommit, Runnable onRollback) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      onCommit.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status == STATUS_COMMITTED) onCommit.run();
+        else onRollback.run();
+      }
     });
   }
+
+  private void redisQuietly(Runnable op) {
+    try {
+      op.run();
+    } catch (DataAccessException e) {
+      log.warn("Redis idempotency update failed, database record remains authoritative", e);
+    }
+  }
+
+  private static String redisKey(String scope, String key) {
+    return KEY_FMT.formatted(scope, key);
+  }
+
+  private String toJson(IdemState state) {
+    try {
+      return om.writeValueAsString(state);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize idempotency state", e);
+    }
+  }
+
+  private IdemState fromJson(String raw) {
+    try {
+      return om.readValue(raw, IdemState.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Corrupted idempotency state in Redis", e);
+    }
+  }
 }
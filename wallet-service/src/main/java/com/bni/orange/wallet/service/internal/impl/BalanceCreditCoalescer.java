@@ -0,0 +1,199 @@
+package com.bni.orange.wallet.service.internal.impl;
+
+import com.bni.orange.wallet.domain.DomainEvents;
+import com.bni.orange.wallet.model.enums.WalletStatus;
+import com.bni.orange.wallet.model.request.internal.BalanceUpdateRequest;
+import com.bni.orange.wallet.model.response.internal.BalanceUpdateResponse;
+import com.bni.orange.wallet.repository.WalletInternalRepository;
+import com.bni.orange.wallet.repository.read.WalletReadRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Merges concurrent credits to the same wallet into a single locked increment.
+ * The first caller for a wallet opens a batch, waits at most {@code window-ms} (or until the batch is full),
+ * then applies the summed delta in one transaction and hands every caller its own before/after balance.
+ */
+@Slf4j
+@Component
+public class BalanceCreditCoalescer {
+
+  private final WalletInternalRepository walletRepo;
+  private final WalletReadRepository walletReadRepo;
+  private final TransactionTemplate tx;
+  private final ApplicationEventPublisher appEvents;
+  private final ConcurrentHashMap<UUID, Batch> open = new ConcurrentHashMap<>();
+
+  private final long windowNanos;
+  private final long resultTimeoutNanos;
+  private final int maxBatchSize;
+
+  private final DistributionSummary batchSize;
+  private final Timer waitTimer;
+
+  public BalanceCreditCoalescer(
+      WalletInternalRepository walletRepo,
+      WalletReadRepository walletReadRepo,
+      TransactionTemplate transactionTemplate,
+      ApplicationEventPublisher appEvents,
+      MeterRegistry meterRegistry,
+      @Value("${app.balance-coalescer.window-ms:5}") long windowMs,
+      @Value("${app.balance-coalescer.max-batch-size:64}") int maxBatchSize,
+      @Value("${app.balance-coalescer.tx-timeout-seconds:5}") int txTimeoutSeconds
+  ) {
+    this.walletRepo = walletRepo;
+    this.walletReadRepo = walletReadRepo;
+    this.tx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+    this.tx.setTimeout(txTimeoutSeconds);
+    this.appEvents = appEvents;
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    // Past the batch window plus the transaction timeout the leader's transaction has been rolled back
+    this.resultTimeoutNanos = windowNanos + TimeUnit.SECONDS.toNanos(txTimeoutSeconds + 1L);
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.batchSize = DistributionSummary.builder("wallet.balance.credit.batch.size")
+        .description("Number of credit requests merged into one balance update")
+        .register(meterRegistry);
+    this.waitTimer = Timer.builder("wallet.balance.credit.wait")
+        .description("Time a credit request waits for its coalesced batch to commit")
+        .register(meterRegistry);
+  }
+
+  public BalanceUpdateResponse credit(BalanceUpdateRequest req) {
+    var pending = new Pending(req, new CompletableFuture<>());
+    long start = System.nanoTime();
+
+    Batch batch;
+    boolean leader;
+    while (true) {
+      batch = open.computeIfAbsent(req.walletId(), id -> new Batch());
+      int position = batch.add(pending, maxBatchSize);
+      if (position >= 0) {
+        leader = position == 0;
+        break;
+      }
+      open.remove(req.walletId(), batch);
+    }
+
+    if (leader) {
+      var members = batch.awaitAndClose(windowNanos, maxBatchSize);
+      open.remove(req.walletId(), batch);
+      flush(req.walletId(), members);
+    }
+
+    try {
+      return pending.result().get(resultTimeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) throw re;
+      if (e.getCause() instanceof Error err) throw err;
+      throw new IllegalStateException(e.getCause());
+    } catch (TimeoutException e) {
+      throw new IllegalStateException("Coalesced credit timed out for wallet " + req.walletId(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted waiting for coalesced credit on wallet " + req.walletId(), e);
+    } finally {
+      waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void flush(UUID walletId, List<Pending> members) {
+    batchSize.record(members.size());
+    try {
+      var results = tx.execute(status -> apply(walletId, members));
+      for (int i = 0; i < members.size(); i++) {
+        members.get(i).result().complete(results.get(i));
+      }
+    } catch (RuntimeException e) {
+      log.error("Coalesced credit failed: walletId={}, batchSize={}", walletId, members.size(), e);
+      members.forEach(m -> m.result().completeExceptionally(e));
+    } finally {
+      // An Error from the transaction must not leave followers waiting; a no-op for futures already completed
+      var aborted = new IllegalStateException("Coalesced credit aborted for wallet " + walletId);
+      members.forEach(m -> m.result().completeExceptionally(aborted));
+    }
+  }
+
+  private List<BalanceUpdateResponse> apply(UUID walletId, List<Pending> members) {
+    var results = new ArrayList<BalanceUpdateResponse>(members.size());
+    var vw = walletRepo.lockForUpdate(walletId).orElse(null);
+    if (vw == null) {
+      members.forEach(m -> results.add(
+          new BalanceUpdateResponse(walletId, null, null, "WALLET_NOT_FOUND", "Wallet tidak ditemukan")));
+      return results;
+    }
+    if (vw.status() != WalletStatus.ACTIVE) {
+      members.forEach(m -> results.add(new BalanceUpdateResponse(walletId, vw.balanceSnapshot(), vw.balanceSnapshot(),
+          "WALLET_NOT_ACTIVE", "Wallet tidak dalam status ACTIVE")));
+      return results;
+    }
+
+    var total = members.stream()
+        .map(m -> m.request().delta())
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    var after = walletRepo.incrementBalanceAtomically(walletId, total)
+        .orElseThrow(() -> new IllegalStateException("Coalesced credit rejected for wallet " + walletId));
+    walletReadRepo.upsertBalanceSnapshot(walletId, after);
+    appEvents.publishEvent(DomainEvents.WalletBalanceChanged.builder()
+        .walletId(walletId)
+        .previousBalance(after.subtract(total))
+        .newBalance(after)
+        .delta(total)
+        .occurredAt(OffsetDateTime.now())
+        .build());
+
+    // Balance before this batch, derived from the locked result so each caller sees a consistent sequence
+    var running = after.subtract(total);
+    for (var m : members) {
+      var previous = running;
+      running = running.add(m.request().delta());
+      results.add(new BalanceUpdateResponse(walletId, previous, running, "OK", "Saldo diperbarui"));
+    }
+    return results;
+  }
+
+  private record Pending(BalanceUpdateRequest request, CompletableFuture<BalanceUpdateResponse> result) {}
+
+  private static final class Batch {
+    private final List<Pending> members = new ArrayList<>();
+    private boolean closed;
+
+    synchronized int add(Pending p, int max) {
+      if (closed || members.size() >= max) return -1;
+      members.add(p);
+      if (members.size() >= max) notifyAll();
+      return members.size() - 1;
+    }
+
+    synchronized List<Pending> awaitAndClose(long windowNanos, int max) {
+      long deadline = System.nanoTime() + windowNanos;
+      long remaining;
+      while (members.size() < max && (remaining = deadline - System.nanoTime()) > 0) {
+        try {
+          TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+      closed = true;
+      return List.copyOf(members);
+    }
+  }
+}
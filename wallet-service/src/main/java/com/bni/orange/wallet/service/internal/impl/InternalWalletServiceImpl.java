@@ -1,5 +1,6 @@
 package com.bni.orange.wallet.service.internal.impl;
 
+import com.bni.orange.wallet.domain.DomainEvents;
 import com.bni.orange.wallet.model.enums.InternalAction;
 import com.bni.orange.wallet.model.enums.PeriodType;
 import com.bni.orange.wallet.model.enums.TransferType;
@@ -19,14 +20,17 @@ import com.bni.orange.wallet.repository.UserReceivePrefsRepository;
 import com.bni.orange.wallet.repository.WalletInternalRepository;
 import com.bni.orange.wallet.repository.WalletMemberInternalRepository;
 import com.bni.orange.wallet.repository.WalletMemberRepository;
-import com.bni.orange.wallet.repository.WalletPolicyInternalRepository;
 import com.bni.orange.wallet.repository.read.UserLimitsReadRepository;
 import com.bni.orange.wallet.repository.read.WalletReadRepository;
 import com.bni.orange.wallet.service.command.LimitCounterService;
 import com.bni.orange.wallet.service.internal.InternalWalletService;
+import com.bni.orange.wallet.service.policy.WalletPolicyEngine;
 import com.bni.orange.wallet.utils.limits.LimitBuckets;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -39,32 +43,41 @@ public class InternalWalletServiceImpl implements InternalWalletService {
 
   private final WalletInternalRepository walletRepo;
   private final WalletMemberInternalRepository memberRepo;
-  private final WalletPolicyInternalRepository policyRepo;
+  private final WalletPolicyEngine policyEngine;
   private final WalletReadRepository walletReadRepo;
   private final UserReceivePrefsRepository userReceivePrefsRepo;
   private final WalletMemberRepository walletMemberRepo;
   public record PolicyCheckResult(boolean allowed, String currency) {}
   private final UserLimitsReadRepository userLimitsReadRepo;
   private final LimitCounterService limitCounterService;
+  private final BalanceCreditCoalescer creditCoalescer;
+  private final TransactionTemplate txTemplate;
+  private final ApplicationEventPublisher appEvents;
 
   public InternalWalletServiceImpl(
       WalletInternalRepository walletRepo,
       WalletMemberInternalRepository memberRepo,
-      WalletPolicyInternalRepository policyRepo,
+      WalletPolicyEngine policyEngine,
       WalletReadRepository walletReadRepo,
       UserLimitsReadRepository userLimitsReadRepo,
       LimitCounterService limitCounterService,
       UserReceivePrefsRepository userReceivePrefsRepo,
-      WalletMemberRepository walletMemberRepo
+      WalletMemberRepository walletMemberRepo,
+      BalanceCreditCoalescer creditCoalescer,
+      TransactionTemplate txTemplate,
+      ApplicationEventPublisher appEvents
       ) {
     this.walletRepo = walletRepo;
     this.memberRepo = memberRepo;
-    this.policyRepo = policyRepo;
+    this.policyEngine = policyEngine;
     this.walletReadRepo=walletReadRepo;
     this.userLimitsReadRepo = userLimitsReadRepo;
     this.limitCounterService = limitCounterService;
     this.userReceivePrefsRepo = userReceivePrefsRepo;
     this.walletMemberRepo = walletMemberRepo;
+    this.creditCoalescer = creditCoalescer;
+    this.txTemplate = txTemplate;
+    this.appEvents = appEvents;
   }
 
   @Override
@@ -127,8 +140,15 @@ public class InternalWalletServiceImpl implements InternalWalletService {
   }
 
   @Override
-  @Transactional
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public BalanceUpdateResponse updateBalance(BalanceUpdateRequest req) {
+    if (req.delta().compareTo(BigDecimal.ZERO) > 0) {
+      return creditCoalescer.credit(req);
+    }
+    return txTemplate.execute(status -> applyBalanceUpdate(req));
+  }
+
+  private BalanceUpdateResponse applyBalanceUpdate(BalanceUpdateRequest req) {
     var vw = walletRepo.lockForUpdate(req.walletId()).orElse(null);
     if (vw == null) {
       return new BalanceUpdateResponse(req.walletId(), null, null, "WALLET_NOT_FOUND", "Wallet tidak ditemukan");
@@ -184,6 +204,13 @@ public class InternalWalletServiceImpl implements InternalWalletService {
           "NEGATIVE_NOT_ALLOWED", "Perubahan saldo ditolak karena akan membuat saldo negatif");
     }
     walletReadRepo.upsertBalanceSnapshot(req.walletId(), after.get());
+    appEvents.publishEvent(DomainEvents.WalletBalanceChanged.builder()
+        .walletId(req.walletId())
+        .previousBalance(vw.balanceSnapshot())
+        .newBalance(after.get())
+        .delta(req.delta())
+        .occurredAt(java.time.OffsetDateTime.now())
+        .build());
     if (req.delta().compareTo(BigDecimal.ZERO) < 0) {
       long amt = req.delta().abs().setScale(0, RoundingMode.DOWN).longValueExact();
       var now = java.time.OffsetDateTime.now();
@@ -200,7 +227,7 @@ public class InternalWalletServiceImpl implements InternalWalletService {
 
   @Override
   public RoleValidateResponse validateRole(RoleValidateRequest req) {
-    var mv = memberRepo.viewRoleAndStatus(req.walletId(), req.userId()).orElse(null);
+    var mv = memberRepo.viewForPolicyCheck(req.walletId(), req.userId()).orElse(null);
     if (mv == null) {
       return new RoleValidateResponse(false, "NOT_MEMBER", "User bukan member wallet", null, Map.of());
     }
@@ -209,15 +236,14 @@ public class InternalWalletServiceImpl implements InternalWalletService {
           mv.role(), Map.of("memberStatus", mv.status()));
     }
 
+    var policy = policyEngine.snapshot();
     boolean allowed;
     String code = "OK";
     String message = "Valid";
-    String currency = null;
+    String currency = mv.currency();
 
   if (req.action() == InternalAction.DEBIT) {
-      var res = policyRepo.isDebitRoleAllowed(req.walletId(), mv.role());
-      allowed = res.allowed();
-      currency = res.currency();
+      allowed = policy.isDebitRoleAllowed(mv.walletType(), mv.role());
       if (!allowed) {
           code = "ROLE_NOT_ALLOWED";
           message = "Role tidak diizinkan melakukan DEBIT";
@@ -225,12 +251,8 @@ public class InternalWalletServiceImpl implements InternalWalletService {
   } else if (req.action() == InternalAction.CREDIT) {
       if (req.transferType() == TransferType.INTERNAL) {
           allowed = true; // Always allow internal transfers to credit any wallet type
-          var res = policyRepo.isCreditAllowed(req.walletId());
-          currency = res.currency();
       } else {
-          var res = policyRepo.isCreditAllowed(req.walletId());
-          allowed = res.allowed();
-          currency = res.currency();
+          allowed = policy.isCreditAllowed(mv.walletType());
           if (!allowed) {
               code = "CREDIT_DISABLED";
               message = "Wallet type does not allow external credits";
@@ -247,7 +269,7 @@ public class InternalWalletServiceImpl implements InternalWalletService {
   }
 
     if (allowed && req.action() == InternalAction.DEBIT && req.amount() != null) {
-      long perTx = memberRepo.findPerTxLimit(req.walletId(), req.userId());
+      long perTx = mv.perTxLimitRp();
       if (perTx > 0) {
           long rupiah = req.amount().setScale(0, java.math.RoundingMode.DOWN).longValue();
           if (rupiah > perTx) {
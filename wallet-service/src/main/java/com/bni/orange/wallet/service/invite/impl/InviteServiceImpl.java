@@ -471,6 +471,7 @@ public class InviteServiceImpl implements InviteService {
       wr.setUpdatedAt(OffsetDateTime.now());
       walletReadRepo.save(wr);
     });
+    userWalletReadRepo.refreshFromWalletRead(m.getWalletId());
   }
   private void upsertUserWalletRead(WalletMember m) {
     var wrOpt = walletReadRepo.findById(m.getWalletId());
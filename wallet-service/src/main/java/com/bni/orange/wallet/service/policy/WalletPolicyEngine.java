@@ -0,0 +1,89 @@
+package com.bni.orange.wallet.service.policy;
+
+import com.bni.orange.wallet.model.enums.WalletType;
+import com.bni.orange.wallet.repository.WalletPolicyInternalRepository;
+import com.bni.orange.wallet.service.policy.WalletPolicySnapshot.TypePolicy;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WalletPolicyEngine {
+
+  private final WalletPolicyInternalRepository policyRepo;
+  private final ObjectMapper objectMapper;
+
+  private final AtomicReference<WalletPolicySnapshot> current =
+      new AtomicReference<>(WalletPolicySnapshot.empty());
+
+  public WalletPolicySnapshot snapshot() {
+    var s = current.get();
+    if (s.isEmpty()) {
+      return refresh();
+    }
+    return s;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    refresh();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.wallet-policy.refresh-interval-ms:30000}",
+      initialDelayString = "${app.wallet-policy.refresh-interval-ms:30000}"
+  )
+  public void pollForChanges() {
+    try {
+      var latest = policyRepo.currentVersion();
+      if (!Objects.equals(latest, current.get().version())) {
+        log.info("Wallet policy version changed: {} -> {}", current.get().version(), latest);
+        refresh();
+      }
+    } catch (Exception e) {
+      log.warn("Wallet policy version check failed, keeping current snapshot: {}", e.getMessage());
+    }
+  }
+
+  public synchronized WalletPolicySnapshot refresh() {
+    var version = policyRepo.currentVersion();
+    var rows = policyRepo.findAllPolicies();
+
+    Map<WalletType, TypePolicy> policies = new EnumMap<>(WalletType.class);
+    for (var row : rows) {
+      policies.put(
+          WalletType.valueOf(row.type()),
+          new TypePolicy(row.allowExternalCredit(), row.maxMembers(), parseRoles(row.allowMemberDebitRoles()))
+      );
+    }
+
+    var next = new WalletPolicySnapshot(policies, version);
+    current.set(next);
+    log.info("Wallet policy snapshot loaded: types={}, version={}", policies.keySet(), version);
+    return next;
+  }
+
+  private Set<String> parseRoles(String json) {
+    if (json == null || json.isBlank()) return Set.of();
+    try {
+      return Set.copyOf(objectMapper.readValue(json, new TypeReference<List<String>>() {}));
+    } catch (Exception e) {
+      log.warn("Invalid allow_member_debit_roles value '{}', treating as empty", json);
+      return Set.of();
+    }
+  }
+}
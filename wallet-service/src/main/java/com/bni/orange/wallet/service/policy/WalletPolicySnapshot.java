@@ -0,0 +1,55 @@
+package com.bni.orange.wallet.service.policy;
+
+import com.bni.orange.wallet.model.enums.WalletType;
+import com.bni.orange.wallet.repository.WalletPolicyInternalRepository.PolicyVersion;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of every wallet_type_policy row. A new instance is built on each reload and
+ * swapped in whole, so readers never observe a half-updated policy set.
+ */
+public final class WalletPolicySnapshot {
+
+  public record TypePolicy(boolean allowExternalCredit, int maxMembers, Set<String> debitRoles) {
+    public TypePolicy {
+      debitRoles = Set.copyOf(debitRoles);
+    }
+  }
+
+  private static final WalletPolicySnapshot EMPTY = new WalletPolicySnapshot(Map.of(), new PolicyVersion(0L, null));
+
+  private final Map<WalletType, TypePolicy> policies;
+  private final PolicyVersion version;
+
+  public WalletPolicySnapshot(Map<WalletType, TypePolicy> policies, PolicyVersion version) {
+    var copy = new EnumMap<WalletType, TypePolicy>(WalletType.class);
+    copy.putAll(policies);
+    this.policies = copy;
+    this.version = version;
+  }
+
+  public static WalletPolicySnapshot empty() {
+    return EMPTY;
+  }
+
+  public PolicyVersion version() {
+    return version;
+  }
+
+  public boolean isEmpty() {
+    return policies.isEmpty();
+  }
+
+  public boolean isCreditAllowed(WalletType type) {
+    var p = policies.get(type);
+    return p != null && p.allowExternalCredit();
+  }
+
+  public boolean isDebitRoleAllowed(WalletType type, String role) {
+    var p = policies.get(type);
+    return p != null && role != null && p.debitRoles().contains(role);
+  }
+}
@@ -4,11 +4,15 @@ import com.bni.orange.wallet.model.response.BalanceResponse;
 import com.bni.orange.wallet.model.response.WalletDetailResponse;
 import com.bni.orange.wallet.model.response.WalletListItemResponse;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface WalletQueryService {
-  List<WalletListItemResponse> listMyWallets(int page, int size);
+  List<WalletListItemResponse> listMyWallets(int page, int size, OffsetDateTime cursorSortAt, UUID cursorId);
   WalletDetailResponse getWalletDetail(UUID walletId);
   BalanceResponse getBalance(UUID walletId);
+  SseEmitter streamBalances(List<UUID> walletIds);
 }
\ No newline at end of file
@@ -1,24 +1,29 @@
 package com.bni.orange.wallet.service.query.impl;
 
 import com.bni.orange.wallet.exception.business.ResourceNotFoundException;
-import com.bni.orange.wallet.model.entity.read.UserWalletRead;
-import com.bni.orange.wallet.model.entity.read.WalletRead;
+import com.bni.orange.wallet.messaging.stream.BalanceStreamRegistry;
+import com.bni.orange.wallet.model.enums.WalletMemberRole;
+import com.bni.orange.wallet.model.enums.WalletMemberStatus;
+import com.bni.orange.wallet.model.enums.WalletStatus;
+import com.bni.orange.wallet.model.enums.WalletType;
 import com.bni.orange.wallet.model.mapper.WalletMapper;
 import com.bni.orange.wallet.model.response.BalanceResponse;
 import com.bni.orange.wallet.model.response.WalletDetailResponse;
 import com.bni.orange.wallet.model.response.WalletListItemResponse;
+import com.bni.orange.wallet.repository.WalletMemberRepository;
 import com.bni.orange.wallet.repository.WalletRepository;
 import com.bni.orange.wallet.repository.read.UserWalletReadRepository;
 import com.bni.orange.wallet.repository.read.WalletReadRepository;
+import com.bni.orange.wallet.security.PermissionGuard;
 import com.bni.orange.wallet.service.query.WalletQueryService;
 import com.bni.orange.wallet.utils.metadata.MetadataFilter;
 import com.bni.orange.wallet.utils.security.CurrentUser;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Comparator;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,34 +36,55 @@ public class WalletQueryServiceImpl implements WalletQueryService {
   private final WalletRepository walletRepo;
   private final WalletMapper mapper;
   private final ObjectMapper om;
+  private final WalletMemberRepository walletMemberRepo;
+  private final PermissionGuard guard;
+  private final BalanceStreamRegistry balanceStreams;
 
   public WalletQueryServiceImpl(
       WalletReadRepository walletReadRepo,
       UserWalletReadRepository userWalletReadRepo,
       WalletRepository walletRepo,
       WalletMapper mapper,
-      ObjectMapper om) {
+      ObjectMapper om,
+      WalletMemberRepository walletMemberRepo,
+      PermissionGuard guard,
+      BalanceStreamRegistry balanceStreams) {
     this.walletReadRepo = walletReadRepo;
     this.userWalletReadRepo = userWalletReadRepo;
     this.walletRepo = walletRepo;
     this.mapper = mapper;
     this.om = om;
+    this.walletMemberRepo = walletMemberRepo;
+    this.guard = guard;
+    this.balanceStreams = balanceStreams;
   }
 
   @Override
-  public List<WalletListItemResponse> listMyWallets(int page, int size) {
+  public List<WalletListItemResponse> listMyWallets(int page, int size, OffsetDateTime cursorSortAt, UUID cursorId) {
     var uid = CurrentUser.userId();
-    var p = userWalletReadRepo.findByUserId(uid, PageRequest.of(page, size));
-    var walletIds = p.map(UserWalletRead::getWalletId).toList();
-    if (walletIds.isEmpty()) return List.of();
-
-    var reads = walletReadRepo.findAllById(walletIds);
-    return reads.stream()
-        .sorted(Comparator.comparing(WalletRead::getUpdatedAt).reversed())
-        .map(mapper::toListItem)
+    var rows = (cursorSortAt != null && cursorId != null)
+        ? userWalletReadRepo.findListAfter(uid, cursorSortAt, cursorId, size)
+        : userWalletReadRepo.findListPage(uid, size, Math.multiplyExact(page, size));
+    return rows.stream()
+        .map(this::toListItem)
         .toList();
   }
 
+  private WalletListItemResponse toListItem(UserWalletReadRepository.WalletListRow r) {
+    return WalletListItemResponse.builder()
+        .id(r.getWalletId())
+        .name(r.getWalletName())
+        .type(WalletType.valueOf(r.getWalletType()))
+        .status(WalletStatus.valueOf(r.getWalletStatus()))
+        .role(r.getMemberRole() == null ? null : WalletMemberRole.valueOf(r.getMemberRole()))
+        .currency(r.getCurrency())
+        .balanceSnapshot(r.getBalanceSnapshot())
+        .defaultForUser(r.getIsDefaultForUser())
+        .updatedAt(r.getUpdatedAt())
+        .sortAt(r.getSortAt())
+        .build();
+  }
+
   @Override
   public WalletDetailResponse getWalletDetail(UUID walletId) {
     var read = walletReadRepo.findById(walletId)
@@ -79,4 +105,20 @@ public class WalletQueryServiceImpl implements WalletQueryService {
         .currency(read.getCurrency())
         .build();
   }
+
+  @Override
+  public SseEmitter streamBalances(List<UUID> walletIds) {
+    var uid = CurrentUser.userId();
+    List<UUID> ids;
+    if (walletIds == null || walletIds.isEmpty()) {
+      ids = walletMemberRepo.findWalletIdsByUserIdAndStatus(uid, WalletMemberStatus.ACTIVE);
+    } else {
+      walletIds.forEach(w -> guard.assertMemberActive(w, uid));
+      ids = walletIds;
+    }
+    if (ids.isEmpty()) {
+      throw new ResourceNotFoundException("No wallets to subscribe");
+    }
+    return balanceStreams.subscribe(uid, ids);
+  }
 }
@@ -0,0 +1,23 @@
+ALTER TABLE wallet_read.user_wallets
+  ADD COLUMN IF NOT EXISTS member_role         domain.wallet_member_role,
+  ADD COLUMN IF NOT EXISTS currency            VARCHAR       NOT NULL DEFAULT 'IDR',
+  ADD COLUMN IF NOT EXISTS is_default_for_user BOOLEAN       NOT NULL DEFAULT FALSE,
+  ADD COLUMN IF NOT EXISTS sort_at             TIMESTAMPTZ   NOT NULL DEFAULT now();
+
+UPDATE wallet_read.user_wallets uw
+SET member_role         = (SELECT m.role FROM wallet_read.wallet_members m
+                           WHERE m.wallet_id = uw.wallet_id AND m.user_id = uw.user_id),
+    currency            = w.currency,
+    is_default_for_user = w.is_default_for_user,
+    sort_at             = w.created_at
+FROM wallet_read.wallets w
+WHERE w.id = uw.wallet_id;
+
+-- Keyset order for the wallet list; INCLUDE lets the list be served as an index-only scan.
+-- The balance is left out: it changes on every transaction and is read from wallet_read.wallets instead.
+CREATE INDEX IF NOT EXISTS idx_wr_user_wallets_list
+  ON wallet_read.user_wallets (user_id, sort_at DESC, wallet_id DESC)
+  INCLUDE (wallet_name, wallet_type, wallet_status, member_role, currency, is_default_for_user);
+
+COMMENT ON COLUMN wallet_read.user_wallets.sort_at IS
+'Waktu wallet masuk ke daftar user (dibuat atau bergabung); kunci urutan keyset, tidak berubah setelah diisi.';
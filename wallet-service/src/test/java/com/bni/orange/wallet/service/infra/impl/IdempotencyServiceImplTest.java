@@ -0,0 +1,143 @@
+package com.bni.orange.wallet.service.infra.impl;
+
+import com.bni.orange.wallet.model.entity.infra.Idempotency;
+import com.bni.orange.wallet.model.enums.IdemStatus;
+import com.bni.orange.wallet.repository.infra.IdempotencyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+  private static final String SCOPE = "wallet:create";
+  private static final String KEY = "key-1";
+
+  @Mock
+  private IdempotencyRepository repo;
+
+  @Mock
+  private StringRedisTemplate redis;
+
+  @Mock
+  private ValueOperations<String, String> values;
+
+  private IdempotencyServiceImpl service;
+
+  @BeforeEach
+  void setUp() {
+    service = new IdempotencyServiceImpl(repo, redis, new ObjectMapper());
+    ReflectionTestUtils.setField(service, "ttlHours", 72L);
+    ReflectionTestUtils.setField(service, "processingTtlSeconds", 300L);
+  }
+
+  @Test
+  void begin_expiredKey_shouldStartOverAndCompleteWithFreshExpiry() {
+    when(repo.findByScopeAndIdemKey(SCOPE, KEY))
+        .thenReturn(Optional.of(row(IdemStatus.COMPLETED, "old-hash", OffsetDateTime.now().minusHours(1))));
+    when(redis.opsForValue()).thenReturn(values);
+
+    assertTrue(service.begin(SCOPE, KEY, "new-hash").isEmpty());
+    service.complete(SCOPE, KEY, "new-hash", 201, "{\"id\":1}");
+
+    var expiresAt = ArgumentCaptor.forClass(OffsetDateTime.class);
+    verify(repo).upsertCompleted(eq(SCOPE), eq(KEY), eq("new-hash"), eq(201), eq("{\"id\":1}"), expiresAt.capture());
+    assertTrue(expiresAt.getValue().isAfter(OffsetDateTime.now().plusHours(71)));
+    verify(values).set(eq("idem:" + SCOPE + ":" + KEY), anyString(), eq(Duration.ofHours(72)));
+  }
+
+  @Test
+  void begin_failedKey_shouldStartOverAndCompleteWithFreshExpiry() {
+    when(repo.findByScopeAndIdemKey(SCOPE, KEY))
+        .thenReturn(Optional.of(row(IdemStatus.FAILED, "old-hash", OffsetDateTime.now().plusMinutes(5))));
+    when(redis.opsForValue()).thenReturn(values);
+
+    assertTrue(service.begin(SCOPE, KEY, "new-hash").isEmpty());
+    service.complete(SCOPE, KEY, "new-hash", 201, "{\"id\":1}");
+
+    var expiresAt = ArgumentCaptor.forClass(OffsetDateTime.class);
+    verify(repo).upsertCompleted(eq(SCOPE), eq(KEY), eq("new-hash"), eq(201), eq("{\"id\":1}"), expiresAt.capture());
+    assertTrue(expiresAt.getValue().isAfter(OffsetDateTime.now().plusHours(71)));
+  }
+
+  @Test
+  void begin_expiredKeyWithoutRedis_shouldResetDurableRow() {
+    var expired = row(IdemStatus.COMPLETED, "old-hash", OffsetDateTime.now().minusHours(1));
+    when(redis.execute(any(RedisScript.class), anyList(), any(), any())).thenThrow(new QueryTimeoutException("down"));
+    when(repo.findByScopeAndIdemKey(SCOPE, KEY)).thenReturn(Optional.of(expired));
+
+    assertTrue(service.begin(SCOPE, KEY, "new-hash").isEmpty());
+
+    verify(repo).save(expired);
+    assertEquals("new-hash", expired.getRequestHash());
+    assertEquals(IdemStatus.PROCESSING, expired.getStatus());
+    assertNull(expired.getResponseBody());
+    assertTrue(expired.getExpiresAt().isAfter(OffsetDateTime.now().plusHours(71)));
+  }
+
+  @Test
+  void begin_failedKeyWithoutRedis_shouldResetDurableRow() {
+    var failed = row(IdemStatus.FAILED, "old-hash", OffsetDateTime.now().plusMinutes(5));
+    when(redis.execute(any(RedisScript.class), anyList(), any(), any())).thenThrow(new QueryTimeoutException("down"));
+    when(repo.findByScopeAndIdemKey(SCOPE, KEY)).thenReturn(Optional.of(failed));
+
+    assertTrue(service.begin(SCOPE, KEY, "new-hash").isEmpty());
+
+    assertEquals("new-hash", failed.getRequestHash());
+    assertEquals(IdemStatus.PROCESSING, failed.getStatus());
+    assertTrue(failed.getExpiresAt().isAfter(OffsetDateTime.now().plusHours(71)));
+  }
+
+  @Test
+  void upserts_shouldReplaceRequestAndLifetimeOfReusedRow() {
+    for (var method : List.of("upsertCompleted", "upsertCompletedAll")) {
+      var sql = List.of(IdempotencyRepository.class.getMethods()).stream()
+          .filter(m -> m.getName().equals(method))
+          .findFirst().orElseThrow()
+          .getAnnotation(Query.class).value();
+
+      assertTrue(sql.contains("request_hash    = EXCLUDED.request_hash"), method);
+      assertTrue(sql.contains("created_at      = EXCLUDED.created_at"), method);
+      assertTrue(sql.contains("expires_at      = EXCLUDED.expires_at"), method);
+    }
+  }
+
+  private static Idempotency row(IdemStatus status, String requestHash, OffsetDateTime expiresAt) {
+    return Idempotency.builder()
+        .id(1L)
+        .scope(SCOPE)
+        .idemKey(KEY)
+        .requestHash(requestHash)
+        .status(status)
+        .responseStatus(status == IdemStatus.COMPLETED ? 201 : null)
+        .responseBody(status == IdemStatus.COMPLETED ? "{\"id\":0}" : null)
+        .createdAt(expiresAt.minusHours(72))
+        .expiresAt(expiresAt)
+        .build();
+  }
+}